@@ -0,0 +1,161 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
+import com.nove.sule.backend_nove_sule.event.CategoriaModificadaEvent;
+import com.nove.sule.backend_nove_sule.event.MarcaModificadaEvent;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria del catálogo público (productos, categorías y marcas activas).
+ * Guarda el DTO y su JSON serializado; se invalida después del commit
+ * de cada escritura para no volver a cargar datos aún no confirmados.
+ * Los valores se entregan tal cual están en la caché y son compartidos entre pedidos: las listas
+ * se guardan no modificables y quien los recibe no debe modificarlos. Dentro de una transacción
+ * de escritura no se guarda lo cargado, ya que podría incluir cambios que luego se reviertan.
+ */
+@Slf4j
+@Component
+public class CatalogoCache {
+
+    private static final String CLAVE_UNICA = "activas";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<Long, EntradaCache<ProductoDTO>> productosPorId;
+    private final Cache<String, EntradaCache<ProductoDTO>> productosPorCodigo;
+    private final Cache<String, EntradaCache<List<CategoriaBasicaDTO>>> categoriasActivas;
+    private final Cache<String, EntradaCache<List<MarcaBasicaDTO>>> marcasActivas;
+
+    public CatalogoCache(ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.cache.catalogo.max-size:10000}") long maxSize,
+                         @Value("${app.cache.catalogo.ttl:10m}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.productosPorId = crearCache("catalogo.productos.id", maxSize, ttl);
+        this.productosPorCodigo = crearCache("catalogo.productos.codigo", maxSize, ttl);
+        this.categoriasActivas = crearCache("catalogo.categorias.activas", 1, ttl);
+        this.marcasActivas = crearCache("catalogo.marcas.activas", 1, ttl);
+    }
+
+    public Optional<EntradaCache<ProductoDTO>> obtenerProductoPorId(Long id, Supplier<Optional<ProductoDTO>> cargador) {
+        return Optional.ofNullable(obtener(productosPorId, "catalogo.productos.id", id, () -> cargador.get().orElse(null)));
+    }
+
+    public Optional<EntradaCache<ProductoDTO>> obtenerProductoPorCodigo(String codigo, Supplier<Optional<ProductoDTO>> cargador) {
+        return Optional.ofNullable(obtener(productosPorCodigo, "catalogo.productos.codigo", codigo, () -> cargador.get().orElse(null)));
+    }
+
+    public EntradaCache<List<CategoriaBasicaDTO>> obtenerCategoriasActivas(Supplier<List<CategoriaBasicaDTO>> cargador) {
+        return obtener(categoriasActivas, "catalogo.categorias.activas", CLAVE_UNICA, () -> List.copyOf(cargador.get()));
+    }
+
+    public EntradaCache<List<MarcaBasicaDTO>> obtenerMarcasActivas(Supplier<List<MarcaBasicaDTO>> cargador) {
+        return obtener(marcasActivas, "catalogo.marcas.activas", CLAVE_UNICA, () -> List.copyOf(cargador.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductoModificado(ProductoModificadoEvent event) {
+        if (event.afectaTodos()) {
+            invalidarProductos();
+            return;
+        }
+        productosPorId.invalidateAll(event.productoIds());
+        // El código pudo cambiar en la misma escritura, por eso se invalida por ID del valor cacheado
+        productosPorCodigo.asMap().values()
+            .removeIf(entrada -> event.productoIds().contains(entrada.valor().getId()));
+        log.debug("Caché de catálogo invalidada para productos: {}", event.productoIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriaModificada(CategoriaModificadaEvent event) {
+        categoriasActivas.invalidateAll();
+        // Los productos embeben la categoría, así que también se descartan
+        invalidarProductos();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMarcaModificada(MarcaModificadaEvent event) {
+        marcasActivas.invalidateAll();
+        invalidarProductos();
+    }
+
+    private void invalidarProductos() {
+        productosPorId.invalidateAll();
+        productosPorCodigo.invalidateAll();
+        log.debug("Caché de productos invalidada por completo");
+    }
+
+    private <K, V> EntradaCache<V> obtener(Cache<K, EntradaCache<V>> cache, String nombre, K clave,
+                                           Supplier<V> cargador) {
+        long inicio = System.nanoTime();
+        boolean[] cargado = {false};
+
+        EntradaCache<V> entrada;
+        if (enTransaccionDeEscritura()) {
+            // Lo que se lee aquí aún puede revertirse, así que sólo se consulta la caché sin poblarla
+            entrada = cache.getIfPresent(clave);
+            if (entrada == null) {
+                cargado[0] = true;
+                entrada = crearEntrada(cargador.get());
+            }
+        } else {
+            entrada = cache.get(clave, k -> {
+                cargado[0] = true;
+                return crearEntrada(cargador.get());
+            });
+        }
+
+        meterRegistry.timer("catalogo.cache.latencia", "cache", nombre, "resultado", cargado[0] ? "miss" : "hit")
+            .record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        return entrada;
+    }
+
+    private static boolean enTransaccionDeEscritura() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private <V> EntradaCache<V> crearEntrada(V valor) {
+        return valor != null ? new EntradaCache<>(valor, serializar(valor)) : null;
+    }
+
+    private RawValue serializar(Object valor) {
+        try {
+            return new RawValue(objectMapper.writeValueAsString(valor));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el valor del catálogo", e);
+        }
+    }
+
+    private <K, V> Cache<K, V> crearCache(String nombre, long maxSize, Duration ttl) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, nombre);
+        return cache;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nove.sule.backend_nove_sule.dto.cliente.ClienteDTO;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoDocumento;
+import com.nove.sule.backend_nove_sule.event.ClienteModificadoEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria de las búsquedas de clientes por tipo y número de documento, que se repiten en cada factura.
+ * También recuerda los documentos que no existen, con una vigencia más corta; ambos se invalidan
+ * después del commit de cada escritura del cliente.
+ */
+@Slf4j
+@Component
+public class ClientesPorDocumentoCache {
+
+    private final Cache<Documento, Optional<ClienteDTO>> clientes;
+
+    public ClientesPorDocumentoCache(MeterRegistry meterRegistry,
+                                     @Value("${app.cache.clientes.max-size:20000}") long maxSize,
+                                     @Value("${app.cache.clientes.ttl:10m}") Duration ttl,
+                                     @Value("${app.cache.clientes.ttl-inexistentes:1m}") Duration ttlInexistentes) {
+        this.clientes = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(Expiry.<Documento, Optional<ClienteDTO>>writing(
+                (documento, cliente) -> cliente.isPresent() ? ttl : ttlInexistentes))
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, clientes, "clientes.documento");
+    }
+
+    public Optional<ClienteDTO> obtener(TipoDocumento tipoDocumento, String numeroDocumento,
+                                        Supplier<Optional<ClienteDTO>> cargador) {
+        // El DTO es mutable y lo comparten todas las lecturas, así que cada una recibe su copia;
+        // todos sus campos son inmutables, por lo que la copia superficial basta
+        return clientes.get(new Documento(tipoDocumento, numeroDocumento), documento -> cargador.get())
+            .map(cliente -> cliente.toBuilder().build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClienteModificado(ClienteModificadoEvent event) {
+        // Si hay una carga en curso para el documento, Caffeine espera a que termine antes de descartarla
+        clientes.invalidate(new Documento(event.tipoDocumento(), event.numeroDocumento()));
+        log.debug("Caché de clientes invalidada para {} {}", event.tipoDocumento(), event.numeroDocumento());
+    }
+
+    private record Documento(TipoDocumento tipoDocumento, String numeroDocumento) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.fasterxml.jackson.databind.util.RawValue;
+
+/**
+ * Valor cacheado junto con su JSON ya serializado. Sólo se serializa el dato, no el ApiResponseDTO que lo
+ * envuelve: el controlador arma la respuesta en cada pedido, con su timestamp, y Jackson copia este JSON tal cual
+ */
+public record EntradaCache<T>(T valor, RawValue json) {
+}
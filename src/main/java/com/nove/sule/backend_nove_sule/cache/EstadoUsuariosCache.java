@@ -0,0 +1,67 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.Rol;
+import com.nove.sule.backend_nove_sule.event.UsuarioModificadoEvent;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caché en memoria del estado de los usuarios, para que autenticar una petición con JWT no consulte la base.
+ * Un usuario desactivado, renombrado o con otro rol deja de ser aceptado apenas se confirma el cambio en esta
+ * instancia y, en otras instancias, a más tardar cuando vence la entrada.
+ */
+@Slf4j
+@Component
+public class EstadoUsuariosCache {
+
+    private final Cache<Long, Optional<EstadoUsuario>> usuarios;
+    private final UsuarioRepository usuarioRepository;
+
+    public EstadoUsuariosCache(MeterRegistry meterRegistry, UsuarioRepository usuarioRepository,
+                               @Value("${app.cache.usuarios.max-size:1000}") long maxSize,
+                               @Value("${app.cache.usuarios.ttl:30s}") Duration ttl) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarios = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usuarios, "usuarios.estado");
+    }
+
+    /**
+     * Indica si el usuario del token sigue activo con el mismo username y rol con que se firmó
+     */
+    public boolean vigente(UsuarioAutenticado usuario) {
+        return usuarios.get(usuario.id(), this::cargar)
+            .filter(estado -> estado.estado() == Estado.ACTIVO)
+            .filter(estado -> estado.rol() == usuario.rol() && estado.username().equals(usuario.username()))
+            .isPresent();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUsuarioModificado(UsuarioModificadoEvent event) {
+        usuarios.invalidate(event.usuarioId());
+        log.debug("Caché de usuarios invalidada para {}", event.usuarioId());
+    }
+
+    private Optional<EstadoUsuario> cargar(Long usuarioId) {
+        return usuarioRepository.findEstadoById(usuarioId)
+            .map(u -> new EstadoUsuario(u.getUsername(), u.getRol(), u.getEstado()));
+    }
+
+    private record EstadoUsuario(String username, Rol rol, Estado estado) {
+    }
+}
@@ -0,0 +1,141 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoEscaneoDTO;
+import com.nove.sule.backend_nove_sule.search.IndiceProductos;
+import com.nove.sule.backend_nove_sule.search.ProductoIndexado;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria de código de barras y código interno hacia una foto inmutable de
+ * precio y stock, con su JSON ya serializado para el escaneo en el punto de venta.
+ * Si dos productos comparten código de barras se conserva el de menor ID; al cambiar o eliminar ese producto
+ * el código pasa al siguiente que lo comparte.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceCodigosBarras implements IndiceProductos {
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Mapas mapas = new Mapas();
+
+    public Optional<EntradaCache<ProductoEscaneoDTO>> buscarPorCodigoBarras(String codigoBarras) {
+        return Optional.ofNullable(mapas.porCodigoBarras.get(codigoBarras));
+    }
+
+    public Optional<EntradaCache<ProductoEscaneoDTO>> buscarPorCodigo(String codigo) {
+        return Optional.ofNullable(mapas.porCodigo.get(codigo));
+    }
+
+    /**
+     * Crea la entrada de un producto sin registrarla, para resolver escaneos que no están en el índice
+     */
+    public EntradaCache<ProductoEscaneoDTO> crearEntrada(ProductoIndexado producto) {
+        ProductoEscaneoDTO dto = ProductoEscaneoDTO.builder()
+            .id(producto.id())
+            .codigo(producto.codigo())
+            .codigoBarras(producto.codigoBarras())
+            .nombre(producto.nombre())
+            .unidad(producto.unidad())
+            .precio(producto.precio())
+            .precioConIgv(producto.precioConIgv())
+            .tipoIgv(producto.tipoIgv())
+            .stock(producto.stock())
+            .estado(producto.estado())
+            .build();
+        try {
+            return new EntradaCache<>(dto, new RawValue(objectMapper.writeValueAsString(dto)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el producto " + producto.id(), e);
+        }
+    }
+
+    @Override
+    public Reconstruccion iniciarReconstruccion() {
+        Mapas nuevos = new Mapas();
+        return new Reconstruccion() {
+            @Override
+            public void agregar(ProductoIndexado producto) {
+                nuevos.poner(crearEntrada(producto));
+            }
+
+            @Override
+            public void publicar() {
+                synchronized (IndiceCodigosBarras.this) {
+                    mapas = nuevos;
+                }
+                log.info("Índice de códigos de barras publicado: {} productos", nuevos.porId.size());
+            }
+        };
+    }
+
+    @Override
+    public synchronized void actualizar(ProductoIndexado producto) {
+        EntradaCache<ProductoEscaneoDTO> entrada = crearEntrada(producto);
+        mapas.quitar(producto.id());
+        mapas.poner(entrada);
+    }
+
+    @Override
+    public synchronized void eliminar(Long productoId) {
+        mapas.quitar(productoId);
+    }
+
+    /**
+     * Mapas de consulta; los lectores no bloquean y las escrituras se serializan en el índice
+     */
+    private static final class Mapas {
+
+        private final Map<String, EntradaCache<ProductoEscaneoDTO>> porCodigoBarras = new ConcurrentHashMap<>();
+        private final Map<String, EntradaCache<ProductoEscaneoDTO>> porCodigo = new ConcurrentHashMap<>();
+        private final Map<Long, EntradaCache<ProductoEscaneoDTO>> porId = new ConcurrentHashMap<>();
+
+        /** IDs que declaran cada código de barras; sólo lo tocan las escrituras, que ya están serializadas */
+        private final Map<String, NavigableSet<Long>> duenosCodigoBarras = new HashMap<>();
+
+        void poner(EntradaCache<ProductoEscaneoDTO> entrada) {
+            ProductoEscaneoDTO producto = entrada.valor();
+            porId.put(producto.getId(), entrada);
+            porCodigo.put(producto.getCodigo(), entrada);
+            String codigoBarras = producto.getCodigoBarras();
+            if (codigoBarras != null && !codigoBarras.isBlank()) {
+                NavigableSet<Long> duenos = duenosCodigoBarras.computeIfAbsent(codigoBarras, c -> new TreeSet<>());
+                duenos.add(producto.getId());
+                porCodigoBarras.put(codigoBarras, porId.get(duenos.first()));
+            }
+        }
+
+        void quitar(Long productoId) {
+            EntradaCache<ProductoEscaneoDTO> anterior = porId.remove(productoId);
+            if (anterior == null) {
+                return;
+            }
+            porCodigo.remove(anterior.valor().getCodigo(), anterior);
+            String codigoBarras = anterior.valor().getCodigoBarras();
+            NavigableSet<Long> duenos = codigoBarras != null ? duenosCodigoBarras.get(codigoBarras) : null;
+            if (duenos == null) {
+                return;
+            }
+            duenos.remove(productoId);
+            if (duenos.isEmpty()) {
+                duenosCodigoBarras.remove(codigoBarras);
+                porCodigoBarras.remove(codigoBarras);
+            } else {
+                porCodigoBarras.put(codigoBarras, porId.get(duenos.first()));
+            }
+        }
+    }
+}
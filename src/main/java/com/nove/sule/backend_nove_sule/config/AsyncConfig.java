@@ -0,0 +1,56 @@
+package com.nove.sule.backend_nove_sule.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración de ejecutores y tareas programadas para trabajos en segundo plano
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    /**
+     * Ejecutor de importaciones masivas; se procesan de a una para no competir por la base de datos
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importacionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("importacion-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ejecutor de miniaturas de imágenes de productos; acotado porque decodificar imágenes consume memoria
+     */
+    @Bean
+    public ThreadPoolTaskExecutor miniaturaExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("miniatura-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Ejecutor de las reindexaciones de productos; un solo hilo las aplica en orden y sin cola acotada,
+     * porque descartar una dejaría el índice desactualizado hasta el próximo cambio del producto
+     */
+    @Bean
+    public ThreadPoolTaskExecutor indiceExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("indice-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -4,6 +4,9 @@ import com.nove.sule.backend_nove_sule.entity.Usuario;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.Rol;
 import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.service.CompraService;
+import com.nove.sule.backend_nove_sule.service.IndicadorClienteService;
+import com.nove.sule.backend_nove_sule.service.TasaIgvService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -20,12 +23,18 @@ public class DataLoader implements CommandLineRunner {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TasaIgvService tasaIgvService;
+    private final CompraService compraService;
+    private final IndicadorClienteService indicadorClienteService;
 
     @Override
     public void run(String... args) throws Exception {
         log.info("Iniciando carga de datos iniciales...");
         
         createDefaultUsers();
+        tasaIgvService.cargar();
+        compraService.inicializarNumeracion();
+        indicadorClienteService.inicializar();
         
         log.info("Carga de datos iniciales completada.");
     }
@@ -271,7 +271,7 @@ public class CajaController {
         }
     }
 
-    @Operation(summary = "Listar movimientos de caja", description = "Lista todos los movimientos de una caja")
+    @Operation(summary = "Listar movimientos de caja", description = "Lista los movimientos más recientes de una caja")
     @GetMapping("/{cajaId}/movimientos")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('CAJERO')")
     public ResponseEntity<ApiResponseDTO<List<MovimientoCajaDTO>>> listarMovimientosCaja(@PathVariable Long cajaId) {
@@ -321,14 +321,17 @@ public class CajaController {
         }
     }
 
-    @Operation(summary = "Listar movimientos con paginación", description = "Lista movimientos de una caja con paginación")
+    @Operation(summary = "Listar movimientos con paginación",
+               description = "Lista movimientos de una caja del más reciente al más antiguo; " +
+                             "para la siguiente página se envía el cursor devuelto en la anterior")
     @GetMapping("/{cajaId}/movimientos/paginados")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('CAJERO')")
-    public ResponseEntity<ApiResponseDTO<PaginatedResponseDTO<MovimientoCajaDTO>>> listarMovimientosConPaginacion(
+    public ResponseEntity<ApiResponseDTO<PaginaMovimientosCajaDTO>> listarMovimientosConPaginacion(
             @PathVariable Long cajaId,
-            Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
         try {
-            PaginatedResponseDTO<MovimientoCajaDTO> movimientos = cajaService.listarMovimientosConPaginacion(cajaId, pageable);
+            PaginaMovimientosCajaDTO movimientos = cajaService.listarMovimientosConPaginacion(cajaId, cursor, limite);
             return ResponseEntity.ok(ApiResponseDTO.success(movimientos));
                 
         } catch (Exception e) {
@@ -6,6 +6,7 @@ import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.service.CategoriaService;
 import com.nove.sule.backend_nove_sule.util.Constants;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -52,9 +53,8 @@ public class CategoriaController {
 
     @Operation(summary = "Listar categorías activas", description = "Lista todas las categorías activas ordenadas")
     @GetMapping("/activas")
-    public ResponseEntity<ApiResponseDTO<List<CategoriaBasicaDTO>>> listarActivas() {
-        List<CategoriaBasicaDTO> categorias = categoriaService.listarActivas();
-        return ResponseEntity.ok(ApiResponseDTO.success(categorias));
+    public ResponseEntity<ApiResponseDTO<RawValue>> listarActivas() {
+        return ResponseEntity.ok(ApiResponseDTO.success(categoriaService.listarActivasSerializado()));
     }
 
     @Operation(summary = "Listar categorías", description = "Lista categorías con paginación y filtros")
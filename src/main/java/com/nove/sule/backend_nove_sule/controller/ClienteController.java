@@ -4,8 +4,11 @@ import com.nove.sule.backend_nove_sule.dto.cliente.*;
 import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoDocumento;
 import com.nove.sule.backend_nove_sule.service.ClienteService;
+import com.nove.sule.backend_nove_sule.service.CuentaPorCobrarService;
+import com.nove.sule.backend_nove_sule.service.IndicadorClienteService;
 import com.nove.sule.backend_nove_sule.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -33,6 +36,8 @@ import java.util.List;
 public class ClienteController {
 
     private final ClienteService clienteService;
+    private final IndicadorClienteService indicadorClienteService;
+    private final CuentaPorCobrarService cuentaPorCobrarService;
 
     @Operation(summary = "Crear cliente", description = "Crea un nuevo cliente en el sistema")
     @PostMapping
@@ -94,7 +99,7 @@ public class ClienteController {
             @RequestParam String numeroDocumento) {
         try {
             return clienteService.buscarPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento)
-                .map(cliente -> ResponseEntity.ok(ApiResponseDTO.<ClienteDTO>success(clienteService.buscarPorId(cliente.getId()).orElse(null))))
+                .map(cliente -> ResponseEntity.ok(ApiResponseDTO.success(cliente)))
                 .orElse(ResponseEntity.notFound().build());
                 
         } catch (Exception e) {
@@ -223,6 +228,125 @@ public class ClienteController {
         }
     }
 
+    @Operation(summary = "Sugerir clientes", description = "Autocompleta clientes activos por nombres, apellidos, razón social o documento, ordenados por parecido")
+    @GetMapping("/sugerencias")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('VENDEDOR') or hasRole('CAJERO')")
+    public ResponseEntity<ApiResponseDTO<List<ClienteResponseDTO>>> sugerir(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "10") int limite) {
+        try {
+            List<ClienteResponseDTO> clientes = clienteService.sugerir(texto, limite);
+            return ResponseEntity.ok(ApiResponseDTO.success(clientes));
+                
+        } catch (Exception e) {
+            log.error("Error sugiriendo clientes para {}: {}", texto, e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Indicadores de un cliente",
+               description = "Primera y última compra, cantidad de comprobantes, total comprado y ticket promedio")
+    @GetMapping("/{id}/indicadores")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<IndicadoresClienteDTO>> obtenerIndicadores(@PathVariable Long id) {
+        try {
+            return indicadorClienteService.obtenerIndicadores(id)
+                .map(indicadores -> ResponseEntity.ok(ApiResponseDTO.success(indicadores)))
+                .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Segmentación de clientes",
+               description = "Puntúa a los clientes por recencia, frecuencia y monto y resume cada segmento")
+    @GetMapping("/segmentos")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<SegmentacionClientesDTO>> segmentar() {
+        try {
+            SegmentacionClientesDTO segmentacion = indicadorClienteService.segmentar();
+            return ResponseEntity.ok(ApiResponseDTO.success(segmentacion));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Clientes de un segmento",
+               description = "Clientes del segmento RFM indicado, de mayor a menor importe comprado")
+    @GetMapping("/segmentos/{segmento}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<List<ClienteSegmentadoDTO>>> listarSegmento(
+            @PathVariable SegmentoCliente segmento,
+            @RequestParam(defaultValue = "50") int limite) {
+        try {
+            List<ClienteSegmentadoDTO> clientes = indicadorClienteService.listarSegmento(segmento, limite);
+            return ResponseEntity.ok(ApiResponseDTO.success(clientes));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Crédito de un cliente", description = "Límite de crédito, saldo por cobrar y crédito disponible")
+    @GetMapping("/{id}/credito")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('VENDEDOR') or hasRole('CAJERO')")
+    public ResponseEntity<ApiResponseDTO<CreditoClienteDTO>> obtenerCredito(@PathVariable Long id) {
+        try {
+            CreditoClienteDTO credito = cuentaPorCobrarService.obtenerCredito(id);
+            return ResponseEntity.ok(ApiResponseDTO.success(credito));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Registrar pago de cliente", description = "Abona un pago al saldo por cobrar de las ventas al crédito")
+    @PostMapping("/{id}/pagos")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('CAJERO')")
+    public ResponseEntity<ApiResponseDTO<PagoClienteDTO>> registrarPago(
+            @PathVariable Long id,
+            @Valid @RequestBody PagoClienteRequestDTO pagoRequest) {
+        try {
+            PagoClienteDTO pago = cuentaPorCobrarService.registrarPago(id, pagoRequest);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDTO.success("Pago registrado exitosamente", pago));
+        } catch (Exception e) {
+            log.error("Error registrando pago de cliente {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Pagos de un cliente", description = "Pagos registrados del cliente, del más reciente al más antiguo")
+    @GetMapping("/{id}/pagos")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('CAJERO')")
+    public ResponseEntity<ApiResponseDTO<List<PagoClienteDTO>>> listarPagos(@PathVariable Long id) {
+        try {
+            List<PagoClienteDTO> pagos = cuentaPorCobrarService.listarPagos(id);
+            return ResponseEntity.ok(ApiResponseDTO.success(pagos));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Antigüedad de cuentas por cobrar",
+               description = "Saldos pendientes por cliente agrupados en tramos de 30 días desde la emisión")
+    @GetMapping("/cuentas-por-cobrar/antiguedad")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<AntiguedadSaldosDTO>> obtenerAntiguedad() {
+        try {
+            AntiguedadSaldosDTO antiguedad = cuentaPorCobrarService.obtenerAntiguedad();
+            return ResponseEntity.ok(ApiResponseDTO.success(antiguedad));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Listar clientes activos", description = "Lista todos los clientes activos para selección")
     @GetMapping("/activos")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('VENDEDOR') or hasRole('CAJERO')")
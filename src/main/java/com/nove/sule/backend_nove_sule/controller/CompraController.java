@@ -192,7 +192,7 @@ public class CompraController {
         }
     }
 
-    @Operation(summary = "Marcar como entregada", description = "Marca una orden de compra como entregada")
+    @Operation(summary = "Marcar como entregada", description = "Recibe todo lo pendiente de la orden y la marca como entregada")
     @PatchMapping("/{id}/entregar")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
     public ResponseEntity<ApiResponseDTO<OrdenCompraDTO>> marcarComoEntregada(@PathVariable Long id) {
@@ -209,6 +209,24 @@ public class CompraController {
         }
     }
 
+    @Operation(summary = "Recibir orden de compra",
+               description = "Registra la recepción total o parcial de una orden: ingresa el stock, actualiza el precio de compra " +
+                             "y registra las entradas de inventario. Sin líneas se recibe todo lo pendiente")
+    @PostMapping("/{id}/recepciones")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
+    public ResponseEntity<ApiResponseDTO<OrdenCompraDTO>> recibir(
+            @PathVariable Long id,
+            @Valid @RequestBody(required = false) RecepcionOrdenCompraRequestDTO recepcion) {
+        try {
+            OrdenCompraDTO orden = compraService.recibirOrdenCompra(id, recepcion);
+            return ResponseEntity.ok(ApiResponseDTO.success("Recepción registrada exitosamente", orden));
+        } catch (Exception e) {
+            log.error("Error registrando recepción de la orden {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Listar órdenes por proveedor", description = "Lista órdenes de compra de un proveedor específico")
     @GetMapping("/proveedor/{proveedorId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
@@ -275,7 +293,7 @@ public class CompraController {
         }
     }
 
-    @Operation(summary = "Generar número de orden", description = "Genera el siguiente número de orden de compra")
+    @Operation(summary = "Generar número de orden", description = "Vista previa del número que recibirá la próxima orden de compra")
     @GetMapping("/generar-numero")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
     public ResponseEntity<ApiResponseDTO<String>> generarNumeroOrdenCompra() {
@@ -0,0 +1,151 @@
+package com.nove.sule.backend_nove_sule.controller;
+
+import com.nove.sule.backend_nove_sule.service.ImagenProductoService;
+import com.nove.sule.backend_nove_sule.service.ImagenProductoService.ArchivoImagen;
+import com.nove.sule.backend_nove_sule.util.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Controlador público para servir imágenes de productos.
+ * El archivo se transfiere sin pasar por el heap: con sendfile del conector de Tomcat cuando está disponible
+ * o con {@link FileChannel#transferTo} en caso contrario. Soporta rangos, ETag y caché de larga duración.
+ */
+@Slf4j
+@RestController
+@RequestMapping(Constants.API_BASE_PATH + "/imagenes")
+@RequiredArgsConstructor
+@Tag(name = "Imágenes", description = "Entrega de imágenes de productos y sus miniaturas")
+public class ImagenController {
+
+    private static final String CACHE_INMUTABLE = "public, max-age=31536000, immutable";
+    private static final String CACHE_PROVISIONAL = "public, max-age=60";
+
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+
+    /** Igual que el DefaultServlet de Tomcat: por debajo de este tamaño copiar es más barato que sendfile */
+    private static final long UMBRAL_SENDFILE = 48 * 1024;
+
+    private final ImagenProductoService imagenProductoService;
+
+    @Operation(summary = "Obtener imagen",
+               description = "Entrega una imagen por su nombre (hash.ext) o una miniatura (hash-tamaño.ext)")
+    @GetMapping("/{nombre:.+}")
+    public void obtener(@PathVariable String nombre, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+        Optional<ArchivoImagen> encontrado = imagenProductoService.resolver(nombre);
+        if (encontrado.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ArchivoImagen archivo = encontrado.get();
+        long longitud = archivo.longitud();
+
+        response.setHeader(HttpHeaders.ETAG, archivo.etag());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, archivo.definitivo() ? CACHE_INMUTABLE : CACHE_PROVISIONAL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (coincideEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), archivo.etag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long inicio = 0;
+        long fin = longitud - 1;
+        String rango = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rango != null && (ifRange == null || ifRange.trim().equals(archivo.etag()))) {
+            List<HttpRange> rangos;
+            try {
+                rangos = HttpRange.parseRanges(rango);
+            } catch (IllegalArgumentException e) {
+                // Un Range mal formado se ignora y se responde el archivo completo
+                rangos = List.of();
+            }
+            // Varios rangos requerirían multipart/byteranges; se entrega el archivo completo
+            if (rangos.size() == 1) {
+                try {
+                    inicio = rangos.get(0).getRangeStart(longitud);
+                    fin = rangos.get(0).getRangeEnd(longitud);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + longitud);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fin + "/" + longitud);
+            }
+        }
+
+        long cantidad = fin - inicio + 1;
+        response.setContentType(archivo.tipoContenido());
+        response.setContentLengthLong(cantidad);
+        if ("HEAD".equals(request.getMethod()) || cantidad <= 0) {
+            return;
+        }
+        transferir(archivo, inicio, cantidad, request, response);
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static void transferir(ArchivoImagen archivo, long inicio, long cantidad,
+                                   HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (cantidad >= UMBRAL_SENDFILE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            // El conector envía el archivo al socket con sendfile después de que el servlet retorna
+            request.setAttribute(SENDFILE_ARCHIVO, archivo.ruta().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIN, inicio + cantidad);
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(archivo.ruta(), StandardOpenOption.READ)) {
+            WritableByteChannel salida = Channels.newChannel(response.getOutputStream());
+            long enviados = 0;
+            while (enviados < cantidad) {
+                long transferidos = canal.transferTo(inicio + enviados, cantidad - enviados, salida);
+                if (transferidos <= 0) {
+                    break;
+                }
+                enviados += transferidos;
+            }
+        } catch (IOException e) {
+            // Normalmente el cliente cerró la conexión a mitad de la descarga
+            log.debug("Transferencia de {} interrumpida: {}", archivo.ruta().getFileName(), e.getMessage());
+        }
+    }
+
+    private static boolean coincideEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.startsWith("W/")) {
+                valor = valor.substring(2);
+            }
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,23 +1,34 @@
 package com.nove.sule.backend_nove_sule.controller;
 
+import com.nove.sule.backend_nove_sule.dto.catalogo.AjustePrecioRequestDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.BusquedaFacetadaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ConteoTagDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImagenProductoDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImportacionProductosDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.service.ImagenProductoService;
+import com.nove.sule.backend_nove_sule.service.ImportacionProductoService;
 import com.nove.sule.backend_nove_sule.service.ProductoService;
 import com.nove.sule.backend_nove_sule.util.Constants;
+import com.fasterxml.jackson.databind.util.RawValue;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -33,6 +44,8 @@ import java.util.List;
 public class ProductoController {
 
     private final ProductoService productoService;
+    private final ImportacionProductoService importacionProductoService;
+    private final ImagenProductoService imagenProductoService;
 
     @Operation(summary = "Crear producto", description = "Crea un nuevo producto en el catálogo")
     @PostMapping
@@ -72,17 +85,17 @@ public class ProductoController {
 
     @Operation(summary = "Buscar producto por ID", description = "Obtiene un producto por su ID")
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseDTO<ProductoDTO>> buscarPorId(@PathVariable Long id) {
-        return productoService.buscarPorId(id)
-            .map(producto -> ResponseEntity.ok(ApiResponseDTO.success(producto)))
+    public ResponseEntity<ApiResponseDTO<RawValue>> buscarPorId(@PathVariable Long id) {
+        return productoService.buscarPorIdSerializado(id)
+            .map(json -> ResponseEntity.ok(ApiResponseDTO.success(json)))
             .orElse(ResponseEntity.notFound().build());
     }
 
     @Operation(summary = "Buscar por código", description = "Busca un producto por su código SKU")
     @GetMapping("/codigo/{codigo}")
-    public ResponseEntity<ApiResponseDTO<ProductoDTO>> buscarPorCodigo(@PathVariable String codigo) {
-        return productoService.buscarPorCodigo(codigo)
-            .map(producto -> ResponseEntity.ok(ApiResponseDTO.success(producto)))
+    public ResponseEntity<ApiResponseDTO<RawValue>> buscarPorCodigo(@PathVariable String codigo) {
+        return productoService.buscarPorCodigoSerializado(codigo)
+            .map(json -> ResponseEntity.ok(ApiResponseDTO.success(json)))
             .orElse(ResponseEntity.notFound().build());
     }
 
@@ -94,6 +107,76 @@ public class ProductoController {
             .orElse(ResponseEntity.notFound().build());
     }
 
+    @Operation(summary = "Escanear producto",
+               description = "Resuelve un código de barras o código interno con precio y stock para el punto de venta")
+    @GetMapping("/escanear/{codigo}")
+    public ResponseEntity<ApiResponseDTO<RawValue>> escanear(@PathVariable String codigo) {
+        return productoService.escanearSerializado(codigo)
+            .map(json -> ResponseEntity.ok(ApiResponseDTO.success(json)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Ajustar precios masivamente",
+               description = "Aplica un ajuste porcentual o de monto fijo, con redondeo, a los productos de una categoría, marca y/o proveedor")
+    @PostMapping("/precios/ajuste")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<Integer>> ajustarPrecios(@Valid @RequestBody AjustePrecioRequestDTO ajuste) {
+        try {
+            int actualizados = productoService.ajustarPrecios(ajuste);
+            return ResponseEntity.ok(ApiResponseDTO.success("Precios actualizados exitosamente", actualizados));
+        } catch (Exception e) {
+            log.error("Error ajustando precios: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Importar productos",
+               description = "Importa productos desde un CSV (o CSV comprimido .csv.gz) insertando o actualizando por código. " +
+                             "Columnas: codigo, nombre, precio, categoria y opcionalmente descripcion, codigo_barras, " +
+                             "precio_compra, stock, stock_minimo, unidad, marca, proveedor_ruc, tipo_igv, afecto_igv")
+    @PostMapping(value = "/importar", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
+    public ResponseEntity<ApiResponseDTO<ImportacionProductosDTO>> importar(@RequestParam("archivo") MultipartFile archivo) {
+        try {
+            ImportacionProductosDTO importacion = importacionProductoService.iniciar(archivo);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponseDTO.success("Importación iniciada", importacion));
+        } catch (Exception e) {
+            log.error("Error iniciando importación de productos: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Consultar importación", description = "Obtiene el avance y los errores por fila de una importación")
+    @GetMapping("/importar/{id}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
+    public ResponseEntity<ApiResponseDTO<ImportacionProductosDTO>> consultarImportacion(@PathVariable String id) {
+        return importacionProductoService.consultar(id)
+            .map(importacion -> ResponseEntity.ok(ApiResponseDTO.success(importacion)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Subir imagen de producto",
+               description = "Sube una imagen JPEG, PNG, GIF o WebP y la agrega al producto; las miniaturas se generan en segundo plano")
+    @PostMapping(value = "/{id}/imagenes", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE') or hasRole('ALMACENERO')")
+    public ResponseEntity<ApiResponseDTO<ImagenProductoDTO>> subirImagen(
+            @PathVariable Long id,
+            @RequestParam("archivo") MultipartFile archivo,
+            @RequestParam(defaultValue = "false") boolean principal) {
+        try {
+            ImagenProductoDTO imagen = imagenProductoService.subir(id, archivo, principal);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponseDTO.success("Imagen subida exitosamente", imagen));
+        } catch (Exception e) {
+            log.error("Error subiendo imagen del producto {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Listar productos", description = "Lista productos con paginación y filtros")
     @GetMapping
     public ResponseEntity<ApiResponseDTO<PaginatedResponseDTO<ProductoDTO>>> listar(
@@ -204,11 +287,70 @@ public class ProductoController {
         return ResponseEntity.ok(ApiResponseDTO.success(existe));
     }
 
-    @Operation(summary = "Buscar productos por texto", description = "Busca productos por texto en nombre o descripción")
+    @Operation(summary = "Buscar productos por texto",
+               description = "Busca productos por código, nombre, descripción, tags, marca o categoría; " +
+                             "ignora tildes, acepta prefijos y errores de tipeo, y ordena por relevancia")
     @GetMapping("/buscar")
-    public ResponseEntity<ApiResponseDTO<List<ProductoDTO>>> buscarPorTexto(@RequestParam String texto) {
-        List<ProductoDTO> productos = productoService.buscarPorTexto(texto);
-        return ResponseEntity.ok(ApiResponseDTO.success(productos));
+    public ResponseEntity<ApiResponseDTO<PaginatedResponseDTO<ProductoDTO>>> buscarPorTexto(
+            @RequestParam String texto,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            PaginatedResponseDTO<ProductoDTO> productos = productoService.buscarPorTexto(texto, paginaAcotada(page, size));
+            return ResponseEntity.ok(ApiResponseDTO.success(productos));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Búsqueda facetada",
+               description = "Busca en el catálogo activo filtrando por categoría, marca, proveedor y rango de precio; " +
+                             "devuelve la página y los conteos de cada faceta")
+    @GetMapping("/facetas")
+    public ResponseEntity<ApiResponseDTO<BusquedaFacetadaDTO>> buscarFacetado(
+            @RequestParam(required = false) String texto,
+            @RequestParam(required = false) List<Long> categoriaIds,
+            @RequestParam(required = false) List<Long> marcaIds,
+            @RequestParam(required = false) List<Long> proveedorIds,
+            @RequestParam(required = false) List<String> rangosPrecio,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            BusquedaFacetadaDTO resultado = productoService.buscarFacetado(
+                texto, categoriaIds, marcaIds, proveedorIds, rangosPrecio, paginaAcotada(page, size));
+            return ResponseEntity.ok(ApiResponseDTO.success(resultado));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Buscar productos por tags",
+               description = "Lista los productos activos que tienen todos los tags (modo por defecto) " +
+                             "o alguno de ellos si todos=false")
+    @GetMapping("/por-tags")
+    public ResponseEntity<ApiResponseDTO<PaginatedResponseDTO<ProductoDTO>>> buscarPorTags(
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "true") boolean todos,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            PaginatedResponseDTO<ProductoDTO> productos = productoService.buscarPorTags(tags, todos, paginaAcotada(page, size));
+            return ResponseEntity.ok(ApiResponseDTO.success(productos));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Listar tags", description = "Autocompleta tags por prefijo y devuelve cuántos productos activos usan cada uno")
+    @GetMapping("/tags")
+    public ResponseEntity<ApiResponseDTO<List<ConteoTagDTO>>> listarTags(
+            @RequestParam(required = false) String prefijo,
+            @RequestParam(defaultValue = "20") int limite) {
+        List<ConteoTagDTO> tags = productoService.listarTags(prefijo, Math.max(1, Math.min(limite, Constants.MAX_PAGE_SIZE)));
+        return ResponseEntity.ok(ApiResponseDTO.success(tags));
     }
 
     @Operation(summary = "Buscar productos por rango de precio", description = "Busca productos dentro de un rango de precios")
@@ -234,4 +376,16 @@ public class ProductoController {
         List<ProductoDTO> productos = productoService.listarMasVendidos(limite);
         return ResponseEntity.ok(ApiResponseDTO.success(productos));
     }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Página de un endpoint público: el tamaño se limita para que ninguna petición reserve memoria a su antojo
+     */
+    private static Pageable paginaAcotada(int page, int size) {
+        if (page < 0) {
+            throw new RuntimeException("El número de página no puede ser negativo");
+        }
+        return PageRequest.of(page, Math.max(1, Math.min(size, Constants.MAX_PAGE_SIZE)));
+    }
 }
@@ -4,7 +4,9 @@ import com.nove.sule.backend_nove_sule.dto.catalogo.ProveedorBasicoDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProveedorRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
+import com.nove.sule.backend_nove_sule.dto.compras.IndicadoresProveedorDTO;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.service.IndicadorProveedorService;
 import com.nove.sule.backend_nove_sule.service.ProveedorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +31,7 @@ import java.util.List;
 public class ProveedorController {
 
     private final ProveedorService proveedorService;
+    private final IndicadorProveedorService indicadorProveedorService;
 
     @Operation(summary = "Crear proveedor", description = "Crea un nuevo proveedor")
     @PostMapping
@@ -125,6 +128,35 @@ public class ProveedorController {
         }
     }
 
+    @Operation(summary = "Indicadores de proveedores",
+               description = "Demora de entrega, cumplimiento y valor pendiente de todos los proveedores con órdenes")
+    @GetMapping("/indicadores")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<List<IndicadoresProveedorDTO>>> listarIndicadores() {
+        try {
+            List<IndicadoresProveedorDTO> indicadores = indicadorProveedorService.listarIndicadores();
+            return ResponseEntity.ok(ApiResponseDTO.success(indicadores));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Indicadores de un proveedor",
+               description = "Indicadores del proveedor con el detalle por producto: demora, cumplimiento y precios de compra")
+    @GetMapping("/{id}/indicadores")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<IndicadoresProveedorDTO>> obtenerIndicadores(@PathVariable Long id) {
+        try {
+            return indicadorProveedorService.obtenerIndicadores(id)
+                .map(indicadores -> ResponseEntity.ok(ApiResponseDTO.success(indicadores)))
+                .orElse(ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Eliminar proveedor", description = "Elimina un proveedor (soft delete)")
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
@@ -0,0 +1,76 @@
+package com.nove.sule.backend_nove_sule.controller;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.CambiosCatalogoDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
+import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
+import com.nove.sule.backend_nove_sule.service.SincronizacionService;
+import com.nove.sule.backend_nove_sule.util.Constants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador para la sincronización incremental del catálogo en los terminales POS
+ */
+@Slf4j
+@RestController
+@RequestMapping(Constants.API_BASE_PATH + "/sincronizacion")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Sincronización", description = "Endpoints para sincronizar el catálogo por cambios")
+public class SincronizacionController {
+
+    private final SincronizacionService sincronizacionService;
+
+    @Operation(summary = "Cambios de productos",
+               description = "Productos y precios modificados desde la versión indicada; repetir con la versión devuelta mientras hayMas sea true")
+    @GetMapping("/productos")
+    public ResponseEntity<ApiResponseDTO<CambiosCatalogoDTO<ProductoDTO>>> cambiosProductos(
+            @RequestParam(required = false) String version,
+            @RequestParam(defaultValue = "1000") int limite) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(sincronizacionService.cambiosProductos(version, limite)));
+        } catch (Exception e) {
+            log.error("Error obteniendo cambios de productos: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Cambios de categorías", description = "Categorías modificadas desde la versión indicada")
+    @GetMapping("/categorias")
+    public ResponseEntity<ApiResponseDTO<CambiosCatalogoDTO<CategoriaBasicaDTO>>> cambiosCategorias(
+            @RequestParam(required = false) String version,
+            @RequestParam(defaultValue = "1000") int limite) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(sincronizacionService.cambiosCategorias(version, limite)));
+        } catch (Exception e) {
+            log.error("Error obteniendo cambios de categorías: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Cambios de marcas", description = "Marcas modificadas desde la versión indicada")
+    @GetMapping("/marcas")
+    public ResponseEntity<ApiResponseDTO<CambiosCatalogoDTO<MarcaBasicaDTO>>> cambiosMarcas(
+            @RequestParam(required = false) String version,
+            @RequestParam(defaultValue = "1000") int limite) {
+        try {
+            return ResponseEntity.ok(ApiResponseDTO.success(sincronizacionService.cambiosMarcas(version, limite)));
+        } catch (Exception e) {
+            log.error("Error obteniendo cambios de marcas: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+}
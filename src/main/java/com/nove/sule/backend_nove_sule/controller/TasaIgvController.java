@@ -0,0 +1,49 @@
+package com.nove.sule.backend_nove_sule.controller;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.TasaIgvDTO;
+import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
+import com.nove.sule.backend_nove_sule.service.TasaIgvService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Controlador REST para las tasas de IGV
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/tasas-igv")
+@RequiredArgsConstructor
+@Tag(name = "Tasas IGV", description = "API para gestión de tasas de IGV con fecha de vigencia")
+public class TasaIgvController {
+
+    private final TasaIgvService tasaIgvService;
+
+    @Operation(summary = "Listar tasas de IGV", description = "Lista las tasas por tipo de afectación y fecha de vigencia")
+    @GetMapping
+    public ResponseEntity<ApiResponseDTO<List<TasaIgvDTO>>> listar() {
+        return ResponseEntity.ok(ApiResponseDTO.success(tasaIgvService.listar()));
+    }
+
+    @Operation(summary = "Registrar tasa de IGV",
+               description = "Registra una tasa que rige desde su fecha de vigencia y recalcula los precios con IGV del catálogo")
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponseDTO<TasaIgvDTO>> registrar(@Valid @RequestBody TasaIgvDTO tasaIgv) {
+        try {
+            TasaIgvDTO tasa = tasaIgvService.registrar(tasaIgv);
+            return ResponseEntity.ok(ApiResponseDTO.success("Tasa de IGV registrada exitosamente", tasa));
+        } catch (Exception e) {
+            log.error("Error registrando tasa de IGV: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+}
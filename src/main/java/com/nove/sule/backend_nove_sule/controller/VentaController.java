@@ -5,6 +5,7 @@ import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.ventas.*;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoComprobante;
+import com.nove.sule.backend_nove_sule.service.TableroVentasService;
 import com.nove.sule.backend_nove_sule.service.VentaService;
 import com.nove.sule.backend_nove_sule.util.Constants;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +22,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -36,6 +38,7 @@ import java.util.List;
 public class VentaController {
 
     private final VentaService ventaService;
+    private final TableroVentasService tableroVentasService;
 
     @Operation(summary = "Crear comprobante de venta", description = "Crea un nuevo comprobante de venta")
     @PostMapping
@@ -52,6 +55,7 @@ public class VentaController {
                 .descuento(comprobanteRequest.getDescuento())
                 .estado(Estado.ACTIVO)
                 .medioPago(comprobanteRequest.getMedioPago())
+                .cajaId(comprobanteRequest.getCajaId())
                 .observaciones(comprobanteRequest.getObservaciones())
                 .detalles(comprobanteRequest.getDetalles().stream()
                     .map(detalleRequest -> ComprobanteVentaDTO.DetalleComprobanteDTO.builder()
@@ -299,6 +303,23 @@ public class VentaController {
         }
     }
 
+    @Operation(summary = "Tablero de ventas del día",
+               description = "Totales por caja, medio de pago y hora; hoy se responde desde contadores en memoria")
+    @GetMapping("/tablero")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
+    public ResponseEntity<ApiResponseDTO<TableroVentasDTO>> obtenerTablero(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha) {
+        try {
+            TableroVentasDTO tablero = tableroVentasService.obtenerTablero(fecha);
+            return ResponseEntity.ok(ApiResponseDTO.success(tablero));
+
+        } catch (Exception e) {
+            log.error("Error obteniendo tablero de ventas: {}: {}", fecha, e.getMessage());
+            return ResponseEntity.badRequest()
+                .body(ApiResponseDTO.error(e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Productos más vendidos", description = "Obtiene los productos más vendidos en un rango de fechas")
     @GetMapping("/productos-mas-vendidos")
     @PreAuthorize("hasRole('ADMIN') or hasRole('GERENTE')")
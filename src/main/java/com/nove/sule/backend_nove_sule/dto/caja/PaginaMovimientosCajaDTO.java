@@ -0,0 +1,23 @@
+package com.nove.sule.backend_nove_sule.dto.caja;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con una página de movimientos de caja, del más reciente al más antiguo,
+ * y el cursor a enviar para obtener la siguiente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaMovimientosCajaDTO {
+
+    private List<MovimientoCajaDTO> movimientos;
+    private String cursor;
+    private boolean hayMas;
+}
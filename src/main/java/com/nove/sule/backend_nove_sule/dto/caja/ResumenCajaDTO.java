@@ -1,5 +1,6 @@
 package com.nove.sule.backend_nove_sule.dto.caja;
 
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * DTO para resumen de caja
@@ -29,4 +31,7 @@ public class ResumenCajaDTO {
     private Long totalMovimientos;
     private LocalDateTime ultimoMovimiento;
     private String estadoCaja;
+    private Long totalVentas;
+    private BigDecimal montoVentas;
+    private Map<MedioPago, BigDecimal> ventasPorMedioPago;
 }
@@ -0,0 +1,41 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import com.nove.sule.backend_nove_sule.entity.enums.ReglaRedondeo;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoAjustePrecio;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para ajustar masivamente el precio de los productos de una categoría, marca y/o proveedor
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AjustePrecioRequestDTO {
+
+    private Long categoriaId;
+
+    private Long marcaId;
+
+    private Long proveedorId;
+
+    @NotNull(message = "El tipo de ajuste es requerido")
+    private TipoAjustePrecio tipo;
+
+    /** Porcentaje (10 = +10%, mayor a -100) o monto en soles; negativo para rebajar. Ningún precio puede quedar en cero o negativo */
+    @NotNull(message = "El valor del ajuste es requerido")
+    private BigDecimal valor;
+
+    @Builder.Default
+    private ReglaRedondeo redondeo = ReglaRedondeo.CENTIMO;
+
+    @Size(max = 255, message = "El motivo no puede exceder 255 caracteres")
+    private String motivo;
+}
@@ -0,0 +1,23 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO con la página de productos de una búsqueda y los conteos de cada faceta
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BusquedaFacetadaDTO {
+
+    private PaginatedResponseDTO<ProductoDTO> productos;
+    private Map<String, List<ValorFacetaDTO>> facetas;
+}
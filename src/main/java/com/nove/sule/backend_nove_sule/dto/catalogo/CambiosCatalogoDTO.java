@@ -0,0 +1,24 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los cambios del catálogo desde una versión: registros a insertar o actualizar,
+ * IDs dados de baja y la versión a enviar en la siguiente consulta
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CambiosCatalogoDTO<T> {
+
+    private List<T> actualizados;
+    private List<Long> eliminados;
+    private String version;
+    private boolean hayMas;
+}
@@ -0,0 +1,19 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con un tag y la cantidad de productos activos que lo usan
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConteoTagDTO {
+
+    private String tag;
+    private long cantidad;
+}
@@ -0,0 +1,26 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO de una imagen de producto subida, con las URLs de la imagen y de sus miniaturas por tamaño
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImagenProductoDTO {
+
+    private Long productoId;
+    private String hash;
+    private String url;
+    private String tipoContenido;
+    private long tamano;
+    private boolean principal;
+    private Map<Integer, String> miniaturas;
+}
@@ -0,0 +1,40 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import com.nove.sule.backend_nove_sule.entity.enums.EstadoImportacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO con el avance y los errores por fila de una importación masiva de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportacionProductosDTO {
+
+    private String id;
+    private String archivo;
+    private EstadoImportacion estado;
+    private long filasProcesadas;
+    private long filasImportadas;
+    private long filasConError;
+    private List<ErrorFila> errores;
+    private String mensaje;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ErrorFila {
+        private long fila;
+        private String codigo;
+        private String mensaje;
+    }
+}
@@ -0,0 +1,27 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO inmutable con los datos que necesita el punto de venta al escanear un producto
+ */
+@Value
+@Builder
+public class ProductoEscaneoDTO {
+
+    Long id;
+    String codigo;
+    String codigoBarras;
+    String nombre;
+    String unidad;
+    BigDecimal precio;
+    BigDecimal precioConIgv;
+    TipoIGV tipoIgv;
+    Integer stock;
+    Estado estado;
+}
@@ -0,0 +1,41 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO para consultar y registrar tasas de IGV con fecha de vigencia
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TasaIgvDTO {
+
+    private Long id;
+
+    @NotNull(message = "El tipo de IGV es requerido")
+    private TipoIGV tipoIgv;
+
+    /** Tasa como fracción (0.18 = 18%) */
+    @NotNull(message = "La tasa es requerida")
+    @PositiveOrZero(message = "La tasa debe ser positiva o cero")
+    @DecimalMax(value = "0.9999", message = "La tasa debe ser menor a 1")
+    private BigDecimal tasa;
+
+    @NotNull(message = "La fecha de vigencia es requerida")
+    private LocalDate vigenteDesde;
+
+    @Size(max = 100, message = "La descripción no puede exceder 100 caracteres")
+    private String descripcion;
+}
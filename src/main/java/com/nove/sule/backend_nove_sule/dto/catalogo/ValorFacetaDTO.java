@@ -0,0 +1,21 @@
+package com.nove.sule.backend_nove_sule.dto.catalogo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con un valor de faceta (categoría, marca, proveedor o rango de precio) y su cantidad de productos
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ValorFacetaDTO {
+
+    private String valor;
+    private String etiqueta;
+    private long cantidad;
+    private boolean seleccionado;
+}
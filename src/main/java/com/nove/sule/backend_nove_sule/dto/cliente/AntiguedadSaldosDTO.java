@@ -0,0 +1,49 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO del reporte de antigüedad de las cuentas por cobrar.
+ * Los pagos se aplican a los comprobantes más antiguos, así que lo pendiente es siempre lo más reciente;
+ * cada tramo agrupa lo pendiente según los días transcurridos desde la emisión
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AntiguedadSaldosDTO {
+
+    private LocalDate fecha;
+    private TramosDTO totales;
+    private List<AntiguedadClienteDTO> clientes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TramosDTO {
+        private BigDecimal hasta30Dias;
+        private BigDecimal de31A60Dias;
+        private BigDecimal de61A90Dias;
+        private BigDecimal masDe90Dias;
+        private BigDecimal total;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class AntiguedadClienteDTO {
+        private Long clienteId;
+        private String numeroDocumento;
+        private String nombreCompleto;
+        private TramosDTO tramos;
+    }
+}
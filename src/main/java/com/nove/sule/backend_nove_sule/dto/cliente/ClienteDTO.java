@@ -19,7 +19,7 @@ import java.time.LocalDateTime;
  * DTO completo para Cliente
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ClienteDTO {
@@ -0,0 +1,29 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO de un cliente con sus puntajes RFM (1 a 5, mayor es mejor) y el segmento que le corresponde
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClienteSegmentadoDTO {
+
+    private Long clienteId;
+    private String nombreCompleto;
+    private SegmentoCliente segmento;
+    private Integer puntajeRecencia;
+    private Integer puntajeFrecuencia;
+    private Integer puntajeMonto;
+    private Long diasDesdeUltimaCompra;
+    private Long comprobantes;
+    private BigDecimal totalCompras;
+}
@@ -0,0 +1,23 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con el límite de crédito de un cliente, su saldo por cobrar y el crédito aún disponible
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreditoClienteDTO {
+
+    private Long clienteId;
+    private BigDecimal limiteCredito;
+    private BigDecimal saldo;
+    private BigDecimal disponible;
+}
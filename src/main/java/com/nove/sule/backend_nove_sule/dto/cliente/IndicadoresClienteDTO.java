@@ -0,0 +1,27 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con los indicadores de compra de un cliente; sólo cuentan los comprobantes vigentes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicadoresClienteDTO {
+
+    private Long clienteId;
+    private LocalDateTime primeraCompra;
+    private LocalDateTime ultimaCompra;
+    private Long diasDesdeUltimaCompra;
+    private Long comprobantes;
+    private BigDecimal totalCompras;
+    private BigDecimal ticketPromedio;
+}
@@ -0,0 +1,30 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de un pago registrado en la cuenta por cobrar de un cliente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PagoClienteDTO {
+
+    private Long id;
+    private Long clienteId;
+    private BigDecimal monto;
+    private MedioPago medioPago;
+    private String observaciones;
+    private String usuario;
+    private LocalDateTime fechaPago;
+    private BigDecimal saldoAnterior;
+    private BigDecimal saldoNuevo;
+}
@@ -0,0 +1,32 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO para registrar un pago a la cuenta por cobrar de un cliente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PagoClienteRequestDTO {
+
+    @NotNull(message = "El monto es requerido")
+    @DecimalMin(value = "0.01", message = "El monto debe ser mayor a 0")
+    private BigDecimal monto;
+
+    @NotNull(message = "El medio de pago es requerido")
+    private MedioPago medioPago;
+
+    @Size(max = 500, message = "Las observaciones no pueden exceder 500 caracteres")
+    private String observaciones;
+}
@@ -0,0 +1,37 @@
+package com.nove.sule.backend_nove_sule.dto.cliente;
+
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO con la cantidad de clientes y el importe comprado por cada segmento RFM.
+ * Los puntajes son quintiles sobre todos los clientes con compras vigentes a la fecha indicada
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SegmentacionClientesDTO {
+
+    private LocalDate fecha;
+    private Long clientes;
+    private Map<SegmentoCliente, ResumenSegmentoDTO> segmentos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ResumenSegmentoDTO {
+        private String descripcion;
+        private Long clientes;
+        private BigDecimal totalCompras;
+        private BigDecimal ticketPromedio;
+    }
+}
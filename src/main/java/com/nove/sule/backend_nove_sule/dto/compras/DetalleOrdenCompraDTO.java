@@ -20,6 +20,7 @@ public class DetalleOrdenCompraDTO {
     private Long id;
     private ProductoBasicoDTO producto;
     private Integer cantidad;
+    private Integer cantidadRecibida;
     private BigDecimal precioUnitario;
     private BigDecimal descuento;
     private BigDecimal subtotal;
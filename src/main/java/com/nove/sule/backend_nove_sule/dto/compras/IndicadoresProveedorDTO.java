@@ -0,0 +1,53 @@
+package com.nove.sule.backend_nove_sule.dto.compras;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO con los indicadores de desempeño de un proveedor y, opcionalmente, el detalle por producto.
+ * Los días de entrega se miden desde la fecha de la orden hasta cada recepción;
+ * el cumplimiento es la proporción de unidades recibidas sobre las pedidas en órdenes cerradas
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicadoresProveedorDTO {
+
+    private Long proveedorId;
+    private String proveedorNombre;
+    private Long ordenesAbiertas;
+    private BigDecimal valorPendiente;
+    private Long entregas;
+    private BigDecimal diasEntregaPromedio;
+    private Integer diasEntregaP90;
+    private BigDecimal porcentajeATiempo;
+    private Long ordenesCerradas;
+    private BigDecimal porcentajeCumplimiento;
+    private List<IndicadorProductoDTO> productos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class IndicadorProductoDTO {
+        private Long productoId;
+        private String productoCodigo;
+        private String productoNombre;
+        private Long unidadesPendientes;
+        private BigDecimal valorPendiente;
+        private Long entregas;
+        private BigDecimal diasEntregaPromedio;
+        private Integer diasEntregaP90;
+        private BigDecimal porcentajeCumplimiento;
+        private BigDecimal ultimoPrecio;
+        private BigDecimal precioMinimo;
+        private LocalDate fechaUltimaCompra;
+    }
+}
@@ -27,6 +27,7 @@ public class OrdenCompraDTO {
     private LocalDate fechaOrden;
     private LocalDate fechaEntregaEsperada;
     private EstadoOrdenCompra estado;
+    private Boolean vencida;
     private BigDecimal subtotal;
     private BigDecimal descuento;
     private BigDecimal igv;
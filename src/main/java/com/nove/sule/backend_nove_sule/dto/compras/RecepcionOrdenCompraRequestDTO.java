@@ -0,0 +1,43 @@
+package com.nove.sule.backend_nove_sule.dto.compras;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para registrar la recepción (total o parcial) de una orden de compra.
+ * Sin líneas se recibe todo lo pendiente de la orden
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecepcionOrdenCompraRequestDTO {
+
+    @Valid
+    private List<LineaRecepcionDTO> lineas;
+
+    @Size(max = 500, message = "Las observaciones no pueden exceder 500 caracteres")
+    private String observaciones;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineaRecepcionDTO {
+
+        @NotNull(message = "El detalle es requerido")
+        private Long detalleId;
+
+        @NotNull(message = "La cantidad es requerida")
+        @Positive(message = "La cantidad debe ser mayor a 0")
+        private Integer cantidad;
+    }
+}
@@ -39,6 +39,7 @@ public class ComprobanteVentaDTO {
     private MedioPago medioPago;
     private String observaciones;
     private String usuario;
+    private Long cajaId;
     private String caja;
     private List<DetalleComprobanteDTO> detalles;
 
@@ -46,6 +46,9 @@ public class ComprobanteVentaRequestDTO {
     @NotNull(message = "El medio de pago es requerido")
     private MedioPago medioPago;
 
+    // Caja donde se cobra la venta; sin caja la venta no entra en el arqueo
+    private Long cajaId;
+
     private String observaciones;
 
     @NotEmpty(message = "Debe incluir al menos un detalle")
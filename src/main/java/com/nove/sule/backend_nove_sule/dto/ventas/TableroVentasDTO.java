@@ -0,0 +1,38 @@
+package com.nove.sule.backend_nove_sule.dto.ventas;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * DTO del tablero de ventas de un día, con totales por caja, medio de pago y hora.
+ * En porCaja la clave 0 agrupa las ventas sin caja asignada
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TableroVentasDTO {
+
+    private LocalDate fecha;
+    private Long ventas;
+    private BigDecimal total;
+    private Map<Long, TotalDTO> porCaja;
+    private Map<MedioPago, TotalDTO> porMedioPago;
+    private Map<Integer, TotalDTO> porHora;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TotalDTO {
+        private Long ventas;
+        private BigDecimal total;
+    }
+}
@@ -3,6 +3,7 @@ package com.nove.sule.backend_nove_sule.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.ColumnDefault;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
@@ -34,10 +35,11 @@ public class Caja extends BaseEntity {
     @Builder.Default
     private BigDecimal saldoInicial = BigDecimal.ZERO;
 
-    @PositiveOrZero(message = "El saldo actual debe ser positivo o cero")
-    @Column(name = "saldo_actual", precision = 12, scale = 2)
-    @Builder.Default
-    private BigDecimal saldoActual = BigDecimal.ZERO;
+    // Sólo lo modifican las sentencias condicionales de CajaServiceImpl (movimientos y apertura), por eso
+    // Hibernate nunca lo escribe y una edición de la caja no pisa un movimiento confirmado entre medio
+    @ColumnDefault("0")
+    @Column(name = "saldo_actual", nullable = false, precision = 12, scale = 2, insertable = false, updatable = false)
+    private BigDecimal saldoActual;
 
     @Column(name = "fecha_apertura")
     private LocalDate fechaApertura;
@@ -47,8 +49,10 @@ public class Caja extends BaseEntity {
     @JoinColumn(name = "responsable_id")
     private Empleado responsable;
 
+    // Se fija al crear la caja; después sólo lo cambian la apertura, el cierre y el cambio de estado de
+    // CajaServiceImpl, así que editar los datos de una caja cerrada no la vuelve a abrir
     @Enumerated(EnumType.STRING)
-    @Column(length = 20)
+    @Column(length = 20, updatable = false)
     @Builder.Default
     private EstadoCaja estado = EstadoCaja.ABIERTA;
 
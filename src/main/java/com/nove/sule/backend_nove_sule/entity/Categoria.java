@@ -13,7 +13,9 @@ import java.util.List;
  * Entidad Categoria
  */
 @Entity
-@Table(name = "categorias")
+@Table(name = "categorias", indexes = {
+    @Index(name = "idx_categorias_version_cambio", columnList = "version_cambio, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -46,6 +48,10 @@ public class Categoria extends BaseEntity {
     @Builder.Default
     private Estado estado = Estado.ACTIVO;
 
+    // Transacción que escribió la fila por última vez; la asigna un trigger (import.sql) y ordena la sincronización
+    @Column(name = "version_cambio", insertable = false, updatable = false)
+    private Long versionCambio;
+
     // Relación uno a muchos con Producto
     @OneToMany(mappedBy = "categoria", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
@@ -8,6 +8,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -17,7 +18,7 @@ import java.time.LocalDate;
  */
 @Entity
 @Table(name = "clientes",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"tipo_documento", "numero_documento"}))
+       uniqueConstraints = @UniqueConstraint(name = Cliente.UK_DOCUMENTO, columnNames = {"tipo_documento", "numero_documento"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +26,9 @@ import java.time.LocalDate;
 @Builder
 public class Cliente extends BaseEntity {
 
+    /** Restricción que garantiza un solo cliente por documento; sirve también de índice para buscarlo */
+    public static final String UK_DOCUMENTO = "uk_clientes_documento";
+
     @Enumerated(EnumType.STRING)
     @Column(name = "tipo_documento", nullable = false, length = 20)
     private TipoDocumento tipoDocumento;
@@ -78,6 +82,12 @@ public class Cliente extends BaseEntity {
     @Builder.Default
     private BigDecimal limiteCredito = BigDecimal.ZERO;
 
+    // Saldo por cobrar de las ventas al crédito. Sólo lo modifican las sentencias condicionales de
+    // CuentaPorCobrarService, por eso Hibernate nunca lo escribe y una edición del cliente no lo pisa
+    @ColumnDefault("0")
+    @Column(name = "saldo_credito", nullable = false, precision = 12, scale = 2, insertable = false, updatable = false)
+    private BigDecimal saldoCredito;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20)
     @Builder.Default
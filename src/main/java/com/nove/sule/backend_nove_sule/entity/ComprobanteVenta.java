@@ -4,6 +4,7 @@ import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
 import com.nove.sule.backend_nove_sule.entity.enums.Moneda;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoComprobante;
+import com.nove.sule.backend_nove_sule.util.CalculadoraIgv;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,6 +13,7 @@ import jakarta.validation.constraints.Size;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,7 +23,11 @@ import java.util.List;
  */
 @Entity
 @Table(name = "comprobantes_venta",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"tipo_comprobante", "serie", "numero"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"tipo_comprobante", "serie", "numero"}),
+       indexes = {
+           @Index(name = "idx_comprobantes_venta_fecha_emision", columnList = "fecha_emision"),
+           @Index(name = "idx_comprobantes_venta_cliente_fecha", columnList = "cliente_id, fecha_emision")
+       })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -111,14 +117,12 @@ public class ComprobanteVenta extends BaseEntity {
 
     // Método para calcular totales
     public void calcularTotales() {
-        BigDecimal subtotalCalculado = detalles.stream()
-                .map(DetalleComprobante::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        this.subtotal = subtotalCalculado;
-        BigDecimal subtotalConDescuento = subtotalCalculado.subtract(descuento != null ? descuento : BigDecimal.ZERO);
-        this.igv = subtotalConDescuento.multiply(new BigDecimal("0.18"));
-        this.total = subtotalConDescuento.add(igv);
+        CalculadoraIgv.Totales totales = CalculadoraIgv.calcular(detalles, descuento,
+                fechaEmision != null ? fechaEmision.toLocalDate() : LocalDate.now());
+
+        this.subtotal = totales.subtotal();
+        this.igv = totales.igv();
+        this.total = totales.total();
     }
 
     // Método para obtener el número completo del comprobante
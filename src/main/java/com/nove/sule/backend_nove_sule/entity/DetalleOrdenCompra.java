@@ -1,13 +1,15 @@
 package com.nove.sule.backend_nove_sule.entity;
 
+import com.nove.sule.backend_nove_sule.entity.converter.MontoConverter;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import com.nove.sule.backend_nove_sule.util.CalculadoraIgv;
+import com.nove.sule.backend_nove_sule.util.Cantidad;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
-import java.math.BigDecimal;
-
 /**
  * Entidad Detalle de Orden de Compra
  */
@@ -18,7 +20,7 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class DetalleOrdenCompra extends BaseEntity {
+public class DetalleOrdenCompra extends BaseEntity implements CalculadoraIgv.Linea {
 
     // Relación muchos a uno con OrdenCompra
     @ManyToOne(fetch = FetchType.LAZY)
@@ -35,26 +37,36 @@ public class DetalleOrdenCompra extends BaseEntity {
     @Column(nullable = false)
     private Integer cantidad;
 
+    // Unidades ya ingresadas al inventario por recepciones (posiblemente parciales)
+    @Column(name = "cantidad_recibida", nullable = false)
+    @Builder.Default
+    private Integer cantidadRecibida = 0;
+
     @NotNull(message = "El precio unitario es requerido")
-    @PositiveOrZero(message = "El precio unitario debe ser positivo o cero")
+    @Convert(converter = MontoConverter.class)
     @Column(name = "precio_unitario", nullable = false, precision = 10, scale = 2)
-    private BigDecimal precioUnitario;
+    private Monto precioUnitario;
 
-    @PositiveOrZero(message = "El descuento debe ser positivo o cero")
+    @Convert(converter = MontoConverter.class)
     @Column(precision = 10, scale = 2)
     @Builder.Default
-    private BigDecimal descuento = BigDecimal.ZERO;
+    private Monto descuento = Monto.CERO;
 
     @NotNull(message = "El subtotal es requerido")
-    @PositiveOrZero(message = "El subtotal debe ser positivo o cero")
+    @Convert(converter = MontoConverter.class)
     @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal subtotal;
+    private Monto subtotal;
 
-    // Método para calcular el subtotal
+    // Método para calcular el subtotal; valida cantidad, precio y descuento de la línea
     @PrePersist
     @PreUpdate
-    private void calcularSubtotal() {
-        BigDecimal total = precioUnitario.multiply(new BigDecimal(cantidad));
-        this.subtotal = total.subtract(descuento != null ? descuento : BigDecimal.ZERO);
+    public void calcularSubtotal() {
+        this.subtotal = CalculadoraIgv.subtotalLinea(precioUnitario,
+                cantidad != null ? Cantidad.unidades(cantidad) : null, descuento);
+    }
+
+    @Override
+    public TipoIGV getTipoIgv() {
+        return producto != null ? producto.getTipoIgvEfectivo() : TipoIGV.GRAVADO;
     }
 }
@@ -0,0 +1,48 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Entidad Historial de Precios (un registro por cada cambio de precio de un producto)
+ */
+@Entity
+@Table(name = "historial_precios", indexes = {
+    @Index(name = "idx_historial_precios_producto_fecha", columnList = "producto_id, fecha_creacion")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorialPrecio extends BaseEntity {
+
+    // Relación muchos a uno con Producto
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    @NotNull(message = "El precio anterior es requerido")
+    @PositiveOrZero(message = "El precio anterior debe ser positivo o cero")
+    @Column(name = "precio_anterior", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precioAnterior;
+
+    @NotNull(message = "El precio nuevo es requerido")
+    @PositiveOrZero(message = "El precio nuevo debe ser positivo o cero")
+    @Column(name = "precio_nuevo", nullable = false, precision = 10, scale = 2)
+    private BigDecimal precioNuevo;
+
+    @Size(max = 255, message = "El motivo no puede exceder 255 caracteres")
+    @Column(length = 255)
+    private String motivo;
+
+    // Relación muchos a uno con Usuario (quien aplicó el cambio)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+}
@@ -0,0 +1,42 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Indicadores acumulados de compra de un cliente (recencia, frecuencia y monto).
+ * Se mantienen con incrementos en cada venta y anulación, para que la ficha y la segmentación
+ * de clientes no recorran los comprobantes de venta
+ */
+@Entity
+@Table(name = "indicadores_cliente", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_indicadores_cliente_cliente", columnNames = {"cliente_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicadorCliente extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    // Comprobantes vigentes y su importe total
+    @Column(nullable = false)
+    private Long comprobantes;
+
+    @Column(name = "total_compras", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalCompras;
+
+    // Emisión del primer y del último comprobante vigente
+    @Column(name = "primera_compra")
+    private LocalDateTime primeraCompra;
+
+    @Column(name = "ultima_compra")
+    private LocalDateTime ultimaCompra;
+}
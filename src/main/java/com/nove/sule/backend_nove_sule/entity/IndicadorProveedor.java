@@ -0,0 +1,64 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+
+/**
+ * Indicadores acumulados de desempeño de un proveedor.
+ * Se mantienen con incrementos al crear, recibir, cancelar o cambiar de estado sus órdenes,
+ * para que la ficha del proveedor no recorra las órdenes de compra
+ */
+@Entity
+@Table(name = "indicadores_proveedor", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_indicadores_proveedor_proveedor", columnNames = {"proveedor_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicadorProveedor extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "proveedor_id", nullable = false)
+    private Proveedor proveedor;
+
+    // Órdenes que todavía esperan mercadería y el valor de lo que falta recibir
+    @Column(name = "ordenes_abiertas", nullable = false)
+    private Long ordenesAbiertas;
+
+    @Column(name = "valor_pendiente", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorPendiente;
+
+    // Recepciones registradas y días transcurridos desde la fecha de la orden
+    @Column(nullable = false)
+    private Long entregas;
+
+    @Column(name = "entregas_con_fecha", nullable = false)
+    private Long entregasConFecha;
+
+    @Column(name = "entregas_a_tiempo", nullable = false)
+    private Long entregasATiempo;
+
+    @Column(name = "dias_entrega_total", nullable = false)
+    private Long diasEntregaTotal;
+
+    // Histograma de recepciones por día de demora; la última posición agrupa las de 90 días o más
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "entregas_por_dia", columnDefinition = "integer[]")
+    private Integer[] entregasPorDia;
+
+    // Órdenes cerradas con mercadería recibida: base del nivel de cumplimiento
+    @Column(name = "ordenes_cerradas", nullable = false)
+    private Long ordenesCerradas;
+
+    @Column(name = "unidades_pedidas", nullable = false)
+    private Long unidadesPedidas;
+
+    @Column(name = "unidades_recibidas", nullable = false)
+    private Long unidadesRecibidas;
+}
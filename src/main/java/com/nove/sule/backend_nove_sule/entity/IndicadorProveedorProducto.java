@@ -0,0 +1,64 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Indicadores acumulados de un producto comprado a un proveedor: demora, cumplimiento y precios de compra.
+ * Se mantiene con los mismos incrementos que {@link IndicadorProveedor}
+ */
+@Entity
+@Table(name = "indicadores_proveedor_producto", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_indicadores_proveedor_producto", columnNames = {"proveedor_id", "producto_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IndicadorProveedorProducto extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "proveedor_id", nullable = false)
+    private Proveedor proveedor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producto_id", nullable = false)
+    private Producto producto;
+
+    @Column(name = "unidades_pendientes", nullable = false)
+    private Long unidadesPendientes;
+
+    @Column(name = "valor_pendiente", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorPendiente;
+
+    @Column(nullable = false)
+    private Long entregas;
+
+    @Column(name = "dias_entrega_total", nullable = false)
+    private Long diasEntregaTotal;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "entregas_por_dia", columnDefinition = "integer[]")
+    private Integer[] entregasPorDia;
+
+    @Column(name = "unidades_pedidas", nullable = false)
+    private Long unidadesPedidas;
+
+    @Column(name = "unidades_recibidas", nullable = false)
+    private Long unidadesRecibidas;
+
+    @Column(name = "ultimo_precio", precision = 10, scale = 2)
+    private BigDecimal ultimoPrecio;
+
+    @Column(name = "precio_minimo", precision = 10, scale = 2)
+    private BigDecimal precioMinimo;
+
+    @Column(name = "fecha_ultima_compra")
+    private LocalDate fechaUltimaCompra;
+}
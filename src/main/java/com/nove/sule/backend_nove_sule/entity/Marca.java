@@ -14,7 +14,9 @@ import java.util.List;
  * Entidad Marca
  */
 @Entity
-@Table(name = "marcas")
+@Table(name = "marcas", indexes = {
+    @Index(name = "idx_marcas_version_cambio", columnList = "version_cambio, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -56,6 +58,10 @@ public class Marca extends BaseEntity {
     @Builder.Default
     private Estado estado = Estado.ACTIVO;
 
+    // Transacción que escribió la fila por última vez; la asigna un trigger (import.sql) y ordena la sincronización
+    @Column(name = "version_cambio", insertable = false, updatable = false)
+    private Long versionCambio;
+
     // Relación uno a muchos con Producto
     @OneToMany(mappedBy = "marca", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
@@ -0,0 +1,71 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoMovimiento;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Movimiento de Caja. El libro es de sólo inserción: un movimiento no se edita ni se borra,
+ * una corrección se registra como un movimiento nuevo
+ */
+@Entity
+@Immutable
+@Table(name = "movimientos_caja", indexes = {
+    @Index(name = "idx_movimientos_caja_caja_fecha", columnList = "caja_id, fecha_movimiento, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovimientoCaja extends BaseEntity {
+
+    // Relación muchos a uno con Caja
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "caja_id", nullable = false)
+    private Caja caja;
+
+    @NotNull(message = "El tipo de movimiento es requerido")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_movimiento", nullable = false, length = 20)
+    private TipoMovimiento tipoMovimiento;
+
+    @NotNull(message = "El monto es requerido")
+    @Positive(message = "El monto debe ser mayor a cero")
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal monto;
+
+    @NotBlank(message = "El concepto es requerido")
+    @Size(max = 100, message = "El concepto no puede exceder 100 caracteres")
+    @Column(nullable = false, length = 100)
+    private String concepto;
+
+    @Size(max = 500, message = "Las observaciones no pueden exceder 500 caracteres")
+    @Column(columnDefinition = "TEXT")
+    private String observaciones;
+
+    // Relación muchos a uno con Usuario (quien registra el movimiento; nulo para procesos del sistema)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    @NotNull(message = "La fecha del movimiento es requerida")
+    @Column(name = "fecha_movimiento", nullable = false)
+    private LocalDateTime fechaMovimiento;
+
+    @NotNull(message = "El saldo anterior es requerido")
+    @Column(name = "saldo_anterior", nullable = false, precision = 12, scale = 2)
+    private BigDecimal saldoAnterior;
+
+    @NotNull(message = "El saldo nuevo es requerido")
+    @Column(name = "saldo_nuevo", nullable = false, precision = 12, scale = 2)
+    private BigDecimal saldoNuevo;
+}
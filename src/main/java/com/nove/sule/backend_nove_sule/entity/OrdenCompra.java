@@ -1,6 +1,7 @@
 package com.nove.sule.backend_nove_sule.entity;
 
 import com.nove.sule.backend_nove_sule.entity.enums.EstadoOrdenCompra;
+import com.nove.sule.backend_nove_sule.util.CalculadoraIgv;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -47,6 +48,11 @@ public class OrdenCompra extends BaseEntity {
     @Builder.Default
     private EstadoOrdenCompra estado = EstadoOrdenCompra.PENDIENTE;
 
+    // La marca el proceso programado cuando pasa la fecha de entrega esperada sin haberse recibido
+    @Column(nullable = false)
+    @Builder.Default
+    private Boolean vencida = false;
+
     @NotNull(message = "El subtotal es requerido")
     @PositiveOrZero(message = "El subtotal debe ser positivo o cero")
     @Column(nullable = false, precision = 12, scale = 2)
@@ -82,13 +88,11 @@ public class OrdenCompra extends BaseEntity {
 
     // Método para calcular totales
     public void calcularTotales() {
-        BigDecimal subtotalCalculado = detalles.stream()
-                .map(DetalleOrdenCompra::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        this.subtotal = subtotalCalculado;
-        BigDecimal subtotalConDescuento = subtotalCalculado.subtract(descuento != null ? descuento : BigDecimal.ZERO);
-        this.igv = subtotalConDescuento.multiply(new BigDecimal("0.18"));
-        this.total = subtotalConDescuento.add(igv);
+        CalculadoraIgv.Totales totales = CalculadoraIgv.calcular(detalles, descuento,
+                fechaOrden != null ? fechaOrden : LocalDate.now());
+
+        this.subtotal = totales.subtotal();
+        this.igv = totales.igv();
+        this.total = totales.total();
     }
 }
@@ -0,0 +1,61 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad Pago de Cliente: abono a la cuenta por cobrar de las ventas al crédito.
+ * Igual que el libro de caja es de sólo inserción y guarda el saldo antes y después del pago
+ */
+@Entity
+@Immutable
+@Table(name = "pagos_cliente", indexes = {
+    @Index(name = "idx_pagos_cliente_cliente_fecha", columnList = "cliente_id, fecha_pago, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PagoCliente extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "cliente_id", nullable = false)
+    private Cliente cliente;
+
+    @NotNull(message = "El monto es requerido")
+    @Positive(message = "El monto debe ser mayor a cero")
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal monto;
+
+    @NotNull(message = "El medio de pago es requerido")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "medio_pago", nullable = false, length = 20)
+    private MedioPago medioPago;
+
+    @Size(max = 500, message = "Las observaciones no pueden exceder 500 caracteres")
+    @Column(columnDefinition = "TEXT")
+    private String observaciones;
+
+    // Quien registra el pago; nulo para procesos del sistema
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "usuario_id")
+    private Usuario usuario;
+
+    @Column(name = "fecha_pago", nullable = false)
+    private LocalDateTime fechaPago;
+
+    @Column(name = "saldo_anterior", nullable = false, precision = 12, scale = 2)
+    private BigDecimal saldoAnterior;
+
+    @Column(name = "saldo_nuevo", nullable = false, precision = 12, scale = 2)
+    private BigDecimal saldoNuevo;
+}
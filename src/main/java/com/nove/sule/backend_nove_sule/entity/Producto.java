@@ -2,6 +2,7 @@ package com.nove.sule.backend_nove_sule.entity;
 
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import com.nove.sule.backend_nove_sule.util.CalculadoraIgv;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,7 +21,10 @@ import java.util.Map;
  * Entidad Producto
  */
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+    @Index(name = "idx_productos_codigo_barras", columnList = "codigo_barras"),
+    @Index(name = "idx_productos_version_cambio", columnList = "version_cambio, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -153,12 +157,23 @@ public class Producto extends BaseEntity {
     @Builder.Default
     private Estado estado = Estado.ACTIVO;
 
+    // Transacción que escribió la fila por última vez; la asigna un trigger (import.sql) y ordena la sincronización
+    @Column(name = "version_cambio", insertable = false, updatable = false)
+    private Long versionCambio;
+
     // Métodos de conveniencia para cálculos
     public BigDecimal getPrecioConIgv() {
-        if (afectoIgv && tipoIgv == TipoIGV.GRAVADO) {
-            return precio.multiply(new BigDecimal("1.18")); // IGV 18%
+        return CalculadoraIgv.precioConIgv(precio, getTipoIgvEfectivo());
+    }
+
+    /**
+     * Tipo de afectación con el que se calcula el IGV; un producto no afecto se trata como inafecto
+     */
+    public TipoIGV getTipoIgvEfectivo() {
+        if (!Boolean.TRUE.equals(afectoIgv)) {
+            return TipoIGV.INAFECTO;
         }
-        return precio;
+        return tipoIgv != null ? tipoIgv : TipoIGV.GRAVADO;
     }
 
     public BigDecimal getMargenGanancia() {
@@ -0,0 +1,57 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Acumulado diario de una caja por medio de pago. Los movimientos de caja cuentan como efectivo;
+ * las ventas asignadas a la caja se suman en el medio de pago con que se cobraron.
+ * Se mantiene con incrementos en cada movimiento, venta y anulación, para que el arqueo no recorra el libro
+ */
+@Entity
+@Table(name = "resumen_caja_diario", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_resumen_caja_diario", columnNames = {"fecha", "caja_id", "medio_pago"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenCajaDiario extends BaseEntity {
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "caja_id", nullable = false)
+    private Caja caja;
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "medio_pago", nullable = false, length = 20)
+    private MedioPago medioPago;
+
+    // Movimientos de caja
+    @Column(nullable = false)
+    private Long movimientos;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal ingresos;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal egresos;
+
+    // Ventas vigentes cobradas en la caja
+    @Column(nullable = false)
+    private Long ventas;
+
+    @Column(name = "total_ventas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalVentas;
+
+    @Column(name = "ultimo_movimiento")
+    private LocalDateTime ultimoMovimiento;
+}
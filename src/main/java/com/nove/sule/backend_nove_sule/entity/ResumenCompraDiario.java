@@ -0,0 +1,51 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.EstadoOrdenCompra;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Acumulado diario de órdenes de compra por fecha de orden y estado.
+ * Se mantiene con incrementos al crear, editar o cambiar de estado una orden,
+ * para que los resúmenes de compras no recorran las órdenes del período
+ */
+@Entity
+@Table(name = "resumen_compras_diario", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_resumen_compras_diario_fecha_estado", columnNames = {"fecha", "estado"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenCompraDiario extends BaseEntity {
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EstadoOrdenCompra estado;
+
+    @Column(nullable = false)
+    private Long ordenes;
+
+    // Unidades pedidas en las órdenes
+    @Column(nullable = false)
+    private Long unidades;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal descuento;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal igv;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal total;
+}
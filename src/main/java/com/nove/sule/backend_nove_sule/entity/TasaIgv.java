@@ -0,0 +1,45 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entidad Tasa de IGV: tasa aplicable a un tipo de afectación desde una fecha de vigencia
+ */
+@Entity
+@Table(name = "tasas_igv", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tasas_igv_tipo_vigencia", columnNames = {"tipo_igv", "vigente_desde"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TasaIgv extends BaseEntity {
+
+    @NotNull(message = "El tipo de IGV es requerido")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo_igv", nullable = false, length = 20)
+    private TipoIGV tipoIgv;
+
+    /** Tasa como fracción (0.1800 = 18%) */
+    @NotNull(message = "La tasa es requerida")
+    @PositiveOrZero(message = "La tasa debe ser positiva o cero")
+    @Column(nullable = false, precision = 5, scale = 4)
+    private BigDecimal tasa;
+
+    @NotNull(message = "La fecha de vigencia es requerida")
+    @Column(name = "vigente_desde", nullable = false)
+    private LocalDate vigenteDesde;
+
+    @Size(max = 100, message = "La descripción no puede exceder 100 caracteres")
+    @Column(length = 100)
+    private String descripcion;
+}
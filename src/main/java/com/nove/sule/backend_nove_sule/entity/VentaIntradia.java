@@ -0,0 +1,43 @@
+package com.nove.sule.backend_nove_sule.entity;
+
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Instantánea por hora de los contadores de ventas del tablero, por caja y medio de pago.
+ * La escribe periódicamente el tablero en memoria; caja_id 0 agrupa las ventas sin caja asignada
+ */
+@Entity
+@Table(name = "ventas_intradia", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ventas_intradia", columnNames = {"fecha", "caja_id", "medio_pago", "hora"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VentaIntradia extends BaseEntity {
+
+    @Column(nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "caja_id", nullable = false)
+    private Long cajaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "medio_pago", nullable = false, length = 20)
+    private MedioPago medioPago;
+
+    @Column(nullable = false)
+    private Integer hora;
+
+    @Column(nullable = false)
+    private Long ventas;
+
+    // Importe en céntimos, igual que los contadores en memoria
+    @Column(nullable = false)
+    private Long centimos;
+}
@@ -0,0 +1,24 @@
+package com.nove.sule.backend_nove_sule.entity.converter;
+
+import com.nove.sule.backend_nove_sule.util.Cantidad;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Convierte cantidades en milésimas a columnas numeric con tres decimales
+ */
+@Converter
+public class CantidadConverter implements AttributeConverter<Cantidad, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Cantidad cantidad) {
+        return cantidad == null ? null : cantidad.aBigDecimal();
+    }
+
+    @Override
+    public Cantidad convertToEntityAttribute(BigDecimal valor) {
+        return valor == null ? null : Cantidad.de(valor);
+    }
+}
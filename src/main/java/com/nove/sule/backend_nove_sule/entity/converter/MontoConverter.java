@@ -0,0 +1,24 @@
+package com.nove.sule.backend_nove_sule.entity.converter;
+
+import com.nove.sule.backend_nove_sule.util.Monto;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Convierte montos en céntimos a columnas numeric con dos decimales
+ */
+@Converter
+public class MontoConverter implements AttributeConverter<Monto, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Monto monto) {
+        return monto == null ? null : monto.aBigDecimal();
+    }
+
+    @Override
+    public Monto convertToEntityAttribute(BigDecimal valor) {
+        return valor == null ? null : Monto.de(valor);
+    }
+}
@@ -0,0 +1,20 @@
+package com.nove.sule.backend_nove_sule.entity.enums;
+
+/**
+ * Enum para los estados de un trabajo de importación
+ */
+public enum EstadoImportacion {
+    EN_PROCESO("En proceso"),
+    COMPLETADO("Completado"),
+    FALLIDO("Fallido");
+
+    private final String descripcion;
+
+    EstadoImportacion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
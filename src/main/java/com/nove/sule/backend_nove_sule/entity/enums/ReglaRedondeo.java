@@ -0,0 +1,21 @@
+package com.nove.sule.backend_nove_sule.entity.enums;
+
+/**
+ * Enum para definir el redondeo del precio resultante de un ajuste
+ */
+public enum ReglaRedondeo {
+    CENTIMO("Al céntimo"),
+    DECIMO("A S/ 0.10"),
+    ENTERO("A S/ 1.00"),
+    TERMINACION_90("Terminado en .90 hacia arriba");
+
+    private final String descripcion;
+
+    ReglaRedondeo(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,47 @@
+package com.nove.sule.backend_nove_sule.entity.enums;
+
+/**
+ * Enum para definir los segmentos de clientes según recencia y frecuencia de compra (RFM)
+ */
+public enum SegmentoCliente {
+    CAMPEONES("Compran seguido y hace poco"),
+    LEALES("Compran seguido"),
+    NUEVOS("Primera compra reciente"),
+    POTENCIALES("Compras recientes, aún poco frecuentes"),
+    EN_RIESGO("Compraban seguido pero hace tiempo que no"),
+    NECESITAN_ATENCION("Recencia y frecuencia intermedias"),
+    HIBERNANDO("Pocas compras y hace tiempo"),
+    PERDIDOS("Pocas compras y hace mucho");
+
+    private final String descripcion;
+
+    SegmentoCliente(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Segmento para los puntajes de recencia y frecuencia (1 a 5, mayor es mejor)
+     */
+    public static SegmentoCliente de(int recencia, int frecuencia) {
+        if (recencia >= 4 && frecuencia >= 4) {
+            return CAMPEONES;
+        }
+        if (frecuencia >= 4) {
+            return recencia >= 3 ? LEALES : EN_RIESGO;
+        }
+        if (recencia >= 4) {
+            return frecuencia == 1 ? NUEVOS : POTENCIALES;
+        }
+        if (recencia <= 2 && frecuencia == 3) {
+            return EN_RIESGO;
+        }
+        if (recencia == 3) {
+            return NECESITAN_ATENCION;
+        }
+        return recencia == 2 ? HIBERNANDO : PERDIDOS;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nove.sule.backend_nove_sule.entity.enums;
+
+/**
+ * Enum para definir cómo se aplica un ajuste masivo de precios
+ */
+public enum TipoAjustePrecio {
+    PORCENTAJE("Porcentaje"),
+    MONTO_FIJO("Monto fijo");
+
+    private final String descripcion;
+
+    TipoAjustePrecio(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+}
@@ -0,0 +1,10 @@
+package com.nove.sule.backend_nove_sule.event;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoDocumento;
+
+/**
+ * Evento publicado cuando se crea o modifica el cliente con el documento indicado.
+ * Si el documento cambia se publica uno por el documento anterior y otro por el nuevo
+ */
+public record ClienteModificadoEvent(TipoDocumento tipoDocumento, String numeroDocumento) {
+}
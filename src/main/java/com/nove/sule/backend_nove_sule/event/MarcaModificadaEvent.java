@@ -0,0 +1,7 @@
+package com.nove.sule.backend_nove_sule.event;
+
+/**
+ * Evento publicado cuando una marca cambia
+ */
+public record MarcaModificadaEvent(Long marcaId) {
+}
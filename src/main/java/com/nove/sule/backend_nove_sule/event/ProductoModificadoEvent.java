@@ -0,0 +1,30 @@
+package com.nove.sule.backend_nove_sule.event;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento publicado cuando uno o más productos cambian (alta, edición, estado o stock).
+ * Un conjunto vacío indica que pudo cambiar cualquier producto del catálogo.
+ */
+public record ProductoModificadoEvent(Set<Long> productoIds) {
+
+    public static ProductoModificadoEvent de(Long productoId) {
+        return new ProductoModificadoEvent(Set.of(productoId));
+    }
+
+    /**
+     * Evento para un conjunto de productos; quien lo publica debe omitirlo si no cambió ninguno
+     */
+    public static ProductoModificadoEvent de(Collection<Long> productoIds) {
+        return new ProductoModificadoEvent(Set.copyOf(productoIds));
+    }
+
+    public static ProductoModificadoEvent todos() {
+        return new ProductoModificadoEvent(Set.of());
+    }
+
+    public boolean afectaTodos() {
+        return productoIds.isEmpty();
+    }
+}
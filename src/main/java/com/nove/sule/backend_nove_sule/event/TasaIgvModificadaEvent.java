@@ -0,0 +1,7 @@
+package com.nove.sule.backend_nove_sule.event;
+
+/**
+ * Evento publicado cuando se registra una tasa de IGV
+ */
+public record TasaIgvModificadaEvent(Long tasaIgvId) {
+}
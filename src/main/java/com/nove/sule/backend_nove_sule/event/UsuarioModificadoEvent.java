@@ -0,0 +1,7 @@
+package com.nove.sule.backend_nove_sule.event;
+
+/**
+ * Evento publicado cuando cambia el estado o el rol de un usuario
+ */
+public record UsuarioModificadoEvent(Long usuarioId) {
+}
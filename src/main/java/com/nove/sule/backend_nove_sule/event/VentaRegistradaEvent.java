@@ -0,0 +1,22 @@
+package com.nove.sule.backend_nove_sule.event;
+
+import com.nove.sule.backend_nove_sule.entity.ComprobanteVenta;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import com.nove.sule.backend_nove_sule.util.Monto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado cuando una venta vigente se registra (signo 1) o se anula (signo -1).
+ * La anulación conserva la fecha de emisión para descontarse de la misma hora en que se sumó
+ */
+public record VentaRegistradaEvent(Long cajaId, LocalDateTime fechaEmision, MedioPago medioPago,
+                                   long centimos, int signo) {
+
+    public static VentaRegistradaEvent de(ComprobanteVenta comprobante, int signo) {
+        return new VentaRegistradaEvent(
+            comprobante.getCaja() != null ? comprobante.getCaja().getId() : null,
+            comprobante.getFechaEmision(), comprobante.getMedioPago(),
+            Monto.centimos(comprobante.getTotal()), signo);
+    }
+}
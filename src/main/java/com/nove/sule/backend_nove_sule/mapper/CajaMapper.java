@@ -3,6 +3,7 @@ package com.nove.sule.backend_nove_sule.mapper;
 import com.nove.sule.backend_nove_sule.dto.caja.*;
 import com.nove.sule.backend_nove_sule.entity.Caja;
 import com.nove.sule.backend_nove_sule.entity.Empleado;
+import com.nove.sule.backend_nove_sule.entity.MovimientoCaja;
 import org.mapstruct.*;
 
 /**
@@ -19,6 +20,13 @@ public interface CajaMapper {
     @Mapping(target = "responsableNombre", source = "responsable.nombreCompleto")
     CajaResponseDTO toResponseDTO(Caja caja);
 
+    // ===== MOVIMIENTO DE CAJA =====
+
+    @Mapping(target = "cajaId", source = "caja.id")
+    @Mapping(target = "cajaNombre", source = "caja.nombre")
+    @Mapping(target = "usuario", source = "usuario.username", defaultValue = "Sistema")
+    MovimientoCajaDTO toMovimientoDTO(MovimientoCaja movimiento);
+
     // ===== MÉTODOS AUXILIARES =====
 
     default String obtenerNombreCompleto(Empleado empleado) {
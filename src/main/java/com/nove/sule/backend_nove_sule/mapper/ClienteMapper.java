@@ -20,6 +20,7 @@ public interface ClienteMapper {
     @Mapping(target = "departamento", ignore = true)
     @Mapping(target = "distrito", ignore = true)
     @Mapping(target = "provincia", ignore = true)
+    @Mapping(target = "saldoCredito", ignore = true)
     Cliente toEntity(ClienteRequestDTO request);
 
     ClienteResponseDTO toResponseDTO(Cliente cliente);
@@ -8,7 +8,7 @@ import org.mapstruct.*;
 /**
  * Mapper para conversiones de Compras
  */
-@Mapper(componentModel = "spring", uses = {ProductoMapper.class})
+@Mapper(componentModel = "spring", uses = {ProductoMapper.class, MontoMapper.class})
 public interface CompraMapper {
 
     // ===== ORDEN COMPRA =====
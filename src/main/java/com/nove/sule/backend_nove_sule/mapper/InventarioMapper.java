@@ -2,6 +2,8 @@ package com.nove.sule.backend_nove_sule.mapper;
 
 import com.nove.sule.backend_nove_sule.dto.inventario.*;
 import com.nove.sule.backend_nove_sule.entity.*;
+import com.nove.sule.backend_nove_sule.util.Cantidad;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import org.mapstruct.*;
 
 /**
@@ -69,7 +71,7 @@ public interface InventarioMapper {
         if (producto == null || producto.getPrecioCompra() == null) {
             return java.math.BigDecimal.ZERO;
         }
-        return producto.getPrecioCompra().multiply(new java.math.BigDecimal(producto.getStock()));
+        return Monto.de(producto.getPrecioCompra()).por(Cantidad.unidades(producto.getStock())).aBigDecimal();
     }
 
     default String determinarEstadoStock(Producto producto) {
@@ -93,6 +95,6 @@ public interface InventarioMapper {
             return java.math.BigDecimal.ZERO;
         }
         
-        return producto.getPrecioCompra().multiply(new java.math.BigDecimal(cantidadNecesaria));
+        return Monto.de(producto.getPrecioCompra()).por(Cantidad.unidades(cantidadNecesaria)).aBigDecimal();
     }
 }
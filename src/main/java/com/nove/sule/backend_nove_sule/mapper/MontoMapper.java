@@ -0,0 +1,32 @@
+package com.nove.sule.backend_nove_sule.mapper;
+
+import com.nove.sule.backend_nove_sule.util.Cantidad;
+import com.nove.sule.backend_nove_sule.util.Monto;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversiones entre los tipos de cálculo (Monto, Cantidad) y los BigDecimal de los DTOs
+ */
+public final class MontoMapper {
+
+    private MontoMapper() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static BigDecimal aBigDecimal(Monto monto) {
+        return monto == null ? null : monto.aBigDecimal();
+    }
+
+    public static Monto aMonto(BigDecimal valor) {
+        return valor == null ? null : Monto.de(valor);
+    }
+
+    public static BigDecimal aBigDecimal(Cantidad cantidad) {
+        return cantidad == null ? null : cantidad.aBigDecimal();
+    }
+
+    public static Cantidad aCantidad(BigDecimal valor) {
+        return valor == null ? null : Cantidad.de(valor);
+    }
+}
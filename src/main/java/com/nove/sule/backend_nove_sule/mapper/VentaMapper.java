@@ -5,6 +5,7 @@ import com.nove.sule.backend_nove_sule.entity.Cliente;
 import com.nove.sule.backend_nove_sule.entity.ComprobanteVenta;
 import com.nove.sule.backend_nove_sule.entity.DetalleComprobante;
 import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import org.mapstruct.*;
 
 import java.util.List;
@@ -12,7 +13,7 @@ import java.util.List;
 /**
  * Mapper para conversiones de Ventas
  */
-@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE, uses = {MontoMapper.class})
 public interface VentaMapper {
 
     // ===== COMPROBANTE VENTA =====
@@ -22,6 +23,7 @@ public interface VentaMapper {
     @Mapping(target = "numeroCompleto", expression = "java(comprobante.getSerie() + \"-\" + comprobante.getNumero())")
     @Mapping(target = "usuario", expression = "java(obtenerNombreCompletoUsuario(comprobante.getUsuario()))")
     @Mapping(target = "caja", source = "caja.nombre")
+    @Mapping(target = "cajaId", source = "caja.id")
     ComprobanteVentaDTO toDTO(ComprobanteVenta comprobante);
 
     @Mapping(target = "estado", constant = "ACTIVO")
@@ -106,13 +108,11 @@ public interface VentaMapper {
             return java.math.BigDecimal.ZERO;
         }
         
-        java.math.BigDecimal subtotal = detalle.getCantidad().multiply(detalle.getPrecioUnitario());
-        
-        if (detalle.getDescuento() != null) {
-            subtotal = subtotal.subtract(detalle.getDescuento());
-        }
-        
-        return subtotal.max(java.math.BigDecimal.ZERO);
+        return detalle.getPrecioUnitario()
+            .por(detalle.getCantidad())
+            .menos(detalle.getDescuento() != null ? detalle.getDescuento() : Monto.CERO)
+            .max(Monto.CERO)
+            .aBigDecimal();
     }
 
     // ===== LISTAS =====
@@ -46,4 +46,13 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
                    "c.estado = 'ACTIVO'", 
            nativeQuery = true)
     List<Categoria> findByTextoContaining(@Param("texto") String texto);
+
+    @Query("SELECT c FROM Categoria c WHERE " +
+           "(c.versionCambio > :version OR (c.versionCambio = :version AND c.id > :id)) " +
+           "AND c.versionCambio < :horizonte " +
+           "ORDER BY c.versionCambio ASC, c.id ASC")
+    List<Categoria> findModificadosDesde(@Param("version") long version,
+                                         @Param("id") Long id,
+                                         @Param("horizonte") long horizonte,
+                                         Pageable pageable);
 }
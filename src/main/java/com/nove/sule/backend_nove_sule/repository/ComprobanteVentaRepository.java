@@ -86,6 +86,12 @@ public interface ComprobanteVentaRepository extends JpaRepository<ComprobanteVen
                                    @Param("fechaFin") LocalDateTime fechaFin,
                                    @Param("estado") Estado estado);
 
+    @Query("SELECT COALESCE(SUM(c.igv), 0) FROM ComprobanteVenta c WHERE " +
+           "c.fechaEmision >= :fechaInicio AND c.fechaEmision <= :fechaFin AND c.estado = :estado")
+    BigDecimal calcularTotalIgv(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                @Param("fechaFin") LocalDateTime fechaFin,
+                                @Param("estado") Estado estado);
+
     @Query("SELECT COUNT(c) FROM ComprobanteVenta c WHERE " +
            "c.fechaEmision >= :fechaInicio AND c.fechaEmision <= :fechaFin AND c.estado = :estado")
     Long contarComprobantes(@Param("fechaInicio") LocalDateTime fechaInicio,
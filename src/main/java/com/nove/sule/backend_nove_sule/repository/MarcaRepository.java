@@ -36,4 +36,13 @@ public interface MarcaRepository extends JpaRepository<Marca, Long> {
 
     @Query("SELECT m FROM Marca m WHERE m.estado = 'ACTIVO' ORDER BY m.nombre ASC")
     List<Marca> findAllActiveOrderByNombre();
+
+    @Query("SELECT m FROM Marca m WHERE " +
+           "(m.versionCambio > :version OR (m.versionCambio = :version AND m.id > :id)) " +
+           "AND m.versionCambio < :horizonte " +
+           "ORDER BY m.versionCambio ASC, m.id ASC")
+    List<Marca> findModificadosDesde(@Param("version") long version,
+                                     @Param("id") Long id,
+                                     @Param("horizonte") long horizonte,
+                                     Pageable pageable);
 }
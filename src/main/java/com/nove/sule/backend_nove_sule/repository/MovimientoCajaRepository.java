@@ -0,0 +1,45 @@
+package com.nove.sule.backend_nove_sule.repository;
+
+import com.nove.sule.backend_nove_sule.entity.MovimientoCaja;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para MovimientoCaja. Todas las consultas recorren el índice (caja_id, fecha_movimiento, id)
+ */
+@Repository
+public interface MovimientoCajaRepository extends JpaRepository<MovimientoCaja, Long> {
+
+    @EntityGraph(attributePaths = "usuario")
+    Optional<MovimientoCaja> findFirstByCajaIdOrderByFechaMovimientoDescIdDesc(Long cajaId);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT m FROM MovimientoCaja m WHERE m.caja.id = :cajaId " +
+           "ORDER BY m.fechaMovimiento DESC, m.id DESC")
+    List<MovimientoCaja> findUltimos(@Param("cajaId") Long cajaId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT m FROM MovimientoCaja m WHERE m.caja.id = :cajaId AND " +
+           "(m.fechaMovimiento < :fecha OR (m.fechaMovimiento = :fecha AND m.id < :id)) " +
+           "ORDER BY m.fechaMovimiento DESC, m.id DESC")
+    List<MovimientoCaja> findAnterioresA(@Param("cajaId") Long cajaId,
+                                         @Param("fecha") LocalDateTime fecha,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = "usuario")
+    @Query("SELECT m FROM MovimientoCaja m WHERE m.caja.id = :cajaId AND " +
+           "m.fechaMovimiento >= :desde AND m.fechaMovimiento < :hasta " +
+           "ORDER BY m.fechaMovimiento ASC, m.id ASC")
+    List<MovimientoCaja> findByCajaIdAndRango(@Param("cajaId") Long cajaId,
+                                              @Param("desde") LocalDateTime desde,
+                                              @Param("hasta") LocalDateTime hasta);
+}
@@ -2,9 +2,11 @@ package com.nove.sule.backend_nove_sule.repository;
 
 import com.nove.sule.backend_nove_sule.entity.OrdenCompra;
 import com.nove.sule.backend_nove_sule.entity.enums.EstadoOrdenCompra;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -31,6 +33,14 @@ public interface OrdenCompraRepository extends JpaRepository<OrdenCompra, Long>
     @Query("SELECT o FROM OrdenCompra o LEFT JOIN FETCH o.proveedor LEFT JOIN FETCH o.detalles WHERE o.id = :id")
     Optional<OrdenCompra> findByIdWithDetails(@Param("id") Long id);
 
+    /**
+     * Carga la orden bloqueando su fila hasta el fin de la transacción, igual que la recepción,
+     * para que las transiciones de estado se apliquen de a una sobre el estado ya confirmado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OrdenCompra o WHERE o.id = :id")
+    Optional<OrdenCompra> findByIdForUpdate(@Param("id") Long id);
+
     @Query(value = "SELECT oc.* FROM ordenes_compra oc " +
            "WHERE (:numero IS NULL OR oc.numero LIKE CONCAT('%', :numero, '%')) " +
            "AND (:proveedorId IS NULL OR oc.proveedor_id = :proveedorId) " +
@@ -56,10 +66,14 @@ public interface OrdenCompraRepository extends JpaRepository<OrdenCompra, Long>
            "WHERE o.numero LIKE CONCAT(:prefix, '%')")
     Integer findMaxNumeroByPrefix(@Param("prefix") String prefix);
 
+    @Query("SELECT DISTINCT o FROM OrdenCompra o LEFT JOIN FETCH o.proveedor LEFT JOIN FETCH o.detalles " +
+           "WHERE o.vencida = true ORDER BY o.fechaEntregaEsperada, o.id")
+    List<OrdenCompra> findVencidas();
+
     @Query("SELECT o FROM OrdenCompra o WHERE o.proveedor.id = :proveedorId")
     List<OrdenCompra> findByProveedorId(@Param("proveedorId") Long proveedorId);
 
-    @Query("SELECT SUM(o.total) FROM OrdenCompra o WHERE " +
+    @Query("SELECT COALESCE(SUM(o.total), 0) FROM OrdenCompra o WHERE " +
            "o.fechaOrden >= :fechaInicio AND o.fechaOrden <= :fechaFin AND o.estado != 'CANCELADA'")
     BigDecimal sumTotalByFechaRange(@Param("fechaInicio") LocalDate fechaInicio,
                                     @Param("fechaFin") LocalDate fechaFin);
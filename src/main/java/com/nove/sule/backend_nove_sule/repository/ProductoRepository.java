@@ -4,12 +4,14 @@ import com.nove.sule.backend_nove_sule.entity.Producto;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,10 +21,25 @@ import java.util.Optional;
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
+    /**
+     * Productos activos que tienen todos los tags del arreglo JSON; usa el índice GIN idx_productos_tags
+     */
+    String SQL_IDS_CON_TODOS_LOS_TAGS = "SELECT p.id FROM productos p " +
+           "WHERE p.tags @> CAST(:tags AS jsonb) AND p.estado = 'ACTIVO'";
+
+    /**
+     * Productos activos que tienen alguno de los tags; cada elemento es un arreglo JSON de un solo tag
+     */
+    String SQL_IDS_CON_ALGUN_TAG = "SELECT p.id FROM productos p " +
+           "WHERE p.tags @> ANY(CAST(:tags AS jsonb[])) AND p.estado = 'ACTIVO'";
+
     Optional<Producto> findByCodigo(String codigo);
 
     Optional<Producto> findByCodigoBarras(String codigoBarras);
 
+    @EntityGraph(attributePaths = {"categoria", "marca", "proveedor"})
+    Optional<Producto> findFirstByCodigoBarrasOrCodigoOrderByIdAsc(String codigoBarras, String codigo);
+
     boolean existsByCodigo(String codigo);
 
     boolean existsByCodigoBarras(String codigoBarras);
@@ -34,6 +51,9 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.marca LEFT JOIN FETCH p.proveedor WHERE p.id = :id")
     Optional<Producto> findByIdWithRelations(@Param("id") Long id);
 
+    @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.marca LEFT JOIN FETCH p.proveedor WHERE p.codigo = :codigo")
+    Optional<Producto> findByCodigoWithRelations(@Param("codigo") String codigo);
+
     @Query(value = "SELECT p.* FROM productos p " +
            "WHERE (:nombre IS NULL OR p.nombre LIKE CONCAT('%', :nombre, '%')) " +
            "AND (:codigo IS NULL OR p.codigo LIKE CONCAT('%', :codigo, '%')) " +
@@ -70,11 +90,28 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     @Query("SELECT p FROM Producto p WHERE p.proveedor.id = :proveedorId AND p.estado = 'ACTIVO'")
     List<Producto> findByProveedorId(@Param("proveedorId") Long proveedorId);
 
-    @Query("SELECT p FROM Producto p WHERE " +
-           "(LOWER(p.nombre) LIKE LOWER(CONCAT('%', :texto, '%')) OR " +
-           "LOWER(p.descripcion) LIKE LOWER(CONCAT('%', :texto, '%'))) AND " +
-           "p.estado = 'ACTIVO'")
-    List<Producto> findByTextoContaining(@Param("texto") String texto);
+    @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.marca LEFT JOIN FETCH p.proveedor WHERE p.id IN :ids")
+    List<Producto> findAllByIdWithRelations(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.marca LEFT JOIN FETCH p.proveedor " +
+           "WHERE p.id > :ultimoId ORDER BY p.id ASC")
+    List<Producto> findLoteWithRelations(@Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("SELECT p.id FROM Producto p WHERE p.categoria.id = :categoriaId")
+    List<Long> findIdsByCategoriaId(@Param("categoriaId") Long categoriaId);
+
+    @Query("SELECT p.id FROM Producto p WHERE p.marca.id = :marcaId")
+    List<Long> findIdsByMarcaId(@Param("marcaId") Long marcaId);
+
+    @Query(value = SQL_IDS_CON_TODOS_LOS_TAGS + " ORDER BY p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + SQL_IDS_CON_TODOS_LOS_TAGS + ") t",
+           nativeQuery = true)
+    Page<Long> findIdsConTodosLosTags(@Param("tags") String tagsJson, Pageable pageable);
+
+    @Query(value = SQL_IDS_CON_ALGUN_TAG + " ORDER BY p.id DESC",
+           countQuery = "SELECT COUNT(*) FROM (" + SQL_IDS_CON_ALGUN_TAG + ") t",
+           nativeQuery = true)
+    Page<Long> findIdsConAlgunTag(@Param("tags") String[] tagsJson, Pageable pageable);
 
     @Query("SELECT p FROM Producto p WHERE " +
            "(:precioMin IS NULL OR p.precio >= :precioMin) AND " +
@@ -93,4 +130,13 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     @Query("SELECT p FROM Producto p WHERE p.fechaVencimiento < :fechaLimite AND p.estado = :estado")
     List<Producto> findByFechaVencimientoBeforeAndEstado(@Param("fechaLimite") LocalDate fechaLimite, 
                                                          @Param("estado") Estado estado);
+
+    @Query("SELECT p FROM Producto p LEFT JOIN FETCH p.categoria LEFT JOIN FETCH p.marca LEFT JOIN FETCH p.proveedor WHERE " +
+           "(p.versionCambio > :version OR (p.versionCambio = :version AND p.id > :id)) " +
+           "AND p.versionCambio < :horizonte " +
+           "ORDER BY p.versionCambio ASC, p.id ASC")
+    List<Producto> findModificadosDesde(@Param("version") long version,
+                                        @Param("id") Long id,
+                                        @Param("horizonte") long horizonte,
+                                        Pageable pageable);
 }
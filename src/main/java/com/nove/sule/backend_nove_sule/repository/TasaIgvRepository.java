@@ -0,0 +1,20 @@
+package com.nove.sule.backend_nove_sule.repository;
+
+import com.nove.sule.backend_nove_sule.entity.TasaIgv;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repositorio para TasaIgv
+ */
+@Repository
+public interface TasaIgvRepository extends JpaRepository<TasaIgv, Long> {
+
+    List<TasaIgv> findAllByOrderByTipoIgvAscVigenteDesdeAsc();
+
+    boolean existsByTipoIgvAndVigenteDesde(TipoIGV tipoIgv, LocalDate vigenteDesde);
+}
@@ -54,4 +54,18 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
            "LOWER(u.empleado.apellidos) LIKE LOWER(CONCAT('%', :texto, '%'))) AND " +
            "u.estado = 'ACTIVO'")
     List<Usuario> findByTextoContaining(@Param("texto") String texto);
+
+    @Query("SELECT u.username AS username, u.rol AS rol, u.estado AS estado FROM Usuario u WHERE u.id = :id")
+    Optional<EstadoUsuario> findEstadoById(@Param("id") Long id);
+
+    /**
+     * Datos del usuario que se revisan al autenticar cada petición
+     */
+    interface EstadoUsuario {
+        String getUsername();
+
+        Rol getRol();
+
+        Estado getEstado();
+    }
 }
@@ -0,0 +1,14 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import java.util.List;
+
+/**
+ * Filtros de una búsqueda facetada; dentro de una faceta los valores se combinan con OR y entre facetas con AND
+ */
+public record ConsultaFacetas(
+        String texto,
+        List<Long> categoriaIds,
+        List<Long> marcaIds,
+        List<Long> proveedorIds,
+        List<String> rangosPrecio) {
+}
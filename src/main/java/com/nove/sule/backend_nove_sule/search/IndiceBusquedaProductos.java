@@ -0,0 +1,528 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para la búsqueda de texto de productos activos.
+ * Busca en código, código de barras, nombre, marca, categoría, tags y descripción,
+ * sin distinguir tildes, con coincidencia por prefijo y tolerancia a un error de tipeo.
+ * Todos los términos de la consulta deben coincidir; el puntaje pondera el campo y la rareza del término.
+ */
+@Slf4j
+@Component
+public class IndiceBusquedaProductos implements IndiceProductos {
+
+    private static final float PESO_CODIGO = 10f;
+    private static final float PESO_NOMBRE = 5f;
+    private static final float PESO_MARCA = 3f;
+    private static final float PESO_CATEGORIA = 2f;
+    private static final float PESO_TAG = 2f;
+    private static final float PESO_DESCRIPCION = 1f;
+
+    private static final float FACTOR_PREFIJO = 0.7f;
+    private static final float FACTOR_TIPEO = 0.5f;
+
+    /** Longitud mínima de un término para aplicar tolerancia a errores de tipeo */
+    private static final int LONGITUD_MINIMA_TIPEO = 4;
+    /** Máximo de términos del vocabulario en que se expande un prefijo */
+    private static final int MAX_EXPANSIONES_PREFIJO = 100;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<Acumulador> acumuladores = ThreadLocal.withInitial(Acumulador::new);
+    private volatile Datos datos = new Datos();
+
+    /**
+     * Busca productos y devuelve la página solicitada ordenada por relevancia
+     */
+    public ResultadoBusqueda buscar(String texto, int offset, int limite) {
+        if (limite <= 0) {
+            return new ResultadoBusqueda(List.of(), 0);
+        }
+        return consultar(texto, new ResultadoBusqueda(List.of(), 0),
+            (actual, acc, ultimaRonda) -> paginar(actual, acc, ultimaRonda, offset, limite));
+    }
+
+    /**
+     * Devuelve todas las coincidencias con su puntaje, sin ordenar, para combinarlas con otros filtros
+     */
+    public Coincidencias coincidencias(String texto) {
+        return consultar(texto, new Coincidencias(new long[0], new float[0]), IndiceBusquedaProductos::recolectar);
+    }
+
+    /**
+     * IDs y puntajes alineados por posición
+     */
+    public record Coincidencias(long[] productoIds, float[] puntajes) {
+    }
+
+    @Override
+    public Reconstruccion iniciarReconstruccion() {
+        Datos nuevos = new Datos();
+        return new Reconstruccion() {
+            @Override
+            public void agregar(ProductoIndexado producto) {
+                if (producto.isActivo()) {
+                    nuevos.agregar(producto);
+                }
+            }
+
+            @Override
+            public void publicar() {
+                lock.writeLock().lock();
+                try {
+                    datos = nuevos;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Índice de búsqueda publicado: {} productos, {} términos",
+                    nuevos.ordinales.size(), nuevos.terminos.size());
+            }
+        };
+    }
+
+    @Override
+    public void actualizar(ProductoIndexado producto) {
+        lock.writeLock().lock();
+        try {
+            if (producto.isActivo()) {
+                datos.agregar(producto);
+            } else {
+                datos.eliminar(producto.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            datos.eliminar(productoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private <R> R consultar(String texto, R vacio, Finalizador<R> finalizador) {
+        List<String> terminos = new ArrayList<>(new LinkedHashSet<>(NormalizadorTexto.tokenizar(texto)));
+        if (terminos.isEmpty()) {
+            return vacio;
+        }
+
+        lock.readLock().lock();
+        try {
+            Datos actual = datos;
+            List<List<Expansion>> expansiones = new ArrayList<>(terminos.size());
+            for (String termino : terminos) {
+                List<Expansion> expansion = actual.expandir(termino);
+                if (expansion.isEmpty()) {
+                    return vacio;
+                }
+                expansiones.add(expansion);
+            }
+            // Empezar por el término más selectivo reduce los candidatos evaluados
+            expansiones.sort(Comparator.comparingInt(IndiceBusquedaProductos::tamanoEstimado));
+
+            Acumulador acc = acumuladores.get();
+            try {
+                return acumular(actual, expansiones, acc) ? finalizador.aplicar(actual, acc, expansiones.size()) : vacio;
+            } finally {
+                acc.limpiar();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suma los puntajes de cada término; sólo siguen compitiendo los documentos que coinciden con todos.
+     * Devuelve false si algún término no deja candidatos.
+     */
+    private static boolean acumular(Datos actual, List<List<Expansion>> expansiones, Acumulador acc) {
+        acc.preparar(actual.siguienteOrdinal);
+        float totalDocumentos = Math.max(1, actual.ordinales.size());
+
+        for (int i = 0; i < expansiones.size(); i++) {
+            int ronda = i + 1;
+            acc.tocadosRonda = 0;
+            for (Expansion expansion : expansiones.get(i)) {
+                Posting posting = expansion.posting();
+                float idf = (float) Math.log(1 + totalDocumentos / posting.tamano);
+                for (int j = 0; j < posting.tamano; j++) {
+                    int ord = posting.ordinales[j];
+                    float puntaje = posting.pesos[j] * idf * expansion.factor();
+                    if (acc.ronda[ord] == i) {
+                        // Primera coincidencia de este término para un documento que pasó los anteriores
+                        acc.ronda[ord] = ronda;
+                        acc.parcial[ord] = puntaje;
+                        acc.registrarRonda(ord);
+                        if (i == 0) {
+                            acc.registrarCandidato(ord);
+                        }
+                    } else if (acc.ronda[ord] == ronda && puntaje > acc.parcial[ord]) {
+                        acc.parcial[ord] = puntaje;
+                    }
+                }
+            }
+            for (int k = 0; k < acc.tocadosRonda; k++) {
+                int ord = acc.ordinalesRonda[k];
+                acc.puntaje[ord] += acc.parcial[ord];
+            }
+            if (acc.tocadosRonda == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ResultadoBusqueda paginar(Datos actual, Acumulador acc, int ultimaRonda, int offset, int limite) {
+        // Nunca hacen falta más posiciones que candidatos, pida la página que pida
+        int requeridos = (int) Math.min((long) offset + limite, acc.candidatos);
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(requeridos + 1, (a, b) -> comparar(acc, actual, b, a));
+        long total = 0;
+        for (int k = 0; k < acc.candidatos; k++) {
+            int ord = acc.ordinalesCandidatos[k];
+            if (acc.ronda[ord] != ultimaRonda) {
+                continue;
+            }
+            total++;
+            mejores.offer(ord);
+            if (mejores.size() > requeridos) {
+                mejores.poll();
+            }
+        }
+
+        List<Integer> ordenados = new ArrayList<>(mejores);
+        ordenados.sort((a, b) -> comparar(acc, actual, a, b));
+        List<Long> ids = new ArrayList<>(Math.max(0, ordenados.size() - offset));
+        for (int k = offset; k < ordenados.size(); k++) {
+            ids.add(actual.productoIds[ordenados.get(k)]);
+        }
+        return new ResultadoBusqueda(ids, total);
+    }
+
+    private static Coincidencias recolectar(Datos actual, Acumulador acc, int ultimaRonda) {
+        long[] ids = new long[acc.candidatos];
+        float[] puntajes = new float[acc.candidatos];
+        int total = 0;
+        for (int k = 0; k < acc.candidatos; k++) {
+            int ord = acc.ordinalesCandidatos[k];
+            if (acc.ronda[ord] == ultimaRonda) {
+                ids[total] = actual.productoIds[ord];
+                puntajes[total] = acc.puntaje[ord];
+                total++;
+            }
+        }
+        return new Coincidencias(Arrays.copyOf(ids, total), Arrays.copyOf(puntajes, total));
+    }
+
+    /**
+     * Orden por puntaje descendente; a igual puntaje, por ID ascendente
+     */
+    private static int comparar(Acumulador acc, Datos actual, int a, int b) {
+        int porPuntaje = Float.compare(acc.puntaje[b], acc.puntaje[a]);
+        return porPuntaje != 0 ? porPuntaje : Long.compare(actual.productoIds[a], actual.productoIds[b]);
+    }
+
+    private static int tamanoEstimado(List<Expansion> expansion) {
+        int total = 0;
+        for (Expansion e : expansion) {
+            total += e.posting().tamano;
+        }
+        return total;
+    }
+
+    private record Expansion(Posting posting, float factor) {
+    }
+
+    @FunctionalInterface
+    private interface Finalizador<R> {
+        R aplicar(Datos actual, Acumulador acc, int ultimaRonda);
+    }
+
+    /**
+     * Lista de documentos (ordinales) y pesos de un término
+     */
+    private static final class Posting {
+
+        private int[] ordinales = new int[4];
+        private float[] pesos = new float[4];
+        private int tamano;
+
+        void agregar(int ordinal, float peso) {
+            if (tamano == ordinales.length) {
+                ordinales = Arrays.copyOf(ordinales, tamano * 2);
+                pesos = Arrays.copyOf(pesos, tamano * 2);
+            }
+            ordinales[tamano] = ordinal;
+            pesos[tamano] = peso;
+            tamano++;
+        }
+
+        void quitar(int ordinal) {
+            for (int i = 0; i < tamano; i++) {
+                if (ordinales[i] == ordinal) {
+                    tamano--;
+                    ordinales[i] = ordinales[tamano];
+                    pesos[i] = pesos[tamano];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Estructuras del índice. Los ordinales son densos para acumular puntajes en arreglos: un producto
+     * actualizado conserva el suyo y los de productos eliminados se reutilizan, así que los arreglos
+     * crecen con el catálogo y no con la cantidad de actualizaciones.
+     */
+    private static final class Datos {
+
+        private final Map<Long, Integer> ordinales = new HashMap<>();
+        private final Map<Integer, String[]> terminosPorOrdinal = new HashMap<>();
+        private final NavigableMap<String, Posting> terminos = new TreeMap<>();
+        /** Variantes con un carácter borrado → términos del vocabulario (búsqueda por borrado simétrico) */
+        private final Map<String, Set<String>> variantes = new HashMap<>();
+        private long[] productoIds = new long[1024];
+        private int siguienteOrdinal;
+        private final Deque<Integer> ordinalesLibres = new ArrayDeque<>();
+
+        void agregar(ProductoIndexado producto) {
+            Map<String, Float> pesos = new HashMap<>();
+            agregarCodigo(pesos, producto.codigo());
+            agregarCodigo(pesos, producto.codigoBarras());
+            agregarTexto(pesos, producto.nombre(), PESO_NOMBRE);
+            agregarTexto(pesos, producto.marcaNombre(), PESO_MARCA);
+            agregarTexto(pesos, producto.categoriaNombre(), PESO_CATEGORIA);
+            if (producto.tags() != null) {
+                producto.tags().forEach(tag -> agregarTexto(pesos, tag, PESO_TAG));
+            }
+            agregarTexto(pesos, producto.descripcion(), PESO_DESCRIPCION);
+
+            Integer existente = ordinales.get(producto.id());
+            int ordinal;
+            if (existente != null) {
+                ordinal = existente;
+                quitarTerminos(ordinal);
+            } else {
+                ordinal = ordinalesLibres.isEmpty() ? siguienteOrdinal++ : ordinalesLibres.pop();
+                if (ordinal == productoIds.length) {
+                    productoIds = Arrays.copyOf(productoIds, ordinal * 2);
+                }
+                productoIds[ordinal] = producto.id();
+                ordinales.put(producto.id(), ordinal);
+            }
+            terminosPorOrdinal.put(ordinal, pesos.keySet().toArray(String[]::new));
+
+            pesos.forEach((termino, peso) -> terminos.computeIfAbsent(termino, t -> {
+                registrarVariantes(t);
+                return new Posting();
+            }).agregar(ordinal, peso));
+        }
+
+        void eliminar(Long productoId) {
+            Integer ordinal = ordinales.remove(productoId);
+            if (ordinal == null) {
+                return;
+            }
+            quitarTerminos(ordinal);
+            ordinalesLibres.push(ordinal);
+        }
+
+        private void quitarTerminos(int ordinal) {
+            for (String termino : terminosPorOrdinal.remove(ordinal)) {
+                Posting posting = terminos.get(termino);
+                posting.quitar(ordinal);
+                if (posting.tamano == 0) {
+                    terminos.remove(termino);
+                    quitarVariantes(termino);
+                }
+            }
+        }
+
+        List<Expansion> expandir(String termino) {
+            Map<String, Float> factores = new HashMap<>();
+            if (terminos.containsKey(termino)) {
+                factores.put(termino, 1f);
+            }
+
+            int expandidos = 0;
+            for (String candidato : terminos.subMap(termino, false, termino + Character.MAX_VALUE, false).keySet()) {
+                if (++expandidos > MAX_EXPANSIONES_PREFIJO) {
+                    break;
+                }
+                factores.putIfAbsent(candidato, FACTOR_PREFIJO);
+            }
+
+            if (termino.length() >= LONGITUD_MINIMA_TIPEO) {
+                for (String candidato : candidatosTipeo(termino)) {
+                    factores.putIfAbsent(candidato, FACTOR_TIPEO);
+                }
+            }
+
+            List<Expansion> expansion = new ArrayList<>(factores.size());
+            factores.forEach((t, factor) -> expansion.add(new Expansion(terminos.get(t), factor)));
+            return expansion;
+        }
+
+        /**
+         * Términos del vocabulario a distancia de edición 1 (inserción, borrado, sustitución o transposición)
+         */
+        private Set<String> candidatosTipeo(String termino) {
+            Set<String> candidatos = new HashSet<>();
+            // Borrado en el término buscado
+            for (String variante : borrados(termino)) {
+                if (terminos.containsKey(variante)) {
+                    candidatos.add(variante);
+                }
+            }
+            // Inserción en el término buscado, sustitución y transposición
+            candidatos.addAll(variantes.getOrDefault(termino, Set.of()));
+            for (String variante : borrados(termino)) {
+                for (String candidato : variantes.getOrDefault(variante, Set.of())) {
+                    if (candidato.length() == termino.length() && distanciaUno(termino, candidato)) {
+                        candidatos.add(candidato);
+                    }
+                }
+            }
+            candidatos.remove(termino);
+            return candidatos;
+        }
+
+        private void registrarVariantes(String termino) {
+            if (termino.length() < LONGITUD_MINIMA_TIPEO) {
+                return;
+            }
+            for (String variante : borrados(termino)) {
+                variantes.computeIfAbsent(variante, v -> new HashSet<>(2)).add(termino);
+            }
+        }
+
+        private void quitarVariantes(String termino) {
+            if (termino.length() < LONGITUD_MINIMA_TIPEO) {
+                return;
+            }
+            for (String variante : borrados(termino)) {
+                Set<String> conjunto = variantes.get(variante);
+                if (conjunto != null) {
+                    conjunto.remove(termino);
+                    if (conjunto.isEmpty()) {
+                        variantes.remove(variante);
+                    }
+                }
+            }
+        }
+
+        private static void agregarCodigo(Map<String, Float> pesos, String codigo) {
+            String normalizado = NormalizadorTexto.normalizarCodigo(codigo);
+            if (!normalizado.isEmpty()) {
+                pesos.merge(normalizado, PESO_CODIGO, Float::sum);
+            }
+            agregarTexto(pesos, codigo, PESO_CODIGO);
+        }
+
+        private static void agregarTexto(Map<String, Float> pesos, String texto, float peso) {
+            for (String token : NormalizadorTexto.tokenizar(texto)) {
+                // Un término repetido en el mismo campo no suma de nuevo
+                pesos.merge(token, peso, Math::max);
+            }
+        }
+
+        private static Set<String> borrados(String termino) {
+            Set<String> resultado = new HashSet<>(termino.length());
+            for (int i = 0; i < termino.length(); i++) {
+                resultado.add(termino.substring(0, i) + termino.substring(i + 1));
+            }
+            return resultado;
+        }
+
+        /**
+         * Para términos de igual longitud: una sustitución o una transposición adyacente
+         */
+        private static boolean distanciaUno(String a, String b) {
+            int primera = -1;
+            int diferencias = 0;
+            for (int i = 0; i < a.length(); i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    if (++diferencias > 2) {
+                        return false;
+                    }
+                    if (primera < 0) {
+                        primera = i;
+                    }
+                }
+            }
+            if (diferencias <= 1) {
+                return true;
+            }
+            return primera + 1 < a.length()
+                && a.charAt(primera) == b.charAt(primera + 1)
+                && a.charAt(primera + 1) == b.charAt(primera);
+        }
+    }
+
+    /**
+     * Arreglos de trabajo por hilo para acumular puntajes sin reservar memoria en cada consulta
+     */
+    private static final class Acumulador {
+
+        private int[] ronda = new int[0];
+        private float[] parcial = new float[0];
+        private float[] puntaje = new float[0];
+        private int[] ordinalesCandidatos = new int[0];
+        private int[] ordinalesRonda = new int[0];
+        private int candidatos;
+        private int tocadosRonda;
+
+        void preparar(int capacidad) {
+            if (ronda.length < capacidad) {
+                int nueva = Math.max(capacidad, ronda.length * 2);
+                ronda = new int[nueva];
+                parcial = new float[nueva];
+                puntaje = new float[nueva];
+                ordinalesCandidatos = new int[nueva];
+                ordinalesRonda = new int[nueva];
+            }
+        }
+
+        void registrarCandidato(int ordinal) {
+            ordinalesCandidatos[candidatos++] = ordinal;
+        }
+
+        void registrarRonda(int ordinal) {
+            ordinalesRonda[tocadosRonda++] = ordinal;
+        }
+
+        void limpiar() {
+            for (int k = 0; k < candidatos; k++) {
+                int ord = ordinalesCandidatos[k];
+                ronda[ord] = 0;
+                parcial[ord] = 0;
+                puntaje[ord] = 0;
+            }
+            candidatos = 0;
+            tocadosRonda = 0;
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ValorFacetaDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Motor de facetas en memoria para el catálogo activo: un bitmap comprimido por categoría,
+ * marca, proveedor y rango de precio, que se intersectan en cada consulta.
+ * Los conteos de una faceta ignoran su propio filtro para que el usuario vea las alternativas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IndiceFacetasProductos implements IndiceProductos {
+
+    public static final String FACETA_CATEGORIA = "categoria";
+    public static final String FACETA_MARCA = "marca";
+    public static final String FACETA_PROVEEDOR = "proveedor";
+    public static final String FACETA_PRECIO = "precio";
+
+    /** Límites (exclusivos) de los rangos de precio con IGV, en soles */
+    private static final int[] LIMITES_PRECIO = {10, 25, 50, 100, 250, 500};
+    private static final String[] RANGOS_PRECIO = crearRangos();
+    private static final int SIN_VALOR = -1;
+
+    private final IndiceBusquedaProductos indiceBusqueda;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Datos datos = new Datos();
+
+    /**
+     * Filtra el catálogo y devuelve la página solicitada con los conteos de todas las facetas.
+     * Con texto se ordena por relevancia; sin texto, de los productos más recientes a los más antiguos.
+     */
+    public ResultadoFacetado buscar(ConsultaFacetas consulta, int offset, int limite) {
+        boolean conTexto = consulta.texto() != null && !consulta.texto().isBlank();
+        IndiceBusquedaProductos.Coincidencias coincidencias = conTexto
+            ? indiceBusqueda.coincidencias(consulta.texto())
+            : null;
+
+        lock.readLock().lock();
+        try {
+            Datos actual = datos;
+
+            RoaringBitmap base;
+            int[] ordinalesCoincidencia = null;
+            if (conTexto) {
+                long[] ids = coincidencias.productoIds();
+                ordinalesCoincidencia = new int[ids.length];
+                int[] presentes = new int[ids.length];
+                int n = 0;
+                for (int i = 0; i < ids.length; i++) {
+                    Integer ordinal = actual.ordinales.get(ids[i]);
+                    ordinalesCoincidencia[i] = ordinal != null ? ordinal : SIN_VALOR;
+                    if (ordinal != null) {
+                        presentes[n++] = ordinal;
+                    }
+                }
+                Arrays.sort(presentes, 0, n);
+                base = new RoaringBitmap();
+                base.addN(presentes, 0, n);
+            } else {
+                base = actual.activos;
+            }
+
+            RoaringBitmap filtroCategoria = actual.categorias.unir(consulta.categoriaIds());
+            RoaringBitmap filtroMarca = actual.marcas.unir(consulta.marcaIds());
+            RoaringBitmap filtroProveedor = actual.proveedores.unir(consulta.proveedorIds());
+            RoaringBitmap filtroPrecio = unirRangos(actual, consulta.rangosPrecio());
+
+            RoaringBitmap resultado = intersectar(base, filtroCategoria, filtroMarca, filtroProveedor, filtroPrecio);
+
+            Map<String, List<ValorFacetaDTO>> facetas = new LinkedHashMap<>();
+            facetas.put(FACETA_CATEGORIA, actual.categorias.contar(consulta.categoriaIds(),
+                intersectar(base, filtroMarca, filtroProveedor, filtroPrecio)));
+            facetas.put(FACETA_MARCA, actual.marcas.contar(consulta.marcaIds(),
+                intersectar(base, filtroCategoria, filtroProveedor, filtroPrecio)));
+            facetas.put(FACETA_PROVEEDOR, actual.proveedores.contar(consulta.proveedorIds(),
+                intersectar(base, filtroCategoria, filtroMarca, filtroPrecio)));
+            facetas.put(FACETA_PRECIO, contarRangos(actual, consulta.rangosPrecio(),
+                intersectar(base, filtroCategoria, filtroMarca, filtroProveedor)));
+
+            List<Long> ids = conTexto
+                ? paginarPorRelevancia(coincidencias, ordinalesCoincidencia, resultado, offset, limite)
+                : paginarPorRecientes(actual, resultado, offset, limite);
+            return new ResultadoFacetado(ids, resultado.getLongCardinality(), facetas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reconstruccion iniciarReconstruccion() {
+        Datos nuevos = new Datos();
+        return new Reconstruccion() {
+            @Override
+            public void agregar(ProductoIndexado producto) {
+                if (producto.isActivo()) {
+                    nuevos.poner(producto);
+                }
+            }
+
+            @Override
+            public void publicar() {
+                nuevos.compactar();
+                lock.writeLock().lock();
+                try {
+                    datos = nuevos;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Índice de facetas publicado: {} productos", nuevos.activos.getCardinality());
+            }
+        };
+    }
+
+    @Override
+    public void actualizar(ProductoIndexado producto) {
+        lock.writeLock().lock();
+        try {
+            if (producto.isActivo()) {
+                datos.poner(producto);
+            } else {
+                datos.quitar(producto.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            datos.quitar(productoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static RoaringBitmap unirRangos(Datos actual, List<String> seleccion) {
+        if (seleccion == null || seleccion.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (int i = 0; i < RANGOS_PRECIO.length; i++) {
+            if (seleccion.contains(RANGOS_PRECIO[i])) {
+                union.or(actual.rangos[i]);
+            }
+        }
+        return union;
+    }
+
+    /**
+     * Intersección de la base con los filtros presentes (los nulos no filtran)
+     */
+    private static RoaringBitmap intersectar(RoaringBitmap base, RoaringBitmap... filtros) {
+        RoaringBitmap resultado = base;
+        for (RoaringBitmap filtro : filtros) {
+            if (filtro != null) {
+                resultado = RoaringBitmap.and(resultado, filtro);
+            }
+        }
+        return resultado;
+    }
+
+    private static List<ValorFacetaDTO> contarRangos(Datos actual, List<String> seleccion, RoaringBitmap universo) {
+        int[] cantidades = new int[RANGOS_PRECIO.length];
+        byte[] rangoPorOrdinal = actual.rangoPorOrdinal;
+        universo.forEach((IntConsumer) ordinal -> cantidades[rangoPorOrdinal[ordinal]]++);
+
+        List<ValorFacetaDTO> valores = new ArrayList<>(RANGOS_PRECIO.length);
+        for (int i = 0; i < RANGOS_PRECIO.length; i++) {
+            long cantidad = cantidades[i];
+            boolean seleccionado = seleccion != null && seleccion.contains(RANGOS_PRECIO[i]);
+            if (cantidad > 0 || seleccionado) {
+                valores.add(new ValorFacetaDTO(RANGOS_PRECIO[i], etiquetaRango(i), cantidad, seleccionado));
+            }
+        }
+        return valores;
+    }
+
+    private static List<Long> paginarPorRelevancia(IndiceBusquedaProductos.Coincidencias coincidencias,
+                                                   int[] ordinales, RoaringBitmap resultado, int offset, int limite) {
+        long[] ids = coincidencias.productoIds();
+        float[] puntajes = coincidencias.puntajes();
+        // Nunca hacen falta más posiciones que coincidencias, pida la página que pida
+        int requeridos = (int) Math.min((long) offset + limite, ids.length);
+        if (offset >= requeridos) {
+            return List.of();
+        }
+        // Montículo con el peor de los mejores en la cabeza
+        Comparator<Integer> orden = (a, b) -> {
+            int porPuntaje = Float.compare(puntajes[b], puntajes[a]);
+            return porPuntaje != 0 ? porPuntaje : Long.compare(ids[a], ids[b]);
+        };
+        PriorityQueue<Integer> mejores = new PriorityQueue<>(requeridos + 1, orden.reversed());
+        for (int i = 0; i < ids.length; i++) {
+            if (ordinales[i] == SIN_VALOR || !resultado.contains(ordinales[i])) {
+                continue;
+            }
+            if (mejores.size() == requeridos && orden.compare(i, mejores.peek()) >= 0) {
+                continue;
+            }
+            mejores.offer(i);
+            if (mejores.size() > requeridos) {
+                mejores.poll();
+            }
+        }
+
+        List<Integer> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(orden);
+        List<Long> pagina = new ArrayList<>(Math.max(0, ordenados.size() - offset));
+        for (int k = offset; k < ordenados.size(); k++) {
+            pagina.add(ids[ordenados.get(k)]);
+        }
+        return pagina;
+    }
+
+    /**
+     * Mientras los ordinales crezcan con el ID, recorrer el bitmap al revés entrega los más recientes primero.
+     * Cuando un ordinal liberado se reutiliza ese orden se pierde hasta la próxima reconstrucción, y la página
+     * se arma con un montículo por ID
+     */
+    private static List<Long> paginarPorRecientes(Datos actual, RoaringBitmap resultado, int offset, int limite) {
+        long disponibles = resultado.getLongCardinality() - offset;
+        if (disponibles <= 0) {
+            return List.of();
+        }
+        if (!actual.ordinalesEnOrdenDeId) {
+            return paginarPorId(actual.productoIds, resultado, offset, limite);
+        }
+        List<Long> pagina = new ArrayList<>((int) Math.min(limite, disponibles));
+        IntIterator iterador = resultado.getReverseIntIterator();
+        int posicion = 0;
+        while (iterador.hasNext() && pagina.size() < limite) {
+            int ordinal = iterador.next();
+            if (posicion++ >= offset) {
+                pagina.add(actual.productoIds[ordinal]);
+            }
+        }
+        return pagina;
+    }
+
+    private static List<Long> paginarPorId(long[] productoIds, RoaringBitmap resultado, int offset, int limite) {
+        int requeridos = (int) Math.min((long) offset + limite, resultado.getLongCardinality());
+        // Montículo con el ID más antiguo de los más recientes en la cabeza
+        PriorityQueue<Long> recientes = new PriorityQueue<>(requeridos + 1);
+        IntIterator iterador = resultado.getIntIterator();
+        while (iterador.hasNext()) {
+            long id = productoIds[iterador.next()];
+            if (recientes.size() == requeridos && id <= recientes.peek()) {
+                continue;
+            }
+            recientes.offer(id);
+            if (recientes.size() > requeridos) {
+                recientes.poll();
+            }
+        }
+
+        List<Long> ordenados = new ArrayList<>(recientes);
+        ordenados.sort(Comparator.reverseOrder());
+        return new ArrayList<>(ordenados.subList(Math.min(offset, ordenados.size()), ordenados.size()));
+    }
+
+    private static int rangoDe(BigDecimal precio) {
+        if (precio == null) {
+            return 0;
+        }
+        for (int i = 0; i < LIMITES_PRECIO.length; i++) {
+            if (precio.compareTo(BigDecimal.valueOf(LIMITES_PRECIO[i])) < 0) {
+                return i;
+            }
+        }
+        return LIMITES_PRECIO.length;
+    }
+
+    private static String[] crearRangos() {
+        String[] rangos = new String[LIMITES_PRECIO.length + 1];
+        int desde = 0;
+        for (int i = 0; i < LIMITES_PRECIO.length; i++) {
+            rangos[i] = desde + "-" + LIMITES_PRECIO[i];
+            desde = LIMITES_PRECIO[i];
+        }
+        rangos[LIMITES_PRECIO.length] = desde + "+";
+        return rangos;
+    }
+
+    private static String etiquetaRango(int indice) {
+        if (indice == LIMITES_PRECIO.length) {
+            return "Desde S/ " + LIMITES_PRECIO[indice - 1];
+        }
+        int desde = indice == 0 ? 0 : LIMITES_PRECIO[indice - 1];
+        return "S/ " + desde + " a S/ " + LIMITES_PRECIO[indice];
+    }
+
+    /**
+     * Valores de una faceta: un bitmap por valor para filtrar y un código denso por ordinal
+     * para contar recorriendo solo los productos del universo
+     */
+    private static final class Faceta {
+
+        private final Map<Long, RoaringBitmap> bitmaps = new HashMap<>();
+        private final Map<Long, String> nombres = new HashMap<>();
+        private final Map<Long, Integer> codigos = new HashMap<>();
+        private long[] valores = new long[64];
+        private int[] codigoPorOrdinal = new int[1024];
+
+        void poner(int ordinal, Long valor, String nombre) {
+            if (ordinal >= codigoPorOrdinal.length) {
+                int anterior = codigoPorOrdinal.length;
+                codigoPorOrdinal = Arrays.copyOf(codigoPorOrdinal, Math.max(ordinal + 1, anterior * 2));
+                Arrays.fill(codigoPorOrdinal, anterior, codigoPorOrdinal.length, SIN_VALOR);
+            }
+            if (valor == null) {
+                codigoPorOrdinal[ordinal] = SIN_VALOR;
+                return;
+            }
+            Integer codigo = codigos.get(valor);
+            if (codigo == null) {
+                codigo = codigos.size();
+                if (codigo == valores.length) {
+                    valores = Arrays.copyOf(valores, codigo * 2);
+                }
+                valores[codigo] = valor;
+                codigos.put(valor, codigo);
+            }
+            codigoPorOrdinal[ordinal] = codigo;
+            bitmaps.computeIfAbsent(valor, v -> new RoaringBitmap()).add(ordinal);
+            if (nombre != null) {
+                nombres.put(valor, nombre);
+            }
+        }
+
+        void quitar(int ordinal) {
+            int codigo = codigoPorOrdinal[ordinal];
+            if (codigo == SIN_VALOR) {
+                return;
+            }
+            codigoPorOrdinal[ordinal] = SIN_VALOR;
+            Long valor = valores[codigo];
+            RoaringBitmap bitmap = bitmaps.get(valor);
+            if (bitmap != null) {
+                bitmap.remove(ordinal);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(valor);
+                }
+            }
+        }
+
+        RoaringBitmap unir(List<Long> seleccion) {
+            if (seleccion == null || seleccion.isEmpty()) {
+                return null;
+            }
+            RoaringBitmap union = new RoaringBitmap();
+            for (Long id : seleccion) {
+                RoaringBitmap bitmap = bitmaps.get(id);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+            return union;
+        }
+
+        /**
+         * Cuenta los productos del universo por valor en una sola pasada
+         */
+        List<ValorFacetaDTO> contar(List<Long> seleccion, RoaringBitmap universo) {
+            int[] cantidades = new int[codigos.size()];
+            int[] codigosOrdinal = codigoPorOrdinal;
+            universo.forEach((IntConsumer) ordinal -> {
+                int codigo = codigosOrdinal[ordinal];
+                if (codigo != SIN_VALOR) {
+                    cantidades[codigo]++;
+                }
+            });
+
+            List<ValorFacetaDTO> resultado = new ArrayList<>();
+            for (int codigo = 0; codigo < cantidades.length; codigo++) {
+                Long id = valores[codigo];
+                boolean seleccionado = seleccion != null && seleccion.contains(id);
+                if (cantidades[codigo] > 0 || seleccionado) {
+                    resultado.add(new ValorFacetaDTO(id.toString(), nombres.get(id), cantidades[codigo], seleccionado));
+                }
+            }
+            resultado.sort(Comparator.comparingLong(ValorFacetaDTO::getCantidad).reversed()
+                .thenComparing(ValorFacetaDTO::getEtiqueta, Comparator.nullsLast(String::compareTo)));
+            return resultado;
+        }
+
+        void compactar() {
+            bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        }
+    }
+
+    /**
+     * Bitmaps por valor de faceta. Un producto conserva su ordinal mientras siga en el índice y los de
+     * productos retirados se reutilizan, así que los arreglos crecen con el catálogo activo y no con la
+     * cantidad de altas y bajas.
+     */
+    private static final class Datos {
+
+        private final Map<Long, Integer> ordinales = new HashMap<>();
+        private long[] productoIds = new long[1024];
+        private byte[] rangoPorOrdinal = new byte[1024];
+        private int siguienteOrdinal;
+        private final Deque<Integer> ordinalesLibres = new ArrayDeque<>();
+        /** Si cada ordinal tiene un ID mayor que los anteriores, para paginar por recientes sin ordenar */
+        private boolean ordinalesEnOrdenDeId = true;
+        private long mayorId = Long.MIN_VALUE;
+
+        private final RoaringBitmap activos = new RoaringBitmap();
+        private final Faceta categorias = new Faceta();
+        private final Faceta marcas = new Faceta();
+        private final Faceta proveedores = new Faceta();
+        private final RoaringBitmap[] rangos = new RoaringBitmap[RANGOS_PRECIO.length];
+
+        Datos() {
+            Arrays.setAll(rangos, i -> new RoaringBitmap());
+        }
+
+        void poner(ProductoIndexado producto) {
+            Integer ordinal = ordinales.get(producto.id());
+            if (ordinal != null) {
+                retirar(ordinal);
+            } else {
+                ordinal = ordinalesLibres.isEmpty() ? siguienteOrdinal++ : ordinalesLibres.pop();
+                if (ordinal == productoIds.length) {
+                    productoIds = Arrays.copyOf(productoIds, ordinal * 2);
+                    rangoPorOrdinal = Arrays.copyOf(rangoPorOrdinal, ordinal * 2);
+                }
+                ordinalesEnOrdenDeId &= ordinal == siguienteOrdinal - 1 && producto.id() > mayorId;
+                mayorId = Math.max(mayorId, producto.id());
+                productoIds[ordinal] = producto.id();
+                ordinales.put(producto.id(), ordinal);
+            }
+
+            int rango = rangoDe(producto.precioConIgv());
+            rangoPorOrdinal[ordinal] = (byte) rango;
+            activos.add(ordinal);
+            categorias.poner(ordinal, producto.categoriaId(), producto.categoriaNombre());
+            marcas.poner(ordinal, producto.marcaId(), producto.marcaNombre());
+            proveedores.poner(ordinal, producto.proveedorId(), producto.proveedorNombre());
+            rangos[rango].add(ordinal);
+        }
+
+        void quitar(Long productoId) {
+            Integer ordinal = ordinales.remove(productoId);
+            if (ordinal != null) {
+                retirar(ordinal);
+                ordinalesLibres.push(ordinal);
+            }
+        }
+
+        /**
+         * Reduce la memoria de los bitmaps una vez terminada la carga completa
+         */
+        void compactar() {
+            activos.runOptimize();
+            categorias.compactar();
+            marcas.compactar();
+            proveedores.compactar();
+            Arrays.stream(rangos).forEach(RoaringBitmap::runOptimize);
+        }
+
+        private void retirar(int ordinal) {
+            if (!activos.checkedRemove(ordinal)) {
+                return;
+            }
+            categorias.quitar(ordinal);
+            marcas.quitar(ordinal);
+            proveedores.quitar(ordinal);
+            rangos[rangoPorOrdinal[ordinal]].remove(ordinal);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.nove.sule.backend_nove_sule.search;
+
+/**
+ * Índice en memoria sobre el catálogo de productos, mantenido por {@link SincronizadorIndicesProductos}
+ */
+public interface IndiceProductos {
+
+    /**
+     * Inicia una reconstrucción completa; el índice actual sigue atendiendo consultas hasta publicarla
+     */
+    Reconstruccion iniciarReconstruccion();
+
+    /**
+     * Inserta o reemplaza un producto
+     */
+    void actualizar(ProductoIndexado producto);
+
+    /**
+     * Quita un producto del índice
+     */
+    void eliminar(Long productoId);
+
+    interface Reconstruccion {
+
+        void agregar(ProductoIndexado producto);
+
+        void publicar();
+    }
+}
@@ -0,0 +1,146 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ConteoTagDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Conteo en memoria de los tags del catálogo activo, para autocompletar y listar tags
+ * sin desanidar el jsonb de todos los productos en cada consulta.
+ * El filtrado de productos por tag se resuelve en la base con el índice GIN.
+ */
+@Slf4j
+@Component
+public class IndiceTagsProductos implements IndiceProductos {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Datos datos = new Datos();
+
+    /**
+     * Tags cuyo texto normalizado empieza con el prefijo (todos si está vacío),
+     * de los más usados a los menos usados
+     */
+    public List<ConteoTagDTO> listar(String prefijo, int limite) {
+        String clave = NormalizadorTexto.normalizar(prefijo == null ? "" : prefijo.trim());
+        lock.readLock().lock();
+        try {
+            Datos actual = datos;
+            Map<String, Set<String>> candidatos = clave.isEmpty()
+                ? actual.porClave
+                : actual.porClave.subMap(clave, clave + Character.MAX_VALUE);
+
+            List<ConteoTagDTO> resultado = new ArrayList<>();
+            candidatos.values().forEach(tags -> tags.forEach(tag ->
+                resultado.add(new ConteoTagDTO(tag, actual.conteos.get(tag)))));
+            resultado.sort(Comparator.comparingLong(ConteoTagDTO::getCantidad).reversed()
+                .thenComparing(ConteoTagDTO::getTag));
+            return resultado.size() > limite ? resultado.subList(0, limite) : resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Reconstruccion iniciarReconstruccion() {
+        Datos nuevos = new Datos();
+        return new Reconstruccion() {
+            @Override
+            public void agregar(ProductoIndexado producto) {
+                if (producto.isActivo()) {
+                    nuevos.poner(producto.id(), producto.tags());
+                }
+            }
+
+            @Override
+            public void publicar() {
+                lock.writeLock().lock();
+                try {
+                    datos = nuevos;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.info("Índice de tags publicado: {} tags", nuevos.conteos.size());
+            }
+        };
+    }
+
+    @Override
+    public void actualizar(ProductoIndexado producto) {
+        lock.writeLock().lock();
+        try {
+            datos.quitar(producto.id());
+            if (producto.isActivo()) {
+                datos.poner(producto.id(), producto.tags());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void eliminar(Long productoId) {
+        lock.writeLock().lock();
+        try {
+            datos.quitar(productoId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tags por producto, conteo por tag y tags agrupados por su texto normalizado
+     */
+    private static final class Datos {
+
+        private final Map<Long, Set<String>> tagsPorProducto = new HashMap<>();
+        private final Map<String, Long> conteos = new HashMap<>();
+        private final TreeMap<String, Set<String>> porClave = new TreeMap<>();
+
+        void poner(Long productoId, List<String> tags) {
+            if (tags == null || tags.isEmpty()) {
+                return;
+            }
+            Set<String> distintos = new LinkedHashSet<>();
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    distintos.add(tag);
+                }
+            }
+            tagsPorProducto.put(productoId, distintos);
+            for (String tag : distintos) {
+                if (conteos.merge(tag, 1L, Long::sum) == 1L) {
+                    porClave.computeIfAbsent(NormalizadorTexto.normalizar(tag.trim()), k -> new LinkedHashSet<>()).add(tag);
+                }
+            }
+        }
+
+        void quitar(Long productoId) {
+            Set<String> anteriores = tagsPorProducto.remove(productoId);
+            if (anteriores == null) {
+                return;
+            }
+            for (String tag : anteriores) {
+                if (conteos.merge(tag, -1L, Long::sum) == 0L) {
+                    conteos.remove(tag);
+                    String clave = NormalizadorTexto.normalizar(tag.trim());
+                    Set<String> tags = porClave.get(clave);
+                    tags.remove(tag);
+                    if (tags.isEmpty()) {
+                        porClave.remove(clave);
+                    }
+                }
+            }
+        }
+    }
+}
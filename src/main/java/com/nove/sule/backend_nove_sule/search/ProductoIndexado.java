@@ -0,0 +1,74 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Vista inmutable de un producto con los datos que necesitan los índices en memoria
+ */
+public record ProductoIndexado(
+        Long id,
+        String codigo,
+        String codigoBarras,
+        String nombre,
+        String descripcion,
+        List<String> tags,
+        Long categoriaId,
+        String categoriaNombre,
+        Long marcaId,
+        String marcaNombre,
+        Long proveedorId,
+        String proveedorNombre,
+        BigDecimal precio,
+        BigDecimal precioConIgv,
+        Integer stock,
+        Integer stockMinimo,
+        String unidad,
+        TipoIGV tipoIgv,
+        Estado estado) {
+
+    /**
+     * Construye la vista a partir de un producto con categoría y marca ya cargadas
+     */
+    public static ProductoIndexado de(Producto producto) {
+        return new ProductoIndexado(
+            producto.getId(),
+            producto.getCodigo(),
+            producto.getCodigoBarras(),
+            producto.getNombre(),
+            producto.getDescripcion(),
+            tags(producto.getTags()),
+            producto.getCategoria() != null ? producto.getCategoria().getId() : null,
+            producto.getCategoria() != null ? producto.getCategoria().getNombre() : null,
+            producto.getMarca() != null ? producto.getMarca().getId() : null,
+            producto.getMarca() != null ? producto.getMarca().getNombre() : null,
+            producto.getProveedor() != null ? producto.getProveedor().getId() : null,
+            producto.getProveedor() != null ? producto.getProveedor().getNombre() : null,
+            producto.getPrecio(),
+            producto.getPrecioConIgv(),
+            producto.getStock(),
+            producto.getStockMinimo(),
+            producto.getUnidad(),
+            producto.getTipoIgv(),
+            producto.getEstado());
+    }
+
+    public boolean isActivo() {
+        return estado == Estado.ACTIVO;
+    }
+
+    /**
+     * Copia los tags descartando nulos, que el arreglo jsonb admite y List.copyOf rechaza
+     */
+    private static List<String> tags(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        return tags.stream().filter(Objects::nonNull).toList();
+    }
+}
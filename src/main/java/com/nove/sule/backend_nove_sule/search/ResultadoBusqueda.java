@@ -0,0 +1,9 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import java.util.List;
+
+/**
+ * Página de IDs de producto ordenados por relevancia y el total de coincidencias
+ */
+public record ResultadoBusqueda(List<Long> productoIds, long total) {
+}
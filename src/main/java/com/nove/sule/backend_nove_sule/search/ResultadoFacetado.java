@@ -0,0 +1,12 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ValorFacetaDTO;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de IDs de producto, total de coincidencias y conteos por faceta
+ */
+public record ResultadoFacetado(List<Long> productoIds, long total, Map<String, List<ValorFacetaDTO>> facetas) {
+}
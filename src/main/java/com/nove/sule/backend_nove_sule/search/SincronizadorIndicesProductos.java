@@ -0,0 +1,157 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.event.CategoriaModificadaEvent;
+import com.nove.sule.backend_nove_sule.event.MarcaModificadaEvent;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
+import com.nove.sule.backend_nove_sule.repository.ProductoRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantiene los índices de productos en memoria: los construye al iniciar la aplicación
+ * y aplica los cambios después del commit de cada escritura del catálogo.
+ * Los cambios se aplican en el hilo de indiceExecutor, fuera del contexto de persistencia de la petición
+ * (que todavía tiene las entidades tal como las dejó su propia transacción), y cada lote se relee de la base
+ * y se aplica sin soltar el bloqueo de escritura: si dos commits cercanos reindexan el mismo producto, el que
+ * aplica último también leyó último, así que nunca queda una versión vieja.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SincronizadorIndicesProductos {
+
+    private static final int TAMANO_LOTE = 1000;
+
+    private final ProductoRepository productoRepository;
+    private final List<IndiceProductos> indices;
+    private final ThreadPoolTaskExecutor indiceExecutor;
+
+    /** Serializa la lectura y la aplicación de cada lote de cambios */
+    private final Object escritura = new Object();
+
+    /** IDs modificados mientras corre una reconstrucción; se reaplican al publicarla */
+    private final Set<Long> pendientes = new HashSet<>();
+    private boolean reconstruyendo;
+    private boolean reconstruirDeNuevo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        reconstruir();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductoModificado(ProductoModificadoEvent event) {
+        indiceExecutor.execute(() -> {
+            if (event.afectaTodos()) {
+                reconstruir();
+            } else {
+                actualizar(event.productoIds());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoriaModificada(CategoriaModificadaEvent event) {
+        indiceExecutor.execute(() -> actualizar(productoRepository.findIdsByCategoriaId(event.categoriaId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMarcaModificada(MarcaModificadaEvent event) {
+        indiceExecutor.execute(() -> actualizar(productoRepository.findIdsByMarcaId(event.marcaId())));
+    }
+
+    /**
+     * Reconstruye todos los índices recorriendo el catálogo por lotes
+     */
+    public void reconstruir() {
+        synchronized (pendientes) {
+            if (reconstruyendo) {
+                // La reconstrucción en curso pudo leer datos anteriores a este cambio
+                reconstruirDeNuevo = true;
+                return;
+            }
+            reconstruyendo = true;
+            pendientes.clear();
+        }
+
+        long inicio = System.currentTimeMillis();
+        Set<Long> reaplicar;
+        boolean repetir;
+        try {
+            List<IndiceProductos.Reconstruccion> reconstrucciones = indices.stream()
+                .map(IndiceProductos::iniciarReconstruccion)
+                .toList();
+
+            long total = 0;
+            long ultimoId = 0L;
+            List<Producto> lote;
+            do {
+                lote = productoRepository.findLoteWithRelations(ultimoId, PageRequest.of(0, TAMANO_LOTE));
+                for (Producto producto : lote) {
+                    ProductoIndexado indexado = ProductoIndexado.de(producto);
+                    reconstrucciones.forEach(r -> r.agregar(indexado));
+                    ultimoId = producto.getId();
+                }
+                total += lote.size();
+            } while (lote.size() == TAMANO_LOTE);
+
+            reconstrucciones.forEach(IndiceProductos.Reconstruccion::publicar);
+            log.info("Índices de productos reconstruidos: {} productos en {} ms", total, System.currentTimeMillis() - inicio);
+        } finally {
+            synchronized (pendientes) {
+                reconstruyendo = false;
+                repetir = reconstruirDeNuevo;
+                reconstruirDeNuevo = false;
+                reaplicar = new HashSet<>(pendientes);
+                pendientes.clear();
+            }
+        }
+
+        if (repetir) {
+            reconstruir();
+        } else if (!reaplicar.isEmpty()) {
+            actualizar(reaplicar);
+        }
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void actualizar(Collection<Long> productoIds) {
+        if (productoIds.isEmpty()) {
+            return;
+        }
+        synchronized (pendientes) {
+            if (reconstruyendo) {
+                pendientes.addAll(productoIds);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(productoIds);
+        for (int i = 0; i < ids.size(); i += TAMANO_LOTE) {
+            List<Long> lote = ids.subList(i, Math.min(i + TAMANO_LOTE, ids.size()));
+            // Se bloquea por lote para que una reindexación grande no frene a las demás de principio a fin
+            synchronized (escritura) {
+                Set<Long> sinEncontrar = new HashSet<>(lote);
+                for (Producto producto : productoRepository.findAllByIdWithRelations(lote)) {
+                    ProductoIndexado indexado = ProductoIndexado.de(producto);
+                    indices.forEach(indice -> indice.actualizar(indexado));
+                    sinEncontrar.remove(producto.getId());
+                }
+                sinEncontrar.forEach(id -> indices.forEach(indice -> indice.eliminar(id)));
+            }
+        }
+    }
+}
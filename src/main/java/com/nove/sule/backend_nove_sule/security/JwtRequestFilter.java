@@ -1,6 +1,8 @@
 package com.nove.sule.backend_nove_sule.security;
 
+import com.nove.sule.backend_nove_sule.cache.EstadoUsuariosCache;
 import com.nove.sule.backend_nove_sule.util.Constants;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,8 +12,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,7 +19,8 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 /**
- * Filtro para validar tokens JWT en cada request
+ * Filtro para validar tokens JWT en cada request.
+ * Autentica con los datos firmados en el token, sin cargar el usuario de la base en cada petición
  */
 @Slf4j
 @Component
@@ -27,7 +28,7 @@ import java.io.IOException;
 public class JwtRequestFilter extends OncePerRequestFilter {
 
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserDetailsService userDetailsService;
+    private final EstadoUsuariosCache estadoUsuariosCache;
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -44,33 +45,20 @@ public class JwtRequestFilter extends OncePerRequestFilter {
 
         final String requestTokenHeader = request.getHeader(Constants.JWT_HEADER_NAME);
 
-        String username = null;
-        String jwtToken = null;
-
         // JWT Token está en la forma "Bearer token". Remover Bearer y obtener solo el token
-        if (requestTokenHeader != null && requestTokenHeader.startsWith(Constants.JWT_TOKEN_PREFIX)) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                log.error("No se pudo obtener el username del token JWT: {}", e.getMessage());
-            }
-        } else {
-        }
-
-        // Una vez obtenido el token, validar
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (requestTokenHeader != null && requestTokenHeader.startsWith(Constants.JWT_TOKEN_PREFIX)
+            && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwtToken = requestTokenHeader.substring(Constants.JWT_TOKEN_PREFIX.length());
+            UsuarioAutenticado usuario = leerUsuario(jwtToken);
 
-            // Si el token es válido, configurar Spring Security para establecer la autenticación
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
+            // El usuario sale del token; sólo se revisa, en caché, que siga activo con el mismo rol
+            if (usuario != null && estadoUsuariosCache.vigente(usuario)) {
 
                 UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        usuario,
                         null,
-                        userDetails.getAuthorities());
+                        usuario.getAuthorities());
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
@@ -83,6 +71,19 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Verifica el token en un solo parseo y arma el usuario con sus datos firmados
+     */
+    private UsuarioAutenticado leerUsuario(String jwtToken) {
+        try {
+            JwtTokenUtil.TokenJwt token = jwtTokenUtil.leerToken(jwtToken);
+            return new UsuarioAutenticado(token.usuarioId(), token.username(), token.rol());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Token JWT inválido: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Verifica si el endpoint es público y no requiere autenticación
      */
@@ -1,11 +1,10 @@
 package com.nove.sule.backend_nove_sule.security;
 
 import com.nove.sule.backend_nove_sule.entity.Usuario;
+import com.nove.sule.backend_nove_sule.entity.enums.Rol;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -13,17 +12,25 @@ import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 /**
- * Utilidad para manejo de tokens JWT
+ * Utilidad para manejo de tokens JWT.
+ * La clave y el parser se construyen una sola vez; el parser es inmutable y se comparte entre peticiones
  */
-@Slf4j
 @Component
 public class JwtTokenUtil {
 
-    @Value("${app.jwt.secret}")
-    private String jwtSecret;
+    private static final String CLAIM_USUARIO_ID = "userId";
+    private static final String CLAIM_ROL = "role";
 
-    @Value("${app.jwt.expiration}")
-    private long jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+
+    public JwtTokenUtil(@Value("${app.jwt.secret}") String jwtSecret,
+                        @Value("${app.jwt.expiration}") long jwtExpiration) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+    }
 
     /**
      * Genera un token JWT para el usuario
@@ -34,62 +41,35 @@ public class JwtTokenUtil {
 
         return Jwts.builder()
             .subject(usuario.getUsername())
-            .claim("userId", usuario.getId())
-            .claim("role", usuario.getRol().name())
+            .claim(CLAIM_USUARIO_ID, usuario.getId())
+            .claim(CLAIM_ROL, usuario.getRol().name())
             .issuedAt(now)
             .expiration(expiryDate)
-            .signWith(getSigningKey())
+            .signWith(signingKey)
             .compact();
     }
 
     /**
-     * Valida un token JWT
+     * Verifica la firma y el vencimiento del token en un solo parseo y devuelve sus datos.
+     * Lanza {@link JwtException} si el token no es válido, está vencido o le falta algún dato del usuario
      */
-    public boolean validateToken(String token, UserDetails userDetails) {
-        try {
-            String username = getUsernameFromToken(token);
-            return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
-        } catch (JwtException | IllegalArgumentException e) {
-            log.error("Token JWT inválido: {}", e.getMessage());
-            return false;
+    public TokenJwt leerToken(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        Long usuarioId = claims.get(CLAIM_USUARIO_ID, Long.class);
+        String rol = claims.get(CLAIM_ROL, String.class);
+        if (claims.getSubject() == null || usuarioId == null || rol == null) {
+            throw new MalformedJwtException("El token no identifica al usuario");
         }
-    }
-
-    /**
-     * Obtiene el username del token
-     */
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .verifyWith(getSigningKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-        
-        return claims.getSubject();
-    }
-
-    /**
-     * Verifica si el token ha expirado
-     */
-    public boolean isTokenExpired(String token) {
         try {
-            Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-            
-            return claims.getExpiration().before(new Date());
-        } catch (JwtException e) {
-            return true;
+            return new TokenJwt(claims.getSubject(), usuarioId, Rol.valueOf(rol), claims.getExpiration());
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Rol desconocido en el token: " + rol, e);
         }
     }
 
     /**
-     * Obtiene la clave de firmado
+     * Datos del usuario firmados en el token
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public record TokenJwt(String username, Long usuarioId, Rol rol, Date expiracion) {
     }
 }
@@ -59,6 +59,7 @@ public class SecurityConfig {
                 .requestMatchers("GET", "/api/v1/productos/**").permitAll()
                 .requestMatchers("GET", "/api/v1/categorias/**").permitAll()
                 .requestMatchers("GET", "/api/v1/marcas/**").permitAll()
+                .requestMatchers("GET", "/api/v1/imagenes/**").permitAll()
                 
                 // Resto de endpoints requieren autenticación
                 .anyRequest().authenticated()
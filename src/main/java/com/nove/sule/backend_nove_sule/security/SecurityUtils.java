@@ -0,0 +1,26 @@
+package com.nove.sule.backend_nove_sule.security;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Utilidades para consultar el usuario autenticado en la petición actual
+ */
+public final class SecurityUtils {
+
+    private SecurityUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static Optional<String> obtenerUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(authentication.getName());
+    }
+}
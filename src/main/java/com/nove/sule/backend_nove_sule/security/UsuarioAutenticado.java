@@ -0,0 +1,24 @@
+package com.nove.sule.backend_nove_sule.security;
+
+import com.nove.sule.backend_nove_sule.entity.enums.Rol;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Usuario autenticado con un token JWT, armado con los datos firmados en el token
+ * para no consultar la base en cada petición
+ */
+public record UsuarioAutenticado(Long id, String username, Rol rol) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + rol.name()));
+    }
+}
@@ -20,7 +20,7 @@ public interface AuthService {
     String generateToken(Usuario usuario);
 
     /**
-     * Valida un token JWT
+     * Valida un token JWT: firma, vencimiento y que su usuario siga activo con el mismo username y rol
      */
     boolean validateToken(String token);
 
@@ -30,7 +30,7 @@ public interface AuthService {
     String getUsernameFromToken(String token);
 
     /**
-     * Verifica si el token ha expirado
+     * Verifica si el token ha expirado; un token que no se puede verificar también se considera vencido
      */
     boolean isTokenExpired(String token);
 }
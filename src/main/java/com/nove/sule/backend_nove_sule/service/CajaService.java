@@ -3,10 +3,12 @@ package com.nove.sule.backend_nove_sule.service;
 import com.nove.sule.backend_nove_sule.dto.caja.*;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Caja;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -86,7 +88,8 @@ public interface CajaService {
     MovimientoCajaDTO registrarMovimiento(MovimientoCajaRequestDTO movimientoRequest);
 
     /**
-     * Lista movimientos de una caja
+     * Lista los movimientos más recientes de una caja, del último al primero.
+     * Para recorrer el historial completo se usa {@link #listarMovimientosConPaginacion}
      */
     List<MovimientoCajaDTO> listarMovimientosCaja(Long cajaId);
 
@@ -100,6 +103,11 @@ public interface CajaService {
      */
     List<MovimientoCajaDTO> listarMovimientosPorRangoFechas(Long cajaId, LocalDate fechaInicio, LocalDate fechaFin);
 
+    /**
+     * Suma (signo 1) o resta (signo -1, al anularla) una venta cobrada en la caja en su resumen diario
+     */
+    void acumularVenta(Long cajaId, LocalDateTime fecha, MedioPago medioPago, BigDecimal total, int signo);
+
     /**
      * Calcula el saldo actual de una caja
      */
@@ -111,7 +119,7 @@ public interface CajaService {
     ResumenCajaDTO obtenerResumenCaja(Long cajaId, LocalDate fecha);
 
     /**
-     * Obtiene el resumen de todas las cajas
+     * Obtiene el resumen de todas las cajas con una sola consulta sobre los acumulados del día
      */
     List<ResumenCajaDTO> obtenerResumenTodasLasCajas(LocalDate fecha);
 
@@ -136,7 +144,8 @@ public interface CajaService {
     boolean validarCajaActiva(Long cajaId);
 
     /**
-     * Obtiene el historial de movimientos con paginación
+     * Obtiene el historial de movimientos paginado por cursor, del más reciente al más antiguo.
+     * Sin cursor empieza por el último movimiento; cada página devuelve el cursor de la siguiente
      */
-    PaginatedResponseDTO<MovimientoCajaDTO> listarMovimientosConPaginacion(Long cajaId, Pageable pageable);
+    PaginaMovimientosCajaDTO listarMovimientosConPaginacion(Long cajaId, String cursor, int limite);
 }
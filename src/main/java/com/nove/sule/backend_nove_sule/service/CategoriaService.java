@@ -1,5 +1,6 @@
 package com.nove.sule.backend_nove_sule.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Categoria;
@@ -49,6 +50,11 @@ public interface CategoriaService {
      */
     List<CategoriaBasicaDTO> listarActivas();
 
+    /**
+     * Lista las categorías activas como JSON ya serializado
+     */
+    RawValue listarActivasSerializado();
+
     /**
      * Busca categorías con filtros
      */
@@ -35,7 +35,7 @@ public interface ClienteService {
     /**
      * Busca un cliente por tipo y número de documento
      */
-    Optional<Cliente> buscarPorTipoYNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento);
+    Optional<ClienteDTO> buscarPorTipoYNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento);
 
     /**
      * Busca un cliente por email
@@ -90,6 +90,12 @@ public interface ClienteService {
      */
     List<ClienteResponseDTO> buscarPorNombre(String nombre);
 
+    /**
+     * Sugiere clientes activos mientras se escribe: cada palabra debe aparecer en los nombres,
+     * apellidos, razón social o número de documento, y los resultados se ordenan por parecido
+     */
+    List<ClienteResponseDTO> sugerir(String texto, int limite);
+
     /**
      * Lista clientes activos para selección
      */
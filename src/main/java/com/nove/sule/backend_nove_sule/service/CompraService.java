@@ -66,10 +66,16 @@ public interface CompraService {
     OrdenCompraDTO cancelarOrdenCompra(Long id);
 
     /**
-     * Marca una orden como entregada
+     * Marca una orden como entregada, recibiendo todo lo pendiente
      */
     OrdenCompraDTO marcarComoEntregada(Long id);
 
+    /**
+     * Registra la recepción total o parcial de una orden: ingresa el stock, actualiza el precio de compra
+     * de los productos y registra los movimientos de entrada
+     */
+    OrdenCompraDTO recibirOrdenCompra(Long id, RecepcionOrdenCompraRequestDTO recepcion);
+
     /**
      * Lista órdenes de compra por proveedor
      */
@@ -91,10 +97,15 @@ public interface CompraService {
     Long contarOrdenesCompra(LocalDate fechaInicio, LocalDate fechaFin);
 
     /**
-     * Genera el siguiente número de orden de compra
+     * Vista previa del número que recibirá la próxima orden de compra; no lo reserva
      */
     String generarNumeroOrdenCompra();
 
+    /**
+     * Prepara la numeración de órdenes de compra a continuación de la última registrada
+     */
+    void inicializarNumeracion();
+
     /**
      * Verifica si existe un número de orden de compra
      */
@@ -111,7 +122,13 @@ public interface CompraService {
     List<OrdenCompraDTO> obtenerOrdenesPendientes();
 
     /**
-     * Obtiene las órdenes de compra vencidas
+     * Obtiene las órdenes de compra vencidas según la última revisión programada
      */
     List<OrdenCompraDTO> obtenerOrdenesVencidas();
+
+    /**
+     * Marca como vencidas las órdenes por recibir cuya fecha de entrega esperada ya pasó,
+     * desmarca las que dejaron de estarlo y recarga la lista de vencidas
+     */
+    void actualizarOrdenesVencidas();
 }
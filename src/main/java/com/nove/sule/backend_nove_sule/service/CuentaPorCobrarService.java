@@ -0,0 +1,46 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.AntiguedadSaldosDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.CreditoClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.PagoClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.PagoClienteRequestDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Interfaz para las cuentas por cobrar de las ventas al crédito
+ */
+public interface CuentaPorCobrarService {
+
+    /**
+     * Carga una venta al crédito al saldo del cliente si no supera su límite; si lo supera lanza una excepción
+     */
+    void cargarVenta(Long clienteId, BigDecimal total);
+
+    /**
+     * Descuenta del saldo una venta al crédito anulada; si el saldo no la cubre porque ya se pagó
+     * en parte lanza una excepción
+     */
+    void anularVenta(Long clienteId, BigDecimal total);
+
+    /**
+     * Registra un pago del cliente; no puede superar el saldo pendiente
+     */
+    PagoClienteDTO registrarPago(Long clienteId, PagoClienteRequestDTO pagoRequest);
+
+    /**
+     * Límite, saldo y crédito disponible del cliente
+     */
+    CreditoClienteDTO obtenerCredito(Long clienteId);
+
+    /**
+     * Pagos del cliente, del más reciente al más antiguo
+     */
+    List<PagoClienteDTO> listarPagos(Long clienteId);
+
+    /**
+     * Antigüedad de los saldos pendientes de todos los clientes, de mayor a menor saldo
+     */
+    AntiguedadSaldosDTO obtenerAntiguedad();
+}
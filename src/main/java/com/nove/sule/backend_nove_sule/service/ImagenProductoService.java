@@ -0,0 +1,31 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImagenProductoDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Interfaz para el almacenamiento y la entrega de imágenes de productos
+ */
+public interface ImagenProductoService {
+
+    /**
+     * Guarda la imagen por su hash de contenido, la agrega al producto y programa sus miniaturas.
+     * Queda como imagen principal si así se indica o si el producto aún no tiene una
+     */
+    ImagenProductoDTO subir(Long productoId, MultipartFile archivo, boolean principal);
+
+    /**
+     * Resuelve el nombre público de una imagen o miniatura al archivo que debe enviarse
+     */
+    Optional<ArchivoImagen> resolver(String nombre);
+
+    /**
+     * Archivo a enviar. {@code definitivo} es falso cuando se entrega el original
+     * en lugar de una miniatura que aún no se generó, y no debe cachearse a largo plazo
+     */
+    record ArchivoImagen(Path ruta, long longitud, String tipoContenido, String etag, boolean definitivo) {
+    }
+}
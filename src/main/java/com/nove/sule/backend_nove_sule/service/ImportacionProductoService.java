@@ -0,0 +1,22 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImportacionProductosDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+
+/**
+ * Interfaz para la importación masiva de productos desde archivos CSV
+ */
+public interface ImportacionProductoService {
+
+    /**
+     * Inicia la importación en segundo plano; los productos se insertan o actualizan por código
+     */
+    ImportacionProductosDTO iniciar(MultipartFile archivo);
+
+    /**
+     * Consulta el avance de una importación
+     */
+    Optional<ImportacionProductosDTO> consultar(String id);
+}
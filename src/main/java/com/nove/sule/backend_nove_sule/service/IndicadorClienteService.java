@@ -0,0 +1,48 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.ClienteSegmentadoDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.IndicadoresClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.SegmentacionClientesDTO;
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz para los indicadores incrementales de compra de clientes y su segmentación RFM
+ */
+public interface IndicadorClienteService {
+
+    /**
+     * Registra los indicadores de los clientes que ya tenían comprobantes vigentes y aún no tienen fila
+     */
+    void inicializar();
+
+    /**
+     * Suma una venta vigente a los indicadores del cliente
+     */
+    void ventaRegistrada(Long clienteId, LocalDateTime fechaEmision, BigDecimal total);
+
+    /**
+     * Descuenta una venta anulada. Si era la primera o la última compra del cliente,
+     * la fecha se recalcula con el resto de sus comprobantes vigentes
+     */
+    void ventaAnulada(Long clienteId, Long comprobanteId, LocalDateTime fechaEmision, BigDecimal total);
+
+    /**
+     * Indicadores de compra de un cliente
+     */
+    Optional<IndicadoresClienteDTO> obtenerIndicadores(Long clienteId);
+
+    /**
+     * Puntúa a todos los clientes con compras y resume cuántos caen en cada segmento
+     */
+    SegmentacionClientesDTO segmentar();
+
+    /**
+     * Clientes de un segmento, de mayor a menor importe comprado
+     */
+    List<ClienteSegmentadoDTO> listarSegmento(SegmentoCliente segmento, int limite);
+}
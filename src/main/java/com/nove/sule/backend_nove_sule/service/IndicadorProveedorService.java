@@ -0,0 +1,49 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.compras.IndicadoresProveedorDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Interfaz para los indicadores incrementales de desempeño de proveedores
+ */
+public interface IndicadorProveedorService {
+
+    /**
+     * Suma (signo 1) o resta (signo -1) una orden que espera mercadería: cuenta como abierta
+     * y lo que falta recibir de cada línea pasa a ser valor pendiente
+     */
+    void ordenAbierta(Long proveedorId, List<LineaPedido> lineas, int signo);
+
+    /**
+     * Suma o resta una orden que dejó de esperar mercadería en el nivel de cumplimiento.
+     * Las órdenes cerradas sin nada recibido no cuentan
+     */
+    void ordenCerrada(Long proveedorId, List<LineaPedido> lineas, int signo);
+
+    /**
+     * Registra una recepción: descuenta lo recibido de lo pendiente, acumula los días de entrega
+     * y actualiza el último precio y el mínimo de cada producto. La cantidad de cada línea es la recibida ahora
+     */
+    void mercaderiaRecibida(Long proveedorId, LocalDate fechaOrden, LocalDate fechaEntregaEsperada,
+                            List<LineaPedido> recibidas);
+
+    /**
+     * Indicadores de un proveedor con el detalle por producto
+     */
+    Optional<IndicadoresProveedorDTO> obtenerIndicadores(Long proveedorId);
+
+    /**
+     * Indicadores de todos los proveedores con actividad, sin el detalle por producto
+     */
+    List<IndicadoresProveedorDTO> listarIndicadores();
+
+    /**
+     * Línea de una orden tal como la ven los indicadores
+     */
+    record LineaPedido(Long productoId, int cantidad, int recibida, BigDecimal precioUnitario) {
+    }
+}
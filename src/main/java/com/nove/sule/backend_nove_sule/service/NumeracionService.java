@@ -0,0 +1,23 @@
+package com.nove.sule.backend_nove_sule.service;
+
+/**
+ * Interfaz para la numeración correlativa de documentos por serie (p. ej. "OC-")
+ */
+public interface NumeracionService {
+
+    /**
+     * Prepara la secuencia de la serie, continuando después del último número ya usado.
+     * Debe llamarse una vez al iniciar antes de pedir números de la serie
+     */
+    void registrarSerie(String serie, long ultimoUsado);
+
+    /**
+     * Asigna el siguiente número de la serie; nunca se repite, aunque puede dejar huecos
+     */
+    long siguiente(String serie);
+
+    /**
+     * Número que probablemente recibirá el próximo documento de la serie, sin reservarlo
+     */
+    long previsualizar(String serie);
+}
@@ -1,5 +1,9 @@
 package com.nove.sule.backend_nove_sule.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nove.sule.backend_nove_sule.dto.catalogo.AjustePrecioRequestDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.BusquedaFacetadaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ConteoTagDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
@@ -29,16 +33,32 @@ public interface ProductoService {
      */
     Optional<ProductoDTO> buscarPorId(Long id);
 
+    /**
+     * Busca un producto por ID y lo devuelve como JSON ya serializado
+     */
+    Optional<RawValue> buscarPorIdSerializado(Long id);
+
     /**
      * Busca un producto por código
      */
     Optional<ProductoDTO> buscarPorCodigo(String codigo);
 
+    /**
+     * Busca un producto por código y lo devuelve como JSON ya serializado
+     */
+    Optional<RawValue> buscarPorCodigoSerializado(String codigo);
+
     /**
      * Busca un producto por código de barras
      */
     Optional<ProductoDTO> buscarPorCodigoBarras(String codigoBarras);
 
+    /**
+     * Resuelve un escaneo del punto de venta (código de barras o código interno)
+     * como JSON ya serializado con precio y stock
+     */
+    Optional<RawValue> escanearSerializado(String codigo);
+
     /**
      * Lista todos los productos con paginación
      */
@@ -92,6 +112,12 @@ public interface ProductoService {
      */
     ProductoDTO actualizarStock(Long id, Integer nuevoStock);
 
+    /**
+     * Ajusta en una sola operación el precio de los productos de una categoría, marca y/o proveedor,
+     * registrando el historial de precios. Devuelve la cantidad de productos cuyo precio cambió.
+     */
+    int ajustarPrecios(AjustePrecioRequestDTO ajuste);
+
     /**
      * Verifica si existe un código
      */
@@ -103,9 +129,27 @@ public interface ProductoService {
     boolean existeCodigoBarras(String codigoBarras);
 
     /**
-     * Busca productos por texto en nombre o descripción
+     * Busca productos activos por texto en código, nombre, descripción, tags, marca y categoría,
+     * ordenados por relevancia
+     */
+    PaginatedResponseDTO<ProductoDTO> buscarPorTexto(String texto, Pageable pageable);
+
+    /**
+     * Búsqueda del catálogo activo con filtros por categoría, marca, proveedor y rango de precio,
+     * devolviendo además los conteos de cada faceta
+     */
+    BusquedaFacetadaDTO buscarFacetado(String texto, List<Long> categoriaIds, List<Long> marcaIds,
+                                       List<Long> proveedorIds, List<String> rangosPrecio, Pageable pageable);
+
+    /**
+     * Lista los productos activos que tienen todos los tags indicados, o alguno de ellos si {@code todos} es falso
+     */
+    PaginatedResponseDTO<ProductoDTO> buscarPorTags(List<String> tags, boolean todos, Pageable pageable);
+
+    /**
+     * Lista los tags del catálogo activo que empiezan con el prefijo, con su cantidad de productos
      */
-    List<ProductoDTO> buscarPorTexto(String texto);
+    List<ConteoTagDTO> listarTags(String prefijo, int limite);
 
     /**
      * Busca productos por rango de precio
@@ -0,0 +1,28 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.CambiosCatalogoDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
+
+/**
+ * Interfaz para la sincronización incremental del catálogo con los terminales POS.
+ * La versión es opaca para el cliente; sin versión se devuelve el catálogo desde el inicio.
+ */
+public interface SincronizacionService {
+
+    /**
+     * Productos (incluye precios y stock) modificados desde la versión indicada
+     */
+    CambiosCatalogoDTO<ProductoDTO> cambiosProductos(String version, int limite);
+
+    /**
+     * Categorías modificadas desde la versión indicada
+     */
+    CambiosCatalogoDTO<CategoriaBasicaDTO> cambiosCategorias(String version, int limite);
+
+    /**
+     * Marcas modificadas desde la versión indicada
+     */
+    CambiosCatalogoDTO<MarcaBasicaDTO> cambiosMarcas(String version, int limite);
+}
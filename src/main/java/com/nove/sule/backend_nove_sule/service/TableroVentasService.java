@@ -0,0 +1,22 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.ventas.TableroVentasDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Interfaz para el tablero de ventas del día
+ */
+public interface TableroVentasService {
+
+    /**
+     * Tablero de la fecha indicada (hoy si es nula). Hoy y ayer se responden desde los contadores
+     * en memoria; los días anteriores, desde la última instantánea guardada
+     */
+    TableroVentasDTO obtenerTablero(LocalDate fecha);
+
+    /**
+     * Guarda en la base los contadores en memoria y descarta los días que ya salieron de la ventana
+     */
+    void guardarInstantanea();
+}
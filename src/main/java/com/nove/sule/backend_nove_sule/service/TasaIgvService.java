@@ -0,0 +1,26 @@
+package com.nove.sule.backend_nove_sule.service;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.TasaIgvDTO;
+
+import java.util.List;
+
+/**
+ * Interfaz para el servicio de tasas de IGV
+ */
+public interface TasaIgvService {
+
+    /**
+     * Lista las tasas registradas por tipo y fecha de vigencia
+     */
+    List<TasaIgvDTO> listar();
+
+    /**
+     * Registra una tasa que rige desde su fecha de vigencia; se aplica al confirmar la transacción
+     */
+    TasaIgvDTO registrar(TasaIgvDTO tasaIgv);
+
+    /**
+     * Registra las tasas legales si la tabla está vacía y carga las tasas en la calculadora de IGV
+     */
+    void cargar();
+}
@@ -1,12 +1,15 @@
 package com.nove.sule.backend_nove_sule.service.impl;
 
+import com.nove.sule.backend_nove_sule.cache.EstadoUsuariosCache;
 import com.nove.sule.backend_nove_sule.dto.auth.LoginRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.auth.LoginResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Usuario;
 import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
 import com.nove.sule.backend_nove_sule.security.JwtTokenUtil;
+import com.nove.sule.backend_nove_sule.security.UsuarioAutenticado;
 import com.nove.sule.backend_nove_sule.service.AuthService;
 import com.nove.sule.backend_nove_sule.util.Constants;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,6 +30,7 @@ public class AuthServiceImpl implements AuthService {
     private final UsuarioRepository usuarioRepository;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenUtil jwtTokenUtil;
+    private final EstadoUsuariosCache estadoUsuariosCache;
 
     @Override
     public LoginResponseDTO login(LoginRequestDTO loginRequest) {
@@ -68,25 +72,35 @@ public class AuthServiceImpl implements AuthService {
         return jwtTokenUtil.generateToken(usuario);
     }
 
+    /**
+     * Misma verificación que el filtro de peticiones: un solo parseo y el estado del usuario en caché
+     */
     @Override
     public boolean validateToken(String token) {
-        try {
-            // Para validación simple sin UserDetails
-            String username = jwtTokenUtil.getUsernameFromToken(token);
-            return username != null && !jwtTokenUtil.isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Error validando token: {}", e.getMessage());
-            return false;
-        }
+        UsuarioAutenticado usuario = leerUsuario(token);
+        return usuario != null && estadoUsuariosCache.vigente(usuario);
     }
 
     @Override
     public String getUsernameFromToken(String token) {
-        return jwtTokenUtil.getUsernameFromToken(token);
+        return jwtTokenUtil.leerToken(token).username();
     }
 
     @Override
     public boolean isTokenExpired(String token) {
-        return jwtTokenUtil.isTokenExpired(token);
+        // El parser rechaza los tokens vencidos; uno que no se puede leer tampoco sirve
+        return leerUsuario(token) == null;
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private UsuarioAutenticado leerUsuario(String token) {
+        try {
+            JwtTokenUtil.TokenJwt datos = jwtTokenUtil.leerToken(token);
+            return new UsuarioAutenticado(datos.usuarioId(), datos.username(), datos.rol());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Error validando token: {}", e.getMessage());
+            return null;
+        }
     }
 }
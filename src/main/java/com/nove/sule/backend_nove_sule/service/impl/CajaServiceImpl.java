@@ -3,21 +3,30 @@ package com.nove.sule.backend_nove_sule.service.impl;
 import com.nove.sule.backend_nove_sule.dto.caja.*;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.*;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoMovimiento;
 import com.nove.sule.backend_nove_sule.mapper.CajaMapper;
 import com.nove.sule.backend_nove_sule.repository.*;
+import com.nove.sule.backend_nove_sule.security.SecurityUtils;
 import com.nove.sule.backend_nove_sule.service.CajaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -28,9 +37,68 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CajaServiceImpl implements CajaService {
 
+    /** Movimientos que devuelve el listado simple; el historial completo se recorre por cursor */
+    private static final int LIMITE_LISTADO = 500;
+    private static final int LIMITE_PAGINA = 1000;
+
+    /**
+     * Aplica la variación al saldo sólo si la caja está abierta y el saldo no queda negativo, y con el saldo
+     * resultante inserta el movimiento. Los movimientos concurrentes de una caja se serializan en el bloqueo
+     * de su fila, y la fecha se toma ya con el bloqueo (clock_timestamp, no now() ni el reloj de la aplicación),
+     * así que el orden por fecha es el mismo que el de la cadena de saldos; si la condición no se cumple no se
+     * devuelve ninguna fila
+     */
+    private static final String SQL_REGISTRAR_MOVIMIENTO =
+        "WITH caja AS (" +
+        "UPDATE cajas SET saldo_actual = saldo_actual + ?, fecha_modificacion = now() " +
+        "WHERE id = ? AND estado = 'ABIERTA' AND saldo_actual + ? >= 0 " +
+        "RETURNING id, nombre, saldo_actual), " +
+        "movimiento AS (" +
+        "INSERT INTO movimientos_caja (caja_id, tipo_movimiento, monto, concepto, observaciones, usuario_id, " +
+        "fecha_movimiento, saldo_anterior, saldo_nuevo, fecha_creacion, fecha_modificacion) " +
+        "SELECT caja.id, ?, ?, ?, ?, ?, CAST(clock_timestamp() AS timestamp), caja.saldo_actual - ?, " +
+        "caja.saldo_actual, now(), now() FROM caja " +
+        "RETURNING id, monto, fecha_movimiento, saldo_anterior, saldo_nuevo) " +
+        "SELECT movimiento.*, caja.nombre AS caja_nombre FROM movimiento CROSS JOIN caja";
+
+    /** Abre la caja con su saldo inicial sólo si no estaba abierta; el bloqueo de la fila la ordena con los movimientos */
+    private static final String SQL_ABRIR =
+        "UPDATE cajas SET estado = 'ABIERTA', saldo_inicial = ?, saldo_actual = ?, fecha_apertura = ?, " +
+        "fecha_modificacion = now() WHERE id = ? AND estado IS DISTINCT FROM 'ABIERTA'";
+
+    private static final String SQL_CAMBIAR_ESTADO =
+        "UPDATE cajas SET estado = ?, fecha_modificacion = now() WHERE id = ?";
+
+    private static final String SQL_CERRAR = SQL_CAMBIAR_ESTADO + " AND estado IS DISTINCT FROM 'CERRADA'";
+
+    /** Saldo de una caja recién creada, que no tiene movimientos que pisar */
+    private static final String SQL_SALDO_INICIAL = "UPDATE cajas SET saldo_actual = saldo_inicial WHERE id = ?";
+
+    private static final String SQL_ACUMULAR_RESUMEN =
+        "INSERT INTO resumen_caja_diario AS r (caja_id, fecha, medio_pago, movimientos, ingresos, egresos, ventas, " +
+        "total_ventas, ultimo_movimiento, fecha_creacion, fecha_modificacion) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (fecha, caja_id, medio_pago) DO UPDATE SET " +
+        "movimientos = r.movimientos + EXCLUDED.movimientos, " +
+        "ingresos = r.ingresos + EXCLUDED.ingresos, " +
+        "egresos = r.egresos + EXCLUDED.egresos, " +
+        "ventas = r.ventas + EXCLUDED.ventas, " +
+        "total_ventas = r.total_ventas + EXCLUDED.total_ventas, " +
+        "ultimo_movimiento = GREATEST(r.ultimo_movimiento, EXCLUDED.ultimo_movimiento), " +
+        "fecha_modificacion = now()";
+
+    /** Cajas con sus acumulados del día, una fila por medio de pago; las cajas sin actividad vienen sin acumulado */
+    private static final String SQL_RESUMEN_CAJAS =
+        "SELECT c.id, c.nombre, c.estado, c.saldo_inicial, c.saldo_actual, r.medio_pago, r.movimientos, " +
+        "r.ingresos, r.egresos, r.ventas, r.total_ventas, r.ultimo_movimiento " +
+        "FROM cajas c LEFT JOIN resumen_caja_diario r ON r.caja_id = c.id AND r.fecha = ?";
+
     private final CajaRepository cajaRepository;
+    private final MovimientoCajaRepository movimientoCajaRepository;
+    private final UsuarioRepository usuarioRepository;
     private final EmpleadoRepository empleadoRepository;
     private final CajaMapper cajaMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     @Transactional
@@ -51,12 +119,13 @@ public class CajaServiceImpl implements CajaService {
         caja.setNombre(cajaRequest.getNombre());
         caja.setDescripcion(cajaRequest.getDescripcion());
         caja.setSaldoInicial(cajaRequest.getSaldoInicial() != null ? cajaRequest.getSaldoInicial() : BigDecimal.ZERO);
-        caja.setSaldoActual(caja.getSaldoInicial());
         caja.setFechaApertura(cajaRequest.getFechaApertura() != null ? cajaRequest.getFechaApertura() : LocalDate.now());
         caja.setResponsable(responsable);
         caja.setEstado(Caja.EstadoCaja.ABIERTA);
 
-        caja = cajaRepository.save(caja);
+        caja = cajaRepository.saveAndFlush(caja);
+        jdbcTemplate.update(SQL_SALDO_INICIAL, caja.getId());
+        caja.setSaldoActual(caja.getSaldoInicial());
 
         log.info("Caja creada con ID: {}", caja.getId());
         return cajaMapper.toDTO(caja);
@@ -174,22 +243,14 @@ public class CajaServiceImpl implements CajaService {
     public CajaDTO abrirCaja(Long id, BigDecimal saldoInicial) {
         log.info("Abriendo caja ID: {} con saldo inicial: {}", id, saldoInicial);
 
-        Caja caja = cajaRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
-
-        if (caja.getEstado() == Caja.EstadoCaja.ABIERTA) {
+        BigDecimal saldo = saldoInicial != null ? saldoInicial : BigDecimal.ZERO;
+        if (jdbcTemplate.update(SQL_ABRIR, saldo, saldo, LocalDate.now(), id) == 0) {
+            cajaRepository.findById(id).orElseThrow(() -> new RuntimeException("Caja no encontrada"));
             throw new RuntimeException("La caja ya está abierta");
         }
 
-        caja.setEstado(Caja.EstadoCaja.ABIERTA);
-        caja.setSaldoInicial(saldoInicial != null ? saldoInicial : BigDecimal.ZERO);
-        caja.setSaldoActual(caja.getSaldoInicial());
-        caja.setFechaApertura(LocalDate.now());
-
-        caja = cajaRepository.save(caja);
-
         log.info("Caja abierta: {}", id);
-        return cajaMapper.toDTO(caja);
+        return cajaMapper.toDTO(recargar(id));
     }
 
     @Override
@@ -197,18 +258,13 @@ public class CajaServiceImpl implements CajaService {
     public CajaDTO cerrarCaja(Long id) {
         log.info("Cerrando caja ID: {}", id);
 
-        Caja caja = cajaRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
-
-        if (caja.getEstado() == Caja.EstadoCaja.CERRADA) {
+        if (jdbcTemplate.update(SQL_CERRAR, Caja.EstadoCaja.CERRADA.name(), id) == 0) {
+            cajaRepository.findById(id).orElseThrow(() -> new RuntimeException("Caja no encontrada"));
             throw new RuntimeException("La caja ya está cerrada");
         }
 
-        caja.setEstado(Caja.EstadoCaja.CERRADA);
-        caja = cajaRepository.save(caja);
-
         log.info("Caja cerrada: {}", id);
-        return cajaMapper.toDTO(caja);
+        return cajaMapper.toDTO(recargar(id));
     }
 
     @Override
@@ -216,14 +272,12 @@ public class CajaServiceImpl implements CajaService {
     public CajaDTO cambiarEstado(Long id, Caja.EstadoCaja estado) {
         log.info("Cambiando estado de caja ID: {} a: {}", id, estado);
 
-        Caja caja = cajaRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
-
-        caja.setEstado(estado);
-        caja = cajaRepository.save(caja);
+        if (jdbcTemplate.update(SQL_CAMBIAR_ESTADO, estado.name(), id) == 0) {
+            throw new RuntimeException("Caja no encontrada");
+        }
 
         log.info("Estado de caja actualizado: {} -> {}", id, estado);
-        return cajaMapper.toDTO(caja);
+        return cajaMapper.toDTO(recargar(id));
     }
 
     @Override
@@ -247,75 +301,85 @@ public class CajaServiceImpl implements CajaService {
     public MovimientoCajaDTO registrarMovimiento(MovimientoCajaRequestDTO movimientoRequest) {
         log.info("Registrando movimiento en caja ID: {}", movimientoRequest.getCajaId());
 
-        Caja caja = cajaRepository.findById(movimientoRequest.getCajaId())
-            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
-
-        if (caja.getEstado() != Caja.EstadoCaja.ABIERTA) {
-            throw new RuntimeException("No se pueden registrar movimientos en una caja cerrada");
-        }
-
-        // Calcular nuevo saldo
-        BigDecimal saldoAnterior = caja.getSaldoActual();
         BigDecimal monto = movimientoRequest.getMonto();
-        BigDecimal saldoNuevo;
-
+        BigDecimal variacion;
         if (movimientoRequest.getTipoMovimiento() == TipoMovimiento.INGRESO) {
-            saldoNuevo = saldoAnterior.add(monto);
+            variacion = monto;
         } else if (movimientoRequest.getTipoMovimiento() == TipoMovimiento.EGRESO) {
-            if (saldoAnterior.compareTo(monto) < 0) {
-                throw new RuntimeException("Saldo insuficiente para realizar el egreso");
-            }
-            saldoNuevo = saldoAnterior.subtract(monto);
+            variacion = monto.negate();
         } else {
             throw new RuntimeException("Tipo de movimiento no válido para caja");
         }
 
-        // Actualizar saldo de la caja
-        caja.setSaldoActual(saldoNuevo);
-        cajaRepository.save(caja);
-
-        // Crear movimiento (simulado - en un sistema real se guardaría en una tabla de movimientos)
-        MovimientoCajaDTO movimiento = MovimientoCajaDTO.builder()
-            .cajaId(caja.getId())
-            .cajaNombre(caja.getNombre())
-            .tipoMovimiento(movimientoRequest.getTipoMovimiento())
-            .monto(monto)
-            .concepto(movimientoRequest.getConcepto())
-            .observaciones(movimientoRequest.getObservaciones())
-            .usuario("Sistema") // TODO: Obtener usuario actual
-            .fechaMovimiento(LocalDateTime.now())
-            .saldoAnterior(saldoAnterior)
-            .saldoNuevo(saldoNuevo)
-            .build();
-
-        log.info("Movimiento registrado en caja {}: {} {}", caja.getId(), 
-                movimientoRequest.getTipoMovimiento(), monto);
+        Usuario usuario = SecurityUtils.obtenerUsername().flatMap(usuarioRepository::findByUsername).orElse(null);
+        Long cajaId = movimientoRequest.getCajaId();
+
+        // Saldo y libro se actualizan en una sola sentencia: la validación del saldo y el cambio no se separan
+        List<MovimientoCajaDTO> registrado = jdbcTemplate.query(SQL_REGISTRAR_MOVIMIENTO,
+            (rs, fila) -> MovimientoCajaDTO.builder()
+                .id(rs.getLong("id"))
+                .cajaId(cajaId)
+                .cajaNombre(rs.getString("caja_nombre"))
+                .tipoMovimiento(movimientoRequest.getTipoMovimiento())
+                .monto(rs.getBigDecimal("monto"))
+                .concepto(movimientoRequest.getConcepto())
+                .observaciones(movimientoRequest.getObservaciones())
+                .usuario(usuario != null ? usuario.getUsername() : "Sistema")
+                .fechaMovimiento(rs.getObject("fecha_movimiento", LocalDateTime.class))
+                .saldoAnterior(rs.getBigDecimal("saldo_anterior"))
+                .saldoNuevo(rs.getBigDecimal("saldo_nuevo"))
+                .build(),
+            variacion, cajaId, variacion, movimientoRequest.getTipoMovimiento().name(), monto,
+            movimientoRequest.getConcepto(), movimientoRequest.getObservaciones(),
+            usuario != null ? usuario.getId() : null, variacion);
+        if (registrado.isEmpty()) {
+            throw motivoRechazo(cajaId);
+        }
+        MovimientoCajaDTO movimiento = registrado.get(0);
+        LocalDateTime fecha = movimiento.getFechaMovimiento();
+        // Los movimientos de caja se acumulan como efectivo; la fila del día ya está serializada por la de la caja
+        boolean ingreso = variacion.signum() > 0;
+        acumularResumen(cajaId, fecha.toLocalDate(), MedioPago.EFECTIVO, 1,
+            ingreso ? monto : BigDecimal.ZERO, ingreso ? BigDecimal.ZERO : monto, 0, BigDecimal.ZERO, fecha);
+
+        log.info("Movimiento registrado en caja {}: {} {}, saldo {}", cajaId,
+                movimientoRequest.getTipoMovimiento(), monto, movimiento.getSaldoNuevo());
         return movimiento;
     }
 
+    @Override
+    @Transactional
+    public void acumularVenta(Long cajaId, LocalDateTime fecha, MedioPago medioPago, BigDecimal total, int signo) {
+        
+        BigDecimal monto = total != null ? total.multiply(BigDecimal.valueOf(signo)) : BigDecimal.ZERO;
+        acumularResumen(cajaId, fecha.toLocalDate(), medioPago, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+            signo, monto, signo > 0 ? fecha : null);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<MovimientoCajaDTO> listarMovimientosCaja(Long cajaId) {
         
-        // En un sistema real, esto consultaría la tabla de movimientos
-        // Por ahora retornamos una lista vacía
-        return List.of();
+        return movimientoCajaRepository.findUltimos(cajaId, Pageable.ofSize(LIMITE_LISTADO)).stream()
+            .map(cajaMapper::toMovimientoDTO)
+            .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MovimientoCajaDTO> listarMovimientosPorFecha(Long cajaId, LocalDate fecha) {
         
-        // En un sistema real, esto consultaría la tabla de movimientos por fecha
-        return List.of();
+        return listarMovimientosPorRangoFechas(cajaId, fecha, fecha);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MovimientoCajaDTO> listarMovimientosPorRangoFechas(Long cajaId, LocalDate fechaInicio, LocalDate fechaFin) {
         
-        // En un sistema real, esto consultaría la tabla de movimientos por rango de fechas
-        return List.of();
+        return movimientoCajaRepository.findByCajaIdAndRango(cajaId, fechaInicio.atStartOfDay(),
+                fechaFin.plusDays(1).atStartOfDay()).stream()
+            .map(cajaMapper::toMovimientoDTO)
+            .toList();
     }
 
     @Override
@@ -332,59 +396,40 @@ public class CajaServiceImpl implements CajaService {
     @Transactional(readOnly = true)
     public ResumenCajaDTO obtenerResumenCaja(Long cajaId, LocalDate fecha) {
         
-        Caja caja = cajaRepository.findById(cajaId)
-            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
-
-        // En un sistema real, esto calcularía los totales basándose en los movimientos reales
-        BigDecimal totalIngresos = BigDecimal.ZERO; // TODO: Calcular desde movimientos
-        BigDecimal totalEgresos = BigDecimal.ZERO; // TODO: Calcular desde movimientos
-
-        return ResumenCajaDTO.builder()
-            .cajaId(caja.getId())
-            .cajaNombre(caja.getNombre())
-            .fecha(fecha)
-            .saldoInicial(caja.getSaldoInicial())
-            .saldoFinal(caja.getSaldoActual())
-            .totalIngresos(totalIngresos)
-            .totalEgresos(totalEgresos)
-            .saldoDiferencia(totalIngresos.subtract(totalEgresos))
-            .totalMovimientos(0L) // TODO: Contar movimientos reales
-            .ultimoMovimiento(null) // TODO: Obtener último movimiento real
-            .estadoCaja(caja.getEstado().name())
-            .build();
+        List<ResumenCajaDTO> resumen = resumenCajas(fecha, cajaId);
+        if (resumen.isEmpty()) {
+            throw new RuntimeException("Caja no encontrada");
+        }
+        return resumen.get(0);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ResumenCajaDTO> obtenerResumenTodasLasCajas(LocalDate fecha) {
         
-        return cajaRepository.findAll().stream()
-            .map(caja -> obtenerResumenCaja(caja.getId(), fecha))
-            .toList();
+        return resumenCajas(fecha, null);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalIngresos(Long cajaId, LocalDate fecha) {
         
-        // En un sistema real, esto sumaría los movimientos de tipo INGRESO
-        return BigDecimal.ZERO;
+        return obtenerResumenCaja(cajaId, fecha).getTotalIngresos();
     }
 
     @Override
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalEgresos(Long cajaId, LocalDate fecha) {
         
-        // En un sistema real, esto sumaría los movimientos de tipo EGRESO
-        return BigDecimal.ZERO;
+        return obtenerResumenCaja(cajaId, fecha).getTotalEgresos();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<MovimientoCajaDTO> obtenerUltimoMovimiento(Long cajaId) {
         
-        // En un sistema real, esto consultaría el último movimiento de la tabla
-        return Optional.empty();
+        return movimientoCajaRepository.findFirstByCajaIdOrderByFechaMovimientoDescIdDesc(cajaId)
+            .map(cajaMapper::toMovimientoDTO);
     }
 
     @Override
@@ -398,18 +443,140 @@ public class CajaServiceImpl implements CajaService {
 
     @Override
     @Transactional(readOnly = true)
-    public PaginatedResponseDTO<MovimientoCajaDTO> listarMovimientosConPaginacion(Long cajaId, Pageable pageable) {
+    public PaginaMovimientosCajaDTO listarMovimientosConPaginacion(Long cajaId, String cursor, int limite) {
         
-        // En un sistema real, esto consultaría la tabla de movimientos con paginación
-        return PaginatedResponseDTO.<MovimientoCajaDTO>builder()
-            .content(List.of())
-            .page(0)
-            .size(pageable.getPageSize())
-            .totalElements(0L)
-            .totalPages(0)
-            .first(true)
-            .last(true)
-            .empty(true)
+        int tamano = Math.max(1, Math.min(limite, LIMITE_PAGINA));
+        Cursor desde = Cursor.parse(cursor);
+        // Se pide un registro extra para saber si quedan más movimientos
+        Pageable pageable = Pageable.ofSize(tamano + 1);
+        List<MovimientoCaja> movimientos = desde == null
+            ? movimientoCajaRepository.findUltimos(cajaId, pageable)
+            : movimientoCajaRepository.findAnterioresA(cajaId, desde.fecha(), desde.id(), pageable);
+        boolean hayMas = movimientos.size() > tamano;
+        if (hayMas) {
+            movimientos = movimientos.subList(0, tamano);
+        }
+
+        String siguiente = movimientos.isEmpty()
+            ? cursor
+            : Cursor.de(movimientos.get(movimientos.size() - 1)).toString();
+
+        return PaginaMovimientosCajaDTO.builder()
+            .movimientos(movimientos.stream().map(cajaMapper::toMovimientoDTO).toList())
+            .cursor(siguiente)
+            .hayMas(hayMas)
             .build();
     }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Lee la caja después de una sentencia directa; no debe haber una copia cargada antes en la transacción
+     */
+    private Caja recargar(Long id) {
+        return cajaRepository.findByIdWithResponsable(id)
+            .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
+    }
+
+    private void acumularResumen(Long cajaId, LocalDate fecha, MedioPago medioPago, int movimientos,
+                                 BigDecimal ingresos, BigDecimal egresos, int ventas, BigDecimal totalVentas,
+                                 LocalDateTime ultimoMovimiento) {
+        jdbcTemplate.update(SQL_ACUMULAR_RESUMEN, cajaId, fecha, medioPago.name(), movimientos, ingresos, egresos,
+            ventas, totalVentas, ultimoMovimiento);
+    }
+
+    /**
+     * Arma el resumen de una caja, o de todas si no se indica, sumando sus filas por medio de pago
+     */
+    private List<ResumenCajaDTO> resumenCajas(LocalDate fecha, Long cajaId) {
+        String sql = cajaId != null
+            ? SQL_RESUMEN_CAJAS + " WHERE c.id = ?"
+            : SQL_RESUMEN_CAJAS + " ORDER BY c.nombre, c.id";
+        Object[] parametros = cajaId != null ? new Object[] {fecha, cajaId} : new Object[] {fecha};
+        Map<Long, ResumenCajaDTO> porCaja = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            ResumenCajaDTO resumen = porCaja.computeIfAbsent(rs.getLong("id"), id -> ResumenCajaDTO.builder()
+                .cajaId(id)
+                .fecha(fecha)
+                .totalIngresos(BigDecimal.ZERO)
+                .totalEgresos(BigDecimal.ZERO)
+                .totalMovimientos(0L)
+                .totalVentas(0L)
+                .montoVentas(BigDecimal.ZERO)
+                .ventasPorMedioPago(new EnumMap<>(MedioPago.class))
+                .build());
+            resumen.setCajaNombre(rs.getString("nombre"));
+            resumen.setEstadoCaja(rs.getString("estado"));
+            resumen.setSaldoInicial(rs.getBigDecimal("saldo_inicial"));
+            resumen.setSaldoFinal(rs.getBigDecimal("saldo_actual"));
+            String medioPago = rs.getString("medio_pago");
+            if (medioPago == null) {
+                return;
+            }
+            resumen.setTotalMovimientos(resumen.getTotalMovimientos() + rs.getLong("movimientos"));
+            resumen.setTotalIngresos(resumen.getTotalIngresos().add(rs.getBigDecimal("ingresos")));
+            resumen.setTotalEgresos(resumen.getTotalEgresos().add(rs.getBigDecimal("egresos")));
+            resumen.setTotalVentas(resumen.getTotalVentas() + rs.getLong("ventas"));
+            BigDecimal totalVentas = rs.getBigDecimal("total_ventas");
+            resumen.setMontoVentas(resumen.getMontoVentas().add(totalVentas));
+            if (totalVentas.signum() != 0) {
+                resumen.getVentasPorMedioPago().put(MedioPago.valueOf(medioPago), totalVentas);
+            }
+            LocalDateTime ultimo = rs.getObject("ultimo_movimiento", LocalDateTime.class);
+            if (ultimo != null && (resumen.getUltimoMovimiento() == null || ultimo.isAfter(resumen.getUltimoMovimiento()))) {
+                resumen.setUltimoMovimiento(ultimo);
+            }
+        }, parametros);
+        porCaja.values().forEach(resumen ->
+            resumen.setSaldoDiferencia(resumen.getTotalIngresos().subtract(resumen.getTotalEgresos())));
+        return new ArrayList<>(porCaja.values());
+    }
+
+    /**
+     * Explica por qué la actualización condicional del saldo no afectó ninguna fila
+     */
+    private RuntimeException motivoRechazo(Long cajaId) {
+        Caja caja = cajaRepository.findById(cajaId).orElse(null);
+        if (caja == null) {
+            return new RuntimeException("Caja no encontrada");
+        }
+        if (caja.getEstado() != Caja.EstadoCaja.ABIERTA) {
+            return new RuntimeException("No se pueden registrar movimientos en una caja cerrada");
+        }
+        return new RuntimeException("Saldo insuficiente para realizar el egreso");
+    }
+
+    /**
+     * Posición en el historial: fecha del movimiento en microsegundos e ID del último movimiento entregado
+     */
+    private record Cursor(LocalDateTime fecha, Long id) {
+
+        static Cursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            String[] partes = cursor.split("-");
+            if (partes.length != 2) {
+                throw new RuntimeException("Cursor de movimientos inválido");
+            }
+            try {
+                long micros = Long.parseLong(partes[0]);
+                LocalDateTime fecha = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                    (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+                return new Cursor(fecha, Long.parseLong(partes[1]));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Cursor de movimientos inválido");
+            }
+        }
+
+        static Cursor de(MovimientoCaja movimiento) {
+            return new Cursor(movimiento.getFechaMovimiento().truncatedTo(ChronoUnit.MICROS), movimiento.getId());
+        }
+
+        @Override
+        public String toString() {
+            long micros = fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + fecha.getNano() / 1000;
+            return micros + "-" + id;
+        }
+    }
 }
@@ -1,14 +1,19 @@
 package com.nove.sule.backend_nove_sule.service.impl;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nove.sule.backend_nove_sule.cache.CatalogoCache;
+import com.nove.sule.backend_nove_sule.cache.EntradaCache;
 import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Categoria;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.event.CategoriaModificadaEvent;
 import com.nove.sule.backend_nove_sule.mapper.CategoriaMapper;
 import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
 import com.nove.sule.backend_nove_sule.service.CategoriaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,6 +33,8 @@ public class CategoriaServiceImpl implements CategoriaService {
 
     private final CategoriaRepository categoriaRepository;
     private final CategoriaMapper categoriaMapper;
+    private final CatalogoCache catalogoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -53,6 +60,7 @@ public class CategoriaServiceImpl implements CategoriaService {
         }
 
         Categoria nuevaCategoria = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(nuevaCategoria.getId()));
         log.info("Categoría creada con ID: {}", nuevaCategoria.getId());
         
         return categoriaMapper.toDTO(nuevaCategoria);
@@ -87,6 +95,7 @@ public class CategoriaServiceImpl implements CategoriaService {
         }
 
         Categoria categoriaActualizada = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
         log.info("Categoría actualizada: {}", categoriaActualizada.getId());
 
         return categoriaMapper.toDTO(categoriaActualizada);
@@ -138,12 +147,15 @@ public class CategoriaServiceImpl implements CategoriaService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoriaBasicaDTO> listarActivas() {
         
-        return categoriaRepository.findActiveCategoriesOrdered(Estado.ACTIVO).stream()
-            .map(categoriaMapper::toDTO)
-            .collect(Collectors.toList());
+        return listarActivasEnCache().valor();
+    }
+
+    @Override
+    public RawValue listarActivasSerializado() {
+        
+        return listarActivasEnCache().json();
     }
 
     @Override
@@ -179,6 +191,7 @@ public class CategoriaServiceImpl implements CategoriaService {
         // Soft delete - cambiar estado a INACTIVO
         categoria.setEstado(Estado.INACTIVO);
         categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
         
         log.info("Categoría eliminada (soft delete): {}", id);
     }
@@ -193,6 +206,7 @@ public class CategoriaServiceImpl implements CategoriaService {
 
         categoria.setEstado(estado);
         Categoria categoriaActualizada = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
         
         log.info("Estado de categoría actualizado: {} -> {}", id, estado);
         
@@ -215,6 +229,7 @@ public class CategoriaServiceImpl implements CategoriaService {
 
         categoria.setOrden(nuevoOrden);
         Categoria categoriaActualizada = categoriaRepository.save(categoria);
+        eventPublisher.publishEvent(new CategoriaModificadaEvent(id));
         
         log.info("Orden de categoría actualizado: {} -> {}", id, nuevoOrden);
         
@@ -229,4 +244,11 @@ public class CategoriaServiceImpl implements CategoriaService {
             .map(categoriaMapper::toDTO)
             .toList();
     }
+
+    private EntradaCache<List<CategoriaBasicaDTO>> listarActivasEnCache() {
+        return catalogoCache.obtenerCategoriasActivas(() ->
+            categoriaRepository.findActiveCategoriesOrdered(Estado.ACTIVO).stream()
+                .map(categoriaMapper::toDTO)
+                .toList());
+    }
 }
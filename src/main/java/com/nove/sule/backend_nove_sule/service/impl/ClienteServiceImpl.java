@@ -1,5 +1,6 @@
 package com.nove.sule.backend_nove_sule.service.impl;
 
+import com.nove.sule.backend_nove_sule.cache.ClientesPorDocumentoCache;
 import com.nove.sule.backend_nove_sule.dto.cliente.ClienteDTO;
 import com.nove.sule.backend_nove_sule.dto.cliente.ClienteRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.cliente.ClienteResponseDTO;
@@ -7,18 +8,29 @@ import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Cliente;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoDocumento;
+import com.nove.sule.backend_nove_sule.event.ClienteModificadoEvent;
 import com.nove.sule.backend_nove_sule.mapper.ClienteMapper;
 import com.nove.sule.backend_nove_sule.repository.ClienteRepository;
 import com.nove.sule.backend_nove_sule.service.ClienteService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de Cliente
@@ -28,27 +40,60 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ClienteServiceImpl implements ClienteService {
 
+    /** Las palabras más cortas no tienen trigramas y obligarían a recorrer todo el índice */
+    private static final int MINIMO_CARACTERES_SUGERENCIA = 3;
+    private static final int MAXIMO_PALABRAS_SUGERENCIA = 4;
+    private static final int LIMITE_SUGERENCIAS = 50;
+
+    /**
+     * Coincidencias que se reordenan por documento y parecido; son las más parecidas al texto, así que con un
+     * texto muy común sólo quedan afuera las menos relevantes
+     */
+    private static final int CANDIDATOS_SUGERENCIA = 1000;
+
+    /** Debe coincidir con la expresión del índice idx_clientes_busqueda_trgm de import.sql */
+    private static final String EXPRESION_BUSQUEDA =
+        "lower(coalesce(nombres, '') || ' ' || coalesce(apellidos, '') || ' ' || " +
+        "coalesce(razon_social, '') || ' ' || numero_documento)";
+
+    /**
+     * Se completa con una condición LIKE por palabra. Los candidatos por texto salen del índice GiST ya ordenados
+     * por distancia (texto <->> busqueda es la distancia de word_similarity(busqueda, texto), escrita con la
+     * columna indexada a la izquierda para que el índice la resuelva); los documentos que empiezan con lo escrito
+     * se buscan aparte en idx_clientes_documento_prefijo, porque su parecido de trigramas puede ser bajo
+     */
+    private static final String SQL_SUGERIR =
+        "SELECT c.id FROM (" +
+        "(SELECT id, numero_documento, " + EXPRESION_BUSQUEDA + " AS texto FROM clientes " +
+        "WHERE estado = 'ACTIVO' AND numero_documento LIKE ? ORDER BY numero_documento LIMIT ?) " +
+        "UNION " +
+        "(SELECT id, numero_documento, " + EXPRESION_BUSQUEDA + " AS texto FROM clientes " +
+        "WHERE estado = 'ACTIVO' AND %s ORDER BY " + EXPRESION_BUSQUEDA + " <->> ? LIMIT " + CANDIDATOS_SUGERENCIA +
+        ")) c " +
+        "ORDER BY starts_with(c.numero_documento, ?) DESC, word_similarity(?, c.texto) DESC, c.texto, c.id LIMIT ?";
+
     private final ClienteRepository clienteRepository;
     private final ClienteMapper clienteMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final ClientesPorDocumentoCache clientesPorDocumento;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
     public ClienteDTO crear(ClienteRequestDTO clienteRequest) {
         log.info("Creando cliente: {} {}", clienteRequest.getTipoDocumento(), clienteRequest.getNumeroDocumento());
 
-        // Validar que no exista el cliente con el mismo tipo y número de documento
-        if (existePorTipoYNumeroDocumento(clienteRequest.getTipoDocumento(), clienteRequest.getNumeroDocumento())) {
-            throw new RuntimeException("Ya existe un cliente con ese tipo y número de documento");
-        }
-
         // Validar email único si se proporciona
         if (clienteRequest.getEmail() != null && !clienteRequest.getEmail().isEmpty() && 
             existePorEmail(clienteRequest.getEmail())) {
             throw new RuntimeException("Ya existe un cliente con ese email");
         }
 
+        // El documento duplicado lo rechaza la restricción única, sin consultarlo antes
         Cliente cliente = clienteMapper.toEntity(clienteRequest);
-        Cliente nuevoCliente = clienteRepository.save(cliente);
+        Cliente nuevoCliente = guardar(cliente);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(nuevoCliente.getTipoDocumento(),
+            nuevoCliente.getNumeroDocumento()));
         
         log.info("Cliente creado con ID: {}", nuevoCliente.getId());
         return clienteMapper.toDTO(nuevoCliente);
@@ -62,14 +107,6 @@ public class ClienteServiceImpl implements ClienteService {
         Cliente cliente = clienteRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + id));
 
-        // Validar tipo y número de documento únicos si cambiaron
-        if (!cliente.getTipoDocumento().equals(clienteRequest.getTipoDocumento()) || 
-            !cliente.getNumeroDocumento().equals(clienteRequest.getNumeroDocumento())) {
-            if (existePorTipoYNumeroDocumento(clienteRequest.getTipoDocumento(), clienteRequest.getNumeroDocumento())) {
-                throw new RuntimeException("Ya existe un cliente con ese tipo y número de documento");
-            }
-        }
-
         // Validar email único si cambió
         if (clienteRequest.getEmail() != null && !clienteRequest.getEmail().isEmpty() && 
             !clienteRequest.getEmail().equals(cliente.getEmail()) && 
@@ -77,6 +114,9 @@ public class ClienteServiceImpl implements ClienteService {
             throw new RuntimeException("Ya existe un cliente con ese email");
         }
 
+        // Se invalida también el documento anterior por si cambia
+        eventPublisher.publishEvent(new ClienteModificadoEvent(cliente.getTipoDocumento(), cliente.getNumeroDocumento()));
+
         // Actualizar campos
         cliente.setTipoDocumento(clienteRequest.getTipoDocumento());
         cliente.setNumeroDocumento(clienteRequest.getNumeroDocumento());
@@ -89,7 +129,9 @@ public class ClienteServiceImpl implements ClienteService {
         cliente.setFechaNacimiento(clienteRequest.getFechaNacimiento());
         cliente.setLimiteCredito(clienteRequest.getLimiteCredito());
 
-        Cliente clienteActualizado = clienteRepository.save(cliente);
+        Cliente clienteActualizado = guardar(cliente);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(clienteActualizado.getTipoDocumento(),
+            clienteActualizado.getNumeroDocumento()));
         log.info("Cliente actualizado: {}", clienteActualizado.getId());
 
         return clienteMapper.toDTO(clienteActualizado);
@@ -105,9 +147,11 @@ public class ClienteServiceImpl implements ClienteService {
 
     @Override
     @Transactional(readOnly = true)
-    public Optional<Cliente> buscarPorTipoYNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento) {
+    public Optional<ClienteDTO> buscarPorTipoYNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento) {
         
-        return clienteRepository.findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento);
+        return clientesPorDocumento.obtener(tipoDocumento, numeroDocumento,
+            () -> clienteRepository.findByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento)
+                .map(clienteMapper::toDTO));
     }
 
     @Override
@@ -193,6 +237,7 @@ public class ClienteServiceImpl implements ClienteService {
         // Soft delete - cambiar estado a INACTIVO
         cliente.setEstado(Estado.INACTIVO);
         clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(cliente.getTipoDocumento(), cliente.getNumeroDocumento()));
         
         log.info("Cliente eliminado (soft delete): {}", id);
     }
@@ -207,6 +252,7 @@ public class ClienteServiceImpl implements ClienteService {
 
         cliente.setEstado(estado);
         Cliente clienteActualizado = clienteRepository.save(cliente);
+        eventPublisher.publishEvent(new ClienteModificadoEvent(cliente.getTipoDocumento(), cliente.getNumeroDocumento()));
         
         log.info("Estado de cliente actualizado: {} -> {}", id, estado);
         
@@ -216,7 +262,7 @@ public class ClienteServiceImpl implements ClienteService {
     @Override
     @Transactional(readOnly = true)
     public boolean existePorTipoYNumeroDocumento(TipoDocumento tipoDocumento, String numeroDocumento) {
-        return clienteRepository.existsByTipoDocumentoAndNumeroDocumento(tipoDocumento, numeroDocumento);
+        return buscarPorTipoYNumeroDocumento(tipoDocumento, numeroDocumento).isPresent();
     }
 
     @Override
@@ -234,6 +280,49 @@ public class ClienteServiceImpl implements ClienteService {
             .toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteResponseDTO> sugerir(String texto, int limite) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String busqueda = texto.trim().toLowerCase(Locale.ROOT);
+        List<String> palabras = Arrays.stream(busqueda.split("\\s+"))
+            .filter(palabra -> palabra.length() >= MINIMO_CARACTERES_SUGERENCIA)
+            .distinct()
+            .limit(MAXIMO_PALABRAS_SUGERENCIA)
+            .toList();
+        if (palabras.isEmpty()) {
+            return List.of();
+        }
+
+        String condiciones = palabras.stream()
+            .map(palabra -> EXPRESION_BUSQUEDA + " LIKE ?")
+            .collect(Collectors.joining(" AND "));
+        int tamano = Math.max(1, Math.min(limite, LIMITE_SUGERENCIAS));
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(escaparLike(busqueda) + "%");
+        parametros.add(tamano);
+        palabras.forEach(palabra -> parametros.add("%" + escaparLike(palabra) + "%"));
+        parametros.add(busqueda);
+        parametros.add(busqueda);
+        parametros.add(busqueda);
+        parametros.add(tamano);
+        List<Long> ids = jdbcTemplate.queryForList(String.format(SQL_SUGERIR, condiciones), Long.class,
+            parametros.toArray());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        return ids.stream()
+            .map(clientes::get)
+            .filter(Objects::nonNull)
+            .map(clienteMapper::toResponseDTO)
+            .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ClienteResponseDTO> listarActivos() {
@@ -242,4 +331,25 @@ public class ClienteServiceImpl implements ClienteService {
             .map(clienteMapper::toResponseDTO)
             .toList();
     }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Guarda el cliente y traduce la violación de la restricción única de documento
+     */
+    private Cliente guardar(Cliente cliente) {
+        try {
+            return clienteRepository.saveAndFlush(cliente);
+        } catch (DataIntegrityViolationException e) {
+            String causa = e.getMostSpecificCause().getMessage();
+            if (causa != null && causa.contains(Cliente.UK_DOCUMENTO)) {
+                throw new RuntimeException("Ya existe un cliente con ese tipo y número de documento");
+            }
+            throw e;
+        }
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
@@ -4,20 +4,39 @@ import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.compras.*;
 import com.nove.sule.backend_nove_sule.entity.*;
 import com.nove.sule.backend_nove_sule.entity.enums.EstadoOrdenCompra;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoMovimiento;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
 import com.nove.sule.backend_nove_sule.mapper.CompraMapper;
+import com.nove.sule.backend_nove_sule.mapper.MontoMapper;
 import com.nove.sule.backend_nove_sule.repository.*;
+import com.nove.sule.backend_nove_sule.security.SecurityUtils;
 import com.nove.sule.backend_nove_sule.service.CompraService;
+import com.nove.sule.backend_nove_sule.service.IndicadorProveedorService;
+import com.nove.sule.backend_nove_sule.service.IndicadorProveedorService.LineaPedido;
+import com.nove.sule.backend_nove_sule.service.NumeracionService;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementación del servicio de Compras
@@ -27,11 +46,85 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CompraServiceImpl implements CompraService {
 
+    private static final String SERIE_ORDEN_COMPRA = "OC-";
+
+    private static final Set<EstadoOrdenCompra> ESTADOS_RECIBIBLES = EnumSet.of(
+        EstadoOrdenCompra.PENDIENTE, EstadoOrdenCompra.APROBADA, EstadoOrdenCompra.PARCIALMENTE_RECIBIDA);
+
+    /** Estados de una orden que todavía espera mercadería; coinciden con el índice parcial de import.sql */
+    private static final String ESTADOS_POR_RECIBIR = "('PENDIENTE', 'APROBADA', 'PARCIALMENTE_RECIBIDA')";
+
+    private static final String SQL_DESMARCAR_VENCIDAS =
+        "UPDATE ordenes_compra SET vencida = false WHERE vencida " +
+        "AND NOT (estado IN " + ESTADOS_POR_RECIBIR + " AND fecha_entrega_esperada < ?)";
+
+    private static final String SQL_MARCAR_VENCIDAS =
+        "UPDATE ordenes_compra SET vencida = true WHERE estado IN " + ESTADOS_POR_RECIBIR + " " +
+        "AND fecha_entrega_esperada < ? AND NOT vencida";
+
+    private static final String SQL_BLOQUEAR_ORDEN =
+        "SELECT o.proveedor_id, o.fecha_orden, o.fecha_entrega_esperada, o.estado, o.subtotal, o.descuento, o.igv, o.total, " +
+        "(SELECT COALESCE(SUM(d.cantidad), 0) FROM detalle_orden_compra d WHERE d.orden_compra_id = o.id) AS unidades " +
+        "FROM ordenes_compra o WHERE o.id = ? FOR UPDATE OF o";
+
+    private static final String SQL_LINEAS_ORDEN =
+        "SELECT id, producto_id, cantidad, cantidad_recibida, precio_unitario " +
+        "FROM detalle_orden_compra WHERE orden_compra_id = ? ORDER BY id";
+
+    // La recepción se aplica con un único UPDATE/INSERT por tabla sobre arreglos, sin importar cuántas líneas tenga
+
+    private static final String SQL_RECIBIR_LINEAS =
+        "UPDATE detalle_orden_compra d SET cantidad_recibida = d.cantidad_recibida + r.cantidad, " +
+        "fecha_modificacion = now() " +
+        "FROM unnest(?::bigint[], ?::integer[]) AS r(id, cantidad) WHERE d.id = r.id";
+
+    private static final String SQL_INGRESAR_STOCK =
+        "UPDATE productos p SET stock = p.stock + r.cantidad, precio_compra = r.precio, fecha_modificacion = now() " +
+        "FROM unnest(?::bigint[], ?::integer[], ?::numeric[]) AS r(id, cantidad, precio) WHERE p.id = r.id " +
+        "RETURNING p.id, p.stock";
+
+    private static final String SQL_REGISTRAR_ENTRADAS =
+        "INSERT INTO movimientos_inventario (producto_id, tipo_movimiento, cantidad, precio_unitario, concepto, " +
+        "observaciones, usuario_id, orden_compra_id, fecha_movimiento, stock_anterior, stock_nuevo, " +
+        "fecha_creacion, fecha_modificacion) " +
+        "SELECT m.producto_id, ?, m.cantidad, m.precio, ?, ?, ?, ?, now(), m.stock_anterior, m.stock_nuevo, now(), now() " +
+        "FROM unnest(?::bigint[], ?::integer[], ?::numeric[], ?::integer[], ?::integer[]) " +
+        "AS m(producto_id, cantidad, precio, stock_anterior, stock_nuevo)";
+
+    private static final String SQL_ACTUALIZAR_ESTADO =
+        "UPDATE ordenes_compra SET estado = ?, fecha_modificacion = now() WHERE id = ?";
+
+    /** Suma (o resta, con cantidades negativas) el aporte de una orden al acumulado de su día y estado */
+    private static final String SQL_ACUMULAR_RESUMEN =
+        "INSERT INTO resumen_compras_diario AS r (fecha, estado, ordenes, unidades, subtotal, descuento, igv, total, " +
+        "fecha_creacion, fecha_modificacion) VALUES (?, ?, ?, ?, ?, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (fecha, estado) DO UPDATE SET " +
+        "ordenes = r.ordenes + EXCLUDED.ordenes, " +
+        "unidades = r.unidades + EXCLUDED.unidades, " +
+        "subtotal = r.subtotal + EXCLUDED.subtotal, " +
+        "descuento = r.descuento + EXCLUDED.descuento, " +
+        "igv = r.igv + EXCLUDED.igv, " +
+        "total = r.total + EXCLUDED.total, " +
+        "fecha_modificacion = now()";
+
+    private static final String SQL_RESUMEN_POR_ESTADO =
+        "SELECT estado, SUM(ordenes) AS ordenes, SUM(unidades) AS unidades, SUM(subtotal) AS subtotal, " +
+        "SUM(descuento) AS descuento, SUM(igv) AS igv, SUM(total) AS total " +
+        "FROM resumen_compras_diario WHERE fecha >= ? AND fecha <= ? GROUP BY estado";
+
     private final OrdenCompraRepository ordenCompraRepository;
     private final DetalleOrdenCompraRepository detalleOrdenCompraRepository;
     private final ProveedorRepository proveedorRepository;
     private final ProductoRepository productoRepository;
+    private final UsuarioRepository usuarioRepository;
     private final CompraMapper compraMapper;
+    private final NumeracionService numeracionService;
+    private final IndicadorProveedorService indicadorProveedorService;
+
+    /** Resultado de la última revisión de vencidas; se reemplaza completo en cada corrida */
+    private volatile List<OrdenCompraDTO> ordenesVencidas = List.of();
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,7 +137,7 @@ public class CompraServiceImpl implements CompraService {
 
         // Crear orden de compra
         OrdenCompra ordenCompra = new OrdenCompra();
-        ordenCompra.setNumero(generarNumeroOrdenCompra());
+        ordenCompra.setNumero(formatearNumero(numeracionService.siguiente(SERIE_ORDEN_COMPRA)));
         ordenCompra.setProveedor(proveedor);
         ordenCompra.setFechaOrden(ordenRequest.getFechaOrden() != null ? ordenRequest.getFechaOrden() : LocalDate.now());
         ordenCompra.setFechaEntregaEsperada(ordenRequest.getFechaEntregaEsperada());
@@ -68,21 +161,22 @@ public class CompraServiceImpl implements CompraService {
                 detalle.setProducto(producto);
                 
                 detalle.setCantidad(detalleRequest.getCantidad());
-                detalle.setPrecioUnitario(detalleRequest.getPrecioUnitario());
-                detalle.setDescuento(detalleRequest.getDescuento() != null ? detalleRequest.getDescuento() : BigDecimal.ZERO);
+                detalle.setPrecioUnitario(MontoMapper.aMonto(detalleRequest.getPrecioUnitario()));
+                detalle.setDescuento(Monto.de(detalleRequest.getDescuento()));
                 
                 // Calcular subtotal
-                BigDecimal subtotal = detalle.getPrecioUnitario().multiply(new BigDecimal(detalle.getCantidad()));
-                subtotal = subtotal.subtract(detalle.getDescuento());
-                detalle.setSubtotal(subtotal.max(BigDecimal.ZERO));
+                detalle.calcularSubtotal();
                 
                 detalleOrdenCompraRepository.save(detalle);
+                ordenCompra.getDetalles().add(detalle);
             }
         }
 
         // Calcular totales
         ordenCompra.calcularTotales();
         ordenCompra = ordenCompraRepository.save(ordenCompra);
+        moverResumen(null, AporteResumen.de(ordenCompra));
+        indicadorProveedorService.ordenAbierta(proveedor.getId(), lineasPedido(ordenCompra), 1);
 
         log.info("Orden de compra creada con ID: {}", ordenCompra.getId());
         return compraMapper.toDTO(ordenCompra);
@@ -93,12 +187,15 @@ public class CompraServiceImpl implements CompraService {
     public OrdenCompraDTO actualizarOrdenCompra(Long id, OrdenCompraRequestDTO ordenRequest) {
         log.info("Actualizando orden de compra ID: {}", id);
 
-        OrdenCompra ordenCompra = ordenCompraRepository.findById(id)
+        OrdenCompra ordenCompra = ordenCompraRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Orden de compra no encontrada"));
 
         if (ordenCompra.getEstado() != EstadoOrdenCompra.PENDIENTE) {
             throw new RuntimeException("Solo se pueden actualizar órdenes en estado PENDIENTE");
         }
+        AporteResumen aporteAnterior = AporteResumen.de(ordenCompra);
+        Long proveedorAnteriorId = ordenCompra.getProveedor().getId();
+        List<LineaPedido> lineasAnteriores = lineasPedido(ordenCompra);
 
         // Validar proveedor
         Proveedor proveedor = proveedorRepository.findById(ordenRequest.getProveedorId())
@@ -125,21 +222,24 @@ public class CompraServiceImpl implements CompraService {
                 detalle.setProducto(producto);
                 
                 detalle.setCantidad(detalleRequest.getCantidad());
-                detalle.setPrecioUnitario(detalleRequest.getPrecioUnitario());
-                detalle.setDescuento(detalleRequest.getDescuento() != null ? detalleRequest.getDescuento() : BigDecimal.ZERO);
+                detalle.setPrecioUnitario(MontoMapper.aMonto(detalleRequest.getPrecioUnitario()));
+                detalle.setDescuento(Monto.de(detalleRequest.getDescuento()));
                 
                 // Calcular subtotal
-                BigDecimal subtotal = detalle.getPrecioUnitario().multiply(new BigDecimal(detalle.getCantidad()));
-                subtotal = subtotal.subtract(detalle.getDescuento());
-                detalle.setSubtotal(subtotal.max(BigDecimal.ZERO));
+                detalle.calcularSubtotal();
                 
                 detalleOrdenCompraRepository.save(detalle);
+                ordenCompra.getDetalles().add(detalle);
             }
         }
 
         // Recalcular totales
         ordenCompra.calcularTotales();
         ordenCompra = ordenCompraRepository.save(ordenCompra);
+        moverResumen(aporteAnterior, AporteResumen.de(ordenCompra));
+        indicadorProveedorService.ordenAbierta(proveedorAnteriorId, lineasAnteriores, -1);
+        indicadorProveedorService.ordenAbierta(proveedor.getId(), lineasPedido(ordenCompra), 1);
+        retirarDeVencidas(id);
 
         log.info("Orden de compra actualizada: {}", id);
         return compraMapper.toDTO(ordenCompra);
@@ -224,11 +324,17 @@ public class CompraServiceImpl implements CompraService {
     public OrdenCompraDTO cambiarEstado(Long id, EstadoOrdenCompra estado) {
         log.info("Cambiando estado de orden de compra ID: {} a: {}", id, estado);
 
-        OrdenCompra ordenCompra = ordenCompraRepository.findById(id)
+        OrdenCompra ordenCompra = ordenCompraRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Orden de compra no encontrada"));
 
+        AporteResumen aporteAnterior = AporteResumen.de(ordenCompra);
         ordenCompra.setEstado(estado);
         ordenCompra = ordenCompraRepository.save(ordenCompra);
+        moverResumen(aporteAnterior, AporteResumen.de(ordenCompra));
+        moverIndicadores(ordenCompra, aporteAnterior.estado());
+        if (!ESTADOS_RECIBIBLES.contains(estado)) {
+            retirarDeVencidas(id);
+        }
         
         log.info("Estado de orden de compra actualizado: {} -> {}", id, estado);
         return compraMapper.toDTO(ordenCompra);
@@ -239,15 +345,19 @@ public class CompraServiceImpl implements CompraService {
     public OrdenCompraDTO cancelarOrdenCompra(Long id) {
         log.info("Cancelando orden de compra ID: {}", id);
 
-        OrdenCompra ordenCompra = ordenCompraRepository.findById(id)
+        OrdenCompra ordenCompra = ordenCompraRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new RuntimeException("Orden de compra no encontrada"));
 
         if (ordenCompra.getEstado() == EstadoOrdenCompra.CANCELADA) {
             throw new RuntimeException("La orden ya está cancelada");
         }
 
+        AporteResumen aporteAnterior = AporteResumen.de(ordenCompra);
         ordenCompra.setEstado(EstadoOrdenCompra.CANCELADA);
         ordenCompra = ordenCompraRepository.save(ordenCompra);
+        moverResumen(aporteAnterior, AporteResumen.de(ordenCompra));
+        moverIndicadores(ordenCompra, aporteAnterior.estado());
+        retirarDeVencidas(id);
         
         log.info("Orden de compra cancelada: {}", id);
         return compraMapper.toDTO(ordenCompra);
@@ -257,19 +367,82 @@ public class CompraServiceImpl implements CompraService {
     @Transactional
     public OrdenCompraDTO marcarComoEntregada(Long id) {
         log.info("Marcando orden de compra como entregada ID: {}", id);
+        return recibirOrdenCompra(id, null);
+    }
 
-        OrdenCompra ordenCompra = ordenCompraRepository.findById(id)
-            .orElseThrow(() -> new RuntimeException("Orden de compra no encontrada"));
+    @Override
+    @Transactional
+    public OrdenCompraDTO recibirOrdenCompra(Long id, RecepcionOrdenCompraRequestDTO recepcion) {
+        log.info("Registrando recepción de la orden de compra ID: {}", id);
+
+        // El bloqueo de la orden serializa recepciones simultáneas de la misma orden
+        List<OrdenBloqueada> bloqueada = jdbcTemplate.query(SQL_BLOQUEAR_ORDEN, (rs, fila) -> new OrdenBloqueada(
+            rs.getLong("proveedor_id"), rs.getObject("fecha_entrega_esperada", LocalDate.class),
+            new AporteResumen(rs.getObject("fecha_orden", LocalDate.class),
+                EstadoOrdenCompra.valueOf(rs.getString("estado")), rs.getLong("unidades"),
+                rs.getBigDecimal("subtotal"), rs.getBigDecimal("descuento"), rs.getBigDecimal("igv"),
+                rs.getBigDecimal("total"))), id);
+        if (bloqueada.isEmpty()) {
+            throw new RuntimeException("Orden de compra no encontrada");
+        }
+        OrdenBloqueada orden = bloqueada.get(0);
+        AporteResumen aporteAnterior = orden.aporte();
+        if (!ESTADOS_RECIBIBLES.contains(aporteAnterior.estado())) {
+            throw new RuntimeException("Solo se pueden recibir órdenes pendientes, aprobadas o parcialmente recibidas");
+        }
 
-        if (ordenCompra.getEstado() != EstadoOrdenCompra.PENDIENTE) {
-            throw new RuntimeException("Solo se pueden marcar como entregadas las órdenes pendientes");
+        List<LineaOrden> lineas = jdbcTemplate.query(SQL_LINEAS_ORDEN, (rs, fila) -> new LineaOrden(
+            rs.getLong("id"), rs.getLong("producto_id"), rs.getInt("cantidad"),
+            rs.getInt("cantidad_recibida"), rs.getBigDecimal("precio_unitario")), id);
+        Map<Long, Integer> aRecibir = cantidadesARecibir(lineas, recepcion);
+        if (aRecibir.isEmpty()) {
+            throw new RuntimeException("La orden no tiene cantidades pendientes de recibir");
         }
 
-        ordenCompra.setEstado(EstadoOrdenCompra.RECIBIDA);
-        ordenCompra = ordenCompraRepository.save(ordenCompra);
-        
-        log.info("Orden de compra marcada como entregada: {}", id);
-        return compraMapper.toDTO(ordenCompra);
+        Long usuarioId = SecurityUtils.obtenerUsername()
+            .flatMap(usuarioRepository::findByUsername)
+            .map(Usuario::getId)
+            .orElseThrow(() -> new RuntimeException("No se pudo identificar al usuario que registra la recepción"));
+
+        List<LineaOrden> recibidas = lineas.stream().filter(linea -> aRecibir.containsKey(linea.id())).toList();
+        Map<Long, Integer> cantidadPorProducto = new LinkedHashMap<>();
+        Map<Long, BigDecimal> precioPorProducto = new HashMap<>();
+        for (LineaOrden linea : recibidas) {
+            cantidadPorProducto.merge(linea.productoId(), aRecibir.get(linea.id()), Integer::sum);
+            precioPorProducto.put(linea.productoId(), linea.precioUnitario());
+        }
+
+        recibirLineas(recibidas, aRecibir);
+        Map<Long, Integer> stockFinal = ingresarStock(cantidadPorProducto, precioPorProducto);
+        registrarEntradas(id, recibidas, aRecibir, cantidadPorProducto, stockFinal, usuarioId,
+            recepcion != null ? recepcion.getObservaciones() : null);
+
+        boolean completa = lineas.stream()
+            .allMatch(linea -> linea.recibida() + aRecibir.getOrDefault(linea.id(), 0) >= linea.cantidad());
+        EstadoOrdenCompra nuevoEstado = completa ? EstadoOrdenCompra.RECIBIDA : EstadoOrdenCompra.PARCIALMENTE_RECIBIDA;
+        jdbcTemplate.update(SQL_ACTUALIZAR_ESTADO, nuevoEstado.name(), id);
+        moverResumen(aporteAnterior, aporteAnterior.conEstado(nuevoEstado));
+        indicadorProveedorService.mercaderiaRecibida(orden.proveedorId(), aporteAnterior.fecha(),
+            orden.fechaEntregaEsperada(), recibidas.stream()
+                .map(linea -> new LineaPedido(linea.productoId(), aRecibir.get(linea.id()), 0, linea.precioUnitario()))
+                .toList());
+        if (completa) {
+            // Con todo recibido la orden deja de estar abierta y pasa al nivel de cumplimiento del proveedor
+            List<LineaPedido> lineasFinales = lineas.stream()
+                .map(linea -> new LineaPedido(linea.productoId(), linea.cantidad(),
+                    linea.recibida() + aRecibir.getOrDefault(linea.id(), 0), linea.precioUnitario()))
+                .toList();
+            indicadorProveedorService.ordenAbierta(orden.proveedorId(), lineasFinales, -1);
+            indicadorProveedorService.ordenCerrada(orden.proveedorId(), lineasFinales, 1);
+            retirarDeVencidas(id);
+        }
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(cantidadPorProducto.keySet()));
+
+        log.info("Recepción de la orden de compra {} registrada: {} líneas, {} productos, estado {}",
+            id, recibidas.size(), cantidadPorProducto.size(), nuevoEstado);
+        return ordenCompraRepository.findByIdWithDetails(id)
+            .map(compraMapper::toDTO)
+            .orElseThrow(() -> new RuntimeException("Orden de compra no encontrada"));
     }
 
     @Override
@@ -295,26 +468,30 @@ public class CompraServiceImpl implements CompraService {
     @Transactional(readOnly = true)
     public BigDecimal calcularTotalCompras(LocalDate fechaInicio, LocalDate fechaFin) {
         
-        return ordenCompraRepository.sumTotalByFechaRange(fechaInicio, fechaFin);
+        return TotalesEstado.sumar(resumenPorEstado(fechaInicio, fechaFin), false).total();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long contarOrdenesCompra(LocalDate fechaInicio, LocalDate fechaFin) {
         
-        return ordenCompraRepository.findByFilters(null, null, fechaInicio, fechaFin, null, Pageable.unpaged())
-            .getTotalElements();
+        return TotalesEstado.sumar(resumenPorEstado(fechaInicio, fechaFin), true).ordenes();
     }
 
     @Override
     @Transactional(readOnly = true)
     public String generarNumeroOrdenCompra() {
         
-        String prefix = "OC-";
-        Integer maxNumero = ordenCompraRepository.findMaxNumeroByPrefix(prefix);
-        Integer siguienteNumero = maxNumero + 1;
+        return formatearNumero(numeracionService.previsualizar(SERIE_ORDEN_COMPRA));
+    }
+
+    @Override
+    @Transactional
+    public void inicializarNumeracion() {
         
-        return prefix + String.format("%06d", siguienteNumero);
+        // Única lectura del máximo existente; luego los números salen de la secuencia
+        Integer maxNumero = ordenCompraRepository.findMaxNumeroByPrefix(SERIE_ORDEN_COMPRA);
+        numeracionService.registrarSerie(SERIE_ORDEN_COMPRA, maxNumero != null ? maxNumero : 0);
     }
 
     @Override
@@ -328,37 +505,32 @@ public class CompraServiceImpl implements CompraService {
     @Transactional(readOnly = true)
     public ResumenComprasDTO obtenerResumenCompras(LocalDate fechaInicio, LocalDate fechaFin) {
         
-        // Obtener totales
-        Long totalOrdenes = contarOrdenesCompra(fechaInicio, fechaFin);
-        BigDecimal totalCompras = calcularTotalCompras(fechaInicio, fechaFin);
-        
-        // Obtener órdenes por estado
-        Long ordenesPendientes = ordenCompraRepository.findByFilters(null, null, fechaInicio, fechaFin, EstadoOrdenCompra.PENDIENTE.name(), Pageable.unpaged()).getTotalElements();
-        Long ordenesEntregadas = ordenCompraRepository.findByFilters(null, null, fechaInicio, fechaFin, EstadoOrdenCompra.RECIBIDA.name(), Pageable.unpaged()).getTotalElements();
-        Long ordenesCanceladas = ordenCompraRepository.findByFilters(null, null, fechaInicio, fechaFin, EstadoOrdenCompra.CANCELADA.name(), Pageable.unpaged()).getTotalElements();
+        // Una sola agregación por estado sobre los acumulados diarios del período
+        Map<EstadoOrdenCompra, TotalesEstado> porEstado = resumenPorEstado(fechaInicio, fechaFin);
+        TotalesEstado todas = TotalesEstado.sumar(porEstado, true);
+        TotalesEstado vigentes = TotalesEstado.sumar(porEstado, false);
         
-        // Calcular subtotal e IGV (asumiendo 18% de IGV)
-        BigDecimal totalSubtotal = totalCompras.divide(new BigDecimal("1.18"), 2, java.math.RoundingMode.HALF_UP);
-        BigDecimal totalIgv = totalCompras.subtract(totalSubtotal);
+        // El IGV de cada orden ya se calculó con la tasa y el tipo de afectación de sus líneas
+        BigDecimal totalSubtotal = vigentes.total().subtract(vigentes.igv());
         
         // Calcular compra promedio
-        BigDecimal compraPromedio = totalOrdenes > 0 ? 
-            totalCompras.divide(new BigDecimal(totalOrdenes), 2, java.math.RoundingMode.HALF_UP) : 
+        BigDecimal compraPromedio = todas.ordenes() > 0 ? 
+            vigentes.total().divide(new BigDecimal(todas.ordenes()), 2, java.math.RoundingMode.HALF_UP) : 
             BigDecimal.ZERO;
         
         return ResumenComprasDTO.builder()
             .fechaInicio(fechaInicio)
             .fechaFin(fechaFin)
-            .totalOrdenes(totalOrdenes)
-            .totalCompras(totalCompras)
+            .totalOrdenes(todas.ordenes())
+            .totalCompras(vigentes.total())
             .totalSubtotal(totalSubtotal)
-            .totalIgv(totalIgv)
-            .totalDescuentos(BigDecimal.ZERO) // TODO: Implementar cálculo de descuentos
-            .totalProductosComprados(0L) // TODO: Implementar cálculo de productos comprados
+            .totalIgv(vigentes.igv())
+            .totalDescuentos(vigentes.descuento())
+            .totalProductosComprados(vigentes.unidades())
             .compraPromedio(compraPromedio)
-            .ordenesPendientes(ordenesPendientes)
-            .ordenesEntregadas(ordenesEntregadas)
-            .ordenesCanceladas(ordenesCanceladas)
+            .ordenesPendientes(porEstado.getOrDefault(EstadoOrdenCompra.PENDIENTE, TotalesEstado.CERO).ordenes())
+            .ordenesEntregadas(porEstado.getOrDefault(EstadoOrdenCompra.RECIBIDA, TotalesEstado.CERO).ordenes())
+            .ordenesCanceladas(porEstado.getOrDefault(EstadoOrdenCompra.CANCELADA, TotalesEstado.CERO).ordenes())
             .build();
     }
 
@@ -370,14 +542,274 @@ public class CompraServiceImpl implements CompraService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<OrdenCompraDTO> obtenerOrdenesVencidas() {
         
+        return ordenesVencidas;
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.compras.vencidas.intervalo:5m}")
+    public void actualizarOrdenesVencidas() {
+        
         LocalDate hoy = LocalDate.now();
-        return ordenCompraRepository.findByFilters(null, null, null, hoy, EstadoOrdenCompra.PENDIENTE.name(), Pageable.unpaged())
-            .getContent().stream()
-            .filter(orden -> orden.getFechaEntregaEsperada() != null && orden.getFechaEntregaEsperada().isBefore(hoy))
+        int desmarcadas = jdbcTemplate.update(SQL_DESMARCAR_VENCIDAS, hoy);
+        int marcadas = jdbcTemplate.update(SQL_MARCAR_VENCIDAS, hoy);
+        ordenesVencidas = ordenCompraRepository.findVencidas().stream()
             .map(compraMapper::toDTO)
             .toList();
+        
+        if (marcadas > 0 || desmarcadas > 0) {
+            log.info("Órdenes de compra vencidas: {} marcadas, {} desmarcadas, {} en total",
+                marcadas, desmarcadas, ordenesVencidas.size());
+        }
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static String formatearNumero(long numero) {
+        return SERIE_ORDEN_COMPRA + String.format("%06d", numero);
+    }
+
+    /**
+     * Quita de la lista de vencidas una orden recibida, cancelada o reprogramada sin esperar a la próxima revisión;
+     * si sigue vencida, la revisión siguiente la vuelve a incluir
+     */
+    private void retirarDeVencidas(Long id) {
+        synchronized (this) {
+            List<OrdenCompraDTO> actuales = ordenesVencidas;
+            if (actuales.stream().anyMatch(orden -> orden.getId().equals(id))) {
+                ordenesVencidas = actuales.stream().filter(orden -> !orden.getId().equals(id)).toList();
+            }
+        }
+    }
+
+    /**
+     * Cantidad a recibir por detalle, en el orden de las líneas de la orden.
+     * Sin líneas en la recepción se toma todo lo pendiente
+     */
+    private static Map<Long, Integer> cantidadesARecibir(List<LineaOrden> lineas, RecepcionOrdenCompraRequestDTO recepcion) {
+        Map<Long, Integer> solicitadas = new HashMap<>();
+        boolean todoLoPendiente = recepcion == null || recepcion.getLineas() == null || recepcion.getLineas().isEmpty();
+        if (!todoLoPendiente) {
+            for (RecepcionOrdenCompraRequestDTO.LineaRecepcionDTO linea : recepcion.getLineas()) {
+                solicitadas.merge(linea.getDetalleId(), linea.getCantidad(), Integer::sum);
+            }
+        }
+
+        Map<Long, Integer> aRecibir = new LinkedHashMap<>();
+        for (LineaOrden linea : lineas) {
+            int pendiente = linea.cantidad() - linea.recibida();
+            Integer cantidad = todoLoPendiente ? Integer.valueOf(pendiente) : solicitadas.remove(linea.id());
+            if (cantidad == null || cantidad <= 0) {
+                continue;
+            }
+            if (cantidad > pendiente) {
+                throw new RuntimeException("La cantidad a recibir del detalle " + linea.id() +
+                    " excede lo pendiente (" + pendiente + ")");
+            }
+            aRecibir.put(linea.id(), cantidad);
+        }
+        if (!solicitadas.isEmpty()) {
+            throw new RuntimeException("Los detalles " + solicitadas.keySet() + " no pertenecen a la orden");
+        }
+        return aRecibir;
+    }
+
+    private void recibirLineas(List<LineaOrden> recibidas, Map<Long, Integer> aRecibir) {
+        Long[] ids = new Long[recibidas.size()];
+        Integer[] cantidades = new Integer[recibidas.size()];
+        for (int i = 0; i < recibidas.size(); i++) {
+            ids[i] = recibidas.get(i).id();
+            cantidades[i] = aRecibir.get(ids[i]);
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_RECIBIR_LINEAS);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("integer", cantidades));
+            return ps;
+        });
+    }
+
+    /**
+     * Suma el stock recibido por producto y devuelve el stock resultante de cada uno
+     */
+    private Map<Long, Integer> ingresarStock(Map<Long, Integer> cantidadPorProducto, Map<Long, BigDecimal> precioPorProducto) {
+        Long[] ids = cantidadPorProducto.keySet().toArray(Long[]::new);
+        Integer[] cantidades = new Integer[ids.length];
+        BigDecimal[] precios = new BigDecimal[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            cantidades[i] = cantidadPorProducto.get(ids[i]);
+            precios[i] = precioPorProducto.get(ids[i]);
+        }
+        Map<Long, Integer> stockFinal = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INGRESAR_STOCK);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("integer", cantidades));
+            ps.setArray(3, con.createArrayOf("numeric", precios));
+            return ps;
+        }, rs -> {
+            stockFinal.put(rs.getLong(1), rs.getInt(2));
+        });
+        if (stockFinal.size() != ids.length) {
+            throw new RuntimeException("Alguno de los productos de la orden ya no existe");
+        }
+        return stockFinal;
+    }
+
+    /**
+     * Registra una entrada por línea. El stock anterior de cada una se reconstruye a partir del stock final,
+     * de modo que varias líneas del mismo producto quedan encadenadas
+     */
+    private void registrarEntradas(Long ordenCompraId, List<LineaOrden> recibidas, Map<Long, Integer> aRecibir,
+                                   Map<Long, Integer> cantidadPorProducto, Map<Long, Integer> stockFinal,
+                                   Long usuarioId, String observaciones) {
+        int total = recibidas.size();
+        Long[] productos = new Long[total];
+        Integer[] cantidades = new Integer[total];
+        BigDecimal[] precios = new BigDecimal[total];
+        Integer[] stocksAnteriores = new Integer[total];
+        Integer[] stocksNuevos = new Integer[total];
+
+        Map<Long, Integer> stockEnCurso = new HashMap<>();
+        for (int i = 0; i < total; i++) {
+            LineaOrden linea = recibidas.get(i);
+            Long productoId = linea.productoId();
+            int anterior = stockEnCurso.computeIfAbsent(productoId,
+                p -> stockFinal.get(p) - cantidadPorProducto.get(p));
+            int cantidad = aRecibir.get(linea.id());
+            productos[i] = productoId;
+            cantidades[i] = cantidad;
+            precios[i] = linea.precioUnitario();
+            stocksAnteriores[i] = anterior;
+            stocksNuevos[i] = anterior + cantidad;
+            stockEnCurso.put(productoId, anterior + cantidad);
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_REGISTRAR_ENTRADAS);
+            ps.setString(1, TipoMovimiento.ENTRADA.name());
+            ps.setString(2, "Recepción de orden de compra");
+            ps.setString(3, observaciones);
+            ps.setLong(4, usuarioId);
+            ps.setLong(5, ordenCompraId);
+            ps.setArray(6, con.createArrayOf("bigint", productos));
+            ps.setArray(7, con.createArrayOf("integer", cantidades));
+            ps.setArray(8, con.createArrayOf("numeric", precios));
+            ps.setArray(9, con.createArrayOf("integer", stocksAnteriores));
+            ps.setArray(10, con.createArrayOf("integer", stocksNuevos));
+            return ps;
+        });
+    }
+
+    private record LineaOrden(Long id, Long productoId, int cantidad, int recibida, BigDecimal precioUnitario) {
+    }
+
+    private record OrdenBloqueada(Long proveedorId, LocalDate fechaEntregaEsperada, AporteResumen aporte) {
+    }
+
+    private static List<LineaPedido> lineasPedido(OrdenCompra orden) {
+        return orden.getDetalles().stream()
+            .map(detalle -> new LineaPedido(detalle.getProducto().getId(), detalle.getCantidad(),
+                detalle.getCantidadRecibida() != null ? detalle.getCantidadRecibida() : 0,
+                detalle.getPrecioUnitario() != null ? detalle.getPrecioUnitario().aBigDecimal() : null))
+            .toList();
+    }
+
+    /**
+     * Refleja en los indicadores del proveedor un cambio de estado que abre o cierra la orden.
+     * Los cambios entre estados que esperan mercadería, o entre estados que ya no la esperan, no los afectan
+     */
+    private void moverIndicadores(OrdenCompra orden, EstadoOrdenCompra estadoAnterior) {
+        boolean esperaba = ESTADOS_RECIBIBLES.contains(estadoAnterior);
+        boolean espera = ESTADOS_RECIBIBLES.contains(orden.getEstado());
+        if (esperaba == espera) {
+            return;
+        }
+        Long proveedorId = orden.getProveedor().getId();
+        List<LineaPedido> lineas = lineasPedido(orden);
+        int signo = espera ? 1 : -1;
+        indicadorProveedorService.ordenAbierta(proveedorId, lineas, signo);
+        indicadorProveedorService.ordenCerrada(proveedorId, lineas, -signo);
+    }
+
+    /**
+     * Traslada el aporte de una orden en el acumulado diario: resta el anterior y suma el nuevo
+     * (cualquiera de los dos puede ser nulo). Los incrementos se aplican con un upsert, así que
+     * las órdenes concurrentes del mismo día no se pisan entre sí
+     */
+    private void moverResumen(AporteResumen anterior, AporteResumen nuevo) {
+        if (anterior != null && anterior.equals(nuevo)) {
+            return;
+        }
+        List<Object[]> filas = new ArrayList<>(2);
+        if (anterior != null) {
+            filas.add(anterior.fila(-1));
+        }
+        if (nuevo != null) {
+            filas.add(nuevo.fila(1));
+        }
+        jdbcTemplate.batchUpdate(SQL_ACUMULAR_RESUMEN, filas);
+    }
+
+    private Map<EstadoOrdenCompra, TotalesEstado> resumenPorEstado(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<EstadoOrdenCompra, TotalesEstado> porEstado = new EnumMap<>(EstadoOrdenCompra.class);
+        jdbcTemplate.query(SQL_RESUMEN_POR_ESTADO, rs -> {
+            porEstado.put(EstadoOrdenCompra.valueOf(rs.getString("estado")), new TotalesEstado(
+                rs.getLong("ordenes"), rs.getLong("unidades"), rs.getBigDecimal("subtotal"),
+                rs.getBigDecimal("descuento"), rs.getBigDecimal("igv"), rs.getBigDecimal("total")));
+        }, fechaInicio, fechaFin);
+        return porEstado;
+    }
+
+    /**
+     * Lo que una orden suma al acumulado de su fecha y estado
+     */
+    private record AporteResumen(LocalDate fecha, EstadoOrdenCompra estado, long unidades, BigDecimal subtotal,
+                                 BigDecimal descuento, BigDecimal igv, BigDecimal total) {
+
+        static AporteResumen de(OrdenCompra orden) {
+            long unidades = orden.getDetalles().stream()
+                .mapToLong(detalle -> detalle.getCantidad() != null ? detalle.getCantidad() : 0)
+                .sum();
+            return new AporteResumen(orden.getFechaOrden(), orden.getEstado(), unidades, orden.getSubtotal(),
+                orden.getDescuento(), orden.getIgv(), orden.getTotal());
+        }
+
+        AporteResumen conEstado(EstadoOrdenCompra nuevoEstado) {
+            return new AporteResumen(fecha, nuevoEstado, unidades, subtotal, descuento, igv, total);
+        }
+
+        Object[] fila(int signo) {
+            BigDecimal factor = BigDecimal.valueOf(signo);
+            return new Object[] {fecha, estado.name(), signo, signo * unidades, monto(subtotal).multiply(factor),
+                monto(descuento).multiply(factor), monto(igv).multiply(factor), monto(total).multiply(factor)};
+        }
+
+        private static BigDecimal monto(BigDecimal valor) {
+            return valor != null ? valor : BigDecimal.ZERO;
+        }
+    }
+
+    private record TotalesEstado(long ordenes, long unidades, BigDecimal subtotal, BigDecimal descuento,
+                                 BigDecimal igv, BigDecimal total) {
+
+        static final TotalesEstado CERO = new TotalesEstado(0, 0, BigDecimal.ZERO, BigDecimal.ZERO,
+            BigDecimal.ZERO, BigDecimal.ZERO);
+
+        /** Suma los estados; las órdenes canceladas sólo se incluyen si se indica */
+        static TotalesEstado sumar(Map<EstadoOrdenCompra, TotalesEstado> porEstado, boolean incluirCanceladas) {
+            TotalesEstado suma = CERO;
+            for (Map.Entry<EstadoOrdenCompra, TotalesEstado> entrada : porEstado.entrySet()) {
+                if (incluirCanceladas || entrada.getKey() != EstadoOrdenCompra.CANCELADA) {
+                    TotalesEstado t = entrada.getValue();
+                    suma = new TotalesEstado(suma.ordenes + t.ordenes, suma.unidades + t.unidades,
+                        suma.subtotal.add(t.subtotal), suma.descuento.add(t.descuento),
+                        suma.igv.add(t.igv), suma.total.add(t.total));
+                }
+            }
+            return suma;
+        }
     }
 }
@@ -0,0 +1,266 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.AntiguedadSaldosDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.AntiguedadSaldosDTO.AntiguedadClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.AntiguedadSaldosDTO.TramosDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.CreditoClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.PagoClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.PagoClienteRequestDTO;
+import com.nove.sule.backend_nove_sule.entity.Usuario;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.security.SecurityUtils;
+import com.nove.sule.backend_nove_sule.service.CuentaPorCobrarService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementación de las cuentas por cobrar.
+ * El saldo de cada cliente vive en clientes.saldo_credito y cada venta, anulación o pago lo modifica con una
+ * sola sentencia; la validación del límite y la carga no se separan, así que dos ventas simultáneas no pueden
+ * superarlo entre ambas
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CuentaPorCobrarServiceImpl implements CuentaPorCobrarService {
+
+    private static final int LIMITE_PAGOS = 500;
+
+    /** Si la venta supera el límite o el cliente no está activo no se devuelve ninguna fila */
+    static final String SQL_CARGAR_VENTA =
+        "UPDATE clientes SET saldo_credito = saldo_credito + ? " +
+        "WHERE id = ? AND estado = 'ACTIVO' AND saldo_credito + ? <= COALESCE(limite_credito, 0) " +
+        "RETURNING saldo_credito";
+
+    /**
+     * Si el saldo no cubre la venta, parte de ella ya se pagó y descontarla entera lo dejaría negativo:
+     * no se devuelve ninguna fila
+     */
+    private static final String SQL_ANULAR_VENTA =
+        "UPDATE clientes SET saldo_credito = saldo_credito - ? WHERE id = ? AND saldo_credito >= ? " +
+        "RETURNING saldo_credito";
+
+    /** Descuenta el pago sólo si no supera el saldo y con el saldo resultante inserta el pago */
+    private static final String SQL_REGISTRAR_PAGO =
+        "WITH cliente AS (" +
+        "UPDATE clientes SET saldo_credito = saldo_credito - ? " +
+        "WHERE id = ? AND saldo_credito - ? >= 0 " +
+        "RETURNING id, saldo_credito), " +
+        "pago AS (" +
+        "INSERT INTO pagos_cliente (cliente_id, monto, medio_pago, observaciones, usuario_id, fecha_pago, " +
+        "saldo_anterior, saldo_nuevo, fecha_creacion, fecha_modificacion) " +
+        "SELECT cliente.id, ?, ?, ?, ?, ?, cliente.saldo_credito + ?, cliente.saldo_credito, now(), now() " +
+        "FROM cliente RETURNING id, fecha_pago, saldo_anterior, saldo_nuevo) " +
+        "SELECT * FROM pago";
+
+    private static final String SQL_CREDITO =
+        "SELECT COALESCE(limite_credito, 0) AS limite_credito, saldo_credito, estado FROM clientes WHERE id = ?";
+
+    private static final String SQL_PAGOS =
+        "SELECT p.id, p.monto, p.medio_pago, p.observaciones, p.fecha_pago, p.saldo_anterior, p.saldo_nuevo, " +
+        "u.username FROM pagos_cliente p LEFT JOIN usuarios u ON u.id = p.usuario_id " +
+        "WHERE p.cliente_id = ? ORDER BY p.fecha_pago DESC, p.id DESC LIMIT " + LIMITE_PAGOS;
+
+    /**
+     * Lo pendiente de cada comprobante al crédito es la parte del saldo que no cubren los comprobantes
+     * más recientes que él: el acumulado de más nuevo a más antiguo se resuelve con una función de ventana
+     */
+    private static final String SQL_ANTIGUEDAD =
+        "SELECT d.cliente_id, d.numero_documento, d.nombre, " +
+        "SUM(d.pendiente) FILTER (WHERE d.dias <= 30) AS hasta_30, " +
+        "SUM(d.pendiente) FILTER (WHERE d.dias BETWEEN 31 AND 60) AS de_31_a_60, " +
+        "SUM(d.pendiente) FILTER (WHERE d.dias BETWEEN 61 AND 90) AS de_61_a_90, " +
+        "SUM(d.pendiente) FILTER (WHERE d.dias > 90) AS mas_de_90, " +
+        "SUM(d.pendiente) AS total " +
+        "FROM (SELECT v.cliente_id, c.numero_documento, " +
+        "CASE WHEN c.tipo_documento = 'RUC' THEN c.razon_social ELSE concat_ws(' ', c.nombres, c.apellidos) END " +
+        "AS nombre, CAST(? AS date) - CAST(v.fecha_emision AS date) AS dias, " +
+        "LEAST(v.total, GREATEST(c.saldo_credito - (SUM(v.total) OVER (PARTITION BY v.cliente_id " +
+        "ORDER BY v.fecha_emision DESC, v.id DESC) - v.total), 0)) AS pendiente " +
+        "FROM comprobantes_venta v JOIN clientes c ON c.id = v.cliente_id " +
+        "WHERE v.medio_pago = 'CREDITO' AND v.estado = 'ACTIVO' AND c.saldo_credito > 0) d " +
+        "WHERE d.pendiente > 0 " +
+        "GROUP BY d.cliente_id, d.numero_documento, d.nombre " +
+        "ORDER BY total DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UsuarioRepository usuarioRepository;
+
+    @Override
+    @Transactional
+    public void cargarVenta(Long clienteId, BigDecimal total) {
+
+        List<BigDecimal> saldo = jdbcTemplate.queryForList(SQL_CARGAR_VENTA, BigDecimal.class,
+            total, clienteId, total);
+        if (saldo.isEmpty()) {
+            throw motivoRechazo(clienteId, total);
+        }
+        log.debug("Venta al crédito de {} cargada al cliente {}, saldo {}", total, clienteId, saldo.get(0));
+    }
+
+    @Override
+    @Transactional
+    public void anularVenta(Long clienteId, BigDecimal total) {
+
+        List<BigDecimal> saldo = jdbcTemplate.queryForList(SQL_ANULAR_VENTA, BigDecimal.class,
+            total, clienteId, total);
+        if (saldo.isEmpty()) {
+            CreditoClienteDTO credito = obtenerCredito(clienteId);
+            throw new RuntimeException("No se puede anular la venta al crédito de " + total
+                + ": el cliente ya pagó parte de ella (saldo pendiente " + credito.getSaldo() + ")");
+        }
+        log.debug("Venta al crédito de {} anulada al cliente {}, saldo {}", total, clienteId, saldo.get(0));
+    }
+
+    @Override
+    @Transactional
+    public PagoClienteDTO registrarPago(Long clienteId, PagoClienteRequestDTO pagoRequest) {
+        log.info("Registrando pago de cliente ID: {}", clienteId);
+
+        if (pagoRequest.getMedioPago() == MedioPago.CREDITO) {
+            throw new RuntimeException("Un pago no puede registrarse con el medio de pago crédito");
+        }
+        BigDecimal monto = pagoRequest.getMonto();
+        Usuario usuario = SecurityUtils.obtenerUsername().flatMap(usuarioRepository::findByUsername).orElse(null);
+
+        List<PagoClienteDTO> registrado = jdbcTemplate.query(SQL_REGISTRAR_PAGO,
+            (rs, fila) -> PagoClienteDTO.builder()
+                .id(rs.getLong("id"))
+                .clienteId(clienteId)
+                .monto(monto)
+                .medioPago(pagoRequest.getMedioPago())
+                .observaciones(pagoRequest.getObservaciones())
+                .usuario(usuario != null ? usuario.getUsername() : "Sistema")
+                .fechaPago(rs.getObject("fecha_pago", LocalDateTime.class))
+                .saldoAnterior(rs.getBigDecimal("saldo_anterior"))
+                .saldoNuevo(rs.getBigDecimal("saldo_nuevo"))
+                .build(),
+            monto, clienteId, monto, monto, pagoRequest.getMedioPago().name(), pagoRequest.getObservaciones(),
+            usuario != null ? usuario.getId() : null, LocalDateTime.now(), monto);
+        if (registrado.isEmpty()) {
+            CreditoClienteDTO credito = obtenerCredito(clienteId);
+            throw new RuntimeException("El pago supera el saldo pendiente del cliente (" + credito.getSaldo() + ")");
+        }
+
+        PagoClienteDTO pago = registrado.get(0);
+        log.info("Pago registrado para cliente {}: {}, saldo {}", clienteId, monto, pago.getSaldoNuevo());
+        return pago;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CreditoClienteDTO obtenerCredito(Long clienteId) {
+
+        return jdbcTemplate.query(SQL_CREDITO, (rs, fila) -> {
+                BigDecimal limite = rs.getBigDecimal("limite_credito");
+                BigDecimal saldo = rs.getBigDecimal("saldo_credito");
+                return CreditoClienteDTO.builder()
+                    .clienteId(clienteId)
+                    .limiteCredito(limite)
+                    .saldo(saldo)
+                    .disponible(limite.subtract(saldo).max(BigDecimal.ZERO))
+                    .build();
+            }, clienteId).stream()
+            .findFirst()
+            .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + clienteId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PagoClienteDTO> listarPagos(Long clienteId) {
+
+        return jdbcTemplate.query(SQL_PAGOS, (rs, fila) -> PagoClienteDTO.builder()
+            .id(rs.getLong("id"))
+            .clienteId(clienteId)
+            .monto(rs.getBigDecimal("monto"))
+            .medioPago(MedioPago.valueOf(rs.getString("medio_pago")))
+            .observaciones(rs.getString("observaciones"))
+            .usuario(rs.getString("username") != null ? rs.getString("username") : "Sistema")
+            .fechaPago(rs.getObject("fecha_pago", LocalDateTime.class))
+            .saldoAnterior(rs.getBigDecimal("saldo_anterior"))
+            .saldoNuevo(rs.getBigDecimal("saldo_nuevo"))
+            .build(), clienteId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AntiguedadSaldosDTO obtenerAntiguedad() {
+
+        LocalDate hoy = LocalDate.now();
+        List<AntiguedadClienteDTO> clientes = jdbcTemplate.query(SQL_ANTIGUEDAD, (rs, fila) ->
+            AntiguedadClienteDTO.builder()
+                .clienteId(rs.getLong("cliente_id"))
+                .numeroDocumento(rs.getString("numero_documento"))
+                .nombreCompleto(rs.getString("nombre"))
+                .tramos(mapearTramos(rs))
+                .build(), hoy);
+
+        TramosDTO totales = TramosDTO.builder()
+            .hasta30Dias(BigDecimal.ZERO)
+            .de31A60Dias(BigDecimal.ZERO)
+            .de61A90Dias(BigDecimal.ZERO)
+            .masDe90Dias(BigDecimal.ZERO)
+            .total(BigDecimal.ZERO)
+            .build();
+        for (AntiguedadClienteDTO cliente : clientes) {
+            TramosDTO tramos = cliente.getTramos();
+            totales.setHasta30Dias(totales.getHasta30Dias().add(tramos.getHasta30Dias()));
+            totales.setDe31A60Dias(totales.getDe31A60Dias().add(tramos.getDe31A60Dias()));
+            totales.setDe61A90Dias(totales.getDe61A90Dias().add(tramos.getDe61A90Dias()));
+            totales.setMasDe90Dias(totales.getMasDe90Dias().add(tramos.getMasDe90Dias()));
+            totales.setTotal(totales.getTotal().add(tramos.getTotal()));
+        }
+        return AntiguedadSaldosDTO.builder()
+            .fecha(hoy)
+            .totales(totales)
+            .clientes(clientes)
+            .build();
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static TramosDTO mapearTramos(ResultSet rs) throws SQLException {
+        return TramosDTO.builder()
+            .hasta30Dias(montoOCero(rs, "hasta_30"))
+            .de31A60Dias(montoOCero(rs, "de_31_a_60"))
+            .de61A90Dias(montoOCero(rs, "de_61_a_90"))
+            .masDe90Dias(montoOCero(rs, "mas_de_90"))
+            .total(montoOCero(rs, "total"))
+            .build();
+    }
+
+    private static BigDecimal montoOCero(ResultSet rs, String columna) throws SQLException {
+        BigDecimal valor = rs.getBigDecimal(columna);
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    /**
+     * Explica por qué la carga condicional de la venta no afectó ninguna fila
+     */
+    private RuntimeException motivoRechazo(Long clienteId, BigDecimal total) {
+        List<Map<String, Object>> cliente = jdbcTemplate.queryForList(SQL_CREDITO, clienteId);
+        if (cliente.isEmpty()) {
+            return new RuntimeException("Cliente no encontrado");
+        }
+        if (!Estado.ACTIVO.name().equals(cliente.get(0).get("estado"))) {
+            return new RuntimeException("No se pueden registrar ventas al crédito a un cliente inactivo");
+        }
+        BigDecimal limite = (BigDecimal) cliente.get(0).get("limite_credito");
+        BigDecimal saldo = (BigDecimal) cliente.get(0).get("saldo_credito");
+        return new RuntimeException("La venta de " + total + " supera el crédito disponible del cliente ("
+            + limite.subtract(saldo).max(BigDecimal.ZERO) + ")");
+    }
+}
@@ -0,0 +1,387 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImagenProductoDTO;
+import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
+import com.nove.sule.backend_nove_sule.repository.ProductoRepository;
+import com.nove.sule.backend_nove_sule.service.ImagenProductoService;
+import com.nove.sule.backend_nove_sule.util.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación del almacenamiento de imágenes de productos en el sistema de archivos local.
+ * Cada imagen se guarda una sola vez bajo el SHA-256 de su contenido, por lo que su URL nunca cambia
+ * de contenido y puede cachearse indefinidamente. Las miniaturas se generan en segundo plano
+ * en un ejecutor acotado; mientras no existan se entrega el original.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImagenProductoServiceImpl implements ImagenProductoService {
+
+    public static final String RUTA_PUBLICA = Constants.API_BASE_PATH + "/imagenes/";
+
+    /** hash[-tamaño].extensión; no admite otros caracteres, así que el nombre no puede salir del directorio */
+    private static final Pattern NOMBRE_ARCHIVO = Pattern.compile("([0-9a-f]{64})(?:-(\\d{1,4}))?\\.([a-z]{3,4})");
+
+    /** Evita decodificar imágenes desproporcionadas (p. ej. un PNG pequeño de 50000 x 50000) */
+    private static final long MAX_PIXELES = 40_000_000L;
+
+    private final ProductoRepository productoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor miniaturaExecutor;
+
+    /** Hashes con miniaturas en cola o en proceso, para no programarlas dos veces */
+    private final Set<String> miniaturasEnProceso = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.imagenes.directorio:data/imagenes}")
+    private Path directorio;
+
+    @Value("${app.imagenes.miniaturas:160,480}")
+    private int[] tamanosMiniatura;
+
+    @Override
+    @Transactional
+    public ImagenProductoDTO subir(Long productoId, MultipartFile archivo, boolean principal) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        Producto producto = productoRepository.findById(productoId)
+            .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
+
+        ImagenGuardada imagen = guardar(archivo);
+        String url = url(imagen.hash(), null, imagen.formato());
+
+        List<String> imagenes = producto.getImagenes() != null
+            ? new ArrayList<>(producto.getImagenes()) : new ArrayList<>();
+        if (!imagenes.contains(url)) {
+            imagenes.add(url);
+        }
+        producto.setImagenes(imagenes);
+        boolean esPrincipal = principal || producto.getImagen() == null || producto.getImagen().isBlank();
+        if (esPrincipal) {
+            producto.setImagen(url);
+        }
+        productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(productoId));
+
+        programarMiniaturas(imagen.hash(), imagen.formato());
+        log.info("Imagen {} agregada al producto {}", imagen.hash(), productoId);
+
+        Map<Integer, String> miniaturas = new LinkedHashMap<>();
+        for (int tamano : tamanosMiniatura) {
+            miniaturas.put(tamano, imagen.formato().redimensionable ? url(imagen.hash(), tamano, imagen.formato()) : url);
+        }
+        return ImagenProductoDTO.builder()
+            .productoId(productoId)
+            .hash(imagen.hash())
+            .url(url)
+            .tipoContenido(imagen.formato().tipoContenido)
+            .tamano(imagen.longitud())
+            .principal(esPrincipal)
+            .miniaturas(miniaturas)
+            .build();
+    }
+
+    @Override
+    public Optional<ArchivoImagen> resolver(String nombre) {
+        Matcher matcher = NOMBRE_ARCHIVO.matcher(nombre);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        Formato formato = Formato.deExtension(matcher.group(3));
+        if (formato == null) {
+            return Optional.empty();
+        }
+        String hash = matcher.group(1);
+        if (matcher.group(2) == null) {
+            return archivo(ruta(hash, null, formato), formato, hash, true);
+        }
+
+        int tamano = Integer.parseInt(matcher.group(2));
+        if (!formato.redimensionable || !esTamanoMiniatura(tamano)) {
+            return Optional.empty();
+        }
+        Optional<ArchivoImagen> miniatura = archivo(ruta(hash, tamano, formato), formato, hash + "-" + tamano, true);
+        if (miniatura.isPresent()) {
+            return miniatura;
+        }
+        // Todavía no se generó (o la cola estaba llena al subirla): se entrega el original y se reprograma
+        Optional<ArchivoImagen> original = archivo(ruta(hash, null, formato), formato, hash, false);
+        original.ifPresent(a -> programarMiniaturas(hash, formato));
+        return original;
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Copia el contenido a un temporal calculando su hash y lo mueve a su ruta definitiva;
+     * si la imagen ya existía sólo se descarta el temporal
+     */
+    private ImagenGuardada guardar(MultipartFile archivo) {
+        Path temporal = null;
+        try (InputStream entrada = new BufferedInputStream(archivo.getInputStream())) {
+            entrada.mark(Formato.LONGITUD_CABECERA);
+            Formato formato = Formato.detectar(entrada.readNBytes(Formato.LONGITUD_CABECERA));
+            entrada.reset();
+            if (formato == null) {
+                throw new RuntimeException("Formato de imagen no soportado: se acepta JPEG, PNG, GIF o WebP");
+            }
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Files.createDirectories(directorio);
+            temporal = Files.createTempFile(directorio, "subida-", ".tmp");
+            try (DigestInputStream lectura = new DigestInputStream(entrada, digest);
+                 OutputStream salida = Files.newOutputStream(temporal)) {
+                lectura.transferTo(salida);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path destino = ruta(hash, null, formato);
+            if (Files.exists(destino)) {
+                Files.delete(temporal);
+            } else {
+                Files.createDirectories(destino.getParent());
+                Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+            }
+            temporal = null;
+            return new ImagenGuardada(hash, formato, Files.size(destino));
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo guardar la imagen: " + e.getMessage());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            if (temporal != null) {
+                eliminarTemporal(temporal);
+            }
+        }
+    }
+
+    private void programarMiniaturas(String hash, Formato formato) {
+        if (!formato.redimensionable || tamanosMiniatura.length == 0 || !miniaturasEnProceso.add(hash)) {
+            return;
+        }
+        try {
+            miniaturaExecutor.execute(() -> generarMiniaturas(hash, formato));
+        } catch (TaskRejectedException e) {
+            miniaturasEnProceso.remove(hash);
+            log.warn("Cola de miniaturas llena; las de {} se generarán cuando se soliciten", hash);
+        }
+    }
+
+    private void generarMiniaturas(String hash, Formato formato) {
+        try {
+            BufferedImage imagen = null;
+            for (int tamano : tamanosMiniatura) {
+                Path destino = ruta(hash, tamano, formato);
+                if (Files.exists(destino)) {
+                    continue;
+                }
+                if (imagen == null) {
+                    imagen = leer(ruta(hash, null, formato), formato);
+                }
+                escribir(escalar(imagen, tamano, formato), destino, formato);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("No se pudieron generar las miniaturas de {}: {}", hash, e.getMessage());
+        } finally {
+            miniaturasEnProceso.remove(hash);
+        }
+    }
+
+    /**
+     * Decodifica la imagen submuestreando a una resolución cercana al doble de la miniatura más grande,
+     * de modo que una foto de varios megapíxeles no se carga completa en memoria
+     */
+    private BufferedImage leer(Path original, Formato formato) throws IOException {
+        try (ImageInputStream entrada = ImageIO.createImageInputStream(original.toFile())) {
+            if (entrada == null) {
+                throw new NoSuchFileException(original.toString());
+            }
+            Iterator<ImageReader> lectores = ImageIO.getImageReadersByFormatName(formato.extension);
+            if (!lectores.hasNext()) {
+                throw new IOException("No hay lector para " + formato.extension);
+            }
+            ImageReader lector = lectores.next();
+            try {
+                lector.setInput(entrada, true, true);
+                int ancho = lector.getWidth(0);
+                int alto = lector.getHeight(0);
+                if ((long) ancho * alto > MAX_PIXELES) {
+                    throw new IOException("La imagen supera los " + MAX_PIXELES + " píxeles");
+                }
+                int tamanoMaximo = 0;
+                for (int tamano : tamanosMiniatura) {
+                    tamanoMaximo = Math.max(tamanoMaximo, tamano);
+                }
+                int factor = Math.max(1, Math.max(ancho, alto) / (tamanoMaximo * 2));
+                ImageReadParam parametros = lector.getDefaultReadParam();
+                parametros.setSourceSubsampling(factor, factor, 0, 0);
+                return lector.read(0, parametros);
+            } finally {
+                lector.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage escalar(BufferedImage imagen, int tamano, Formato formato) {
+        double escala = Math.min(1.0, (double) tamano / Math.max(imagen.getWidth(), imagen.getHeight()));
+        int ancho = Math.max(1, (int) Math.round(imagen.getWidth() * escala));
+        int alto = Math.max(1, (int) Math.round(imagen.getHeight() * escala));
+        int tipo = formato == Formato.PNG ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage miniatura = new BufferedImage(ancho, alto, tipo);
+        Graphics2D grafico = miniatura.createGraphics();
+        try {
+            grafico.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            grafico.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            grafico.drawImage(imagen, 0, 0, ancho, alto, null);
+        } finally {
+            grafico.dispose();
+        }
+        return miniatura;
+    }
+
+    private static void escribir(BufferedImage miniatura, Path destino, Formato formato) throws IOException {
+        Path temporal = Files.createTempFile(destino.getParent(), "miniatura-", ".tmp");
+        try {
+            if (!ImageIO.write(miniatura, formato.extension, temporal.toFile())) {
+                throw new IOException("No hay escritor para " + formato.extension);
+            }
+            Files.move(temporal, destino, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+    }
+
+    private Optional<ArchivoImagen> archivo(Path ruta, Formato formato, String etag, boolean definitivo) {
+        try {
+            return Optional.of(new ArchivoImagen(ruta, Files.size(ruta), formato.tipoContenido,
+                "\"" + etag + "\"", definitivo));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean esTamanoMiniatura(int tamano) {
+        for (int permitido : tamanosMiniatura) {
+            if (permitido == tamano) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Reparte los archivos en subdirectorios por los dos primeros caracteres del hash */
+    private Path ruta(String hash, Integer tamano, Formato formato) {
+        return directorio.resolve(hash.substring(0, 2)).resolve(nombre(hash, tamano, formato));
+    }
+
+    private static String url(String hash, Integer tamano, Formato formato) {
+        return RUTA_PUBLICA + nombre(hash, tamano, formato);
+    }
+
+    private static String nombre(String hash, Integer tamano, Formato formato) {
+        return (tamano == null ? hash : hash + "-" + tamano) + "." + formato.extension;
+    }
+
+    private static void eliminarTemporal(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el temporal {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private record ImagenGuardada(String hash, Formato formato, long longitud) {
+    }
+
+    /**
+     * Formatos aceptados, detectados por su firma y no por la extensión o el tipo declarado.
+     * GIF y WebP se sirven tal cual: el primero puede ser animado y el JDK no decodifica el segundo
+     */
+    private enum Formato {
+        JPG("jpg", "image/jpeg", true),
+        PNG("png", "image/png", true),
+        GIF("gif", "image/gif", false),
+        WEBP("webp", "image/webp", false);
+
+        static final int LONGITUD_CABECERA = 12;
+
+        final String extension;
+        final String tipoContenido;
+        final boolean redimensionable;
+
+        Formato(String extension, String tipoContenido, boolean redimensionable) {
+            this.extension = extension;
+            this.tipoContenido = tipoContenido;
+            this.redimensionable = redimensionable;
+        }
+
+        static Formato deExtension(String extension) {
+            for (Formato formato : values()) {
+                if (formato.extension.equals(extension)) {
+                    return formato;
+                }
+            }
+            return null;
+        }
+
+        static Formato detectar(byte[] c) {
+            if (c.length >= 3 && (c[0] & 0xFF) == 0xFF && (c[1] & 0xFF) == 0xD8 && (c[2] & 0xFF) == 0xFF) {
+                return JPG;
+            }
+            if (c.length >= 8 && (c[0] & 0xFF) == 0x89 && c[1] == 'P' && c[2] == 'N' && c[3] == 'G'
+                    && c[4] == 0x0D && c[5] == 0x0A && c[6] == 0x1A && c[7] == 0x0A) {
+                return PNG;
+            }
+            if (c.length >= 6 && c[0] == 'G' && c[1] == 'I' && c[2] == 'F' && c[3] == '8'
+                    && (c[4] == '7' || c[4] == '9') && c[5] == 'a') {
+                return GIF;
+            }
+            if (c.length >= 12 && c[0] == 'R' && c[1] == 'I' && c[2] == 'F' && c[3] == 'F'
+                    && c[8] == 'W' && c[9] == 'E' && c[10] == 'B' && c[11] == 'P') {
+                return WEBP;
+            }
+            return null;
+        }
+    }
+}
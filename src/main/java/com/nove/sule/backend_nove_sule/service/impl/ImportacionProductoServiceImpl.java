@@ -0,0 +1,490 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImportacionProductosDTO;
+import com.nove.sule.backend_nove_sule.entity.Categoria;
+import com.nove.sule.backend_nove_sule.entity.Marca;
+import com.nove.sule.backend_nove_sule.entity.Proveedor;
+import com.nove.sule.backend_nove_sule.entity.Usuario;
+import com.nove.sule.backend_nove_sule.entity.enums.EstadoImportacion;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
+import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
+import com.nove.sule.backend_nove_sule.repository.MarcaRepository;
+import com.nove.sule.backend_nove_sule.repository.ProveedorRepository;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.search.NormalizadorTexto;
+import com.nove.sule.backend_nove_sule.security.SecurityUtils;
+import com.nove.sule.backend_nove_sule.service.ImportacionProductoService;
+import com.nove.sule.backend_nove_sule.util.LectorCsv;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Implementación de la importación masiva de productos.
+ * Lee el CSV por streaming, resuelve categorías, marcas y proveedores con mapas precargados
+ * e inserta o actualiza por código en lotes JDBC, cada lote en su propia transacción.
+ * Un CSV comprimido con gzip (.csv.gz) permite cargar catálogos grandes dentro del límite de subida.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImportacionProductoServiceImpl implements ImportacionProductoService {
+
+    private static final int TAMANO_LOTE = 1000;
+    private static final int MAX_ERRORES_REPORTADOS = 1000;
+
+    /**
+     * En la actualización no se toca el stock: sólo cambia por movimientos de inventario.
+     * El precio anterior se lee y bloquea antes del upsert (todas las partes ven la misma instantánea),
+     * y un cambio de precio queda en el historial igual que en el ajuste masivo
+     */
+    private static final String SQL_UPSERT =
+        "WITH anterior AS (SELECT id, precio FROM productos WHERE codigo = ? FOR UPDATE), " +
+        "guardado AS (" +
+        "INSERT INTO productos (codigo, nombre, descripcion, codigo_barras, precio, precio_compra, stock, " +
+        "stock_minimo, unidad, categoria_id, marca_id, proveedor_id, afecto_igv, tipo_igv, estado, " +
+        "fecha_creacion, fecha_modificacion) " +
+        "VALUES (?, ?, ?, ?, ?, ?, COALESCE(?, 0), COALESCE(?, 0), ?, ?, ?, ?, ?, ?, 'ACTIVO', now(), now()) " +
+        "ON CONFLICT (codigo) DO UPDATE SET " +
+        "nombre = EXCLUDED.nombre, " +
+        "descripcion = COALESCE(EXCLUDED.descripcion, productos.descripcion), " +
+        "codigo_barras = COALESCE(EXCLUDED.codigo_barras, productos.codigo_barras), " +
+        "precio = EXCLUDED.precio, " +
+        "precio_compra = COALESCE(EXCLUDED.precio_compra, productos.precio_compra), " +
+        "stock_minimo = COALESCE(?, productos.stock_minimo), " +
+        "unidad = EXCLUDED.unidad, " +
+        "categoria_id = EXCLUDED.categoria_id, " +
+        "marca_id = COALESCE(EXCLUDED.marca_id, productos.marca_id), " +
+        "proveedor_id = COALESCE(EXCLUDED.proveedor_id, productos.proveedor_id), " +
+        "afecto_igv = EXCLUDED.afecto_igv, " +
+        "tipo_igv = EXCLUDED.tipo_igv, " +
+        "fecha_modificacion = now() " +
+        "RETURNING id, precio" +
+        ") " +
+        "INSERT INTO historial_precios (producto_id, precio_anterior, precio_nuevo, motivo, usuario_id, " +
+        "fecha_creacion, fecha_modificacion) " +
+        "SELECT g.id, a.precio, g.precio, ?, ?, now(), now() FROM guardado g JOIN anterior a ON a.id = g.id " +
+        "WHERE g.precio <> a.precio";
+
+    private static final int LARGO_MOTIVO = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoriaRepository categoriaRepository;
+    private final MarcaRepository marcaRepository;
+    private final ProveedorRepository proveedorRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsuarioRepository usuarioRepository;
+    private final ThreadPoolTaskExecutor importacionExecutor;
+
+    private final Cache<String, Trabajo> trabajos = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofHours(24))
+        .maximumSize(100)
+        .build();
+
+    @Override
+    public ImportacionProductosDTO iniciar(MultipartFile archivo) {
+        if (archivo == null || archivo.isEmpty()) {
+            throw new RuntimeException("El archivo está vacío");
+        }
+        String nombre = archivo.getOriginalFilename() != null ? archivo.getOriginalFilename() : "productos.csv";
+        String extension = nombre.toLowerCase(Locale.ROOT);
+        if (!extension.endsWith(".csv") && !extension.endsWith(".csv.gz")) {
+            throw new RuntimeException("Formato no soportado: se acepta CSV (.csv) o CSV comprimido (.csv.gz)");
+        }
+
+        // El multipart se descarta al terminar la petición, así que se copia a un temporal
+        Path temporal;
+        try {
+            temporal = Files.createTempFile("importacion-productos-", extension.endsWith(".gz") ? ".csv.gz" : ".csv");
+            archivo.transferTo(temporal);
+        } catch (IOException e) {
+            throw new RuntimeException("No se pudo recibir el archivo: " + e.getMessage());
+        }
+
+        // La importación corre en otro hilo, sin el usuario de la petición: se resuelve aquí para el historial
+        Long usuarioId = SecurityUtils.obtenerUsername()
+            .flatMap(usuarioRepository::findByUsername)
+            .map(Usuario::getId)
+            .orElse(null);
+        Trabajo trabajo = new Trabajo(UUID.randomUUID().toString(), nombre, usuarioId);
+        trabajos.put(trabajo.id, trabajo);
+        try {
+            importacionExecutor.execute(() -> procesar(trabajo, temporal));
+        } catch (TaskRejectedException e) {
+            trabajos.invalidate(trabajo.id);
+            eliminarTemporal(temporal);
+            throw new RuntimeException("Hay demasiadas importaciones en cola, intente más tarde");
+        }
+
+        log.info("Importación {} iniciada para el archivo {}", trabajo.id, nombre);
+        return trabajo.toDTO();
+    }
+
+    @Override
+    public Optional<ImportacionProductosDTO> consultar(String id) {
+        return Optional.ofNullable(trabajos.getIfPresent(id)).map(Trabajo::toDTO);
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void procesar(Trabajo trabajo, Path archivo) {
+        try (LectorCsv lector = new LectorCsv(new InputStreamReader(abrir(archivo), StandardCharsets.UTF_8))) {
+            List<String> cabecera = lector.leer();
+            if (cabecera == null) {
+                throw new RuntimeException("El archivo no tiene cabecera");
+            }
+            Map<String, Integer> columnas = indexarCabecera(cabecera);
+            for (String requerida : List.of("codigo", "nombre", "precio", "categoria")) {
+                if (!columnas.containsKey(requerida)) {
+                    throw new RuntimeException("Falta la columna requerida: " + requerida);
+                }
+            }
+
+            Referencias referencias = cargarReferencias();
+            List<FilaProducto> lote = new ArrayList<>(TAMANO_LOTE);
+            long numeroFila = 1;
+            List<String> campos;
+            while ((campos = lector.leer()) != null) {
+                numeroFila++;
+                if (campos.size() == 1 && campos.get(0).isBlank()) {
+                    continue;
+                }
+                trabajo.procesadas.incrementAndGet();
+                try {
+                    lote.add(convertirFila(numeroFila, campos, columnas, referencias));
+                } catch (RuntimeException e) {
+                    trabajo.registrarError(numeroFila, valor(campos, columnas, "codigo"), e.getMessage());
+                }
+                if (lote.size() == TAMANO_LOTE) {
+                    guardarLote(lote, trabajo);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                guardarLote(lote, trabajo);
+            }
+            trabajo.finalizar(EstadoImportacion.COMPLETADO, null);
+            log.info("Importación {} completada: {} filas importadas, {} con error",
+                trabajo.id, trabajo.importadas.get(), trabajo.conError.get());
+        } catch (Exception e) {
+            log.error("Importación {} fallida: {}", trabajo.id, e.getMessage());
+            trabajo.finalizar(EstadoImportacion.FALLIDO, e.getMessage());
+        } finally {
+            eliminarTemporal(archivo);
+            if (trabajo.importadas.get() > 0) {
+                eventPublisher.publishEvent(ProductoModificadoEvent.todos());
+            }
+        }
+    }
+
+    private void guardarLote(List<FilaProducto> lote, Trabajo trabajo) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(SQL_UPSERT, lote, lote.size(),
+                    (ps, fila) -> asignarParametros(ps, fila, trabajo)));
+            trabajo.importadas.addAndGet(lote.size());
+        } catch (DataAccessException e) {
+            // Se reintenta fila por fila para identificar cuáles fallan sin perder el resto del lote
+            for (FilaProducto fila : lote) {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update(SQL_UPSERT, ps -> asignarParametros(ps, fila, trabajo)));
+                    trabajo.importadas.incrementAndGet();
+                } catch (DataAccessException ex) {
+                    trabajo.registrarError(fila.numero(), fila.codigo(),
+                        NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+                }
+            }
+        }
+    }
+
+    private void asignarParametros(PreparedStatement ps, FilaProducto fila, Trabajo trabajo) throws SQLException {
+        ps.setString(1, fila.codigo());
+        ps.setString(2, fila.codigo());
+        ps.setString(3, fila.nombre());
+        ps.setString(4, fila.descripcion());
+        ps.setString(5, fila.codigoBarras());
+        ps.setBigDecimal(6, fila.precio());
+        ps.setBigDecimal(7, fila.precioCompra());
+        ps.setObject(8, fila.stock(), Types.INTEGER);
+        ps.setObject(9, fila.stockMinimo(), Types.INTEGER);
+        ps.setString(10, fila.unidad());
+        ps.setLong(11, fila.categoriaId());
+        ps.setObject(12, fila.marcaId(), Types.BIGINT);
+        ps.setObject(13, fila.proveedorId(), Types.BIGINT);
+        ps.setBoolean(14, fila.afectoIgv());
+        ps.setString(15, fila.tipoIgv().name());
+        ps.setObject(16, fila.stockMinimo(), Types.INTEGER);
+        ps.setString(17, trabajo.motivo);
+        ps.setObject(18, trabajo.usuarioId, Types.BIGINT);
+    }
+
+    private FilaProducto convertirFila(long numero, List<String> campos, Map<String, Integer> columnas,
+                                       Referencias referencias) {
+        String codigo = requerido(valor(campos, columnas, "codigo"), "codigo", 50);
+        String nombre = requerido(valor(campos, columnas, "nombre"), "nombre", 100);
+        BigDecimal precio = decimal(valor(campos, columnas, "precio"), "precio");
+        if (precio == null) {
+            throw new RuntimeException("El precio es requerido");
+        }
+
+        String categoria = requerido(valor(campos, columnas, "categoria"), "categoria", 100);
+        Long categoriaId = referencias.categorias().get(clave(categoria));
+        if (categoriaId == null) {
+            throw new RuntimeException("Categoría no encontrada: " + categoria);
+        }
+
+        Long marcaId = null;
+        String marca = valor(campos, columnas, "marca");
+        if (marca != null) {
+            marcaId = referencias.marcas().get(clave(marca));
+            if (marcaId == null) {
+                throw new RuntimeException("Marca no encontrada: " + marca);
+            }
+        }
+
+        Long proveedorId = null;
+        String proveedorRuc = valor(campos, columnas, "proveedorruc");
+        if (proveedorRuc != null) {
+            proveedorId = referencias.proveedores().get(proveedorRuc);
+            if (proveedorId == null) {
+                throw new RuntimeException("Proveedor no encontrado con RUC: " + proveedorRuc);
+            }
+        }
+
+        String unidad = Optional.ofNullable(valor(campos, columnas, "unidad")).orElse("UND");
+        String tipoIgv = valor(campos, columnas, "tipoigv");
+        String afectoIgv = valor(campos, columnas, "afectoigv");
+
+        return new FilaProducto(
+            numero,
+            codigo,
+            nombre,
+            valor(campos, columnas, "descripcion"),
+            limitar(valor(campos, columnas, "codigobarras"), "codigo_barras", 50),
+            precio,
+            decimal(valor(campos, columnas, "preciocompra"), "precio_compra"),
+            entero(valor(campos, columnas, "stock"), "stock"),
+            entero(valor(campos, columnas, "stockminimo"), "stock_minimo"),
+            limitar(unidad, "unidad", 20),
+            categoriaId,
+            marcaId,
+            proveedorId,
+            afectoIgv == null || List.of("si", "s", "true", "1").contains(clave(afectoIgv)),
+            tipoIgv != null ? enumeracion(tipoIgv) : TipoIGV.GRAVADO);
+    }
+
+    private Referencias cargarReferencias() {
+        return new Referencias(
+            indexar(categoriaRepository.findAll(), c -> clave(c.getNombre()), Categoria::getId),
+            indexar(marcaRepository.findAll(), m -> clave(m.getNombre()), Marca::getId),
+            indexar(proveedorRepository.findAll(), Proveedor::getRuc, Proveedor::getId));
+    }
+
+    private static <E> Map<String, Long> indexar(List<E> entidades, Function<E, String> clave, Function<E, Long> id) {
+        Map<String, Long> mapa = new HashMap<>(entidades.size() * 2);
+        entidades.forEach(e -> mapa.putIfAbsent(clave.apply(e), id.apply(e)));
+        return mapa;
+    }
+
+    /**
+     * Asocia cada columna a su posición; los nombres se comparan sin tildes, espacios ni guiones
+     */
+    private static Map<String, Integer> indexarCabecera(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            String nombre = NormalizadorTexto.normalizarCodigo(cabecera.get(i));
+            columnas.putIfAbsent(nombre.equals("proveedor") ? "proveedorruc" : nombre, i);
+        }
+        return columnas;
+    }
+
+    private static String valor(List<String> campos, Map<String, Integer> columnas, String columna) {
+        Integer indice = columnas.get(columna);
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static String clave(String texto) {
+        return NormalizadorTexto.normalizar(texto).trim();
+    }
+
+    private static String requerido(String valor, String columna, int maximo) {
+        if (valor == null) {
+            throw new RuntimeException("El campo " + columna + " es requerido");
+        }
+        return limitar(valor, columna, maximo);
+    }
+
+    private static String limitar(String valor, String columna, int maximo) {
+        if (valor != null && valor.length() > maximo) {
+            throw new RuntimeException("El campo " + columna + " no puede exceder " + maximo + " caracteres");
+        }
+        return valor;
+    }
+
+    private static BigDecimal decimal(String valor, String columna) {
+        if (valor == null) {
+            return null;
+        }
+        // Admite coma decimal cuando no hay punto (CSV exportado con configuración regional es-PE)
+        String normalizado = valor.contains(".") ? valor.replace(",", "") : valor.replace(",", ".");
+        try {
+            BigDecimal numero = new BigDecimal(normalizado);
+            if (numero.signum() < 0) {
+                throw new RuntimeException("El campo " + columna + " debe ser positivo o cero");
+            }
+            return numero;
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("El campo " + columna + " no es un número válido: " + valor);
+        }
+    }
+
+    private static Integer entero(String valor, String columna) {
+        BigDecimal numero = decimal(valor, columna);
+        if (numero == null) {
+            return null;
+        }
+        try {
+            return numero.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("El campo " + columna + " debe ser un número entero: " + valor);
+        }
+    }
+
+    private static TipoIGV enumeracion(String valor) {
+        try {
+            return TipoIGV.valueOf(clave(valor).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Tipo de IGV inválido: " + valor);
+        }
+    }
+
+    private static InputStream abrir(Path archivo) throws IOException {
+        InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo));
+        entrada.mark(2);
+        int b1 = entrada.read();
+        int b2 = entrada.read();
+        entrada.reset();
+        // Cabecera mágica de gzip: 0x1f 0x8b
+        return b1 == 0x1f && b2 == 0x8b ? new GZIPInputStream(entrada) : entrada;
+    }
+
+    private static void eliminarTemporal(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el temporal {}: {}", archivo, e.getMessage());
+        }
+    }
+
+    private record Referencias(Map<String, Long> categorias, Map<String, Long> marcas, Map<String, Long> proveedores) {
+    }
+
+    private record FilaProducto(long numero, String codigo, String nombre, String descripcion, String codigoBarras,
+                                BigDecimal precio, BigDecimal precioCompra, Integer stock, Integer stockMinimo,
+                                String unidad, Long categoriaId, Long marcaId, Long proveedorId,
+                                boolean afectoIgv, TipoIGV tipoIgv) {
+    }
+
+    /**
+     * Estado mutable de una importación; los contadores se leen desde otros hilos al consultar el avance
+     */
+    private static final class Trabajo {
+
+        private final String id;
+        private final String archivo;
+        /** Usuario que inició la importación y motivo con que sus cambios de precio van al historial */
+        private final Long usuarioId;
+        private final String motivo;
+        private final LocalDateTime fechaInicio = LocalDateTime.now();
+        private final AtomicLong procesadas = new AtomicLong();
+        private final AtomicLong importadas = new AtomicLong();
+        private final AtomicLong conError = new AtomicLong();
+        private final List<ImportacionProductosDTO.ErrorFila> errores = new ArrayList<>();
+        private volatile EstadoImportacion estado = EstadoImportacion.EN_PROCESO;
+        private volatile String mensaje;
+        private volatile LocalDateTime fechaFin;
+
+        Trabajo(String id, String archivo, Long usuarioId) {
+            this.id = id;
+            this.archivo = archivo;
+            this.usuarioId = usuarioId;
+            String motivo = "Importación de productos: " + archivo;
+            this.motivo = motivo.length() > LARGO_MOTIVO ? motivo.substring(0, LARGO_MOTIVO) : motivo;
+        }
+
+        void registrarError(long fila, String codigo, String mensaje) {
+            conError.incrementAndGet();
+            synchronized (errores) {
+                if (errores.size() < MAX_ERRORES_REPORTADOS) {
+                    errores.add(new ImportacionProductosDTO.ErrorFila(fila, codigo, mensaje));
+                }
+            }
+        }
+
+        void finalizar(EstadoImportacion estado, String mensaje) {
+            this.mensaje = mensaje;
+            this.fechaFin = LocalDateTime.now();
+            this.estado = estado;
+        }
+
+        ImportacionProductosDTO toDTO() {
+            List<ImportacionProductosDTO.ErrorFila> copia;
+            synchronized (errores) {
+                copia = List.copyOf(errores);
+            }
+            return ImportacionProductosDTO.builder()
+                .id(id)
+                .archivo(archivo)
+                .estado(estado)
+                .filasProcesadas(procesadas.get())
+                .filasImportadas(importadas.get())
+                .filasConError(conError.get())
+                .errores(copia)
+                .mensaje(mensaje)
+                .fechaInicio(fechaInicio)
+                .fechaFin(fechaFin)
+                .build();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.ClienteSegmentadoDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.IndicadoresClienteDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.SegmentacionClientesDTO;
+import com.nove.sule.backend_nove_sule.dto.cliente.SegmentacionClientesDTO.ResumenSegmentoDTO;
+import com.nove.sule.backend_nove_sule.entity.Cliente;
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
+import com.nove.sule.backend_nove_sule.repository.ClienteRepository;
+import com.nove.sule.backend_nove_sule.service.IndicadorClienteService;
+import com.nove.sule.backend_nove_sule.util.Monto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementación de los indicadores de clientes.
+ * Cada venta y anulación se aplica como un incremento con upsert; la segmentación lee las filas acumuladas
+ * una sola vez en arreglos primitivos y calcula los quintiles con arreglos ordenados, sin tocar los comprobantes
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndicadorClienteServiceImpl implements IndicadorClienteService {
+
+    private static final int QUINTILES = 5;
+    private static final int LIMITE_SEGMENTO = 1000;
+    private static final int FILAS_POR_LECTURA = 10_000;
+
+    private static final String SQL_REGISTRAR_VENTA =
+        "INSERT INTO indicadores_cliente AS i (cliente_id, comprobantes, total_compras, primera_compra, " +
+        "ultima_compra, fecha_creacion, fecha_modificacion) VALUES (?, 1, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (cliente_id) DO UPDATE SET " +
+        "comprobantes = i.comprobantes + 1, " +
+        "total_compras = i.total_compras + EXCLUDED.total_compras, " +
+        "primera_compra = LEAST(i.primera_compra, EXCLUDED.primera_compra), " +
+        "ultima_compra = GREATEST(i.ultima_compra, EXCLUDED.ultima_compra), " +
+        "fecha_modificacion = now()";
+
+    /**
+     * El comprobante anulado se excluye por ID porque su nuevo estado aún puede no estar escrito;
+     * con el índice por cliente y fecha, el mínimo y el máximo se leen de un extremo del índice
+     */
+    private static final String SQL_ANULAR_VENTA =
+        "UPDATE indicadores_cliente i SET " +
+        "comprobantes = i.comprobantes - 1, " +
+        "total_compras = i.total_compras - ?, " +
+        "primera_compra = CASE WHEN i.primera_compra = ? THEN v.primera ELSE i.primera_compra END, " +
+        "ultima_compra = CASE WHEN i.ultima_compra = ? THEN v.ultima ELSE i.ultima_compra END, " +
+        "fecha_modificacion = now() " +
+        "FROM (SELECT MIN(fecha_emision) AS primera, MAX(fecha_emision) AS ultima FROM comprobantes_venta " +
+        "WHERE cliente_id = ? AND estado = 'ACTIVO' AND id <> ?) v " +
+        "WHERE i.cliente_id = ?";
+
+    /**
+     * Indicadores de los clientes con ventas anteriores a su registro incremental; los que ya tienen fila
+     * se dejan como están para no contar dos veces sus ventas
+     */
+    private static final String SQL_INICIALIZAR =
+        "INSERT INTO indicadores_cliente (cliente_id, comprobantes, total_compras, primera_compra, ultima_compra, " +
+        "fecha_creacion, fecha_modificacion) " +
+        "SELECT cliente_id, COUNT(*), SUM(total), MIN(fecha_emision), MAX(fecha_emision), now(), now() " +
+        "FROM comprobantes_venta WHERE estado = 'ACTIVO' AND cliente_id IS NOT NULL GROUP BY cliente_id " +
+        "ON CONFLICT (cliente_id) DO NOTHING";
+
+    private static final String SQL_INDICADORES =
+        "SELECT cliente_id, comprobantes, total_compras, primera_compra, ultima_compra " +
+        "FROM indicadores_cliente WHERE cliente_id = ?";
+
+    private static final String SQL_CLIENTES_CON_COMPRAS =
+        "SELECT cliente_id, comprobantes, CAST(total_compras * 100 AS bigint) AS centimos, " +
+        "CAST(ultima_compra AS date) AS ultima_compra " +
+        "FROM indicadores_cliente WHERE comprobantes > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClienteRepository clienteRepository;
+
+    @Override
+    @Transactional
+    public void inicializar() {
+
+        int registrados = jdbcTemplate.update(SQL_INICIALIZAR);
+        if (registrados > 0) {
+            log.info("Indicadores iniciales registrados para {} clientes con ventas previas", registrados);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void ventaRegistrada(Long clienteId, LocalDateTime fechaEmision, BigDecimal total) {
+
+        jdbcTemplate.update(SQL_REGISTRAR_VENTA, clienteId, total, fechaEmision, fechaEmision);
+    }
+
+    @Override
+    @Transactional
+    public void ventaAnulada(Long clienteId, Long comprobanteId, LocalDateTime fechaEmision, BigDecimal total) {
+
+        jdbcTemplate.update(SQL_ANULAR_VENTA, total, fechaEmision, fechaEmision, clienteId, comprobanteId, clienteId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<IndicadoresClienteDTO> obtenerIndicadores(Long clienteId) {
+
+        LocalDate hoy = LocalDate.now();
+        return jdbcTemplate.query(SQL_INDICADORES, (rs, fila) -> {
+            long comprobantes = rs.getLong("comprobantes");
+            BigDecimal total = rs.getBigDecimal("total_compras");
+            LocalDateTime ultima = rs.getObject("ultima_compra", LocalDateTime.class);
+            return IndicadoresClienteDTO.builder()
+                .clienteId(rs.getLong("cliente_id"))
+                .primeraCompra(rs.getObject("primera_compra", LocalDateTime.class))
+                .ultimaCompra(ultima)
+                .diasDesdeUltimaCompra(ultima != null ? ChronoUnit.DAYS.between(ultima.toLocalDate(), hoy) : null)
+                .comprobantes(comprobantes)
+                .totalCompras(total)
+                .ticketPromedio(comprobantes > 0
+                    ? total.divide(BigDecimal.valueOf(comprobantes), Monto.ESCALA, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO)
+                .build();
+        }, clienteId).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SegmentacionClientesDTO segmentar() {
+
+        Puntajes puntajes = puntuar();
+        long[] clientes = new long[SegmentoCliente.values().length];
+        long[] comprobantes = new long[SegmentoCliente.values().length];
+        long[] centimos = new long[SegmentoCliente.values().length];
+        for (int i = 0; i < puntajes.cantidad; i++) {
+            int segmento = puntajes.segmento(i).ordinal();
+            clientes[segmento]++;
+            comprobantes[segmento] += puntajes.comprobantes[i];
+            centimos[segmento] += puntajes.centimos[i];
+        }
+
+        Map<SegmentoCliente, ResumenSegmentoDTO> segmentos = new EnumMap<>(SegmentoCliente.class);
+        for (SegmentoCliente segmento : SegmentoCliente.values()) {
+            long tickets = comprobantes[segmento.ordinal()];
+            long total = centimos[segmento.ordinal()];
+            segmentos.put(segmento, ResumenSegmentoDTO.builder()
+                .descripcion(segmento.getDescripcion())
+                .clientes(clientes[segmento.ordinal()])
+                .totalCompras(Monto.aBigDecimal(total))
+                .ticketPromedio(tickets > 0 ? Monto.aBigDecimal(Monto.dividir(total, tickets)) : BigDecimal.ZERO)
+                .build());
+        }
+        return SegmentacionClientesDTO.builder()
+            .fecha(puntajes.fecha)
+            .clientes((long) puntajes.cantidad)
+            .segmentos(segmentos)
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteSegmentadoDTO> listarSegmento(SegmentoCliente segmento, int limite) {
+
+        Puntajes puntajes = puntuar();
+        int[] posiciones = IntStream.range(0, puntajes.cantidad)
+            .filter(i -> puntajes.segmento(i) == segmento)
+            .boxed()
+            .sorted((a, b) -> Long.compare(puntajes.centimos[b], puntajes.centimos[a]))
+            .limit(Math.max(1, Math.min(limite, LIMITE_SEGMENTO)))
+            .mapToInt(Integer::intValue)
+            .toArray();
+
+        Map<Long, Cliente> clientes = clienteRepository.findAllById(
+                Arrays.stream(posiciones).mapToObj(i -> puntajes.clienteIds[i]).toList()).stream()
+            .collect(Collectors.toMap(Cliente::getId, Function.identity()));
+        return Arrays.stream(posiciones)
+            .mapToObj(i -> {
+                Cliente cliente = clientes.get(puntajes.clienteIds[i]);
+                return ClienteSegmentadoDTO.builder()
+                    .clienteId(puntajes.clienteIds[i])
+                    .nombreCompleto(cliente != null ? cliente.getNombreCompleto().trim() : null)
+                    .segmento(segmento)
+                    .puntajeRecencia(puntajes.recencia(i))
+                    .puntajeFrecuencia(puntajes.frecuencia(i))
+                    .puntajeMonto(puntajes.monto(i))
+                    .diasDesdeUltimaCompra(puntajes.dias[i])
+                    .comprobantes(puntajes.comprobantes[i])
+                    .totalCompras(Monto.aBigDecimal(puntajes.centimos[i]))
+                    .build();
+            })
+            .toList();
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Lee los indicadores de todos los clientes con compras en arreglos paralelos y ordena una copia
+     * de cada medida para obtener los quintiles
+     */
+    private Puntajes puntuar() {
+        Puntajes puntajes = new Puntajes(LocalDate.now());
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_CLIENTES_CON_COMPRAS);
+            ps.setFetchSize(FILAS_POR_LECTURA);
+            return ps;
+        }, rs -> {
+            LocalDate ultima = rs.getObject("ultima_compra", LocalDate.class);
+            puntajes.agregar(rs.getLong("cliente_id"), rs.getLong("comprobantes"), rs.getLong("centimos"),
+                ultima != null ? ChronoUnit.DAYS.between(ultima, puntajes.fecha) : Integer.MAX_VALUE);
+        });
+        puntajes.ordenar();
+        log.debug("Segmentación de clientes calculada sobre {} clientes", puntajes.cantidad);
+        return puntajes;
+    }
+
+    /**
+     * Medidas de cada cliente en arreglos paralelos, con una copia ordenada de cada una.
+     * El puntaje es el quintil del rango medio del cliente: los que quedan por debajo más la mitad de los empatados.
+     * Así los empates reciben el mismo puntaje y, sin diferencias entre clientes, todos quedan en el quintil central
+     */
+    static final class Puntajes {
+        private final LocalDate fecha;
+        private int cantidad;
+        private long[] clienteIds = new long[1024];
+        private long[] comprobantes = new long[1024];
+        private long[] centimos = new long[1024];
+        private long[] dias = new long[1024];
+        private long[] comprobantesOrdenados;
+        private long[] centimosOrdenados;
+        private long[] diasOrdenados;
+
+        Puntajes(LocalDate fecha) {
+            this.fecha = fecha;
+        }
+
+        void agregar(long clienteId, long comprobantes, long centimos, long dias) {
+            if (cantidad == clienteIds.length) {
+                int capacidad = cantidad * 2;
+                this.clienteIds = Arrays.copyOf(this.clienteIds, capacidad);
+                this.comprobantes = Arrays.copyOf(this.comprobantes, capacidad);
+                this.centimos = Arrays.copyOf(this.centimos, capacidad);
+                this.dias = Arrays.copyOf(this.dias, capacidad);
+            }
+            this.clienteIds[cantidad] = clienteId;
+            this.comprobantes[cantidad] = comprobantes;
+            this.centimos[cantidad] = centimos;
+            this.dias[cantidad] = dias;
+            cantidad++;
+        }
+
+        void ordenar() {
+            comprobantesOrdenados = ordenado(comprobantes);
+            centimosOrdenados = ordenado(centimos);
+            diasOrdenados = ordenado(dias);
+        }
+
+        int recencia(int i) {
+            // Menos días es mejor: por debajo quedan los clientes que compraron hace más tiempo
+            int hastaIgual = menores(diasOrdenados, dias[i] + 1);
+            return quintil(cantidad - hastaIgual, hastaIgual - menores(diasOrdenados, dias[i]));
+        }
+
+        int frecuencia(int i) {
+            return quintil(comprobantesOrdenados, comprobantes[i]);
+        }
+
+        int monto(int i) {
+            return quintil(centimosOrdenados, centimos[i]);
+        }
+
+        SegmentoCliente segmento(int i) {
+            return SegmentoCliente.de(recencia(i), frecuencia(i));
+        }
+
+        private long[] ordenado(long[] valores) {
+            long[] copia = Arrays.copyOf(valores, cantidad);
+            Arrays.sort(copia);
+            return copia;
+        }
+
+        private int quintil(long[] ordenados, long valor) {
+            int superados = menores(ordenados, valor);
+            return quintil(superados, menores(ordenados, valor + 1) - superados);
+        }
+
+        private int quintil(int superados, int empatados) {
+            return 1 + (int) ((2L * superados + empatados) * QUINTILES / (2L * cantidad));
+        }
+
+        /** Cantidad de valores estrictamente menores que el indicado */
+        private static int menores(long[] ordenados, long valor) {
+            int desde = 0;
+            int hasta = ordenados.length;
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (ordenados[medio] < valor) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            return desde;
+        }
+    }
+}
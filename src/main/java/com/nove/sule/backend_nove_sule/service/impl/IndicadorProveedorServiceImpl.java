@@ -0,0 +1,375 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.compras.IndicadoresProveedorDTO;
+import com.nove.sule.backend_nove_sule.dto.compras.IndicadoresProveedorDTO.IndicadorProductoDTO;
+import com.nove.sule.backend_nove_sule.service.IndicadorProveedorService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Implementación de los indicadores de proveedores.
+ * Cada evento de una orden se aplica como un incremento con upsert, de modo que las lecturas
+ * sólo consultan las filas acumuladas del proveedor y nunca recorren las órdenes de compra
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IndicadorProveedorServiceImpl implements IndicadorProveedorService {
+
+    /** Días de demora con posición propia en el histograma; la posición final agrupa los de más */
+    static final int DIAS_HISTOGRAMA = 90;
+
+    /** Suma posición a posición el histograma existente con el del incremento (cualquiera puede ser nulo) */
+    private static final String SQL_SUMAR_HISTOGRAMA =
+        "CASE WHEN EXCLUDED.entregas_por_dia IS NULL THEN i.entregas_por_dia " +
+        "WHEN i.entregas_por_dia IS NULL THEN EXCLUDED.entregas_por_dia " +
+        "ELSE ARRAY(SELECT h.actual + h.delta FROM unnest(i.entregas_por_dia, EXCLUDED.entregas_por_dia) " +
+        "WITH ORDINALITY AS h(actual, delta, n) ORDER BY h.n) END";
+
+    private static final String SQL_ACUMULAR_PROVEEDOR =
+        "INSERT INTO indicadores_proveedor AS i (proveedor_id, ordenes_abiertas, valor_pendiente, entregas, " +
+        "entregas_con_fecha, entregas_a_tiempo, dias_entrega_total, entregas_por_dia, ordenes_cerradas, " +
+        "unidades_pedidas, unidades_recibidas, fecha_creacion, fecha_modificacion) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (proveedor_id) DO UPDATE SET " +
+        "ordenes_abiertas = i.ordenes_abiertas + EXCLUDED.ordenes_abiertas, " +
+        "valor_pendiente = i.valor_pendiente + EXCLUDED.valor_pendiente, " +
+        "entregas = i.entregas + EXCLUDED.entregas, " +
+        "entregas_con_fecha = i.entregas_con_fecha + EXCLUDED.entregas_con_fecha, " +
+        "entregas_a_tiempo = i.entregas_a_tiempo + EXCLUDED.entregas_a_tiempo, " +
+        "dias_entrega_total = i.dias_entrega_total + EXCLUDED.dias_entrega_total, " +
+        "entregas_por_dia = " + SQL_SUMAR_HISTOGRAMA + ", " +
+        "ordenes_cerradas = i.ordenes_cerradas + EXCLUDED.ordenes_cerradas, " +
+        "unidades_pedidas = i.unidades_pedidas + EXCLUDED.unidades_pedidas, " +
+        "unidades_recibidas = i.unidades_recibidas + EXCLUDED.unidades_recibidas, " +
+        "fecha_modificacion = now()";
+
+    /** Un único upsert para todos los productos del evento; cada producto aparece una sola vez en los arreglos */
+    private static final String SQL_ACUMULAR_PRODUCTOS =
+        "INSERT INTO indicadores_proveedor_producto AS i (proveedor_id, producto_id, unidades_pendientes, " +
+        "valor_pendiente, entregas, dias_entrega_total, entregas_por_dia, unidades_pedidas, unidades_recibidas, " +
+        "ultimo_precio, precio_minimo, fecha_ultima_compra, fecha_creacion, fecha_modificacion) " +
+        "SELECT ?, r.producto_id, r.unidades_pendientes, r.valor_pendiente, r.entregas, r.entregas * ?, " +
+        "CASE WHEN r.entregas > 0 THEN ?::integer[] END, r.unidades_pedidas, r.unidades_recibidas, " +
+        "r.ultimo_precio, r.precio_minimo, CASE WHEN r.ultimo_precio IS NOT NULL THEN ?::date END, now(), now() " +
+        "FROM unnest(?::bigint[], ?::bigint[], ?::numeric[], ?::integer[], ?::bigint[], ?::bigint[], " +
+        "?::numeric[], ?::numeric[]) AS r(producto_id, unidades_pendientes, valor_pendiente, entregas, " +
+        "unidades_pedidas, unidades_recibidas, ultimo_precio, precio_minimo) " +
+        "ON CONFLICT (proveedor_id, producto_id) DO UPDATE SET " +
+        "unidades_pendientes = i.unidades_pendientes + EXCLUDED.unidades_pendientes, " +
+        "valor_pendiente = i.valor_pendiente + EXCLUDED.valor_pendiente, " +
+        "entregas = i.entregas + EXCLUDED.entregas, " +
+        "dias_entrega_total = i.dias_entrega_total + EXCLUDED.dias_entrega_total, " +
+        "entregas_por_dia = " + SQL_SUMAR_HISTOGRAMA + ", " +
+        "unidades_pedidas = i.unidades_pedidas + EXCLUDED.unidades_pedidas, " +
+        "unidades_recibidas = i.unidades_recibidas + EXCLUDED.unidades_recibidas, " +
+        "ultimo_precio = COALESCE(EXCLUDED.ultimo_precio, i.ultimo_precio), " +
+        "precio_minimo = LEAST(i.precio_minimo, EXCLUDED.precio_minimo), " +
+        "fecha_ultima_compra = COALESCE(EXCLUDED.fecha_ultima_compra, i.fecha_ultima_compra), " +
+        "fecha_modificacion = now()";
+
+    private static final String SQL_INDICADORES_PROVEEDOR =
+        "SELECT i.*, p.nombre AS proveedor_nombre FROM indicadores_proveedor i " +
+        "JOIN proveedores p ON p.id = i.proveedor_id";
+
+    private static final String SQL_INDICADORES_PRODUCTOS =
+        "SELECT i.*, p.codigo AS producto_codigo, p.nombre AS producto_nombre FROM indicadores_proveedor_producto i " +
+        "JOIN productos p ON p.id = i.producto_id WHERE i.proveedor_id = ? ORDER BY p.nombre";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void ordenAbierta(Long proveedorId, List<LineaPedido> lineas, int signo) {
+        
+        Map<Long, Acumulado> porProducto = new LinkedHashMap<>();
+        BigDecimal valorPendiente = BigDecimal.ZERO;
+        for (LineaPedido linea : lineas) {
+            long pendientes = Math.max(linea.cantidad() - linea.recibida(), 0);
+            BigDecimal valor = precio(linea).multiply(BigDecimal.valueOf(pendientes * signo));
+            porProducto.computeIfAbsent(linea.productoId(), Acumulado::new).pendiente(pendientes * signo, valor);
+            valorPendiente = valorPendiente.add(valor);
+        }
+        
+        acumularProveedor(proveedorId, new DeltaProveedor(signo, valorPendiente, 0, 0, 0, 0, null, 0, 0, 0));
+        acumularProductos(proveedorId, porProducto.values(), null, 0, null);
+    }
+
+    @Override
+    @Transactional
+    public void ordenCerrada(Long proveedorId, List<LineaPedido> lineas, int signo) {
+        
+        if (lineas.stream().noneMatch(linea -> linea.recibida() > 0)) {
+            return;
+        }
+        Map<Long, Acumulado> porProducto = new LinkedHashMap<>();
+        long pedidas = 0;
+        long recibidas = 0;
+        for (LineaPedido linea : lineas) {
+            porProducto.computeIfAbsent(linea.productoId(), Acumulado::new)
+                .cumplimiento((long) linea.cantidad() * signo, (long) linea.recibida() * signo);
+            pedidas += (long) linea.cantidad() * signo;
+            recibidas += (long) linea.recibida() * signo;
+        }
+        
+        acumularProveedor(proveedorId, new DeltaProveedor(0, BigDecimal.ZERO, 0, 0, 0, 0, null, signo, pedidas, recibidas));
+        acumularProductos(proveedorId, porProducto.values(), null, 0, null);
+    }
+
+    @Override
+    @Transactional
+    public void mercaderiaRecibida(Long proveedorId, LocalDate fechaOrden, LocalDate fechaEntregaEsperada,
+                                   List<LineaPedido> recibidas) {
+        
+        LocalDate hoy = LocalDate.now();
+        long dias = Math.max(ChronoUnit.DAYS.between(fechaOrden, hoy), 0);
+        Integer[] histograma = new Integer[DIAS_HISTOGRAMA + 1];
+        Arrays.fill(histograma, 0);
+        histograma[(int) Math.min(dias, DIAS_HISTOGRAMA)] = 1;
+        boolean conFecha = fechaEntregaEsperada != null;
+        boolean aTiempo = conFecha && !hoy.isAfter(fechaEntregaEsperada);
+
+        Map<Long, Acumulado> porProducto = new LinkedHashMap<>();
+        BigDecimal valorRecibido = BigDecimal.ZERO;
+        for (LineaPedido linea : recibidas) {
+            BigDecimal valor = precio(linea).multiply(BigDecimal.valueOf(linea.cantidad()));
+            porProducto.computeIfAbsent(linea.productoId(), Acumulado::new)
+                .recepcion(linea.cantidad(), valor, linea.precioUnitario());
+            valorRecibido = valorRecibido.add(valor);
+        }
+        
+        acumularProveedor(proveedorId, new DeltaProveedor(0, valorRecibido.negate(), 1, conFecha ? 1 : 0,
+            aTiempo ? 1 : 0, dias, histograma, 0, 0, 0));
+        acumularProductos(proveedorId, porProducto.values(), histograma, dias, hoy);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<IndicadoresProveedorDTO> obtenerIndicadores(Long proveedorId) {
+        
+        List<IndicadoresProveedorDTO> encontrados = jdbcTemplate.query(
+            SQL_INDICADORES_PROVEEDOR + " WHERE i.proveedor_id = ?", (rs, fila) -> mapearProveedor(rs), proveedorId);
+        if (encontrados.isEmpty()) {
+            return Optional.empty();
+        }
+        IndicadoresProveedorDTO indicadores = encontrados.get(0);
+        indicadores.setProductos(jdbcTemplate.query(SQL_INDICADORES_PRODUCTOS,
+            (rs, fila) -> mapearProducto(rs), proveedorId));
+        return Optional.of(indicadores);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IndicadoresProveedorDTO> listarIndicadores() {
+        
+        return jdbcTemplate.query(SQL_INDICADORES_PROVEEDOR + " ORDER BY p.nombre", (rs, fila) -> mapearProveedor(rs));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void acumularProveedor(Long proveedorId, DeltaProveedor delta) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_ACUMULAR_PROVEEDOR);
+            ps.setLong(1, proveedorId);
+            ps.setLong(2, delta.ordenesAbiertas());
+            ps.setBigDecimal(3, delta.valorPendiente());
+            ps.setLong(4, delta.entregas());
+            ps.setLong(5, delta.entregasConFecha());
+            ps.setLong(6, delta.entregasATiempo());
+            ps.setLong(7, delta.diasEntrega());
+            ps.setArray(8, delta.histograma() != null ? con.createArrayOf("integer", delta.histograma()) : null);
+            ps.setLong(9, delta.ordenesCerradas());
+            ps.setLong(10, delta.unidadesPedidas());
+            ps.setLong(11, delta.unidadesRecibidas());
+            return ps;
+        });
+    }
+
+    private void acumularProductos(Long proveedorId, Collection<Acumulado> productos, Integer[] histograma,
+                                   long dias, LocalDate fechaCompra) {
+        if (productos.isEmpty()) {
+            return;
+        }
+        int total = productos.size();
+        Long[] ids = new Long[total];
+        Long[] pendientes = new Long[total];
+        BigDecimal[] valores = new BigDecimal[total];
+        Integer[] entregas = new Integer[total];
+        Long[] pedidas = new Long[total];
+        Long[] recibidas = new Long[total];
+        BigDecimal[] ultimosPrecios = new BigDecimal[total];
+        BigDecimal[] preciosMinimos = new BigDecimal[total];
+        int i = 0;
+        for (Acumulado producto : productos) {
+            ids[i] = producto.productoId;
+            pendientes[i] = producto.unidadesPendientes;
+            valores[i] = producto.valorPendiente;
+            entregas[i] = producto.recibido ? 1 : 0;
+            pedidas[i] = producto.unidadesPedidas;
+            recibidas[i] = producto.unidadesRecibidas;
+            ultimosPrecios[i] = producto.ultimoPrecio;
+            preciosMinimos[i] = producto.precioMinimo;
+            i++;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_ACUMULAR_PRODUCTOS);
+            ps.setLong(1, proveedorId);
+            ps.setLong(2, dias);
+            ps.setArray(3, histograma != null ? con.createArrayOf("integer", histograma) : null);
+            ps.setObject(4, fechaCompra, Types.DATE);
+            ps.setArray(5, con.createArrayOf("bigint", ids));
+            ps.setArray(6, con.createArrayOf("bigint", pendientes));
+            ps.setArray(7, con.createArrayOf("numeric", valores));
+            ps.setArray(8, con.createArrayOf("integer", entregas));
+            ps.setArray(9, con.createArrayOf("bigint", pedidas));
+            ps.setArray(10, con.createArrayOf("bigint", recibidas));
+            ps.setArray(11, con.createArrayOf("numeric", ultimosPrecios));
+            ps.setArray(12, con.createArrayOf("numeric", preciosMinimos));
+            return ps;
+        });
+    }
+
+    private static IndicadoresProveedorDTO mapearProveedor(ResultSet rs) throws SQLException {
+        long entregas = rs.getLong("entregas");
+        long conFecha = rs.getLong("entregas_con_fecha");
+        return IndicadoresProveedorDTO.builder()
+            .proveedorId(rs.getLong("proveedor_id"))
+            .proveedorNombre(rs.getString("proveedor_nombre"))
+            .ordenesAbiertas(rs.getLong("ordenes_abiertas"))
+            .valorPendiente(rs.getBigDecimal("valor_pendiente"))
+            .entregas(entregas)
+            .diasEntregaPromedio(promedio(rs.getLong("dias_entrega_total"), entregas))
+            .diasEntregaP90(percentil90(rs.getArray("entregas_por_dia")))
+            .porcentajeATiempo(porcentaje(rs.getLong("entregas_a_tiempo"), conFecha))
+            .ordenesCerradas(rs.getLong("ordenes_cerradas"))
+            .porcentajeCumplimiento(porcentaje(rs.getLong("unidades_recibidas"), rs.getLong("unidades_pedidas")))
+            .build();
+    }
+
+    private static IndicadorProductoDTO mapearProducto(ResultSet rs) throws SQLException {
+        long entregas = rs.getLong("entregas");
+        return IndicadorProductoDTO.builder()
+            .productoId(rs.getLong("producto_id"))
+            .productoCodigo(rs.getString("producto_codigo"))
+            .productoNombre(rs.getString("producto_nombre"))
+            .unidadesPendientes(rs.getLong("unidades_pendientes"))
+            .valorPendiente(rs.getBigDecimal("valor_pendiente"))
+            .entregas(entregas)
+            .diasEntregaPromedio(promedio(rs.getLong("dias_entrega_total"), entregas))
+            .diasEntregaP90(percentil90(rs.getArray("entregas_por_dia")))
+            .porcentajeCumplimiento(porcentaje(rs.getLong("unidades_recibidas"), rs.getLong("unidades_pedidas")))
+            .ultimoPrecio(rs.getBigDecimal("ultimo_precio"))
+            .precioMinimo(rs.getBigDecimal("precio_minimo"))
+            .fechaUltimaCompra(rs.getObject("fecha_ultima_compra", LocalDate.class))
+            .build();
+    }
+
+    private static BigDecimal promedio(long total, long cantidad) {
+        return cantidad > 0
+            ? BigDecimal.valueOf(total).divide(BigDecimal.valueOf(cantidad), 1, RoundingMode.HALF_UP)
+            : null;
+    }
+
+    private static BigDecimal porcentaje(long parte, long total) {
+        return total > 0
+            ? BigDecimal.valueOf(parte * 100).divide(BigDecimal.valueOf(total), 2, RoundingMode.HALF_UP)
+            : null;
+    }
+
+    /**
+     * Menor cantidad de días dentro de la cual llegó al menos el 90% de las recepciones
+     */
+    static Integer percentil90(Array arreglo) throws SQLException {
+        if (arreglo == null) {
+            return null;
+        }
+        return percentil90((Integer[]) arreglo.getArray());
+    }
+
+    static Integer percentil90(Integer[] histograma) {
+        long total = 0;
+        for (Integer cantidad : histograma) {
+            total += cantidad != null ? cantidad : 0;
+        }
+        if (total == 0) {
+            return null;
+        }
+        long objetivo = (total * 9 + 9) / 10;
+        long acumulado = 0;
+        for (int dia = 0; dia < histograma.length; dia++) {
+            acumulado += histograma[dia] != null ? histograma[dia] : 0;
+            if (acumulado >= objetivo) {
+                return dia;
+            }
+        }
+        return histograma.length - 1;
+    }
+
+    private static BigDecimal precio(LineaPedido linea) {
+        return linea.precioUnitario() != null ? linea.precioUnitario() : BigDecimal.ZERO;
+    }
+
+    private record DeltaProveedor(long ordenesAbiertas, BigDecimal valorPendiente, long entregas,
+                                  long entregasConFecha, long entregasATiempo, long diasEntrega,
+                                  Integer[] histograma, long ordenesCerradas, long unidadesPedidas,
+                                  long unidadesRecibidas) {
+    }
+
+    /**
+     * Incremento de un producto dentro de un evento; las líneas repetidas del mismo producto se suman
+     * porque el upsert no puede tocar dos veces la misma fila
+     */
+    private static final class Acumulado {
+
+        private final Long productoId;
+        private long unidadesPendientes;
+        private BigDecimal valorPendiente = BigDecimal.ZERO;
+        private boolean recibido;
+        private long unidadesPedidas;
+        private long unidadesRecibidas;
+        private BigDecimal ultimoPrecio;
+        private BigDecimal precioMinimo;
+
+        Acumulado(Long productoId) {
+            this.productoId = productoId;
+        }
+
+        void pendiente(long unidades, BigDecimal valor) {
+            unidadesPendientes += unidades;
+            valorPendiente = valorPendiente.add(valor);
+        }
+
+        void cumplimiento(long pedidas, long recibidas) {
+            unidadesPedidas += pedidas;
+            unidadesRecibidas += recibidas;
+        }
+
+        void recepcion(long unidades, BigDecimal valor, BigDecimal precio) {
+            pendiente(-unidades, valor.negate());
+            recibido = true;
+            if (precio != null) {
+                ultimoPrecio = precio;
+                precioMinimo = precioMinimo == null ? precio : precioMinimo.min(precio);
+            }
+        }
+    }
+}
@@ -4,11 +4,15 @@ import com.nove.sule.backend_nove_sule.dto.inventario.*;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.*;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoMovimiento;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
 import com.nove.sule.backend_nove_sule.mapper.InventarioMapper;
 import com.nove.sule.backend_nove_sule.repository.*;
 import com.nove.sule.backend_nove_sule.service.InventarioService;
+import com.nove.sule.backend_nove_sule.util.Cantidad;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,6 +38,7 @@ public class InventarioServiceImpl implements InventarioService {
     private final ComprobanteVentaRepository comprobanteVentaRepository;
     private final UsuarioRepository usuarioRepository;
     private final InventarioMapper inventarioMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -87,6 +92,7 @@ public class InventarioServiceImpl implements InventarioService {
         // Actualizar stock del producto
         producto.setStock(movimiento.getStockNuevo());
         productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(producto.getId()));
 
         // Guardar movimiento
         movimiento = movimientoInventarioRepository.save(movimiento);
@@ -203,6 +209,7 @@ public class InventarioServiceImpl implements InventarioService {
 
         producto.setStock(nuevoStock);
         productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(productoId));
         
         log.info("Stock del producto actualizado");
     }
@@ -339,7 +346,7 @@ public class InventarioServiceImpl implements InventarioService {
             .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
         
         if (producto.getPrecioCompra() != null) {
-            return producto.getPrecioCompra().multiply(new BigDecimal(producto.getStock()));
+            return Monto.de(producto.getPrecioCompra()).por(Cantidad.unidades(producto.getStock())).aBigDecimal();
         }
         
         return BigDecimal.ZERO;
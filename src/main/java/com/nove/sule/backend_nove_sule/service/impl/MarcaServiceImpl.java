@@ -1,15 +1,19 @@
 package com.nove.sule.backend_nove_sule.service.impl;
 
+import com.nove.sule.backend_nove_sule.cache.CatalogoCache;
+import com.nove.sule.backend_nove_sule.cache.EntradaCache;
 import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaBasicaDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Marca;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.event.MarcaModificadaEvent;
 import com.nove.sule.backend_nove_sule.mapper.MarcaMapper;
 import com.nove.sule.backend_nove_sule.repository.MarcaRepository;
 import com.nove.sule.backend_nove_sule.service.MarcaService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,6 +33,8 @@ public class MarcaServiceImpl implements MarcaService {
 
     private final MarcaRepository marcaRepository;
     private final MarcaMapper marcaMapper;
+    private final CatalogoCache catalogoCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -41,6 +47,7 @@ public class MarcaServiceImpl implements MarcaService {
 
         Marca marca = marcaMapper.toEntity(marcaRequest);
         marca = marcaRepository.save(marca);
+        eventPublisher.publishEvent(new MarcaModificadaEvent(marca.getId()));
         
         return marcaMapper.toDTO(marca);
     }
@@ -60,6 +67,7 @@ public class MarcaServiceImpl implements MarcaService {
 
         marcaMapper.updateEntity(marca, marcaRequest);
         marca = marcaRepository.save(marca);
+        eventPublisher.publishEvent(new MarcaModificadaEvent(id));
         
         return marcaMapper.toDTO(marca);
     }
@@ -106,11 +114,8 @@ public class MarcaServiceImpl implements MarcaService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<MarcaBasicaDTO> listarActivas() {
-        return marcaRepository.findAllActiveOrderByNombre().stream()
-            .map(marcaMapper::toDTO)
-            .collect(Collectors.toList());
+        return listarActivasEnCache().valor();
     }
 
     @Override
@@ -144,6 +149,7 @@ public class MarcaServiceImpl implements MarcaService {
         // Soft delete - cambiar estado a INACTIVO
         marca.setEstado(Estado.INACTIVO);
         marcaRepository.save(marca);
+        eventPublisher.publishEvent(new MarcaModificadaEvent(id));
         
     }
 
@@ -156,6 +162,7 @@ public class MarcaServiceImpl implements MarcaService {
 
         marca.setEstado(estado);
         marca = marcaRepository.save(marca);
+        eventPublisher.publishEvent(new MarcaModificadaEvent(id));
         
         return marcaMapper.toDTO(marca);
     }
@@ -165,4 +172,11 @@ public class MarcaServiceImpl implements MarcaService {
     public boolean existeNombre(String nombre) {
         return marcaRepository.existsByNombre(nombre);
     }
+
+    private EntradaCache<List<MarcaBasicaDTO>> listarActivasEnCache() {
+        return catalogoCache.obtenerMarcasActivas(() ->
+            marcaRepository.findAllActiveOrderByNombre().stream()
+                .map(marcaMapper::toDTO)
+                .toList());
+    }
 }
@@ -0,0 +1,107 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.service.NumeracionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Implementación de la numeración con una secuencia de PostgreSQL por serie.
+ * Cada llamada a nextval reserva un bloque de {@link #TAMANO_BLOQUE} números que luego se entregan
+ * desde memoria, así que asignar un número no recorre la tabla del documento ni bloquea filas.
+ * Como nextval no es transaccional, un número reservado nunca se vuelve a entregar;
+ * a cambio, un reinicio o un rollback dejan huecos en la numeración.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NumeracionServiceImpl implements NumeracionService {
+
+    static final int TAMANO_BLOQUE = 50;
+
+    /** Se valida antes de armar el nombre de la secuencia, que no puede ir como parámetro */
+    private static final Pattern SERIE = Pattern.compile("[A-Za-z0-9-]{1,20}");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Bloque> bloques = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional
+    public void registrarSerie(String serie, long ultimoUsado) {
+        String secuencia = secuencia(serie);
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + secuencia + " START WITH 1 MINVALUE 1");
+        jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " INCREMENT BY " + TAMANO_BLOQUE);
+        // Nunca retrocede: continúa después del último número usado o del último bloque reservado
+        Long proximo = jdbcTemplate.queryForObject(
+            "SELECT setval('" + secuencia + "', GREATEST(?, " +
+            "(SELECT CASE WHEN is_called THEN last_value + " + TAMANO_BLOQUE + " ELSE last_value END FROM " + secuencia + ")" +
+            "), false)", Long.class, ultimoUsado + 1);
+        bloques.putIfAbsent(serie, new Bloque(secuencia));
+        log.info("Serie {} registrada; el próximo bloque empieza en {}", serie, proximo);
+    }
+
+    @Override
+    public long siguiente(String serie) {
+        Bloque bloque = bloque(serie);
+        synchronized (bloque) {
+            if (bloque.siguiente > bloque.ultimo) {
+                long inicio = jdbcTemplate.queryForObject("SELECT nextval('" + bloque.secuencia + "')", Long.class);
+                bloque.siguiente = inicio;
+                bloque.ultimo = inicio + TAMANO_BLOQUE - 1;
+            }
+            return bloque.siguiente++;
+        }
+    }
+
+    @Override
+    public long previsualizar(String serie) {
+        Bloque bloque = bloque(serie);
+        synchronized (bloque) {
+            if (bloque.siguiente <= bloque.ultimo) {
+                return bloque.siguiente;
+            }
+        }
+        return jdbcTemplate.queryForObject(
+            "SELECT CASE WHEN is_called THEN last_value + " + TAMANO_BLOQUE + " ELSE last_value END FROM " + bloque.secuencia,
+            Long.class);
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private Bloque bloque(String serie) {
+        Bloque bloque = bloques.get(serie);
+        if (bloque == null) {
+            throw new RuntimeException("La serie " + serie + " no está registrada");
+        }
+        return bloque;
+    }
+
+    private static String secuencia(String serie) {
+        if (serie == null || !SERIE.matcher(serie).matches()) {
+            throw new RuntimeException("Serie inválida: " + serie);
+        }
+        return "seq_numeracion_" + serie.toLowerCase(Locale.ROOT).replace('-', '_');
+    }
+
+    /**
+     * Rango [siguiente, ultimo] reservado y aún no entregado; vacío hasta el primer nextval
+     */
+    private static final class Bloque {
+
+        final String secuencia;
+        long siguiente = 1;
+        long ultimo = 0;
+
+        Bloque(String secuencia) {
+            this.secuencia = secuencia;
+        }
+    }
+}
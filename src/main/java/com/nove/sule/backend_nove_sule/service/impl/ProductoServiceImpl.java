@@ -1,28 +1,60 @@
 package com.nove.sule.backend_nove_sule.service.impl;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nove.sule.backend_nove_sule.cache.CatalogoCache;
+import com.nove.sule.backend_nove_sule.cache.EntradaCache;
+import com.nove.sule.backend_nove_sule.cache.IndiceCodigosBarras;
+import com.nove.sule.backend_nove_sule.dto.catalogo.AjustePrecioRequestDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.BusquedaFacetadaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ConteoTagDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoEscaneoDTO;
 import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoRequestDTO;
 import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.entity.Categoria;
 import com.nove.sule.backend_nove_sule.entity.Marca;
 import com.nove.sule.backend_nove_sule.entity.Producto;
 import com.nove.sule.backend_nove_sule.entity.Proveedor;
+import com.nove.sule.backend_nove_sule.entity.Usuario;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.ReglaRedondeo;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoAjustePrecio;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
 import com.nove.sule.backend_nove_sule.mapper.ProductoMapper;
 import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
 import com.nove.sule.backend_nove_sule.repository.MarcaRepository;
 import com.nove.sule.backend_nove_sule.repository.ProductoRepository;
 import com.nove.sule.backend_nove_sule.repository.ProveedorRepository;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.search.ConsultaFacetas;
+import com.nove.sule.backend_nove_sule.search.IndiceBusquedaProductos;
+import com.nove.sule.backend_nove_sule.search.IndiceFacetasProductos;
+import com.nove.sule.backend_nove_sule.search.IndiceTagsProductos;
+import com.nove.sule.backend_nove_sule.security.SecurityUtils;
+import com.nove.sule.backend_nove_sule.search.ProductoIndexado;
+import com.nove.sule.backend_nove_sule.search.ResultadoBusqueda;
+import com.nove.sule.backend_nove_sule.search.ResultadoFacetado;
 import com.nove.sule.backend_nove_sule.service.ProductoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Implementación del servicio de Producto
@@ -32,11 +64,39 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ProductoServiceImpl implements ProductoService {
 
+    private static final String SQL_AJUSTE_PRECIOS =
+        "WITH objetivo AS (" +
+        "  SELECT p.id, p.precio AS precio_anterior, %s AS precio_nuevo " +
+        "  FROM productos p WHERE %s FOR UPDATE" +
+        "), actualizados AS (" +
+        "  UPDATE productos p SET precio = o.precio_nuevo, fecha_modificacion = now() " +
+        "  FROM objetivo o WHERE p.id = o.id AND o.precio_nuevo <> o.precio_anterior " +
+        "  RETURNING p.id, o.precio_anterior, o.precio_nuevo" +
+        ") " +
+        "INSERT INTO historial_precios (producto_id, precio_anterior, precio_nuevo, motivo, usuario_id, " +
+        "fecha_creacion, fecha_modificacion) " +
+        "SELECT id, precio_anterior, precio_nuevo, ?, ?, now(), now() FROM actualizados " +
+        "RETURNING producto_id";
+
+    /** Bloquea los productos del ajuste y cuenta los que quedarían sin precio positivo */
+    private static final String SQL_AJUSTE_PRECIOS_INVALIDOS =
+        "SELECT COUNT(*) FROM (SELECT %s AS precio_nuevo FROM productos p WHERE %s FOR UPDATE) o " +
+        "WHERE o.precio_nuevo <= 0";
+
     private final ProductoRepository productoRepository;
     private final CategoriaRepository categoriaRepository;
     private final MarcaRepository marcaRepository;
     private final ProveedorRepository proveedorRepository;
     private final ProductoMapper productoMapper;
+    private final CatalogoCache catalogoCache;
+    private final IndiceBusquedaProductos indiceBusqueda;
+    private final IndiceFacetasProductos indiceFacetas;
+    private final IndiceTagsProductos indiceTags;
+    private final IndiceCodigosBarras indiceCodigosBarras;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsuarioRepository usuarioRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional
@@ -74,6 +134,7 @@ public class ProductoServiceImpl implements ProductoService {
         }
 
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(producto.getId()));
         
         log.info("Producto creado exitosamente con ID: {}", producto.getId());
         return productoMapper.toDTO(producto);
@@ -125,23 +186,30 @@ public class ProductoServiceImpl implements ProductoService {
         }
 
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(producto.getId()));
         
         log.info("Producto actualizado exitosamente");
         return productoMapper.toDTO(producto);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<ProductoDTO> buscarPorId(Long id) {
-        return productoRepository.findByIdWithRelations(id)
-            .map(productoMapper::toDTO);
+        return buscarPorIdEnCache(id).map(EntradaCache::valor);
+    }
+
+    @Override
+    public Optional<RawValue> buscarPorIdSerializado(Long id) {
+        return buscarPorIdEnCache(id).map(EntradaCache::json);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<ProductoDTO> buscarPorCodigo(String codigo) {
-        return productoRepository.findByCodigo(codigo)
-            .map(productoMapper::toDTO);
+        return buscarPorCodigoEnCache(codigo).map(EntradaCache::valor);
+    }
+
+    @Override
+    public Optional<RawValue> buscarPorCodigoSerializado(String codigo) {
+        return buscarPorCodigoEnCache(codigo).map(EntradaCache::json);
     }
 
     @Override
@@ -151,6 +219,21 @@ public class ProductoServiceImpl implements ProductoService {
             .map(productoMapper::toDTO);
     }
 
+    @Override
+    public Optional<RawValue> escanearSerializado(String codigo) {
+        Optional<EntradaCache<ProductoEscaneoDTO>> entrada = indiceCodigosBarras.buscarPorCodigoBarras(codigo)
+            .or(() -> indiceCodigosBarras.buscarPorCodigo(codigo));
+        if (entrada.isPresent()) {
+            return entrada.map(EntradaCache::json);
+        }
+
+        // El índice aún no cargó o el producto cambió hace instantes: se resuelve en base de datos
+        return productoRepository.findFirstByCodigoBarrasOrCodigoOrderByIdAsc(codigo, codigo)
+            .map(ProductoIndexado::de)
+            .map(indiceCodigosBarras::crearEntrada)
+            .map(EntradaCache::json);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public PaginatedResponseDTO<ProductoDTO> listarTodos(Pageable pageable) {
@@ -254,6 +337,7 @@ public class ProductoServiceImpl implements ProductoService {
 
         producto.setEstado(Estado.INACTIVO);
         productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(id));
         
         log.info("Producto marcado como inactivo");
     }
@@ -268,6 +352,7 @@ public class ProductoServiceImpl implements ProductoService {
 
         producto.setEstado(estado);
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(id));
         
         return productoMapper.toDTO(producto);
     }
@@ -282,10 +367,68 @@ public class ProductoServiceImpl implements ProductoService {
 
         producto.setStock(nuevoStock);
         producto = productoRepository.save(producto);
+        eventPublisher.publishEvent(ProductoModificadoEvent.de(id));
         
         return productoMapper.toDTO(producto);
     }
 
+    @Override
+    @Transactional
+    public int ajustarPrecios(AjustePrecioRequestDTO ajuste) {
+        log.info("Ajustando precios: {} {} (categoría {}, marca {}, proveedor {})", ajuste.getTipo(),
+            ajuste.getValor(), ajuste.getCategoriaId(), ajuste.getMarcaId(), ajuste.getProveedorId());
+
+        if (ajuste.getTipo() == TipoAjustePrecio.PORCENTAJE
+                && ajuste.getValor().compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new RuntimeException("La rebaja porcentual debe ser menor al 100%");
+        }
+
+        List<String> condiciones = new ArrayList<>();
+        List<Object> parametros = new ArrayList<>();
+        parametros.add(ajuste.getValor());
+        if (ajuste.getCategoriaId() != null) {
+            condiciones.add("p.categoria_id = ?");
+            parametros.add(ajuste.getCategoriaId());
+        }
+        if (ajuste.getMarcaId() != null) {
+            condiciones.add("p.marca_id = ?");
+            parametros.add(ajuste.getMarcaId());
+        }
+        if (ajuste.getProveedorId() != null) {
+            condiciones.add("p.proveedor_id = ?");
+            parametros.add(ajuste.getProveedorId());
+        }
+        if (condiciones.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos una categoría, marca o proveedor");
+        }
+
+        String expresion = expresionPrecio(ajuste);
+        String filtro = String.join(" AND ", condiciones);
+        // Una rebaja fija o el redondeo aún pueden dejar precios en cero o negativos: se rechaza todo el ajuste
+        // en vez de recortarlos. Los productos quedan bloqueados hasta el UPDATE, así que no cambian entre ambos
+        Long invalidos = jdbcTemplate.queryForObject(String.format(SQL_AJUSTE_PRECIOS_INVALIDOS, expresion, filtro),
+            Long.class, parametros.toArray());
+        if (invalidos != null && invalidos > 0) {
+            throw new RuntimeException("El ajuste dejaría " + invalidos + " producto(s) con precio cero o negativo");
+        }
+
+        Long usuarioId = SecurityUtils.obtenerUsername()
+            .flatMap(usuarioRepository::findByUsername)
+            .map(Usuario::getId)
+            .orElse(null);
+        parametros.add(ajuste.getMotivo());
+        parametros.add(usuarioId);
+
+        String sql = String.format(SQL_AJUSTE_PRECIOS, expresion, filtro);
+        List<Long> actualizados = jdbcTemplate.queryForList(sql, Long.class, parametros.toArray());
+
+        if (!actualizados.isEmpty()) {
+            eventPublisher.publishEvent(ProductoModificadoEvent.de(actualizados));
+        }
+        log.info("Precios ajustados en {} productos", actualizados.size());
+        return actualizados.size();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean existeCodigo(String codigo) {
@@ -300,11 +443,53 @@ public class ProductoServiceImpl implements ProductoService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductoDTO> buscarPorTexto(String texto) {
-        return productoRepository.findByTextoContaining(texto)
-            .stream()
-            .map(productoMapper::toDTO)
+    public PaginatedResponseDTO<ProductoDTO> buscarPorTexto(String texto, Pageable pageable) {
+        ResultadoBusqueda resultado = indiceBusqueda.buscar(texto, desplazamiento(pageable), pageable.getPageSize());
+        return paginarEnOrden(resultado.productoIds(), resultado.total(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BusquedaFacetadaDTO buscarFacetado(String texto, List<Long> categoriaIds, List<Long> marcaIds,
+                                              List<Long> proveedorIds, List<String> rangosPrecio, Pageable pageable) {
+        ConsultaFacetas consulta = new ConsultaFacetas(texto, categoriaIds, marcaIds, proveedorIds, rangosPrecio);
+        ResultadoFacetado resultado = indiceFacetas.buscar(consulta, desplazamiento(pageable), pageable.getPageSize());
+
+        return BusquedaFacetadaDTO.builder()
+            .productos(paginarEnOrden(resultado.productoIds(), resultado.total(), pageable))
+            .facetas(resultado.facetas())
+            .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginatedResponseDTO<ProductoDTO> buscarPorTags(List<String> tags, boolean todos, Pageable pageable) {
+        List<String> distintos = tags == null ? List.of() : tags.stream()
+            .filter(Objects::nonNull)
+            .map(String::trim)
+            .filter(tag -> !tag.isEmpty())
+            .distinct()
             .toList();
+        if (distintos.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un tag");
+        }
+
+        // Ambas consultas usan el operador de contención @> para aprovechar el índice GIN de tags
+        Page<Long> ids;
+        if (todos) {
+            ids = productoRepository.findIdsConTodosLosTags(aJson(distintos), pageable);
+        } else {
+            String[] unoPorTag = distintos.stream()
+                .map(tag -> aJson(List.of(tag)))
+                .toArray(String[]::new);
+            ids = productoRepository.findIdsConAlgunTag(unoPorTag, pageable);
+        }
+        return paginarEnOrden(ids.getContent(), ids.getTotalElements(), pageable);
+    }
+
+    @Override
+    public List<ConteoTagDTO> listarTags(String prefijo, int limite) {
+        return indiceTags.listar(prefijo, limite);
     }
 
     @Override
@@ -325,4 +510,78 @@ public class ProductoServiceImpl implements ProductoService {
             .map(productoMapper::toDTO)
             .toList();
     }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Posición del primer elemento de la página para los índices en memoria, que trabajan con int
+     */
+    private static int desplazamiento(Pageable pageable) {
+        long offset = pageable.getOffset();
+        if (offset < 0 || offset > Integer.MAX_VALUE - (long) pageable.getPageSize()) {
+            throw new RuntimeException("Página fuera de rango");
+        }
+        return (int) offset;
+    }
+
+    private String aJson(List<String> tags) {
+        try {
+            return objectMapper.writeValueAsString(tags);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Tags inválidos", e);
+        }
+    }
+
+    /**
+     * Carga los productos de una página de IDs conservando el orden dado por el índice
+     */
+    private PaginatedResponseDTO<ProductoDTO> paginarEnOrden(List<Long> ids, long total, Pageable pageable) {
+        Map<Long, Producto> porId = productoRepository.findAllByIdWithRelations(ids)
+            .stream()
+            .collect(Collectors.toMap(Producto::getId, Function.identity()));
+        List<ProductoDTO> content = ids.stream()
+            .map(porId::get)
+            .filter(Objects::nonNull)
+            .map(productoMapper::toDTO)
+            .toList();
+
+        Page<ProductoDTO> productos = new PageImpl<>(content, pageable, total);
+        return PaginatedResponseDTO.<ProductoDTO>builder()
+            .content(content)
+            .page(productos.getNumber())
+            .size(productos.getSize())
+            .totalElements(productos.getTotalElements())
+            .totalPages(productos.getTotalPages())
+            .first(productos.isFirst())
+            .last(productos.isLast())
+            .empty(productos.isEmpty())
+            .build();
+    }
+
+    /**
+     * Expresión SQL del nuevo precio a partir de p.precio; el único parámetro es el valor del ajuste
+     */
+    private String expresionPrecio(AjustePrecioRequestDTO ajuste) {
+        String base = switch (ajuste.getTipo()) {
+            case PORCENTAJE -> "p.precio * (1 + CAST(? AS numeric) / 100)";
+            case MONTO_FIJO -> "p.precio + CAST(? AS numeric)";
+        };
+        ReglaRedondeo redondeo = ajuste.getRedondeo() != null ? ajuste.getRedondeo() : ReglaRedondeo.CENTIMO;
+        return switch (redondeo) {
+            case CENTIMO -> "ROUND(" + base + ", 2)";
+            case DECIMO -> "ROUND(" + base + ", 1)";
+            case ENTERO -> "ROUND(" + base + ", 0)";
+            case TERMINACION_90 -> "(CEIL(" + base + " + 0.10) - 0.10)";
+        };
+    }
+
+    private Optional<EntradaCache<ProductoDTO>> buscarPorIdEnCache(Long id) {
+        return catalogoCache.obtenerProductoPorId(id, () ->
+            productoRepository.findByIdWithRelations(id).map(productoMapper::toDTO));
+    }
+
+    private Optional<EntradaCache<ProductoDTO>> buscarPorCodigoEnCache(String codigo) {
+        return catalogoCache.obtenerProductoPorCodigo(codigo, () ->
+            productoRepository.findByCodigoWithRelations(codigo).map(productoMapper::toDTO));
+    }
 }
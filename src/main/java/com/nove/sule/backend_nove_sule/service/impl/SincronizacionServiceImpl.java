@@ -0,0 +1,161 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.CambiosCatalogoDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.CategoriaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.MarcaBasicaDTO;
+import com.nove.sule.backend_nove_sule.dto.catalogo.ProductoDTO;
+import com.nove.sule.backend_nove_sule.entity.BaseEntity;
+import com.nove.sule.backend_nove_sule.entity.Categoria;
+import com.nove.sule.backend_nove_sule.entity.Marca;
+import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.mapper.CategoriaMapper;
+import com.nove.sule.backend_nove_sule.mapper.MarcaMapper;
+import com.nove.sule.backend_nove_sule.mapper.ProductoMapper;
+import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
+import com.nove.sule.backend_nove_sule.repository.MarcaRepository;
+import com.nove.sule.backend_nove_sule.repository.ProductoRepository;
+import com.nove.sule.backend_nove_sule.service.SincronizacionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Implementación del servicio de sincronización del catálogo.
+ * Cada fila guarda en version_cambio el ID de la transacción que la escribió por última vez; lo asigna un
+ * trigger de la base, así que vale igual para Hibernate y para las sentencias directas. Cada tabla se recorre
+ * por (version_cambio, id) y sólo se entregan filas de transacciones anteriores al horizonte: el xmin del
+ * snapshot, por debajo del cual toda transacción ya terminó. Así ninguna fila puede aparecer después por
+ * detrás de una versión ya entregada, sin depender de relojes ni de márgenes de tiempo.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SincronizacionServiceImpl implements SincronizacionService {
+
+    private static final int LIMITE_MAXIMO = 5000;
+
+    /** Transacción más antigua aún en curso; se toma antes de leer las filas, nunca después */
+    private static final String SQL_HORIZONTE =
+        "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)";
+
+    private final ProductoRepository productoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final MarcaRepository marcaRepository;
+    private final ProductoMapper productoMapper;
+    private final CategoriaMapper categoriaMapper;
+    private final MarcaMapper marcaMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public CambiosCatalogoDTO<ProductoDTO> cambiosProductos(String version, int limite) {
+        Version desde = Version.parse(version);
+        long horizonte = horizonte();
+        return armarCambios(desde, limite,
+            pageable -> productoRepository.findModificadosDesde(desde.cambio(), desde.id(), horizonte, pageable),
+            producto -> producto.getEstado() == Estado.ACTIVO,
+            Producto::getVersionCambio,
+            productoMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CambiosCatalogoDTO<CategoriaBasicaDTO> cambiosCategorias(String version, int limite) {
+        Version desde = Version.parse(version);
+        long horizonte = horizonte();
+        return armarCambios(desde, limite,
+            pageable -> categoriaRepository.findModificadosDesde(desde.cambio(), desde.id(), horizonte, pageable),
+            categoria -> categoria.getEstado() == Estado.ACTIVO,
+            Categoria::getVersionCambio,
+            categoriaMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CambiosCatalogoDTO<MarcaBasicaDTO> cambiosMarcas(String version, int limite) {
+        Version desde = Version.parse(version);
+        long horizonte = horizonte();
+        return armarCambios(desde, limite,
+            pageable -> marcaRepository.findModificadosDesde(desde.cambio(), desde.id(), horizonte, pageable),
+            marca -> marca.getEstado() == Estado.ACTIVO,
+            Marca::getVersionCambio,
+            marcaMapper::toDTO);
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private <E extends BaseEntity, D> CambiosCatalogoDTO<D> armarCambios(Version desde, int limite,
+                                                                      Function<Pageable, List<E>> consulta,
+                                                                      Predicate<E> vigente,
+                                                                      Function<E, Long> cambio,
+                                                                      Function<E, D> mapper) {
+        int tamano = Math.max(1, Math.min(limite, LIMITE_MAXIMO));
+        // Se pide un registro extra para saber si quedan más cambios
+        List<E> registros = consulta.apply(Pageable.ofSize(tamano + 1));
+        boolean hayMas = registros.size() > tamano;
+        if (hayMas) {
+            registros = registros.subList(0, tamano);
+        }
+
+        List<D> actualizados = new ArrayList<>();
+        List<Long> eliminados = new ArrayList<>();
+        for (E registro : registros) {
+            if (vigente.test(registro)) {
+                actualizados.add(mapper.apply(registro));
+            } else {
+                eliminados.add(registro.getId());
+            }
+        }
+
+        E ultimo = registros.isEmpty() ? null : registros.get(registros.size() - 1);
+        Version siguiente = ultimo == null
+            ? desde
+            : new Version(cambio.apply(ultimo), ultimo.getId());
+
+        return CambiosCatalogoDTO.<D>builder()
+            .actualizados(actualizados)
+            .eliminados(eliminados)
+            .version(siguiente.toString())
+            .hayMas(hayMas)
+            .build();
+    }
+
+    private long horizonte() {
+        return jdbcTemplate.queryForObject(SQL_HORIZONTE, Long.class);
+    }
+
+    /**
+     * Posición en el recorrido: transacción del último cambio entregado e ID de su registro
+     */
+    private record Version(long cambio, Long id) {
+
+        static Version parse(String version) {
+            if (version == null || version.isBlank()) {
+                return new Version(0L, 0L);
+            }
+            String[] partes = version.split("-");
+            if (partes.length != 2) {
+                throw new RuntimeException("Versión de sincronización inválida");
+            }
+            try {
+                return new Version(Long.parseLong(partes[0]), Long.parseLong(partes[1]));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Versión de sincronización inválida");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return cambio + "-" + id;
+        }
+    }
+}
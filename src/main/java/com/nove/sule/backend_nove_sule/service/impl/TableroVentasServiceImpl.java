@@ -0,0 +1,231 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.ventas.TableroVentasDTO;
+import com.nove.sule.backend_nove_sule.dto.ventas.TableroVentasDTO.TotalDTO;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import com.nove.sule.backend_nove_sule.event.VentaRegistradaEvent;
+import com.nove.sule.backend_nove_sule.service.TableroVentasService;
+import com.nove.sule.backend_nove_sule.util.Monto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementación del tablero de ventas.
+ * Cada venta y anulación confirmada suma en contadores en memoria por caja, medio de pago y hora, de modo que
+ * el tablero del día se responde sin consultar la base. Los contadores se reconstruyen al iniciar desde los
+ * comprobantes vigentes y se guardan periódicamente en ventas_intradia, que es la fuente de los días anteriores.
+ * Supone una sola instancia de la aplicación: cada instancia sólo cuenta las ventas que registró
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TableroVentasServiceImpl implements TableroVentasService, SmartInitializingSingleton {
+
+    /** Caja con que se agrupan las ventas sin caja asignada */
+    static final long SIN_CAJA = 0L;
+
+    /** Días que se mantienen en memoria (hoy y ayer), para que las anulaciones del día anterior no vayan a la base */
+    private static final int DIAS_EN_MEMORIA = 2;
+
+    private static final String SQL_GUARDAR =
+        "INSERT INTO ventas_intradia AS v (fecha, caja_id, medio_pago, hora, ventas, centimos, " +
+        "fecha_creacion, fecha_modificacion) VALUES (?, ?, ?, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (fecha, caja_id, medio_pago, hora) DO UPDATE SET " +
+        "ventas = EXCLUDED.ventas, centimos = EXCLUDED.centimos, fecha_modificacion = now() " +
+        "WHERE v.ventas <> EXCLUDED.ventas OR v.centimos <> EXCLUDED.centimos";
+
+    /** Para ventas de días que ya no están en memoria: su instantánea no se vuelve a escribir, así que se acumula */
+    private static final String SQL_ACUMULAR =
+        "INSERT INTO ventas_intradia AS v (fecha, caja_id, medio_pago, hora, ventas, centimos, " +
+        "fecha_creacion, fecha_modificacion) VALUES (?, ?, ?, ?, ?, ?, now(), now()) " +
+        "ON CONFLICT (fecha, caja_id, medio_pago, hora) DO UPDATE SET " +
+        "ventas = v.ventas + EXCLUDED.ventas, centimos = v.centimos + EXCLUDED.centimos, fecha_modificacion = now()";
+
+    private static final String SQL_RECONSTRUIR =
+        "SELECT CAST(fecha_emision AS date) AS fecha, COALESCE(caja_id, 0) AS caja_id, medio_pago, " +
+        "CAST(EXTRACT(HOUR FROM fecha_emision) AS integer) AS hora, COUNT(*) AS ventas, " +
+        "CAST(SUM(total) * 100 AS bigint) AS centimos " +
+        "FROM comprobantes_venta WHERE estado = 'ACTIVO' AND fecha_emision >= ? " +
+        "GROUP BY 1, 2, 3, 4";
+
+    private static final String SQL_INSTANTANEA =
+        "SELECT caja_id, medio_pago, hora, ventas, centimos FROM ventas_intradia WHERE fecha = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<LocalDate, Contadores> dias = new ConcurrentHashMap<>();
+
+    /**
+     * Reconstruye los contadores antes de que el servidor acepte peticiones, para que ninguna venta
+     * confirmada durante el arranque quede contada dos veces (en la consulta y por su evento)
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        LocalDate desde = inicioVentana();
+        jdbcTemplate.query(SQL_RECONSTRUIR, rs -> {
+            Contadores contadores = dias.computeIfAbsent(rs.getObject("fecha", LocalDate.class),
+                fecha -> new Contadores());
+            contadores.sumar(new Clave(rs.getLong("caja_id"), MedioPago.valueOf(rs.getString("medio_pago")),
+                rs.getInt("hora")), rs.getLong("ventas"), rs.getLong("centimos"));
+        }, desde.atStartOfDay());
+        log.info("Tablero de ventas reconstruido desde {} ({} días en memoria)", desde, dias.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVentaRegistrada(VentaRegistradaEvent event) {
+        LocalDateTime fechaEmision = event.fechaEmision();
+        LocalDate fecha = fechaEmision.toLocalDate();
+        Clave clave = new Clave(event.cajaId() != null ? event.cajaId() : SIN_CAJA, event.medioPago(),
+            fechaEmision.getHour());
+        long centimos = event.signo() * event.centimos();
+        // Se decide bajo el mismo bloqueo con que se retira el día: o la venta entra en los contadores antes de
+        // su última escritura, o llega después de ella y se acumula en la base. Un día retirado no se vuelve a crear
+        Contadores enMemoria = dias.compute(fecha, (f, contadores) -> {
+            if (contadores == null) {
+                if (f.isBefore(inicioVentana())) {
+                    return null;
+                }
+                contadores = new Contadores();
+            }
+            contadores.sumar(clave, event.signo(), centimos);
+            return contadores;
+        });
+        if (enMemoria == null) {
+            jdbcTemplate.update(SQL_ACUMULAR, fecha, clave.cajaId(), clave.medioPago().name(), clave.hora(),
+                event.signo(), centimos);
+        }
+    }
+
+    @Override
+    public TableroVentasDTO obtenerTablero(LocalDate fecha) {
+        LocalDate dia = fecha != null ? fecha : LocalDate.now();
+        Totales totales = new Totales();
+        // Un día sigue en memoria hasta terminar su última escritura, así que se lee de ahí mientras exista
+        Contadores contadores = dias.get(dia);
+        if (contadores != null) {
+            contadores.celdas.forEach((clave, celda) ->
+                totales.sumar(clave, celda.ventas.sum(), celda.centimos.sum()));
+        } else if (dia.isBefore(inicioVentana())) {
+            jdbcTemplate.query(SQL_INSTANTANEA, rs -> {
+                totales.sumar(new Clave(rs.getLong("caja_id"), MedioPago.valueOf(rs.getString("medio_pago")),
+                    rs.getInt("hora")), rs.getLong("ventas"), rs.getLong("centimos"));
+            }, dia);
+        }
+        return totales.aDTO(dia);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.ventas.tablero.instantanea:1m}")
+    public void guardarInstantanea() {
+        LocalDate desde = inicioVentana();
+        for (LocalDate fecha : List.copyOf(dias.keySet())) {
+            if (fecha.isBefore(desde)) {
+                // La última escritura se hace bajo el bloqueo del día y recién entonces se quita; las ventas que
+                // llegan mientras tanto esperan y luego se acumulan en la base, sin que esta escritura las pise.
+                // Si falla, el día sigue en memoria y se reintenta en la próxima instantánea
+                dias.computeIfPresent(fecha, (f, contadores) -> {
+                    guardar(f, contadores);
+                    return null;
+                });
+            } else {
+                Contadores contadores = dias.get(fecha);
+                if (contadores != null) {
+                    guardar(fecha, contadores);
+                }
+            }
+        }
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static LocalDate inicioVentana() {
+        return LocalDate.now().minusDays(DIAS_EN_MEMORIA - 1);
+    }
+
+    private void guardar(LocalDate fecha, Contadores contadores) {
+        List<Object[]> filas = new ArrayList<>(contadores.celdas.size());
+        contadores.celdas.forEach((clave, celda) -> filas.add(new Object[]{
+            fecha, clave.cajaId(), clave.medioPago().name(), clave.hora(), celda.ventas.sum(), celda.centimos.sum()
+        }));
+        if (!filas.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_GUARDAR, filas);
+        }
+    }
+
+    private record Clave(long cajaId, MedioPago medioPago, int hora) {
+    }
+
+    private static final class Celda {
+        private final LongAdder ventas = new LongAdder();
+        private final LongAdder centimos = new LongAdder();
+    }
+
+    /**
+     * Contadores de un día. Las celdas se crean una sola vez y luego sólo se incrementan,
+     * así que las cajas que venden a la vez no compiten por el mismo contador
+     */
+    private static final class Contadores {
+        private final Map<Clave, Celda> celdas = new ConcurrentHashMap<>();
+
+        void sumar(Clave clave, long ventas, long centimos) {
+            Celda celda = celdas.computeIfAbsent(clave, c -> new Celda());
+            celda.ventas.add(ventas);
+            celda.centimos.add(centimos);
+        }
+    }
+
+    /**
+     * Agrega las celdas de un día en los totales que muestra el tablero
+     */
+    private static final class Totales {
+        private long ventas;
+        private long centimos;
+        private final Map<Long, long[]> porCaja = new TreeMap<>();
+        private final Map<MedioPago, long[]> porMedioPago = new EnumMap<>(MedioPago.class);
+        private final Map<Integer, long[]> porHora = new TreeMap<>();
+
+        void sumar(Clave clave, long ventas, long centimos) {
+            this.ventas += ventas;
+            this.centimos += centimos;
+            sumar(porCaja.computeIfAbsent(clave.cajaId(), k -> new long[2]), ventas, centimos);
+            sumar(porMedioPago.computeIfAbsent(clave.medioPago(), k -> new long[2]), ventas, centimos);
+            sumar(porHora.computeIfAbsent(clave.hora(), k -> new long[2]), ventas, centimos);
+        }
+
+        TableroVentasDTO aDTO(LocalDate fecha) {
+            return TableroVentasDTO.builder()
+                .fecha(fecha)
+                .ventas(ventas)
+                .total(Monto.aBigDecimal(centimos))
+                .porCaja(aDTO(porCaja, new TreeMap<>()))
+                .porMedioPago(aDTO(porMedioPago, new EnumMap<>(MedioPago.class)))
+                .porHora(aDTO(porHora, new TreeMap<>()))
+                .build();
+        }
+
+        private static void sumar(long[] total, long ventas, long centimos) {
+            total[0] += ventas;
+            total[1] += centimos;
+        }
+
+        private static <K> Map<K, TotalDTO> aDTO(Map<K, long[]> totales, Map<K, TotalDTO> destino) {
+            totales.forEach((clave, total) -> destino.put(clave, new TotalDTO(total[0], Monto.aBigDecimal(total[1]))));
+            return destino;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.TasaIgvDTO;
+import com.nove.sule.backend_nove_sule.entity.TasaIgv;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import com.nove.sule.backend_nove_sule.event.ProductoModificadoEvent;
+import com.nove.sule.backend_nove_sule.event.TasaIgvModificadaEvent;
+import com.nove.sule.backend_nove_sule.repository.TasaIgvRepository;
+import com.nove.sule.backend_nove_sule.service.TasaIgvService;
+import com.nove.sule.backend_nove_sule.util.CalculadoraIgv;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Implementación del servicio de tasas de IGV
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TasaIgvServiceImpl implements TasaIgvService {
+
+    private final TasaIgvRepository tasaIgvRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TasaIgvDTO> listar() {
+        return tasaIgvRepository.findAllByOrderByTipoIgvAscVigenteDesdeAsc()
+            .stream()
+            .map(this::toDTO)
+            .toList();
+    }
+
+    @Override
+    @Transactional
+    public TasaIgvDTO registrar(TasaIgvDTO tasaIgv) {
+        log.info("Registrando tasa de IGV {} de {} desde {}", tasaIgv.getTipoIgv(), tasaIgv.getTasa(), tasaIgv.getVigenteDesde());
+
+        if (tasaIgvRepository.existsByTipoIgvAndVigenteDesde(tasaIgv.getTipoIgv(), tasaIgv.getVigenteDesde())) {
+            throw new RuntimeException("Ya existe una tasa para ese tipo de IGV y fecha de vigencia");
+        }
+
+        TasaIgv tasa = tasaIgvRepository.save(TasaIgv.builder()
+            .tipoIgv(tasaIgv.getTipoIgv())
+            .tasa(tasaIgv.getTasa())
+            .vigenteDesde(tasaIgv.getVigenteDesde())
+            .descripcion(tasaIgv.getDescripcion())
+            .build());
+        eventPublisher.publishEvent(new TasaIgvModificadaEvent(tasa.getId()));
+        return toDTO(tasa);
+    }
+
+    @Override
+    @Transactional
+    public void cargar() {
+        cargarTasas();
+    }
+
+    /**
+     * Recarga las tasas después del commit; el precio con IGV de los productos cambia, así que se reindexan.
+     * La llamada interna no pasa por el proxy y la transacción del registro ya terminó, así que la carga
+     * abre una transacción propia
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTasaIgvModificada(TasaIgvModificadaEvent event) {
+        TransactionTemplate nueva = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        nueva.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        nueva.executeWithoutResult(estado -> cargarTasas());
+        eventPublisher.publishEvent(ProductoModificadoEvent.todos());
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void cargarTasas() {
+        if (tasaIgvRepository.count() == 0) {
+            tasaIgvRepository.saveAll(List.of(
+                tasaInicial(TipoIGV.GRAVADO, CalculadoraIgv.TASA_GRAVADO_ACTUAL, "IGV 16% + IPM 2%"),
+                tasaInicial(TipoIGV.EXONERADO, BigDecimal.ZERO, "Operación exonerada"),
+                tasaInicial(TipoIGV.INAFECTO, BigDecimal.ZERO, "Operación inafecta")));
+            log.info("Tasas de IGV iniciales registradas");
+        }
+
+        List<CalculadoraIgv.Vigencia> vigencias = tasaIgvRepository.findAllByOrderByTipoIgvAscVigenteDesdeAsc()
+            .stream()
+            .map(t -> new CalculadoraIgv.Vigencia(t.getTipoIgv(), t.getVigenteDesde(), t.getTasa()))
+            .toList();
+        CalculadoraIgv.cargar(vigencias);
+        log.info("Tasas de IGV cargadas: {}", vigencias.size());
+    }
+
+    private TasaIgv tasaInicial(TipoIGV tipoIgv, BigDecimal tasa, String descripcion) {
+        return TasaIgv.builder()
+            .tipoIgv(tipoIgv)
+            .tasa(tasa)
+            .vigenteDesde(CalculadoraIgv.VIGENCIA_TASA_ACTUAL)
+            .descripcion(descripcion)
+            .build();
+    }
+
+    private TasaIgvDTO toDTO(TasaIgv tasa) {
+        return TasaIgvDTO.builder()
+            .id(tasa.getId())
+            .tipoIgv(tasa.getTipoIgv())
+            .tasa(tasa.getTasa())
+            .vigenteDesde(tasa.getVigenteDesde())
+            .descripcion(tasa.getDescripcion())
+            .build();
+    }
+}
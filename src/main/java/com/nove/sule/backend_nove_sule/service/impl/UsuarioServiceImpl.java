@@ -5,11 +5,13 @@ import com.nove.sule.backend_nove_sule.dto.usuario.UsuarioDTO;
 import com.nove.sule.backend_nove_sule.entity.Usuario;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
 import com.nove.sule.backend_nove_sule.entity.enums.Rol;
+import com.nove.sule.backend_nove_sule.event.UsuarioModificadoEvent;
 import com.nove.sule.backend_nove_sule.mapper.UsuarioMapper;
 import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
 import com.nove.sule.backend_nove_sule.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,6 +32,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final UsuarioRepository usuarioRepository;
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -84,6 +87,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         usuario.setEstado(usuarioDTO.getEstado());
 
         usuario = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
         
         log.info("Usuario actualizado exitosamente");
         return usuarioMapper.toDTO(usuario);
@@ -181,6 +185,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setEstado(Estado.INACTIVO);
         usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
         
         log.info("Usuario marcado como inactivo");
     }
@@ -195,6 +200,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         usuario.setEstado(estado);
         usuario = usuarioRepository.save(usuario);
+        eventPublisher.publishEvent(new UsuarioModificadoEvent(id));
         
         return usuarioMapper.toDTO(usuario);
     }
@@ -4,14 +4,23 @@ import com.nove.sule.backend_nove_sule.dto.common.PaginatedResponseDTO;
 import com.nove.sule.backend_nove_sule.dto.ventas.*;
 import com.nove.sule.backend_nove_sule.entity.*;
 import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
 import com.nove.sule.backend_nove_sule.entity.enums.TipoComprobante;
+import com.nove.sule.backend_nove_sule.event.VentaRegistradaEvent;
+import com.nove.sule.backend_nove_sule.mapper.MontoMapper;
 import com.nove.sule.backend_nove_sule.mapper.VentaMapper;
 import com.nove.sule.backend_nove_sule.repository.*;
+import com.nove.sule.backend_nove_sule.service.CajaService;
+import com.nove.sule.backend_nove_sule.service.CuentaPorCobrarService;
+import com.nove.sule.backend_nove_sule.service.IndicadorClienteService;
 import com.nove.sule.backend_nove_sule.service.VentaService;
+import com.nove.sule.backend_nove_sule.util.Monto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,11 +37,24 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class VentaServiceImpl implements VentaService {
 
+    /**
+     * Anula el comprobante sólo si sigue activo. El bloqueo de la fila ordena las anulaciones concurrentes y
+     * sólo la que la actualiza revierte los acumulados de la venta
+     */
+    private static final String SQL_ANULAR =
+        "UPDATE comprobantes_venta SET estado = 'INACTIVO', fecha_modificacion = now() " +
+        "WHERE id = ? AND estado = 'ACTIVO'";
+
     private final ComprobanteVentaRepository comprobanteVentaRepository;
-    private final DetalleComprobanteRepository detalleComprobanteRepository;
     private final ClienteRepository clienteRepository;
     private final ProductoRepository productoRepository;
+    private final CajaRepository cajaRepository;
+    private final CajaService cajaService;
+    private final IndicadorClienteService indicadorClienteService;
+    private final CuentaPorCobrarService cuentaPorCobrarService;
     private final VentaMapper ventaMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     @Override
     @Transactional
@@ -56,17 +78,18 @@ public class VentaServiceImpl implements VentaService {
         comprobante.setEstado(comprobanteDTO.getEstado() != null ? comprobanteDTO.getEstado() : Estado.ACTIVO);
         comprobante.setMedioPago(comprobanteDTO.getMedioPago());
         comprobante.setObservaciones(comprobanteDTO.getObservaciones());
-        // TODO: Implementar mapeo de usuario y caja cuando estén disponibles
+        // TODO: Implementar mapeo de usuario cuando esté disponible
         // comprobante.setUsuario(usuario);
-        // comprobante.setCaja(caja);
-
-        // Calcular totales
-        calcularTotales(comprobante, comprobanteDTO.getDetalles());
-
-        // Guardar comprobante
-        comprobante = comprobanteVentaRepository.save(comprobante);
+        if (comprobanteDTO.getCajaId() != null) {
+            Caja caja = cajaRepository.findById(comprobanteDTO.getCajaId())
+                .orElseThrow(() -> new RuntimeException("Caja no encontrada"));
+            if (caja.getEstado() != Caja.EstadoCaja.ABIERTA) {
+                throw new RuntimeException("No se pueden registrar ventas en una caja cerrada");
+            }
+            comprobante.setCaja(caja);
+        }
 
-        // Guardar detalles
+        // Agregar detalles
         if (comprobanteDTO.getDetalles() != null && !comprobanteDTO.getDetalles().isEmpty()) {
             for (ComprobanteVentaDTO.DetalleComprobanteDTO detalleDTO : comprobanteDTO.getDetalles()) {
                 DetalleComprobante detalle = new DetalleComprobante();
@@ -76,18 +99,35 @@ public class VentaServiceImpl implements VentaService {
                     .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
                 detalle.setProducto(producto);
                 
-                detalle.setCantidad(detalleDTO.getCantidad());
-                detalle.setPrecioUnitario(detalleDTO.getPrecioUnitario());
-                detalle.setDescuento(detalleDTO.getDescuento() != null ? detalleDTO.getDescuento() : BigDecimal.ZERO);
+                // Sin cantidad o precio la línea se rechaza al calcular el subtotal; no se asume cero
+                detalle.setCantidad(MontoMapper.aCantidad(detalleDTO.getCantidad()));
+                detalle.setPrecioUnitario(MontoMapper.aMonto(detalleDTO.getPrecioUnitario()));
+                detalle.setDescuento(Monto.de(detalleDTO.getDescuento()));
                 
                 // Calcular subtotal
-                BigDecimal subtotal = detalle.getCantidad().multiply(detalle.getPrecioUnitario()).subtract(detalle.getDescuento());
-                detalle.setSubtotal(subtotal.max(BigDecimal.ZERO));
+                detalle.calcularSubtotal();
                 
-                detalleComprobanteRepository.save(detalle);
+                comprobante.getDetalles().add(detalle);
             }
         }
 
+        // Calcular totales según el tipo de IGV de cada producto y guardar comprobante con sus detalles
+        comprobante.calcularTotales();
+        // El límite de crédito se valida y el saldo se carga en la misma actualización condicional
+        if (comprobante.getMedioPago() == MedioPago.CREDITO && comprobante.getEstado() == Estado.ACTIVO) {
+            cuentaPorCobrarService.cargarVenta(cliente.getId(), comprobante.getTotal());
+        }
+        comprobante = comprobanteVentaRepository.save(comprobante);
+        if (comprobante.getEstado() == Estado.ACTIVO) {
+            if (comprobante.getCaja() != null) {
+                cajaService.acumularVenta(comprobante.getCaja().getId(), comprobante.getFechaEmision(),
+                    comprobante.getMedioPago(), comprobante.getTotal(), 1);
+            }
+            indicadorClienteService.ventaRegistrada(cliente.getId(), comprobante.getFechaEmision(),
+                comprobante.getTotal());
+            eventPublisher.publishEvent(VentaRegistradaEvent.de(comprobante, 1));
+        }
+
         log.info("Comprobante creado con ID: {}", comprobante.getId());
         return ventaMapper.toDTO(comprobante);
     }
@@ -173,15 +213,25 @@ public class VentaServiceImpl implements VentaService {
     public ComprobanteVentaDTO anularComprobante(Long id) {
         log.info("Anulando comprobante ID: {}", id);
 
+        boolean anulada = jdbcTemplate.update(SQL_ANULAR, id) == 1;
+        // Se lee después de la sentencia para que el estado cargado sea el que quedó en la base
         ComprobanteVenta comprobante = comprobanteVentaRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Comprobante no encontrado con ID: " + id));
-
-        if (comprobante.getEstado() == Estado.INACTIVO) {
+        if (!anulada) {
             throw new RuntimeException("El comprobante ya está anulado");
         }
 
-        comprobante.setEstado(Estado.INACTIVO);
-        comprobante = comprobanteVentaRepository.save(comprobante);
+        // La anulación se descuenta del día de emisión, que es donde se sumó la venta
+        if (comprobante.getCaja() != null) {
+            cajaService.acumularVenta(comprobante.getCaja().getId(), comprobante.getFechaEmision(),
+                comprobante.getMedioPago(), comprobante.getTotal(), -1);
+        }
+        if (comprobante.getMedioPago() == MedioPago.CREDITO) {
+            cuentaPorCobrarService.anularVenta(comprobante.getCliente().getId(), comprobante.getTotal());
+        }
+        indicadorClienteService.ventaAnulada(comprobante.getCliente().getId(), comprobante.getId(),
+            comprobante.getFechaEmision(), comprobante.getTotal());
+        eventPublisher.publishEvent(VentaRegistradaEvent.de(comprobante, -1));
         
         log.info("Comprobante anulado: {}", id);
         return ventaMapper.toDTO(comprobante);
@@ -256,9 +306,9 @@ public class VentaServiceImpl implements VentaService {
         Long comprobantesAnulados = comprobanteVentaRepository.contarComprobantes(fechaInicio, fechaFin, Estado.INACTIVO);
         BigDecimal ventasAnuladas = comprobanteVentaRepository.calcularTotalVentas(fechaInicio, fechaFin, Estado.INACTIVO);
         
-        // Calcular subtotal e IGV (asumiendo 18% de IGV)
-        BigDecimal totalSubtotal = totalVentas.divide(new BigDecimal("1.18"), 2, java.math.RoundingMode.HALF_UP);
-        BigDecimal totalIgv = totalVentas.subtract(totalSubtotal);
+        // El IGV de cada comprobante ya se calculó con la tasa y el tipo de afectación de sus líneas
+        BigDecimal totalIgv = comprobanteVentaRepository.calcularTotalIgv(fechaInicio, fechaFin, Estado.ACTIVO);
+        BigDecimal totalSubtotal = totalVentas.subtract(totalIgv);
         
         // Calcular ticket promedio
         BigDecimal ticketPromedio = totalComprobantes > 0 ? 
@@ -288,42 +338,4 @@ public class VentaServiceImpl implements VentaService {
         // Por ahora retornamos una lista vacía
         return List.of();
     }
-
-    // ===== MÉTODOS PRIVADOS =====
-
-    private void calcularTotales(ComprobanteVenta comprobante, List<ComprobanteVentaDTO.DetalleComprobanteDTO> detalles) {
-        if (detalles == null || detalles.isEmpty()) {
-            comprobante.setSubtotal(BigDecimal.ZERO);
-            comprobante.setIgv(BigDecimal.ZERO);
-            comprobante.setTotal(BigDecimal.ZERO);
-            return;
-        }
-
-        // Calcular subtotal
-        BigDecimal subtotal = detalles.stream()
-            .map(detalle -> {
-                BigDecimal subtotalDetalle = detalle.getCantidad().multiply(detalle.getPrecioUnitario());
-                if (detalle.getDescuento() != null) {
-                    subtotalDetalle = subtotalDetalle.subtract(detalle.getDescuento());
-                }
-                return subtotalDetalle.max(BigDecimal.ZERO);
-            })
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // Aplicar descuento general
-        if (comprobante.getDescuento() != null) {
-            subtotal = subtotal.subtract(comprobante.getDescuento());
-        }
-        subtotal = subtotal.max(BigDecimal.ZERO);
-
-        // Calcular IGV (18%)
-        BigDecimal igv = subtotal.multiply(new BigDecimal("0.18"));
-
-        // Calcular total
-        BigDecimal total = subtotal.add(igv);
-
-        comprobante.setSubtotal(subtotal);
-        comprobante.setIgv(igv);
-        comprobante.setTotal(total);
-    }
 }
@@ -0,0 +1,232 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Motor de IGV: tasas por tipo de afectación con fecha de vigencia, cargadas una vez en memoria.
+ * Lo usan entidades y servicios; mientras no se carguen las tasas de la base rige la tasa legal vigente.
+ */
+public final class CalculadoraIgv {
+
+    /** Inicio de la tasa de 18% (16% IGV + 2% IPM) */
+    public static final LocalDate VIGENCIA_TASA_ACTUAL = LocalDate.of(2011, 3, 1);
+    public static final BigDecimal TASA_GRAVADO_ACTUAL = new BigDecimal("0.1800");
+
+    private static final TipoIGV[] TIPOS = TipoIGV.values();
+
+    private static volatile Tabla tabla = Tabla.de(List.of(
+        new Vigencia(TipoIGV.GRAVADO, VIGENCIA_TASA_ACTUAL, TASA_GRAVADO_ACTUAL)));
+
+    private CalculadoraIgv() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Línea de un comprobante u orden con su subtotal (sin IGV) y su tipo de afectación
+     */
+    public interface Linea {
+
+        Monto getSubtotal();
+
+        TipoIGV getTipoIgv();
+    }
+
+    /**
+     * Tasa de un tipo de afectación desde una fecha
+     */
+    public record Vigencia(TipoIGV tipoIgv, LocalDate vigenteDesde, BigDecimal tasa) {
+    }
+
+    /**
+     * Totales de un documento: subtotal antes del descuento global, base imponible tras el descuento, IGV y total
+     */
+    public record Totales(BigDecimal subtotal, BigDecimal descuento, BigDecimal base, BigDecimal igv, BigDecimal total) {
+    }
+
+    /**
+     * Reemplaza las tasas en memoria; los tipos sin tasas registradas quedan con tasa cero
+     */
+    public static void cargar(Collection<Vigencia> vigencias) {
+        tabla = Tabla.de(vigencias);
+    }
+
+    /**
+     * Tasa vigente en la fecha (sin fecha, la más reciente); rechaza fechas anteriores a la primera vigencia
+     */
+    public static BigDecimal tasa(TipoIGV tipoIgv, LocalDate fecha) {
+        return tabla.tasa(tipoIgv, fecha);
+    }
+
+    /**
+     * Precio con IGV a la tasa vigente hoy, redondeado a céntimos
+     */
+    public static BigDecimal precioConIgv(BigDecimal precio, TipoIGV tipoIgv) {
+        if (precio == null) {
+            return null;
+        }
+        long tasa = tabla.tasaDiezMilesimas(tipoIgv, LocalDate.now());
+        if (tasa == 0L) {
+            return precio;
+        }
+        long centimos = Monto.centimos(precio);
+        return Monto.aBigDecimal(Math.addExact(centimos, Monto.aplicarTasa(centimos, tasa)));
+    }
+
+    /**
+     * Subtotal de una línea: precio por cantidad menos su descuento.
+     * Rechaza la línea sin precio o cantidad, con cantidad no positiva, con precio o descuento negativos
+     * o con un descuento mayor que el importe
+     */
+    public static Monto subtotalLinea(Monto precioUnitario, Cantidad cantidad, Monto descuento) {
+        if (cantidad == null) {
+            throw new RuntimeException("La cantidad es requerida");
+        }
+        if (cantidad.milesimas() <= 0L) {
+            throw new RuntimeException("La cantidad debe ser mayor a cero");
+        }
+        if (precioUnitario == null) {
+            throw new RuntimeException("El precio unitario es requerido");
+        }
+        if (precioUnitario.signum() < 0) {
+            throw new RuntimeException("El precio unitario debe ser positivo o cero");
+        }
+        Monto descuentoLinea = descuento != null ? descuento : Monto.CERO;
+        if (descuentoLinea.signum() < 0) {
+            throw new RuntimeException("El descuento debe ser positivo o cero");
+        }
+        Monto importe = precioUnitario.por(cantidad);
+        if (descuentoLinea.compareTo(importe) > 0) {
+            throw new RuntimeException("El descuento no puede superar el importe de la línea");
+        }
+        return importe.menos(descuentoLinea);
+    }
+
+    /**
+     * Suma las líneas por tipo de afectación, prorratea el descuento global entre las bases
+     * y aplica a cada base la tasa vigente en la fecha del documento.
+     * Todo el cálculo se hace en céntimos; solo se convierten a BigDecimal el descuento y el resultado.
+     */
+    public static Totales calcular(List<? extends Linea> lineas, BigDecimal descuento, LocalDate fecha) {
+        Tabla actual = tabla;
+        long[] bases = new long[TIPOS.length];
+
+        long subtotal = 0L;
+        for (int i = 0, n = lineas.size(); i < n; i++) {
+            Linea linea = lineas.get(i);
+            Monto monto = linea.getSubtotal();
+            if (monto == null) {
+                continue;
+            }
+            long centimos = monto.centimos();
+            int tipo = (linea.getTipoIgv() != null ? linea.getTipoIgv() : TipoIGV.GRAVADO).ordinal();
+            bases[tipo] += centimos;
+            subtotal += centimos;
+        }
+
+        long descuentoAplicado = Math.min(Math.max(Monto.centimos(descuento), 0L), Math.max(subtotal, 0L));
+        long base = subtotal - descuentoAplicado;
+        if (descuentoAplicado > 0L) {
+            prorratear(bases, subtotal, base);
+        }
+
+        long igv = 0L;
+        for (int tipo = 0; tipo < bases.length; tipo++) {
+            if (bases[tipo] == 0L) {
+                continue;
+            }
+            long tasa = actual.tasaDiezMilesimas(TIPOS[tipo], fecha);
+            if (tasa != 0L) {
+                igv += Monto.aplicarTasa(bases[tipo], tasa);
+            }
+        }
+        return new Totales(Monto.aBigDecimal(subtotal), Monto.aBigDecimal(descuentoAplicado),
+            Monto.aBigDecimal(base), Monto.aBigDecimal(igv), Monto.aBigDecimal(base + igv));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Reparte la base neta en proporción a cada base; la mayor absorbe el redondeo para que la suma cuadre
+     */
+    private static void prorratear(long[] bases, long subtotal, long baseNeta) {
+        int mayor = 0;
+        for (int tipo = 1; tipo < bases.length; tipo++) {
+            if (bases[tipo] > bases[mayor]) {
+                mayor = tipo;
+            }
+        }
+        long asignado = 0L;
+        for (int tipo = 0; tipo < bases.length; tipo++) {
+            if (tipo != mayor && bases[tipo] != 0L) {
+                bases[tipo] = Monto.multiplicar(bases[tipo], baseNeta, subtotal);
+                asignado += bases[tipo];
+            }
+        }
+        bases[mayor] = baseNeta - asignado;
+    }
+
+    /**
+     * Tasas inmutables por tipo, ordenadas por fecha de vigencia, también en diezmilésimas para calcular con long
+     */
+    private static final class Tabla {
+
+        private final LocalDate[][] desde = new LocalDate[TIPOS.length][];
+        private final BigDecimal[][] tasas = new BigDecimal[TIPOS.length][];
+        private final long[][] diezMilesimas = new long[TIPOS.length][];
+
+        static Tabla de(Collection<Vigencia> vigencias) {
+            Tabla tabla = new Tabla();
+            for (TipoIGV tipo : TIPOS) {
+                List<Vigencia> delTipo = new ArrayList<>();
+                for (Vigencia vigencia : vigencias) {
+                    if (vigencia.tipoIgv() == tipo) {
+                        delTipo.add(vigencia);
+                    }
+                }
+                delTipo.sort(Comparator.comparing(Vigencia::vigenteDesde));
+                int o = tipo.ordinal();
+                tabla.desde[o] = delTipo.stream().map(Vigencia::vigenteDesde).toArray(LocalDate[]::new);
+                tabla.tasas[o] = delTipo.stream().map(Vigencia::tasa).toArray(BigDecimal[]::new);
+                tabla.diezMilesimas[o] = delTipo.stream()
+                    .mapToLong(v -> v.tasa().movePointRight(4).setScale(0, Monto.REDONDEO).longValueExact())
+                    .toArray();
+            }
+            return tabla;
+        }
+
+        BigDecimal tasa(TipoIGV tipo, LocalDate fecha) {
+            int i = indice(tipo, fecha);
+            return i < 0 ? BigDecimal.ZERO : tasas[tipo.ordinal()][i];
+        }
+
+        long tasaDiezMilesimas(TipoIGV tipo, LocalDate fecha) {
+            int i = indice(tipo, fecha);
+            return i < 0 ? 0L : diezMilesimas[tipo.ordinal()][i];
+        }
+
+        /**
+         * Recorre desde la vigencia más reciente, que es la que aplica casi siempre.
+         * Rechaza una fecha anterior a todas las vigencias del tipo: no se sabe qué tasa regía entonces.
+         */
+        private int indice(TipoIGV tipo, LocalDate fecha) {
+            LocalDate[] vigencias = desde[tipo.ordinal()];
+            if (vigencias.length == 0) {
+                return -1;
+            }
+            for (int i = vigencias.length - 1; i >= 0; i--) {
+                if (fecha == null || !fecha.isBefore(vigencias[i])) {
+                    return i;
+                }
+            }
+            throw new RuntimeException("No hay una tasa de IGV " + tipo + " vigente al " + fecha
+                + "; la más antigua rige desde el " + vigencias[0]);
+        }
+    }
+}
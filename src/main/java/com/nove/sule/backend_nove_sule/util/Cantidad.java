@@ -0,0 +1,24 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Cantidad en milésimas de unidad (la escala de las columnas de cantidad) para multiplicar montos sin BigDecimal
+ */
+public record Cantidad(long milesimas) {
+
+    public static final int ESCALA = 3;
+    public static final long MILESIMAS_POR_UNIDAD = 1_000L;
+
+    public static Cantidad de(BigDecimal valor) {
+        return new Cantidad(valor == null ? 0L : valor.movePointRight(ESCALA).setScale(0, Monto.REDONDEO).longValueExact());
+    }
+
+    public static Cantidad unidades(long unidades) {
+        return new Cantidad(Math.multiplyExact(unidades, MILESIMAS_POR_UNIDAD));
+    }
+
+    public BigDecimal aBigDecimal() {
+        return BigDecimal.valueOf(milesimas, ESCALA);
+    }
+}
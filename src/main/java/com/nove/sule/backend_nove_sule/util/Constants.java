@@ -16,6 +16,9 @@ public final class Constants {
     // API Constants
     public static final String API_BASE_PATH = "/api/v1";
     
+    // Pagination Constants
+    public static final int MAX_PAGE_SIZE = 100;
+
     // Role Constants
     public static final String ROLE_PREFIX = "ROLE_";
     
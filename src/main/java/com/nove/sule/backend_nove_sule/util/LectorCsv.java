@@ -0,0 +1,87 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de CSV por streaming (RFC 4180): campos entre comillas con separadores,
+ * saltos de línea y comillas escapadas (""). El separador se detecta en la cabecera (',' o ';').
+ */
+public class LectorCsv implements Closeable {
+
+    private final Reader reader;
+    private char separador = ',';
+    private boolean separadorDetectado;
+    private int siguiente = -2;
+
+    public LectorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lee el siguiente registro o devuelve null al final del archivo
+     */
+    public List<String> leer() throws IOException {
+        if (siguiente == -2) {
+            siguiente = reader.read();
+            if (siguiente == '\uFEFF') {
+                siguiente = reader.read();
+            }
+        }
+        if (siguiente == -1) {
+            return null;
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        while (siguiente != -1) {
+            char c = (char) siguiente;
+            siguiente = reader.read();
+
+            if (entreComillas) {
+                if (c == '"') {
+                    if (siguiente == '"') {
+                        campo.append('"');
+                        siguiente = reader.read();
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+                continue;
+            }
+
+            if (c == '"') {
+                entreComillas = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && siguiente == '\n') {
+                    siguiente = reader.read();
+                }
+                break;
+            } else if (!separadorDetectado && (c == ',' || c == ';')) {
+                separador = c;
+                separadorDetectado = true;
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == separador && separadorDetectado) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,120 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Monto en céntimos de sol para los cálculos en memoria de líneas y totales.
+ * Se convierte desde y hacia BigDecimal solo al leer o escribir las entidades;
+ * toda operación que produce fracciones de céntimo redondea HALF_UP, igual que las columnas numeric(…, 2).
+ */
+public record Monto(long centimos) implements Comparable<Monto> {
+
+    public static final int ESCALA = 2;
+    public static final RoundingMode REDONDEO = RoundingMode.HALF_UP;
+    public static final Monto CERO = new Monto(0L);
+
+    public static Monto de(BigDecimal valor) {
+        return valor == null ? CERO : new Monto(centimos(valor));
+    }
+
+    /**
+     * Céntimos de un valor decimal, redondeando HALF_UP si trae más de dos decimales
+     */
+    public static long centimos(BigDecimal valor) {
+        if (valor == null) {
+            return 0L;
+        }
+        return valor.movePointRight(ESCALA).setScale(0, REDONDEO).longValueExact();
+    }
+
+    public static BigDecimal aBigDecimal(long centimos) {
+        return BigDecimal.valueOf(centimos, ESCALA);
+    }
+
+    public BigDecimal aBigDecimal() {
+        return aBigDecimal(centimos);
+    }
+
+    public Monto mas(Monto otro) {
+        return new Monto(Math.addExact(centimos, otro.centimos));
+    }
+
+    public Monto menos(Monto otro) {
+        return new Monto(Math.subtractExact(centimos, otro.centimos));
+    }
+
+    /**
+     * Precio por cantidad, redondeado al céntimo
+     */
+    public Monto por(Cantidad cantidad) {
+        return new Monto(multiplicar(centimos, cantidad.milesimas(), Cantidad.MILESIMAS_POR_UNIDAD));
+    }
+
+    /**
+     * Aplica una tasa expresada en diezmilésimas (1800 = 18%), redondeando al céntimo
+     */
+    public Monto porTasa(long tasaDiezMilesimas) {
+        return new Monto(aplicarTasa(centimos, tasaDiezMilesimas));
+    }
+
+    public Monto max(Monto otro) {
+        return centimos >= otro.centimos ? this : otro;
+    }
+
+    public Monto min(Monto otro) {
+        return centimos <= otro.centimos ? this : otro;
+    }
+
+    public int signum() {
+        return Long.signum(centimos);
+    }
+
+    @Override
+    public int compareTo(Monto otro) {
+        return Long.compare(centimos, otro.centimos);
+    }
+
+    @Override
+    public String toString() {
+        return aBigDecimal().toPlainString();
+    }
+
+    // ===== OPERACIONES SOBRE long =====
+
+    /**
+     * Céntimos por tasa en diezmilésimas, redondeado al céntimo
+     */
+    public static long aplicarTasa(long centimos, long tasaDiezMilesimas) {
+        return multiplicar(centimos, tasaDiezMilesimas, 10_000L);
+    }
+
+    /**
+     * {@code valor * numerador / denominador} redondeado HALF_UP; si el producto desborda un long
+     * se resuelve con BigDecimal
+     */
+    public static long multiplicar(long valor, long numerador, long denominador) {
+        long producto;
+        try {
+            producto = Math.multiplyExact(valor, numerador);
+        } catch (ArithmeticException e) {
+            return BigDecimal.valueOf(valor)
+                .multiply(BigDecimal.valueOf(numerador))
+                .divide(BigDecimal.valueOf(denominador), 0, REDONDEO)
+                .longValueExact();
+        }
+        return dividir(producto, denominador);
+    }
+
+    /**
+     * División entera redondeando HALF_UP (la mitad se aleja de cero)
+     */
+    public static long dividir(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (resto != 0 && Math.abs(resto) >= Math.abs(divisor) - Math.abs(resto)) {
+            cociente += Long.signum(dividendo) * Long.signum(divisor);
+        }
+        return cociente;
+    }
+}
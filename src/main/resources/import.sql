@@ -0,0 +1,15 @@
+-- Índices específicos de PostgreSQL que no se pueden declarar con anotaciones JPA
+CREATE INDEX IF NOT EXISTS idx_productos_tags ON productos USING GIN (tags jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_ordenes_compra_por_recibir ON ordenes_compra (fecha_entrega_esperada) WHERE estado IN ('PENDIENTE', 'APROBADA', 'PARCIALMENTE_RECIBIDA');
+CREATE INDEX IF NOT EXISTS idx_ordenes_compra_vencidas ON ordenes_compra (fecha_entrega_esperada) WHERE vencida;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_clientes_busqueda_trgm ON clientes USING GIST ((lower(coalesce(nombres, '') || ' ' || coalesce(apellidos, '') || ' ' || coalesce(razon_social, '') || ' ' || numero_documento)) gist_trgm_ops) WHERE estado = 'ACTIVO';
+CREATE INDEX IF NOT EXISTS idx_clientes_documento_prefijo ON clientes (numero_documento text_pattern_ops) WHERE estado = 'ACTIVO';
+CREATE INDEX IF NOT EXISTS idx_clientes_nombres_trgm ON clientes USING GIN (lower(nombres) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_apellidos_trgm ON clientes USING GIN (lower(apellidos) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_clientes_razon_social_trgm ON clientes USING GIN (lower(razon_social) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_comprobantes_venta_credito ON comprobantes_venta (cliente_id, fecha_emision) WHERE medio_pago = 'CREDITO' AND estado = 'ACTIVO';
+CREATE OR REPLACE FUNCTION marcar_version_cambio() RETURNS trigger LANGUAGE plpgsql AS $$ BEGIN NEW.version_cambio := pg_current_xact_id()::text::bigint; RETURN NEW; END $$;
+CREATE TRIGGER trg_productos_version_cambio BEFORE INSERT OR UPDATE ON productos FOR EACH ROW EXECUTE FUNCTION marcar_version_cambio();
+CREATE TRIGGER trg_categorias_version_cambio BEFORE INSERT OR UPDATE ON categorias FOR EACH ROW EXECUTE FUNCTION marcar_version_cambio();
+CREATE TRIGGER trg_marcas_version_cambio BEFORE INSERT OR UPDATE ON marcas FOR EACH ROW EXECUTE FUNCTION marcar_version_cambio();
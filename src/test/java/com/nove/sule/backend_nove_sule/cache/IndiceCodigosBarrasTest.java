@@ -0,0 +1,201 @@
+package com.nove.sule.backend_nove_sule.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nove.sule.backend_nove_sule.controller.ProductoController;
+import com.nove.sule.backend_nove_sule.dto.common.ApiResponseDTO;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import com.nove.sule.backend_nove_sule.search.IndiceProductos;
+import com.nove.sule.backend_nove_sule.search.ProductoIndexado;
+import com.nove.sule.backend_nove_sule.service.ImagenProductoService;
+import com.nove.sule.backend_nove_sule.service.ImportacionProductoService;
+import com.nove.sule.backend_nove_sule.service.ProductoService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Consistencia del índice de escaneo y medición repetible de su latencia contra el objetivo de p99 < 2 ms.
+ * La medición usa un catálogo y una secuencia de códigos fijos, con calentamiento previo, para que dos corridas
+ * en la misma máquina sean comparables; depende del reloj de la máquina, así que sólo corre con
+ * {@code mvn test -Dbenchmark=true}
+ */
+class IndiceCodigosBarrasTest {
+
+    /** Objetivo de latencia del escaneo en el punto de venta */
+    private static final long P99_OBJETIVO_NANOS = 2_000_000L;
+
+    private static final int PRODUCTOS = 100_000;
+    private static final int CALENTAMIENTO = 20_000;
+    private static final int MUESTRAS_INDICE = 200_000;
+    private static final int MUESTRAS_MANEJADOR = 20_000;
+
+    /** Catálogo compartido de sólo lectura; las pruebas que modifican el índice cargan el suyo */
+    private static IndiceCodigosBarras indice;
+
+    @BeforeAll
+    static void cargarCatalogo() {
+        indice = indiceCon(PRODUCTOS);
+    }
+
+    @Test
+    void resuelvePorCodigoDeBarrasYCodigoInterno() {
+        assertEquals(42L, indice.buscarPorCodigoBarras(codigoBarras(42)).orElseThrow().valor().getId());
+        assertEquals(42L, indice.buscarPorCodigo("P42").orElseThrow().valor().getId());
+        assertTrue(indice.buscarPorCodigoBarras("0000000000000").isEmpty());
+    }
+
+    @Test
+    void laRespuestaDelEscaneoEnvuelveElJsonCacheadoEnCadaPedido() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ApiResponseDTO<RawValue> respuesta = controladorSobre(indice).escanear(codigoBarras(42)).getBody();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(respuesta));
+        assertTrue(json.get("success").asBoolean());
+        assertEquals(42L, json.get("data").get("id").asLong());
+        assertEquals("P42", json.get("data").get("codigo").asText());
+        // El timestamp es el del pedido, no el del momento en que se llenó el índice
+        assertNotNull(json.get("timestamp"));
+        assertNull(json.get("data").get("timestamp"));
+    }
+
+    @Test
+    void unCodigoDeBarrasCompartidoPasaAlSiguienteIdAlCambiar() {
+        IndiceCodigosBarras indice = indiceCon(100);
+        String compartido = codigoBarras(10);
+        indice.actualizar(producto(5L, compartido));
+        indice.actualizar(producto(20L, compartido));
+        indice.eliminar(10L);
+        assertEquals(5L, indice.buscarPorCodigoBarras(compartido).orElseThrow().valor().getId());
+
+        indice.actualizar(producto(5L, "7750000000005"));
+        assertEquals(20L, indice.buscarPorCodigoBarras(compartido).orElseThrow().valor().getId());
+        assertEquals(5L, indice.buscarPorCodigoBarras("7750000000005").orElseThrow().valor().getId());
+
+        // Vuelve a tomarlo el menor ID aunque se registre después
+        indice.actualizar(producto(5L, compartido));
+        assertEquals(5L, indice.buscarPorCodigoBarras(compartido).orElseThrow().valor().getId());
+        indice.eliminar(5L);
+        indice.eliminar(20L);
+        assertTrue(indice.buscarPorCodigoBarras(compartido).isEmpty());
+
+        indice.eliminar(42L);
+        assertTrue(indice.buscarPorCodigoBarras(codigoBarras(42)).isEmpty());
+        assertTrue(indice.buscarPorCodigo("P42").isEmpty());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void p99DeBusquedaEnElIndiceBajoElObjetivo() {
+        long[] codigos = secuencia(CALENTAMIENTO + MUESTRAS_INDICE);
+        long[] muestras = new long[MUESTRAS_INDICE];
+        int encontrados = 0;
+        for (int i = 0; i < codigos.length; i++) {
+            String codigo = codigoBarras(codigos[i]);
+            long inicio = System.nanoTime();
+            boolean encontrado = indice.buscarPorCodigoBarras(codigo).isPresent();
+            long duracion = System.nanoTime() - inicio;
+            if (i >= CALENTAMIENTO) {
+                muestras[i - CALENTAMIENTO] = duracion;
+                encontrados += encontrado ? 1 : 0;
+            }
+        }
+
+        assertEquals(MUESTRAS_INDICE, encontrados);
+        long p99 = percentil(muestras, 0.99);
+        assertTrue(p99 < P99_OBJETIVO_NANOS, () -> "p99 del índice: " + p99 + " ns");
+    }
+
+    /**
+     * Mide el manejador del endpoint (controlador, servicio e índice) sin el contenedor de servlets ni la red;
+     * esa parte se sigue en producción con el p99 de http.server.requests que publica actuator
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void p99DelManejadorDeEscaneoBajoElObjetivo() {
+        ProductoController controller = controladorSobre(indice);
+
+        long[] codigos = secuencia(CALENTAMIENTO + MUESTRAS_MANEJADOR);
+        long[] muestras = new long[MUESTRAS_MANEJADOR];
+        for (int i = 0; i < codigos.length; i++) {
+            String codigo = codigoBarras(codigos[i]);
+            long inicio = System.nanoTime();
+            ResponseEntity<ApiResponseDTO<RawValue>> respuesta = controller.escanear(codigo);
+            long duracion = System.nanoTime() - inicio;
+            assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+            if (i >= CALENTAMIENTO) {
+                muestras[i - CALENTAMIENTO] = duracion;
+            }
+        }
+
+        long p99 = percentil(muestras, 0.99);
+        assertTrue(p99 < P99_OBJETIVO_NANOS, () -> "p99 del manejador de escaneo: " + p99 + " ns");
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Controlador cuyo servicio resuelve los escaneos sólo con el índice
+     */
+    private static ProductoController controladorSobre(IndiceCodigosBarras indice) {
+        ProductoService productoService = mock(ProductoService.class);
+        when(productoService.escanearSerializado(anyString())).thenAnswer(invocacion ->
+            indice.buscarPorCodigoBarras(invocacion.getArgument(0)).map(EntradaCache::json));
+        return new ProductoController(productoService, mock(ImportacionProductoService.class),
+            mock(ImagenProductoService.class));
+    }
+
+    private static IndiceCodigosBarras indiceCon(int productos) {
+        IndiceCodigosBarras nuevo = new IndiceCodigosBarras(Jackson2ObjectMapperBuilder.json().build());
+        IndiceProductos.Reconstruccion reconstruccion = nuevo.iniciarReconstruccion();
+        for (long id = 1; id <= productos; id++) {
+            reconstruccion.agregar(producto(id, codigoBarras(id)));
+        }
+        reconstruccion.publicar();
+        return nuevo;
+    }
+
+    /**
+     * IDs a escanear, siempre los mismos para una misma cantidad
+     */
+    private static long[] secuencia(int cantidad) {
+        Random random = new Random(20240601L);
+        long[] ids = new long[cantidad];
+        Arrays.setAll(ids, i -> 1 + random.nextInt(PRODUCTOS));
+        return ids;
+    }
+
+    private static long percentil(long[] muestras, double percentil) {
+        long[] ordenadas = muestras.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1];
+    }
+
+    private static String codigoBarras(long id) {
+        return String.format("775%010d", id);
+    }
+
+    private static ProductoIndexado producto(Long id, String codigoBarras) {
+        return new ProductoIndexado(id, "P" + id, codigoBarras, "Producto " + id, null, List.of(), null, null,
+            null, null, null, null, new BigDecimal("10.00"), new BigDecimal("11.80"), 50, 5, "UND",
+            TipoIGV.GRAVADO, Estado.ACTIVO);
+    }
+}
@@ -0,0 +1,51 @@
+package com.nove.sule.backend_nove_sule.entity.enums;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Límites de los segmentos según los puntajes de recencia y frecuencia
+ */
+class SegmentoClienteTest {
+
+    @Test
+    void frecuenciaAlta() {
+        assertEquals(SegmentoCliente.CAMPEONES, SegmentoCliente.de(5, 5));
+        assertEquals(SegmentoCliente.CAMPEONES, SegmentoCliente.de(4, 4));
+        assertEquals(SegmentoCliente.LEALES, SegmentoCliente.de(3, 4));
+        assertEquals(SegmentoCliente.LEALES, SegmentoCliente.de(3, 5));
+        assertEquals(SegmentoCliente.EN_RIESGO, SegmentoCliente.de(2, 4));
+        assertEquals(SegmentoCliente.EN_RIESGO, SegmentoCliente.de(1, 5));
+    }
+
+    @Test
+    void recenciaAltaConPocaFrecuencia() {
+        assertEquals(SegmentoCliente.NUEVOS, SegmentoCliente.de(4, 1));
+        assertEquals(SegmentoCliente.NUEVOS, SegmentoCliente.de(5, 1));
+        assertEquals(SegmentoCliente.POTENCIALES, SegmentoCliente.de(4, 2));
+        assertEquals(SegmentoCliente.POTENCIALES, SegmentoCliente.de(5, 3));
+    }
+
+    @Test
+    void recenciaIntermediaYBaja() {
+        assertEquals(SegmentoCliente.EN_RIESGO, SegmentoCliente.de(2, 3));
+        assertEquals(SegmentoCliente.EN_RIESGO, SegmentoCliente.de(1, 3));
+        assertEquals(SegmentoCliente.NECESITAN_ATENCION, SegmentoCliente.de(3, 3));
+        assertEquals(SegmentoCliente.NECESITAN_ATENCION, SegmentoCliente.de(3, 1));
+        assertEquals(SegmentoCliente.HIBERNANDO, SegmentoCliente.de(2, 2));
+        assertEquals(SegmentoCliente.HIBERNANDO, SegmentoCliente.de(2, 1));
+        assertEquals(SegmentoCliente.PERDIDOS, SegmentoCliente.de(1, 2));
+        assertEquals(SegmentoCliente.PERDIDOS, SegmentoCliente.de(1, 1));
+    }
+
+    @Test
+    void todaCombinacionTieneSegmento() {
+        for (int recencia = 1; recencia <= 5; recencia++) {
+            for (int frecuencia = 1; frecuencia <= 5; frecuencia++) {
+                assertNotNull(SegmentoCliente.de(recencia, frecuencia));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.nove.sule.backend_nove_sule.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con EXPLAIN que los filtros por tag usan el índice GIN de import.sql.
+ * Requiere una base PostgreSQL en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+class ProductoTagsExplainTest {
+
+    private static final String ESQUEMA = "explain_tags";
+
+    private static SingleConnectionDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void prepararDatos() throws IOException {
+        dataSource = new SingleConnectionDataSource(System.getenv("TEST_DATABASE_URL"),
+            System.getenv("TEST_DATABASE_USERNAME"), System.getenv("TEST_DATABASE_PASSWORD"), true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + ESQUEMA);
+        jdbcTemplate.execute("SET search_path TO " + ESQUEMA);
+        jdbcTemplate.execute("CREATE TABLE productos (id BIGINT PRIMARY KEY, estado VARCHAR(20), tags JSONB)");
+
+        String importSql = new ClassPathResource("import.sql").getContentAsString(StandardCharsets.UTF_8);
+        importSql.lines()
+            .filter(linea -> linea.contains("idx_productos_tags"))
+            .forEach(jdbcTemplate::execute);
+
+        jdbcTemplate.execute("INSERT INTO productos (id, estado, tags) " +
+            "SELECT i, CASE WHEN i % 20 = 0 THEN 'INACTIVO' ELSE 'ACTIVO' END, " +
+            "jsonb_build_array('tag' || (i % 500), 'grupo' || (i % 37)) " +
+            "FROM generate_series(1, 50000) i");
+        jdbcTemplate.execute("ANALYZE productos");
+    }
+
+    @AfterAll
+    static void limpiar() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+        dataSource.destroy();
+    }
+
+    @Test
+    void filtroConTodosLosTagsUsaIndiceGin() {
+        String sql = ProductoRepository.SQL_IDS_CON_TODOS_LOS_TAGS.replace(":tags", "'[\"tag7\", \"grupo7\"]'");
+        assertUsaIndice(sql);
+    }
+
+    @Test
+    void filtroConAlgunTagUsaIndiceGin() {
+        String sql = ProductoRepository.SQL_IDS_CON_ALGUN_TAG.replace(":tags", "ARRAY['[\"tag7\"]', '[\"tag8\"]']");
+        assertUsaIndice(sql);
+    }
+
+    private static void assertUsaIndice(String sql) {
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class);
+        assertTrue(plan.stream().anyMatch(linea -> linea.contains("idx_productos_tags")),
+            () -> "El plan no usa idx_productos_tags:\n" + String.join("\n", plan));
+    }
+}
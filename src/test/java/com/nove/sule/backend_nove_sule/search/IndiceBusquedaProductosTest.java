@@ -0,0 +1,122 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Relevancia, prefijos, errores de tipeo y paginación del índice invertido de productos
+ */
+class IndiceBusquedaProductosTest {
+
+    private final IndiceBusquedaProductos indice = new IndiceBusquedaProductos();
+
+    @Test
+    void ordenaPorPesoDelCampo() {
+        indice.actualizar(producto(1L, "Galletas de avena", "Con arroz inflado"));
+        indice.actualizar(producto(2L, "Arroz extra", null));
+
+        assertEquals(List.of(2L, 1L), ids("arroz"));
+    }
+
+    @Test
+    void coincidenciaExactaSuperaAlPrefijo() {
+        indice.actualizar(producto(1L, "Lechera", null));
+        indice.actualizar(producto(2L, "Leche entera", null));
+
+        assertEquals(List.of(2L, 1L), ids("leche"));
+        assertEquals(List.of(1L, 2L), ids("lech"));
+    }
+
+    @Test
+    void ignoraTildesYMayusculas() {
+        indice.actualizar(producto(1L, "Azúcar rubia", null));
+
+        assertEquals(List.of(1L), ids("AZUCAR"));
+        assertEquals(List.of(1L), ids("azúc"));
+    }
+
+    @Test
+    void toleraUnErrorDeTipeo() {
+        indice.actualizar(producto(1L, "Aceite vegetal", null));
+
+        assertEquals(List.of(1L), ids("aciete"), "transposición");
+        assertEquals(List.of(1L), ids("acite"), "borrado");
+        assertEquals(List.of(1L), ids("aceitte"), "inserción");
+        assertEquals(List.of(1L), ids("acoite"), "sustitución");
+        assertEquals(List.of(), ids("acoitte"), "dos errores");
+        // Los términos cortos no admiten errores
+        indice.actualizar(producto(2L, "Sal", null));
+        assertEquals(List.of(), ids("sol"));
+    }
+
+    @Test
+    void exigeTodosLosTerminos() {
+        indice.actualizar(producto(1L, "Arroz extra", null));
+        indice.actualizar(producto(2L, "Arroz integral", null));
+
+        assertEquals(List.of(2L), ids("arroz integral"));
+        assertEquals(List.of(), ids("arroz fideos"));
+    }
+
+    @Test
+    void paginaEnOrdenEstableConElTotal() {
+        LongStream.rangeClosed(1, 25).forEach(id -> indice.actualizar(producto(id, "Fideos " + id, null)));
+
+        ResultadoBusqueda pagina = indice.buscar("fideos", 10, 10);
+        assertEquals(25, pagina.total());
+        assertEquals(LongStream.rangeClosed(11, 20).boxed().toList(), pagina.productoIds());
+
+        ResultadoBusqueda ultima = indice.buscar("fideos", 20, 10);
+        assertEquals(LongStream.rangeClosed(21, 25).boxed().toList(), ultima.productoIds());
+
+        ResultadoBusqueda fuera = indice.buscar("fideos", Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(25, fuera.total());
+        assertTrue(fuera.productoIds().isEmpty());
+    }
+
+    @Test
+    void reindexarReemplazaLosTerminosYReutilizaOrdinales() {
+        indice.actualizar(producto(1L, "Arroz extra", null));
+        indice.actualizar(producto(1L, "Fideos canuto", null));
+        assertEquals(List.of(), ids("arroz"));
+        assertEquals(List.of(1L), ids("fideos"));
+
+        for (long id = 2; id <= 50; id++) {
+            indice.actualizar(producto(id, "Atún en aceite", null));
+            indice.eliminar(id);
+        }
+        indice.actualizar(inactivo(1L, "Fideos canuto"));
+        assertEquals(List.of(), ids("fideos"));
+        assertEquals(List.of(), ids("atun"));
+
+        indice.actualizar(producto(60L, "Atún en agua", null));
+        assertEquals(List.of(60L), ids("atun"));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private List<Long> ids(String texto) {
+        return indice.buscar(texto, 0, 100).productoIds();
+    }
+
+    private static ProductoIndexado producto(Long id, String nombre, String descripcion) {
+        return producto(id, nombre, descripcion, Estado.ACTIVO);
+    }
+
+    private static ProductoIndexado inactivo(Long id, String nombre) {
+        return producto(id, nombre, null, Estado.INACTIVO);
+    }
+
+    private static ProductoIndexado producto(Long id, String nombre, String descripcion, Estado estado) {
+        return new ProductoIndexado(id, "P" + id, null, nombre, descripcion, List.of(), null, null, null, null,
+            null, null, BigDecimal.TEN, BigDecimal.TEN, 10, 1, "UND", TipoIGV.GRAVADO, estado);
+    }
+}
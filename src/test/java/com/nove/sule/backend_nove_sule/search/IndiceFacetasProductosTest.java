@@ -0,0 +1,160 @@
+package com.nove.sule.backend_nove_sule.search;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ValorFacetaDTO;
+import com.nove.sule.backend_nove_sule.entity.enums.Estado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Filtros, conteos por faceta, rangos de precio y paginación del motor de facetas
+ */
+class IndiceFacetasProductosTest {
+
+    private final IndiceBusquedaProductos indiceBusqueda = new IndiceBusquedaProductos();
+    private final IndiceFacetasProductos indice = new IndiceFacetasProductos(indiceBusqueda);
+
+    @Test
+    void losConteosDeUnaFacetaIgnoranSuPropioFiltro() {
+        cargarCatalogo();
+
+        ResultadoFacetado resultado = indice.buscar(consulta(null, List.of(10L), null, null), 0, 10);
+
+        assertEquals(List.of(2L, 1L), resultado.productoIds());
+        assertEquals(2, resultado.total());
+        assertEquals(Map.of("10", 2L, "20", 2L), conteos(resultado, IndiceFacetasProductos.FACETA_CATEGORIA));
+        assertEquals(Map.of("100", 1L, "200", 1L), conteos(resultado, IndiceFacetasProductos.FACETA_MARCA));
+        assertTrue(faceta(resultado, IndiceFacetasProductos.FACETA_CATEGORIA).stream()
+            .anyMatch(valor -> valor.getValor().equals("10") && valor.isSeleccionado()));
+    }
+
+    @Test
+    void combinaValoresConOrYFacetasConAnd() {
+        cargarCatalogo();
+
+        ResultadoFacetado resultado = indice.buscar(consulta(null, List.of(10L, 20L), List.of(200L), null), 0, 10);
+
+        assertEquals(List.of(4L, 2L), resultado.productoIds());
+        assertEquals(Map.of("10", 1L, "20", 1L), conteos(resultado, IndiceFacetasProductos.FACETA_CATEGORIA));
+        assertEquals(Map.of("100", 2L, "200", 2L), conteos(resultado, IndiceFacetasProductos.FACETA_MARCA));
+    }
+
+    @Test
+    void ubicaLosPreciosEnRangosConLimiteSuperiorExclusivo() {
+        indice.actualizar(producto(1L, "Caramelo", 10L, 100L, "9.99"));
+        indice.actualizar(producto(2L, "Galletas", 10L, 100L, "10.00"));
+        indice.actualizar(producto(3L, "Vino", 10L, 100L, "499.99"));
+        indice.actualizar(producto(4L, "Whisky", 10L, 100L, "500.00"));
+
+        ResultadoFacetado todos = indice.buscar(consulta(null, null, null, null), 0, 10);
+        assertEquals(Map.of("0-10", 1L, "10-25", 1L, "250-500", 1L, "500+", 1L),
+            conteos(todos, IndiceFacetasProductos.FACETA_PRECIO));
+
+        ResultadoFacetado extremos = indice.buscar(consulta(null, null, null, List.of("0-10", "500+")), 0, 10);
+        assertEquals(List.of(4L, 1L), extremos.productoIds());
+        // El filtro de precio no recorta su propia faceta
+        assertEquals(4, conteos(extremos, IndiceFacetasProductos.FACETA_PRECIO).size());
+    }
+
+    @Test
+    void conTextoOrdenaPorRelevanciaDentroDelFiltro() {
+        cargarCatalogo();
+
+        ResultadoFacetado resultado = indice.buscar(consulta("arroz", List.of(20L), null, null), 0, 10);
+
+        assertEquals(List.of(3L, 4L), resultado.productoIds());
+        assertEquals(2, resultado.total());
+        // Las facetas sólo cuentan productos que coinciden con el texto
+        assertEquals(Map.of("20", 2L), conteos(resultado, IndiceFacetasProductos.FACETA_CATEGORIA));
+    }
+
+    @Test
+    void paginaSinDesbordarseConDesplazamientosGrandes() {
+        cargarCatalogo();
+
+        assertEquals(List.of(3L, 2L), indice.buscar(consulta(null, null, null, null), 1, 2).productoIds());
+        assertEquals(List.of(4L), indice.buscar(consulta("arroz", null, null, null), 1, 5).productoIds());
+
+        ResultadoFacetado fuera = indice.buscar(consulta(null, null, null, null), Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(4, fuera.total());
+        assertTrue(fuera.productoIds().isEmpty());
+        assertTrue(indice.buscar(consulta("arroz", null, null, null), Integer.MAX_VALUE, Integer.MAX_VALUE)
+            .productoIds().isEmpty());
+    }
+
+    @Test
+    void unProductoInactivoSaleDeLosBitmaps() {
+        cargarCatalogo();
+        indice.actualizar(producto(2L, "Azúcar rubia", 10L, 200L, "30.00", Estado.INACTIVO));
+
+        ResultadoFacetado resultado = indice.buscar(consulta(null, List.of(10L), null, null), 0, 10);
+        assertEquals(List.of(1L), resultado.productoIds());
+        assertEquals(Map.of("100", 1L), conteos(resultado, IndiceFacetasProductos.FACETA_MARCA));
+    }
+
+    @Test
+    void reutilizarOrdinalesLiberadosConservaElOrdenPorRecientes() {
+        cargarCatalogo();
+        indice.eliminar(2L);
+        indice.actualizar(producto(5L, "Leche", 10L, 100L, "4.50"));
+
+        ResultadoFacetado resultado = indice.buscar(consulta(null, null, null, null), 0, 10);
+        assertEquals(List.of(5L, 4L, 3L, 1L), resultado.productoIds());
+        assertEquals(Map.of("10", 2L, "20", 2L), conteos(resultado, IndiceFacetasProductos.FACETA_CATEGORIA));
+
+        // Un producto reactivado vuelve a su lugar por ID, no al principio
+        indice.actualizar(producto(2L, "Azúcar rubia", 10L, 200L, "30.00"));
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), indice.buscar(consulta(null, null, null, null), 0, 10).productoIds());
+        assertEquals(List.of(4L, 3L), indice.buscar(consulta(null, null, null, null), 1, 2).productoIds());
+        assertEquals(List.of(2L, 1L), indice.buscar(consulta(null, List.of(10L), List.of(100L, 200L), null), 1, 5)
+            .productoIds());
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * Dos categorías por dos marcas, con precios en rangos distintos; 3 y 4 comparten el término "arroz",
+     * con más peso en el nombre de 3
+     */
+    private void cargarCatalogo() {
+        indice.actualizar(producto(1L, "Fideos canuto", 10L, 100L, "5.00"));
+        indice.actualizar(producto(2L, "Azúcar rubia", 10L, 200L, "30.00"));
+        indice.actualizar(producto(3L, "Arroz extra", 20L, 100L, "120.00"));
+        indice.actualizar(producto(4L, "Aceite", 20L, 200L, "600.00"));
+        indiceBusqueda.actualizar(producto(3L, "Arroz extra", 20L, 100L, "120.00"));
+        indiceBusqueda.actualizar(new ProductoIndexado(4L, "P4", null, "Aceite", "Ideal para arroz", List.of(),
+            20L, null, 200L, null, null, null, BigDecimal.ONE, BigDecimal.ONE, 1, 1, "UND", TipoIGV.GRAVADO,
+            Estado.ACTIVO));
+    }
+
+    private static ConsultaFacetas consulta(String texto, List<Long> categorias, List<Long> marcas, List<String> rangos) {
+        return new ConsultaFacetas(texto, categorias, marcas, null, rangos);
+    }
+
+    private static List<ValorFacetaDTO> faceta(ResultadoFacetado resultado, String nombre) {
+        return resultado.facetas().get(nombre);
+    }
+
+    private static Map<String, Long> conteos(ResultadoFacetado resultado, String nombre) {
+        return faceta(resultado, nombre).stream()
+            .collect(Collectors.toMap(ValorFacetaDTO::getValor, ValorFacetaDTO::getCantidad));
+    }
+
+    private static ProductoIndexado producto(Long id, String nombre, Long categoriaId, Long marcaId, String precio) {
+        return producto(id, nombre, categoriaId, marcaId, precio, Estado.ACTIVO);
+    }
+
+    private static ProductoIndexado producto(Long id, String nombre, Long categoriaId, Long marcaId, String precio,
+                                             Estado estado) {
+        return new ProductoIndexado(id, "P" + id, null, nombre, null, List.of(), categoriaId, "Categoría " + categoriaId,
+            marcaId, "Marca " + marcaId, null, null, new BigDecimal(precio), new BigDecimal(precio), 10, 1, "UND",
+            TipoIGV.GRAVADO, estado);
+    }
+}
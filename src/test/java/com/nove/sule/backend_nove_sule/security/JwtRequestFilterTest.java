@@ -0,0 +1,177 @@
+package com.nove.sule.backend_nove_sule.security;
+
+import com.nove.sule.backend_nove_sule.entity.Usuario;
+import com.nove.sule.backend_nove_sule.entity.enums.Rol;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.util.Constants;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Autenticación de peticiones con JWT y medición antes/después del filtro (sólo con {@code mvn test -Dbenchmark=true}).
+ * "Antes" reproduce el camino anterior: tres parseos del token, cada uno con la clave reconstruida, y la carga
+ * del usuario completo desde la base; "después" es el filtro actual, con un parseo y el estado del usuario en caché.
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@Slf4j
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+class JwtRequestFilterTest {
+
+    private static final String RUTA = "/api/v1/productos";
+    private static final int CALENTAMIENTO = 5_000;
+    private static final int MUESTRAS = 20_000;
+
+    @Autowired
+    private JwtRequestFilter jwtRequestFilter;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${app.jwt.secret}")
+    private String jwtSecret;
+
+    @AfterEach
+    void limpiarContexto() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void autenticaConLosDatosDelToken() throws Exception {
+        Usuario usuario = nuevoUsuario();
+
+        filtrar(jwtTokenUtil.generateToken(usuario));
+
+        UsuarioAutenticado principal = assertInstanceOf(UsuarioAutenticado.class,
+            SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+        assertEquals(usuario.getId(), principal.id());
+        assertEquals(Rol.VENDEDOR, principal.rol());
+    }
+
+    @Test
+    void rechazaUnTokenAlterado() throws Exception {
+        String token = jwtTokenUtil.generateToken(nuevoUsuario());
+
+        filtrar(token.substring(0, token.length() - 2) + "xx");
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void medirFiltroAntesYDespues() throws Exception {
+        String token = jwtTokenUtil.generateToken(nuevoUsuario());
+
+        long[] antes = medir(() -> {
+            assertNotNull(autenticarComoAntes(token));
+        });
+        long[] despues = medir(() -> {
+            filtrar(token);
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+            SecurityContextHolder.clearContext();
+        });
+
+        log.info("Filtro JWT antes:   p50 {} ns, p99 {} ns", percentil(antes, 0.50), percentil(antes, 0.99));
+        log.info("Filtro JWT después: p50 {} ns, p99 {} ns", percentil(despues, 0.50), percentil(despues, 0.99));
+        assertTrue(percentil(despues, 0.50) < percentil(antes, 0.50),
+            () -> "p50 antes " + percentil(antes, 0.50) + " ns, después " + percentil(despues, 0.50) + " ns");
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void filtrar(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", RUTA);
+        request.addHeader(Constants.JWT_HEADER_NAME, Constants.JWT_TOKEN_PREFIX + token);
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    /**
+     * Camino de autenticación anterior: username, validación (username y vencimiento) y el usuario desde la base
+     */
+    private UserDetails autenticarComoAntes(String token) {
+        String username = leerComoAntes(token).getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        boolean valido = leerComoAntes(token).getSubject().equals(userDetails.getUsername())
+            && !leerComoAntes(token).getExpiration().before(new Date());
+        return valido ? userDetails : null;
+    }
+
+    private Claims leerComoAntes(String token) {
+        SecretKey clave = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        try {
+            return Jwts.parser().verifyWith(clave).build().parseSignedClaims(token).getPayload();
+        } catch (JwtException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long[] medir(Medicion medicion) throws Exception {
+        long[] muestras = new long[MUESTRAS];
+        for (int i = 0; i < CALENTAMIENTO + MUESTRAS; i++) {
+            long inicio = System.nanoTime();
+            medicion.ejecutar();
+            long duracion = System.nanoTime() - inicio;
+            if (i >= CALENTAMIENTO) {
+                muestras[i - CALENTAMIENTO] = duracion;
+            }
+        }
+        return muestras;
+    }
+
+    private Usuario nuevoUsuario() {
+        String sufijo = String.valueOf(System.nanoTime());
+        return usuarioRepository.save(Usuario.builder()
+            .username("filtro" + sufijo).email("filtro" + sufijo + "@prueba.pe").password("x").rol(Rol.VENDEDOR)
+            .build());
+    }
+
+    private static long percentil(long[] muestras, double percentil) {
+        long[] ordenadas = muestras.clone();
+        Arrays.sort(ordenadas);
+        return ordenadas[(int) Math.ceil(percentil * ordenadas.length) - 1];
+    }
+
+    private interface Medicion {
+
+        void ejecutar() throws Exception;
+    }
+}
@@ -0,0 +1,167 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.caja.CajaDTO;
+import com.nove.sule.backend_nove_sule.dto.caja.CajaRequestDTO;
+import com.nove.sule.backend_nove_sule.dto.caja.MovimientoCajaRequestDTO;
+import com.nove.sule.backend_nove_sule.entity.Caja;
+import com.nove.sule.backend_nove_sule.entity.Empleado;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoMovimiento;
+import com.nove.sule.backend_nove_sule.repository.EmpleadoRepository;
+import com.nove.sule.backend_nove_sule.service.CajaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica con 32 cajeros concurrentes sobre una misma caja, mientras otro hilo la edita y le cambia el estado,
+ * que el saldo final coincide con el libro de movimientos y que ningún egreso lo deja negativo.
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+class CajaServiceImplTest {
+
+    private static final int HILOS = 32;
+    private static final int MOVIMIENTOS_POR_HILO = 200;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+
+    @Autowired
+    private CajaService cajaService;
+
+    @Autowired
+    private EmpleadoRepository empleadoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void saldoFinalIgualaElLibroConCajerosConcurrentes() throws Exception {
+        Empleado responsable = empleadoRepository.save(Empleado.builder()
+            .nombres("Prueba").apellidos("Caja").dni(String.format("%08d", new Random().nextInt(100_000_000)))
+            .build());
+        CajaRequestDTO request = CajaRequestDTO.builder()
+            .nombre("Caja prueba " + System.nanoTime())
+            .saldoInicial(SALDO_INICIAL)
+            .responsableId(responsable.getId())
+            .build();
+        CajaDTO caja = cajaService.crearCaja(request);
+        Long cajaId = caja.getId();
+        assertEquals(0, SALDO_INICIAL.compareTo(cajaService.calcularSaldoActual(cajaId)));
+
+        AtomicInteger aceptados = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+        AtomicInteger ediciones = new AtomicInteger();
+        AtomicBoolean terminado = new AtomicBoolean();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS + 1);
+        try {
+            // Las ediciones leen la caja y la guardan: antes escribían el saldo leído encima de los movimientos
+            Future<?> edicion = executor.submit(() -> {
+                largada.await();
+                while (!terminado.get()) {
+                    request.setDescripcion("Edición " + ediciones.incrementAndGet());
+                    cajaService.actualizarCaja(cajaId, request);
+                    cajaService.cambiarEstado(cajaId, Caja.EstadoCaja.ABIERTA);
+                }
+                return null;
+            });
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                Random random = new Random(20240700L + i);
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int n = 0; n < MOVIMIENTOS_POR_HILO; n++) {
+                        // Los egresos son mayores en promedio para que haya rechazos por saldo insuficiente
+                        boolean ingreso = random.nextBoolean();
+                        MovimientoCajaRequestDTO movimiento = MovimientoCajaRequestDTO.builder()
+                            .cajaId(cajaId)
+                            .tipoMovimiento(ingreso ? TipoMovimiento.INGRESO : TipoMovimiento.EGRESO)
+                            .monto(BigDecimal.valueOf(random.nextInt(ingreso ? 5_000 : 8_000) + 1, 2))
+                            .concepto("Prueba")
+                            .build();
+                        try {
+                            cajaService.registrarMovimiento(movimiento);
+                            aceptados.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            assertEquals("Saldo insuficiente para realizar el egreso", e.getMessage());
+                            rechazados.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            terminado.set(true);
+            edicion.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BigDecimal saldoFinal = cajaService.calcularSaldoActual(cajaId);
+        BigDecimal sumaLibro = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(SUM(CASE WHEN tipo_movimiento = 'INGRESO' THEN monto ELSE -monto END), 0) " +
+            "FROM movimientos_caja WHERE caja_id = ?", BigDecimal.class, cajaId);
+        assertEquals(0, SALDO_INICIAL.add(sumaLibro).compareTo(saldoFinal),
+            () -> "Saldo " + saldoFinal + " distinto del libro " + SALDO_INICIAL.add(sumaLibro));
+        assertEquals(HILOS * MOVIMIENTOS_POR_HILO, aceptados.get() + rechazados.get());
+        assertTrue(rechazados.get() > 0, "La prueba debería provocar egresos rechazados");
+        assertTrue(ediciones.get() > 0, "La prueba debería editar la caja mientras se registran movimientos");
+
+        // Cada movimiento parte exactamente del saldo que dejó el anterior y ninguno queda negativo
+        List<Map<String, Object>> libro = jdbcTemplate.queryForList(
+            "SELECT saldo_anterior, saldo_nuevo FROM movimientos_caja WHERE caja_id = ? ORDER BY id", cajaId);
+        assertEquals(aceptados.get(), libro.size());
+        BigDecimal esperado = SALDO_INICIAL;
+        for (Map<String, Object> movimiento : libro) {
+            BigDecimal anterior = (BigDecimal) movimiento.get("saldo_anterior");
+            BigDecimal nuevo = (BigDecimal) movimiento.get("saldo_nuevo");
+            assertEquals(0, esperado.compareTo(anterior), "Cadena de saldos rota en " + anterior);
+            assertTrue(nuevo.signum() >= 0, "Saldo negativo: " + nuevo);
+            esperado = nuevo;
+        }
+        assertEquals(0, esperado.compareTo(saldoFinal));
+
+        // El historial por fecha, que es el orden del cursor, sigue la misma cadena que los IDs
+        String movimientosPor = "SELECT id FROM movimientos_caja WHERE caja_id = ? ORDER BY ";
+        assertEquals(jdbcTemplate.queryForList(movimientosPor + "id", Long.class, cajaId),
+            jdbcTemplate.queryForList(movimientosPor + "fecha_movimiento, id", Long.class, cajaId));
+
+        // Cerrar la caja no altera su saldo y desde entonces rechaza los movimientos
+        cajaService.cerrarCaja(cajaId);
+        assertEquals(0, saldoFinal.compareTo(cajaService.calcularSaldoActual(cajaId)));
+        assertFalse(cajaService.validarCajaActiva(cajaId));
+
+        // Editar los datos de una caja cerrada no la vuelve a abrir
+        request.setDescripcion("Edición tras el cierre");
+        cajaService.actualizarCaja(cajaId, request);
+        assertFalse(cajaService.validarCajaActiva(cajaId));
+        assertEquals(0, saldoFinal.compareTo(cajaService.calcularSaldoActual(cajaId)));
+    }
+}
@@ -0,0 +1,125 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.ClienteResponseDTO;
+import com.nove.sule.backend_nove_sule.service.ClienteService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que las sugerencias de clientes encuentran la mejor coincidencia aunque el texto coincida con más
+ * clientes que los candidatos que se reordenan, y mide su latencia contra el objetivo de p99 < 10 ms
+ * (sólo con {@code mvn test -Dbenchmark=true}).
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ClienteServiceImplTest {
+
+    /** Más que los candidatos que ordena la consulta, para que el corte importe */
+    private static final int COINCIDENCIAS = 1500;
+
+    private static final long P99_OBJETIVO_NANOS = 10_000_000L;
+    private static final int CALENTAMIENTO = 50;
+    private static final int MUESTRAS = 500;
+
+    private static final String SQL_INSERTAR =
+        "INSERT INTO clientes (tipo_documento, numero_documento, nombres, apellidos, estado, limite_credito, " +
+        "fecha_creacion, fecha_modificacion) VALUES ('DNI', ?, ?, ?, 'ACTIVO', 0, now(), now())";
+
+    private final Random random = new Random();
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** Palabra propia de esta corrida; los relleno la contienen como prefijo y el buscado la tiene completa */
+    private String palabra;
+
+    /** Dígitos que todos los rellenos contienen en medio del documento y el buscado al principio */
+    private String digitos;
+
+    @BeforeAll
+    void cargarClientes() {
+        palabra = letrasAlAzar(6);
+        digitos = String.format("%06d", random.nextInt(1_000_000));
+
+        List<Object[]> filas = new ArrayList<>();
+        for (int i = 0; i < COINCIDENCIAS; i++) {
+            filas.add(new Object[] {"1" + digitos + String.format("%04d", i), palabra + "oso", "Relleno " + i});
+        }
+        jdbcTemplate.batchUpdate(SQL_INSERTAR, filas);
+        // Se insertan al final para que un corte sin orden, que sigue el orden físico, los deje afuera
+        jdbcTemplate.update(SQL_INSERTAR, "2" + digitos + "0000", palabra, "Buscado");
+        jdbcTemplate.update(SQL_INSERTAR, digitos + "99", "Documento", "Buscado");
+    }
+
+    @Test
+    void laCoincidenciaExactaGanaAunqueHayaMasDeMilCandidatos() {
+        List<ClienteResponseDTO> sugerencias = clienteService.sugerir(palabra, 10);
+
+        assertEquals(10, sugerencias.size());
+        assertEquals("2" + digitos + "0000", sugerencias.get(0).getNumeroDocumento());
+    }
+
+    @Test
+    void elDocumentoQueEmpiezaConLoEscritoVaPrimero() {
+        List<ClienteResponseDTO> sugerencias = clienteService.sugerir(digitos, 10);
+
+        assertEquals(10, sugerencias.size());
+        assertEquals(digitos + "99", sugerencias.get(0).getNumeroDocumento());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void p99DeSugerenciasBajoElObjetivo() {
+        String[] textos = {palabra, digitos, palabra + " relleno", palabra.substring(0, 4)};
+        long[] muestras = new long[MUESTRAS];
+        for (int i = 0; i < CALENTAMIENTO + MUESTRAS; i++) {
+            long inicio = System.nanoTime();
+            List<ClienteResponseDTO> sugerencias = clienteService.sugerir(textos[i % textos.length], 10);
+            long duracion = System.nanoTime() - inicio;
+            assertFalse(sugerencias.isEmpty());
+            if (i >= CALENTAMIENTO) {
+                muestras[i - CALENTAMIENTO] = duracion;
+            }
+        }
+
+        Arrays.sort(muestras);
+        long p99 = muestras[(int) Math.ceil(0.99 * MUESTRAS) - 1];
+        assertTrue(p99 < P99_OBJETIVO_NANOS, () -> "p99 de sugerencias: " + p99 + " ns");
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private String letrasAlAzar(int cantidad) {
+        StringBuilder letras = new StringBuilder();
+        for (int i = 0; i < cantidad; i++) {
+            letras.append((char) ('a' + random.nextInt(26)));
+        }
+        return letras.toString();
+    }
+}
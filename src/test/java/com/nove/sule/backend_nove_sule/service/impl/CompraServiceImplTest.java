@@ -0,0 +1,170 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.compras.OrdenCompraDTO;
+import com.nove.sule.backend_nove_sule.dto.compras.OrdenCompraRequestDTO;
+import com.nove.sule.backend_nove_sule.entity.Categoria;
+import com.nove.sule.backend_nove_sule.entity.Marca;
+import com.nove.sule.backend_nove_sule.entity.Producto;
+import com.nove.sule.backend_nove_sule.entity.Proveedor;
+import com.nove.sule.backend_nove_sule.entity.Usuario;
+import com.nove.sule.backend_nove_sule.entity.enums.EstadoOrdenCompra;
+import com.nove.sule.backend_nove_sule.entity.enums.Rol;
+import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
+import com.nove.sule.backend_nove_sule.repository.MarcaRepository;
+import com.nove.sule.backend_nove_sule.repository.ProductoRepository;
+import com.nove.sule.backend_nove_sule.repository.ProveedorRepository;
+import com.nove.sule.backend_nove_sule.repository.UsuarioRepository;
+import com.nove.sule.backend_nove_sule.service.CompraService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que cancelar una orden mientras otra transacción registra su recepción espera a que esta termine
+ * y mueve el resumen diario desde el estado ya recibido, sin contar la orden dos veces.
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+class CompraServiceImplTest {
+
+    private final Random random = new Random();
+
+    @Autowired
+    private CompraService compraService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MarcaRepository marcaRepository;
+
+    @Autowired
+    private ProveedorRepository proveedorRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cancelarDuranteUnaRecepcionEsperaYMueveElResumenUnaSolaVez() throws Exception {
+        String sufijo = String.valueOf(System.nanoTime());
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+            .username("compras" + sufijo).email("compras" + sufijo + "@prueba.pe").password("x").rol(Rol.ALMACENERO)
+            .build());
+        Proveedor proveedor = proveedorRepository.save(Proveedor.builder()
+            .nombre("Proveedor " + sufijo).ruc(String.format("20%09d", random.nextInt(1_000_000_000)))
+            .direccion("Av. Prueba 123").distrito("Lima").provincia("Lima").departamento("Lima")
+            .telefono("999999999").email("proveedor" + sufijo + "@prueba.pe").contacto("Contacto")
+            .build());
+        Producto producto = productoRepository.save(Producto.builder()
+            .nombre("Producto " + sufijo).codigo("OC" + sufijo).precio(new BigDecimal("10.00")).unidad("UND")
+            .categoria(categoriaRepository.save(Categoria.builder().nombre("Categoría " + sufijo).build()))
+            .marca(marcaRepository.save(Marca.builder().nombre("Marca " + sufijo).build()))
+            .proveedor(proveedor)
+            .build());
+
+        // Una fecha propia aísla las filas del resumen diario de las de otras pruebas
+        LocalDate fechaOrden = LocalDate.of(2001, 1, 1).plusDays(random.nextInt(3_000));
+        OrdenCompraDTO orden = compraService.crearOrdenCompra(OrdenCompraRequestDTO.builder()
+            .proveedorId(proveedor.getId())
+            .fechaOrden(fechaOrden)
+            .detalles(List.of(OrdenCompraRequestDTO.DetalleOrdenCompraRequestDTO.builder()
+                .productoId(producto.getId()).cantidad(10).precioUnitario(new BigDecimal("5.00")).build()))
+            .build());
+        Long ordenId = orden.getId();
+
+        CountDownLatch recibida = new CountDownLatch(1);
+        CountDownLatch confirmar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> recepcion = executor.submit(() -> {
+                SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(usuario.getUsername(), null, usuario.getAuthorities()));
+                try {
+                    transactionTemplate.executeWithoutResult(estado -> {
+                        compraService.recibirOrdenCompra(ordenId, null);
+                        recibida.countDown();
+                        // La recepción retiene el bloqueo de la orden hasta confirmar
+                        esperar(confirmar);
+                    });
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+                return null;
+            });
+            assertTrue(recibida.await(30, TimeUnit.SECONDS), "La recepción no llegó a registrarse");
+
+            Future<OrdenCompraDTO> cancelacion = executor.submit(() -> compraService.cancelarOrdenCompra(ordenId));
+            Thread.sleep(500);
+            assertFalse(cancelacion.isDone(), "La cancelación debería esperar el bloqueo de la recepción");
+
+            confirmar.countDown();
+            recepcion.get(30, TimeUnit.SECONDS);
+            assertEquals(EstadoOrdenCompra.CANCELADA, cancelacion.get(30, TimeUnit.SECONDS).getEstado());
+        } finally {
+            confirmar.countDown();
+            executor.shutdownNow();
+        }
+
+        // La orden aporta una sola vez al resumen, en su estado final
+        Map<String, Long> ordenesPorEstado = jdbcTemplate.queryForList(
+                "SELECT estado, ordenes FROM resumen_compras_diario WHERE fecha = ?", fechaOrden).stream()
+            .collect(Collectors.toMap(fila -> (String) fila.get("estado"), fila -> ((Number) fila.get("ordenes")).longValue()));
+        assertEquals(1L, ordenesPorEstado.getOrDefault(EstadoOrdenCompra.CANCELADA.name(), 0L));
+        assertEquals(0L, ordenesPorEstado.getOrDefault(EstadoOrdenCompra.PENDIENTE.name(), 0L));
+        assertEquals(0L, ordenesPorEstado.getOrDefault(EstadoOrdenCompra.RECIBIDA.name(), 0L));
+        assertEquals(1L, ordenesPorEstado.values().stream().mapToLong(Long::longValue).sum());
+
+        // El guardado de la cancelación no deshizo la recepción confirmada antes
+        assertEquals(10, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(10, jdbcTemplate.queryForObject(
+            "SELECT SUM(cantidad_recibida) FROM detalle_orden_compra WHERE orden_compra_id = ?", Integer.class, ordenId));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
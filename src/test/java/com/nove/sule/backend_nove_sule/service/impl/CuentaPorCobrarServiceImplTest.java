@@ -0,0 +1,97 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.cliente.PagoClienteRequestDTO;
+import com.nove.sule.backend_nove_sule.entity.Cliente;
+import com.nove.sule.backend_nove_sule.entity.enums.MedioPago;
+import com.nove.sule.backend_nove_sule.entity.enums.TipoDocumento;
+import com.nove.sule.backend_nove_sule.repository.ClienteRepository;
+import com.nove.sule.backend_nove_sule.service.CuentaPorCobrarService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica que anular una venta al crédito nunca deja el saldo del cliente negativo.
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+class CuentaPorCobrarServiceImplTest {
+
+    private static final BigDecimal VENTA = new BigDecimal("100.00");
+
+    @Autowired
+    private CuentaPorCobrarService cuentaPorCobrarService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Test
+    void anularUnaVentaYaPagadaSeRechazaYElSaldoNoQuedaNegativo() {
+        Long clienteId = nuevoCliente();
+        cuentaPorCobrarService.cargarVenta(clienteId, VENTA);
+        cuentaPorCobrarService.registrarPago(clienteId, pago(VENTA));
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> cuentaPorCobrarService.anularVenta(clienteId, VENTA));
+        assertEquals("No se puede anular la venta al crédito de 100.00: el cliente ya pagó parte de ella "
+            + "(saldo pendiente 0.00)", error.getMessage());
+        assertEquals(0, BigDecimal.ZERO.compareTo(saldo(clienteId)));
+    }
+
+    @Test
+    void anularUnaVentaPagadaEnParteSeRechaza() {
+        Long clienteId = nuevoCliente();
+        cuentaPorCobrarService.cargarVenta(clienteId, VENTA);
+        cuentaPorCobrarService.registrarPago(clienteId, pago(new BigDecimal("40.00")));
+
+        assertThrows(RuntimeException.class, () -> cuentaPorCobrarService.anularVenta(clienteId, VENTA));
+        assertEquals(0, new BigDecimal("60.00").compareTo(saldo(clienteId)));
+    }
+
+    @Test
+    void anularUnaVentaPendienteDescuentaElTotal() {
+        Long clienteId = nuevoCliente();
+        cuentaPorCobrarService.cargarVenta(clienteId, VENTA);
+        cuentaPorCobrarService.cargarVenta(clienteId, new BigDecimal("30.00"));
+
+        cuentaPorCobrarService.anularVenta(clienteId, VENTA);
+        assertEquals(0, new BigDecimal("30.00").compareTo(saldo(clienteId)));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private Long nuevoCliente() {
+        return clienteRepository.save(Cliente.builder()
+            .tipoDocumento(TipoDocumento.DNI)
+            .numeroDocumento(String.format("%08d", new Random().nextInt(100_000_000)))
+            .nombres("Prueba")
+            .apellidos("Crédito")
+            .limiteCredito(new BigDecimal("500.00"))
+            .build()).getId();
+    }
+
+    private BigDecimal saldo(Long clienteId) {
+        return cuentaPorCobrarService.obtenerCredito(clienteId).getSaldo();
+    }
+
+    private static PagoClienteRequestDTO pago(BigDecimal monto) {
+        return PagoClienteRequestDTO.builder()
+            .monto(monto)
+            .medioPago(MedioPago.EFECTIVO)
+            .build();
+    }
+}
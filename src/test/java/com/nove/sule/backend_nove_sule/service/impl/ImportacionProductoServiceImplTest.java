@@ -0,0 +1,95 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.dto.catalogo.ImportacionProductosDTO;
+import com.nove.sule.backend_nove_sule.entity.Categoria;
+import com.nove.sule.backend_nove_sule.entity.enums.EstadoImportacion;
+import com.nove.sule.backend_nove_sule.repository.CategoriaRepository;
+import com.nove.sule.backend_nove_sule.service.ImportacionProductoService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la importación masiva deja en el historial de precios los cambios de precio que aplica.
+ * Requiere una base PostgreSQL vacía en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD):
+ * la aplicación recrea su esquema al iniciar.
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+    "spring.datasource.url=${TEST_DATABASE_URL}",
+    "spring.datasource.username=${TEST_DATABASE_USERNAME:postgres}",
+    "spring.datasource.password=${TEST_DATABASE_PASSWORD:}",
+    "spring.jpa.show-sql=false"
+})
+class ImportacionProductoServiceImplTest {
+
+    private static final String SQL_HISTORIAL =
+        "SELECT h.precio_anterior, h.precio_nuevo, h.motivo FROM historial_precios h " +
+        "JOIN productos p ON p.id = h.producto_id WHERE p.codigo = ? ORDER BY h.id";
+
+    @Autowired
+    private ImportacionProductoService importacionProductoService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void unCambioDePrecioImportadoQuedaEnElHistorial() throws Exception {
+        String sufijo = String.valueOf(System.nanoTime());
+        String categoria = categoriaRepository.save(Categoria.builder().nombre("Importación " + sufijo).build())
+            .getNombre();
+        String nuevo = "IMP" + sufijo;
+        String igual = "IGU" + sufijo;
+
+        importar("alta.csv", nuevo + ",Producto nuevo,10.00," + categoria, igual + ",Producto igual,5.00," + categoria);
+        // Un producto recién creado no tiene precio anterior
+        assertTrue(historial(nuevo).isEmpty());
+
+        importar("precios.csv", nuevo + ",Producto nuevo,12.50," + categoria, igual + ",Producto igual,5.00," + categoria);
+
+        List<Map<String, Object>> cambios = historial(nuevo);
+        assertEquals(1, cambios.size());
+        assertEquals(0, new BigDecimal("10.00").compareTo((BigDecimal) cambios.get(0).get("precio_anterior")));
+        assertEquals(0, new BigDecimal("12.50").compareTo((BigDecimal) cambios.get(0).get("precio_nuevo")));
+        assertEquals("Importación de productos: precios.csv", cambios.get(0).get("motivo"));
+        // Sin cambio de precio no hay fila
+        assertTrue(historial(igual).isEmpty());
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private void importar(String nombre, String... filas) throws InterruptedException {
+        String csv = "codigo,nombre,precio,categoria\n" + String.join("\n", filas) + "\n";
+        ImportacionProductosDTO trabajo = importacionProductoService.iniciar(
+            new MockMultipartFile("archivo", nombre, "text/csv", csv.getBytes(StandardCharsets.UTF_8)));
+
+        for (int intento = 0; intento < 300; intento++) {
+            ImportacionProductosDTO estado = importacionProductoService.consultar(trabajo.getId()).orElseThrow();
+            if (estado.getEstado() != EstadoImportacion.EN_PROCESO) {
+                assertEquals(EstadoImportacion.COMPLETADO, estado.getEstado(), estado.getMensaje());
+                assertEquals(filas.length, estado.getFilasImportadas());
+                return;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("La importación no terminó");
+    }
+
+    private List<Map<String, Object>> historial(String codigo) {
+        return jdbcTemplate.queryForList(SQL_HISTORIAL, codigo);
+    }
+}
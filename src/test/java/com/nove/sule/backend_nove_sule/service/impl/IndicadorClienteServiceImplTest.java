@@ -0,0 +1,82 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import com.nove.sule.backend_nove_sule.entity.enums.SegmentoCliente;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Quintiles de recencia, frecuencia y monto de la segmentación de clientes
+ */
+class IndicadorClienteServiceImplTest {
+
+    private static final LocalDate HOY = LocalDate.of(2024, 6, 15);
+
+    @Test
+    void diezClientesDistintosQuedanDeADosPorQuintil() {
+        IndicadorClienteServiceImpl.Puntajes puntajes = new IndicadorClienteServiceImpl.Puntajes(HOY);
+        for (int i = 0; i < 10; i++) {
+            // El cliente i compró i + 1 veces por i soles, hace 10 - i días
+            puntajes.agregar(i, i + 1, i * 100L, 10 - i);
+        }
+        puntajes.ordenar();
+
+        int[] esperados = {1, 1, 2, 2, 3, 3, 4, 4, 5, 5};
+        assertArrayEquals(esperados, IntStream.range(0, 10).map(puntajes::frecuencia).toArray());
+        assertArrayEquals(esperados, IntStream.range(0, 10).map(puntajes::monto).toArray());
+        assertArrayEquals(esperados, IntStream.range(0, 10).map(puntajes::recencia).toArray());
+    }
+
+    @Test
+    void losEmpatesRecibenElMismoPuntaje() {
+        IndicadorClienteServiceImpl.Puntajes puntajes = new IndicadorClienteServiceImpl.Puntajes(HOY);
+        long[] comprobantes = {1, 1, 1, 1, 2, 3, 3, 4, 9, 9};
+        for (int i = 0; i < comprobantes.length; i++) {
+            puntajes.agregar(i, comprobantes[i], 1_000L, 5);
+        }
+        puntajes.ordenar();
+
+        // Los cuatro clientes con una compra comparten el rango medio de las posiciones 0 a 3, que cae en el quintil 2
+        assertArrayEquals(new int[] {2, 2, 2, 2, 3, 4, 4, 4, 5, 5},
+            IntStream.range(0, comprobantes.length).map(puntajes::frecuencia).toArray());
+        // Todos compraron lo mismo y el mismo día: quedan en el quintil central
+        IntStream.range(0, comprobantes.length).forEach(i -> {
+            assertEquals(3, puntajes.monto(i));
+            assertEquals(3, puntajes.recencia(i));
+        });
+    }
+
+    @Test
+    void laRecenciaCuentaComoPeoresSoloALosQueCompraronHaceMasDias() {
+        IndicadorClienteServiceImpl.Puntajes puntajes = new IndicadorClienteServiceImpl.Puntajes(HOY);
+        long[] dias = {0, 0, 5, 10, Integer.MAX_VALUE};
+        for (int i = 0; i < dias.length; i++) {
+            puntajes.agregar(i, 1, 100L, dias[i]);
+        }
+        puntajes.ordenar();
+
+        // Los que compraron hoy no se cuentan entre sí como peores: 3 por debajo y 2 empatados
+        assertEquals(5, puntajes.recencia(0));
+        assertEquals(5, puntajes.recencia(1));
+        assertEquals(3, puntajes.recencia(2));
+        assertEquals(2, puntajes.recencia(3));
+        // Un cliente sin fecha de última compra queda último
+        assertEquals(1, puntajes.recencia(4));
+    }
+
+    @Test
+    void unSoloClienteQuedaEnElQuintilCentral() {
+        IndicadorClienteServiceImpl.Puntajes puntajes = new IndicadorClienteServiceImpl.Puntajes(HOY);
+        puntajes.agregar(42L, 3, 15_000L, 0);
+        puntajes.ordenar();
+
+        assertEquals(3, puntajes.recencia(0));
+        assertEquals(3, puntajes.frecuencia(0));
+        assertEquals(3, puntajes.monto(0));
+        assertEquals(SegmentoCliente.NECESITAN_ATENCION, puntajes.segmento(0));
+    }
+}
@@ -0,0 +1,71 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Array;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Percentil 90 de los días de entrega a partir del histograma acumulado
+ */
+class IndicadorProveedorServiceImplTest {
+
+    @Test
+    void sinEntregasNoHayPercentil() throws Exception {
+        assertNull(IndicadorProveedorServiceImpl.percentil90((Array) null));
+        assertNull(IndicadorProveedorServiceImpl.percentil90(new Integer[0]));
+        assertNull(IndicadorProveedorServiceImpl.percentil90(histograma()));
+        assertNull(IndicadorProveedorServiceImpl.percentil90(new Integer[] {null, null, 0}));
+    }
+
+    @Test
+    void conUnSoloDiaElPercentilEsEseDia() {
+        Integer[] histograma = histograma();
+        histograma[3] = 7;
+        assertEquals(3, IndicadorProveedorServiceImpl.percentil90(histograma));
+
+        Integer[] unaEntrega = histograma();
+        unaEntrega[0] = 1;
+        assertEquals(0, IndicadorProveedorServiceImpl.percentil90(unaEntrega));
+    }
+
+    @Test
+    void elPercentilEsElPrimerDiaQueCubreElNoventaPorCiento() {
+        // 9 de 10 entregas en 2 días: justo el 90%
+        Integer[] justo = histograma();
+        justo[2] = 9;
+        justo[10] = 1;
+        assertEquals(2, IndicadorProveedorServiceImpl.percentil90(justo));
+
+        // 9 de 11 no alcanza el 90% (9.9 entregas): hace falta llegar al día 10
+        Integer[] falta = histograma();
+        falta[2] = 9;
+        falta[10] = 2;
+        assertEquals(10, IndicadorProveedorServiceImpl.percentil90(falta));
+
+        Integer[] cien = histograma();
+        cien[1] = 89;
+        cien[4] = 1;
+        cien[5] = 10;
+        assertEquals(4, IndicadorProveedorServiceImpl.percentil90(cien));
+    }
+
+    @Test
+    void lasDemorasMayoresQuedanEnLaUltimaPosicion() {
+        Integer[] histograma = histograma();
+        histograma[1] = 1;
+        histograma[IndicadorProveedorServiceImpl.DIAS_HISTOGRAMA] = 9;
+        assertEquals(IndicadorProveedorServiceImpl.DIAS_HISTOGRAMA, IndicadorProveedorServiceImpl.percentil90(histograma));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    private static Integer[] histograma() {
+        Integer[] histograma = new Integer[IndicadorProveedorServiceImpl.DIAS_HISTOGRAMA + 1];
+        Arrays.fill(histograma, 0);
+        return histograma;
+    }
+}
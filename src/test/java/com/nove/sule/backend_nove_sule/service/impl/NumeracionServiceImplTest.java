@@ -0,0 +1,95 @@
+package com.nove.sule.backend_nove_sule.service.impl;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que la numeración por secuencia no repite números con 64 hilos repartidos en dos instancias.
+ * Requiere una base PostgreSQL en TEST_DATABASE_URL (con TEST_DATABASE_USERNAME y TEST_DATABASE_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "TEST_DATABASE_URL", matches = ".+")
+class NumeracionServiceImplTest {
+
+    private static final String SERIE = "PRUEBA-";
+    private static final int HILOS = 64;
+    private static final int NUMEROS_POR_HILO = 200;
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void preparar() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getenv("TEST_DATABASE_URL"),
+            System.getenv("TEST_DATABASE_USERNAME"), System.getenv("TEST_DATABASE_PASSWORD"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS seq_numeracion_prueba_");
+    }
+
+    @AfterAll
+    static void limpiar() {
+        jdbcTemplate.execute("DROP SEQUENCE IF EXISTS seq_numeracion_prueba_");
+    }
+
+    @Test
+    void numerosUnicosConCreadoresConcurrentes() throws Exception {
+        NumeracionServiceImpl[] instancias = {
+            new NumeracionServiceImpl(jdbcTemplate), new NumeracionServiceImpl(jdbcTemplate)
+        };
+        instancias[0].registrarSerie(SERIE, 41);
+        instancias[1].registrarSerie(SERIE, 41);
+
+        Set<Long> asignados = ConcurrentHashMap.newKeySet();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < HILOS; i++) {
+                NumeracionServiceImpl instancia = instancias[i % instancias.length];
+                tareas.add(executor.submit(() -> {
+                    largada.await();
+                    for (int n = 0; n < NUMEROS_POR_HILO; n++) {
+                        long numero = instancia.siguiente(SERIE);
+                        assertTrue(numero > 41, "Se entregó un número ya usado: " + numero);
+                        assertTrue(asignados.add(numero), "Número duplicado: " + numero);
+                    }
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(HILOS * NUMEROS_POR_HILO, asignados.size());
+    }
+
+    @Test
+    void registrarNoRetrocedeLaSecuencia() {
+        NumeracionServiceImpl numeracion = new NumeracionServiceImpl(jdbcTemplate);
+        numeracion.registrarSerie(SERIE, 0);
+        long primero = numeracion.siguiente(SERIE);
+
+        // Un registro posterior con un máximo menor no debe hacer que se repitan números
+        NumeracionServiceImpl otraInstancia = new NumeracionServiceImpl(jdbcTemplate);
+        otraInstancia.registrarSerie(SERIE, 0);
+        assertTrue(otraInstancia.siguiente(SERIE) > primero + NumeracionServiceImpl.TAMANO_BLOQUE - 1);
+    }
+}
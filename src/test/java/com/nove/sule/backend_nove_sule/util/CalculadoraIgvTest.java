@@ -0,0 +1,176 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import com.nove.sule.backend_nove_sule.entity.enums.TipoIGV;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Cálculo de líneas, tasas por vigencia, prorrateo y redondeo del motor de IGV
+ */
+class CalculadoraIgvTest {
+
+    private static final LocalDate ANTES_DE_2011 = LocalDate.of(2010, 6, 15);
+    private static final LocalDate DESPUES_DE_2011 = LocalDate.of(2024, 6, 15);
+
+    @AfterEach
+    void restaurarTasas() {
+        CalculadoraIgv.cargar(List.of(new CalculadoraIgv.Vigencia(TipoIGV.GRAVADO,
+            CalculadoraIgv.VIGENCIA_TASA_ACTUAL, CalculadoraIgv.TASA_GRAVADO_ACTUAL)));
+    }
+
+    @Test
+    void tasaSegunLaFechaDeVigencia() {
+        cargarTasasHistoricas();
+
+        assertEquals(new BigDecimal("0.1900"), CalculadoraIgv.tasa(TipoIGV.GRAVADO, LocalDate.of(2011, 2, 28)));
+        assertEquals(new BigDecimal("0.1800"), CalculadoraIgv.tasa(TipoIGV.GRAVADO, LocalDate.of(2011, 3, 1)));
+        assertEquals(new BigDecimal("0.1800"), CalculadoraIgv.tasa(TipoIGV.GRAVADO, DESPUES_DE_2011));
+        assertEquals(new BigDecimal("0.1900"), CalculadoraIgv.tasa(TipoIGV.GRAVADO, LocalDate.of(2003, 8, 1)));
+        // Sin fecha rige la más reciente
+        assertEquals(new BigDecimal("0.1800"), CalculadoraIgv.tasa(TipoIGV.GRAVADO, null));
+        // Los tipos sin tasas registradas no pagan IGV
+        assertEquals(BigDecimal.ZERO, CalculadoraIgv.tasa(TipoIGV.EXONERADO, DESPUES_DE_2011));
+    }
+
+    @Test
+    void rechazaUnaFechaAnteriorATodasLasVigencias() {
+        cargarTasasHistoricas();
+        LocalDate antesDeToda = LocalDate.of(2003, 7, 31);
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+            () -> CalculadoraIgv.tasa(TipoIGV.GRAVADO, antesDeToda));
+        assertEquals("No hay una tasa de IGV GRAVADO vigente al 2003-07-31; la más antigua rige desde el 2003-08-01",
+            error.getMessage());
+        assertThrows(RuntimeException.class,
+            () -> CalculadoraIgv.calcular(List.of(linea("100.00", TipoIGV.GRAVADO)), null, antesDeToda));
+        // Un documento sin líneas de ese tipo no necesita su tasa
+        assertTotales(CalculadoraIgv.calcular(List.of(linea("100.00", TipoIGV.EXONERADO)), null, antesDeToda),
+            "100.00", "0.00", "100.00", "0.00", "100.00");
+    }
+
+    @Test
+    void calcularAplicaLaTasaDeLaFechaDelDocumento() {
+        cargarTasasHistoricas();
+        List<CalculadoraIgv.Linea> lineas = List.of(linea("100.00", TipoIGV.GRAVADO));
+
+        assertTotales(CalculadoraIgv.calcular(lineas, null, ANTES_DE_2011),
+            "100.00", "0.00", "100.00", "19.00", "119.00");
+        assertTotales(CalculadoraIgv.calcular(lineas, null, DESPUES_DE_2011),
+            "100.00", "0.00", "100.00", "18.00", "118.00");
+    }
+
+    @Test
+    void prorrateaElDescuentoGlobalPorTipoDeAfectacion() {
+        List<CalculadoraIgv.Linea> lineas = List.of(
+            linea("100.00", TipoIGV.GRAVADO),
+            linea("50.00", TipoIGV.EXONERADO));
+
+        // Base gravada 90.00 y exonerada 45.00: sólo la primera paga IGV
+        assertTotales(CalculadoraIgv.calcular(lineas, new BigDecimal("15.00"), DESPUES_DE_2011),
+            "150.00", "15.00", "135.00", "16.20", "151.20");
+    }
+
+    @Test
+    void laBaseMayorAbsorbeElRedondeoDelProrrateo() {
+        List<CalculadoraIgv.Linea> lineas = List.of(
+            linea("33.33", TipoIGV.GRAVADO),
+            linea("33.33", TipoIGV.INAFECTO),
+            linea("33.34", TipoIGV.EXONERADO));
+
+        // 33.33 * 90 / 100 = 29.997 se redondea a 30.00 en gravado e inafecto; exonerado cuadra la suma con 30.00
+        assertTotales(CalculadoraIgv.calcular(lineas, new BigDecimal("10.00"), DESPUES_DE_2011),
+            "100.00", "10.00", "90.00", "5.40", "95.40");
+    }
+
+    @Test
+    void redondeaElIgvAlCentimoHaciaArriba() {
+        // 0.25 * 18% = 0.045 → 0.05
+        assertTotales(CalculadoraIgv.calcular(List.of(linea("0.25", TipoIGV.GRAVADO)), null, DESPUES_DE_2011),
+            "0.25", "0.00", "0.25", "0.05", "0.30");
+        assertEquals(new BigDecimal("11.80"), CalculadoraIgv.precioConIgv(new BigDecimal("10.00"), TipoIGV.GRAVADO));
+        assertEquals(new BigDecimal("10.00"), CalculadoraIgv.precioConIgv(new BigDecimal("10.00"), TipoIGV.INAFECTO));
+    }
+
+    @Test
+    void acotaElDescuentoGlobalYTomaComoGravadasLasLineasSinTipo() {
+        List<CalculadoraIgv.Linea> lineas = List.of(linea("20.00", null));
+
+        assertTotales(CalculadoraIgv.calcular(lineas, new BigDecimal("-5.00"), DESPUES_DE_2011),
+            "20.00", "0.00", "20.00", "3.60", "23.60");
+        assertTotales(CalculadoraIgv.calcular(lineas, new BigDecimal("25.00"), DESPUES_DE_2011),
+            "20.00", "20.00", "0.00", "0.00", "0.00");
+    }
+
+    @Test
+    void subtotalDeLineaDescuentaElDescuento() {
+        Monto subtotal = CalculadoraIgv.subtotalLinea(monto("10.50"), cantidad("3"), monto("1.50"));
+        assertEquals(new BigDecimal("30.00"), subtotal.aBigDecimal());
+        assertEquals(new BigDecimal("31.50"),
+            CalculadoraIgv.subtotalLinea(monto("10.50"), cantidad("3"), null).aBigDecimal());
+        assertEquals(BigDecimal.ZERO.setScale(2),
+            CalculadoraIgv.subtotalLinea(monto("10.50"), cantidad("3"), monto("31.50")).aBigDecimal());
+    }
+
+    @Test
+    void subtotalDeLineaRechazaDatosInvalidos() {
+        assertThrows(RuntimeException.class, () -> CalculadoraIgv.subtotalLinea(null, cantidad("1"), null));
+        assertThrows(RuntimeException.class, () -> CalculadoraIgv.subtotalLinea(monto("1"), null, null));
+        assertThrows(RuntimeException.class, () -> CalculadoraIgv.subtotalLinea(monto("1"), cantidad("0"), null));
+        assertThrows(RuntimeException.class, () -> CalculadoraIgv.subtotalLinea(monto("1"), cantidad("-2"), null));
+        assertThrows(RuntimeException.class, () -> CalculadoraIgv.subtotalLinea(monto("-1"), cantidad("1"), null));
+        assertThrows(RuntimeException.class,
+            () -> CalculadoraIgv.subtotalLinea(monto("1"), cantidad("1"), monto("-0.01")));
+        assertThrows(RuntimeException.class,
+            () -> CalculadoraIgv.subtotalLinea(monto("10"), cantidad("2"), monto("20.01")));
+    }
+
+    // ===== MÉTODOS PRIVADOS =====
+
+    /**
+     * 19% desde agosto de 2003 y 18% desde marzo de 2011, sólo para operaciones gravadas
+     */
+    private static void cargarTasasHistoricas() {
+        CalculadoraIgv.cargar(List.of(
+            new CalculadoraIgv.Vigencia(TipoIGV.GRAVADO, CalculadoraIgv.VIGENCIA_TASA_ACTUAL, new BigDecimal("0.1800")),
+            new CalculadoraIgv.Vigencia(TipoIGV.GRAVADO, LocalDate.of(2003, 8, 1), new BigDecimal("0.1900"))));
+    }
+
+    private static void assertTotales(CalculadoraIgv.Totales totales, String subtotal, String descuento,
+                                      String base, String igv, String total) {
+        assertEquals(new BigDecimal(subtotal), totales.subtotal(), "subtotal");
+        assertEquals(new BigDecimal(descuento), totales.descuento(), "descuento");
+        assertEquals(new BigDecimal(base), totales.base(), "base");
+        assertEquals(new BigDecimal(igv), totales.igv(), "igv");
+        assertEquals(new BigDecimal(total), totales.total(), "total");
+    }
+
+    private static CalculadoraIgv.Linea linea(String subtotal, TipoIGV tipoIgv) {
+        Monto monto = monto(subtotal);
+        return new CalculadoraIgv.Linea() {
+            @Override
+            public Monto getSubtotal() {
+                return monto;
+            }
+
+            @Override
+            public TipoIGV getTipoIgv() {
+                return tipoIgv;
+            }
+        };
+    }
+
+    private static Monto monto(String valor) {
+        return Monto.de(new BigDecimal(valor));
+    }
+
+    private static Cantidad cantidad(String valor) {
+        return Cantidad.de(new BigDecimal(valor));
+    }
+}
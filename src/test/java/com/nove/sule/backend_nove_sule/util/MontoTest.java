@@ -0,0 +1,93 @@
+package com.nove.sule.backend_nove_sule.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Paridad exacta de Monto y Cantidad con la aritmética BigDecimal redondeada a céntimos
+ */
+class MontoTest {
+
+    private static final int CASOS = 200_000;
+
+    private final Random random = new Random(20240601L);
+
+    @Test
+    void precioPorCantidadIgualaBigDecimal() {
+        for (int i = 0; i < CASOS; i++) {
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(10_000_000_000L), 2);
+            BigDecimal cantidad = BigDecimal.valueOf(random.nextLong(100_000_000L), 3);
+
+            BigDecimal esperado = precio.multiply(cantidad).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(esperado, Monto.de(precio).por(Cantidad.de(cantidad)).aBigDecimal(),
+                () -> precio + " x " + cantidad);
+        }
+    }
+
+    @Test
+    void subtotalDeLineaIgualaBigDecimal() {
+        for (int i = 0; i < CASOS; i++) {
+            BigDecimal precio = BigDecimal.valueOf(random.nextLong(1_000_000L), 2);
+            BigDecimal cantidad = BigDecimal.valueOf(random.nextLong(1, 100_000L), 3);
+            BigDecimal descuento = BigDecimal.valueOf(random.nextLong(500_000L), 2);
+
+            BigDecimal esperado = precio.multiply(cantidad).subtract(descuento)
+                .max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal obtenido = Monto.de(precio).por(Cantidad.de(cantidad))
+                .menos(Monto.de(descuento)).max(Monto.CERO).aBigDecimal();
+            assertEquals(esperado, obtenido, () -> precio + " x " + cantidad + " - " + descuento);
+        }
+    }
+
+    @Test
+    void tasaIgualaBigDecimal() {
+        for (int i = 0; i < CASOS; i++) {
+            long centimos = random.nextLong(-1_000_000_000_000L, 1_000_000_000_000L);
+            long tasa = random.nextLong(10_000L);
+
+            BigDecimal esperado = BigDecimal.valueOf(centimos, 2)
+                .multiply(BigDecimal.valueOf(tasa, 4))
+                .setScale(2, RoundingMode.HALF_UP);
+            assertEquals(esperado, new Monto(centimos).porTasa(tasa).aBigDecimal(), () -> centimos + " x " + tasa);
+        }
+    }
+
+    @Test
+    void prorrateoIgualaBigDecimalInclusoSiDesbordaLong() {
+        for (int i = 0; i < CASOS; i++) {
+            long valor = random.nextLong(1_000_000_000_000L);
+            long numerador = random.nextLong(1_000_000_000_000L);
+            long denominador = random.nextLong(1, 1_000_000_000_000L);
+
+            long esperado = BigDecimal.valueOf(valor)
+                .multiply(BigDecimal.valueOf(numerador))
+                .divide(BigDecimal.valueOf(denominador), 0, RoundingMode.HALF_UP)
+                .longValueExact();
+            assertEquals(esperado, Monto.multiplicar(valor, numerador, denominador));
+        }
+    }
+
+    @Test
+    void divisionRedondeaLaMitadAlejandoseDeCero() {
+        assertEquals(3L, Monto.dividir(5L, 2L));
+        assertEquals(-3L, Monto.dividir(-5L, 2L));
+        assertEquals(-3L, Monto.dividir(5L, -2L));
+        assertEquals(2L, Monto.dividir(7L, 3L));
+        assertEquals(-2L, Monto.dividir(-7L, 3L));
+        assertEquals(0L, Monto.dividir(0L, 7L));
+    }
+
+    @Test
+    void conversionRedondeaValoresConMasDeDosDecimales() {
+        assertEquals(1235L, Monto.centimos(new BigDecimal("12.345")));
+        assertEquals(-1235L, Monto.centimos(new BigDecimal("-12.345")));
+        assertEquals(1200L, Monto.centimos(new BigDecimal("12")));
+        assertEquals(0L, Monto.centimos(null));
+        assertEquals(new BigDecimal("12.30"), Monto.de(new BigDecimal("12.3")).aBigDecimal());
+    }
+}